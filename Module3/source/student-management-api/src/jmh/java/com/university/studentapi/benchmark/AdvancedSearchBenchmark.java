@@ -0,0 +1,51 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /v1/students/search for query shapes where the choice of driving index matters:
+ * a broad location combined with a narrow CGPA range or a rare name, a location plus
+ * residual filters, and a filter no index can answer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdvancedSearchBenchmark {
+
+    @Param({"100000"})
+    private int students;
+
+    @Param({"stateAndNarrowCgpa", "countryAndName", "cityCgpaBacklogs", "backlogsOnly"})
+    private String query;
+
+    private StudentService studentService;
+
+    @Setup
+    public void setUp() {
+        StudentRepository repository = new IndexedStudentRepository();
+        StudentDataGenerator.students(students, 42).forEach(repository::save);
+        studentService = new StudentService(repository, new StudentMapper());
+    }
+
+    @Benchmark
+    public List<StudentResponse> search() {
+        return switch (query) {
+            case "stateAndNarrowCgpa" -> studentService.advancedSearch(null, null, "Maharashtra", null, 9.8, null, null);
+            case "countryAndName" -> studentService.advancedSearch("krishnan", null, null, "India", null, null, null);
+            case "cityCgpaBacklogs" -> studentService.advancedSearch(null, "Pune", null, null, 8.0, null, 0);
+            case "backlogsOnly" -> studentService.advancedSearch(null, null, null, null, null, null, 0);
+            default -> throw new IllegalArgumentException(query);
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentBatchGetResponse;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.exception.StudentNotFoundException;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving 10,000 student numbers, one in ten of them unknown: one
+ * {@code POST /v1/students/batch-get} against a {@code GET /v1/students/{studentNumber}}
+ * per key, where every unknown key costs a {@link StudentNotFoundException}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchGetBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int students;
+
+    private StudentService studentService;
+    private List<String> keys;
+
+    @Setup
+    public void setUp() {
+        StudentRepository repository = new IndexedStudentRepository();
+        StudentDataGenerator.populate(repository, students, 42);
+        studentService = new StudentService(repository, new StudentMapper());
+
+        Random random = new Random(7);
+        keys = new ArrayList<>(KEYS);
+        for (int i = 0; i < KEYS; i++) {
+            keys.add(i % 10 == 0
+                    ? StudentDataGenerator.studentNumber(students + i)
+                    : StudentDataGenerator.studentNumber(random.nextInt(students)));
+        }
+    }
+
+    @Benchmark
+    public StudentBatchGetResponse batchGet() {
+        return studentService.getStudentsByNumbers(keys);
+    }
+
+    @Benchmark
+    public List<StudentResponse> getEach() {
+        List<StudentResponse> found = new ArrayList<>(KEYS);
+        for (String key : keys) {
+            try {
+                found.add(studentService.getStudentByNumber(key));
+            } catch (StudentNotFoundException e) {
+                // The client sees a 404 and moves on
+            }
+        }
+        return found;
+    }
+}
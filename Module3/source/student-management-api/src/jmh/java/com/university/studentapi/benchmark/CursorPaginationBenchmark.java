@@ -0,0 +1,70 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.StudentSortField;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.PageCursor;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offset paging versus cursor (keyset) paging for the same deep page of GET /v1/students.
+ * Offset paging sorts the whole filtered set on every request; cursor paging resumes from
+ * the ordered index, so its cost should not depend on page depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CursorPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000"})
+    private int students;
+
+    @Param({"studentNumber", "cgpa"})
+    private String sortBy;
+
+    private StudentService studentService;
+    private int deepPage;
+    private String deepCursor;
+
+    @Setup
+    public void setUp() {
+        StudentRepository repository = new IndexedStudentRepository();
+        List<Student> data = StudentDataGenerator.students(students, 42);
+        data.forEach(repository::save);
+        studentService = new StudentService(repository, new StudentMapper());
+
+        // Position both variants at the same page, 90% of the way through the result set
+        deepPage = (students / PAGE_SIZE) * 9 / 10;
+        StudentSortField field = StudentSortField.fromParameter(sortBy);
+        data.sort(field.comparator());
+        Student lastOfPreviousPage = data.get(deepPage * PAGE_SIZE - 1);
+        deepCursor = PageCursor.after(lastOfPreviousPage, field, false).encode();
+    }
+
+    @Benchmark
+    public StudentPageResponse offsetDeepPage() {
+        return studentService.getAllStudents(deepPage, PAGE_SIZE, null, null, null, sortBy, "asc", null);
+    }
+
+    @Benchmark
+    public StudentPageResponse cursorDeepPage() {
+        return studentService.getAllStudents(0, PAGE_SIZE, null, null, null, sortBy, "asc", deepCursor);
+    }
+
+    @Benchmark
+    public StudentPageResponse offsetFirstPage() {
+        return studentService.getAllStudents(0, PAGE_SIZE, null, null, null, sortBy, "asc", null);
+    }
+}
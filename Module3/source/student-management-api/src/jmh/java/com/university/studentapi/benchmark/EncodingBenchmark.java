@@ -0,0 +1,95 @@
+package com.university.studentapi.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.util.StudentMapper;
+import com.university.studentapi.util.StudentProtobufSchemas;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of students in each response encoding: what the server spends encoding it, what a
+ * client spends decoding it, and its size ({@code payload bytes}, printed once per trial).
+ * {@code json-indented} is the output before {@code indent-output} was turned off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"json-indented", "json", "cbor", "smile", "protobuf"})
+    private String encoding;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private StudentPageResponse page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same settings as spring.jackson in application.yml
+        ObjectMapper mapper = mapper(switch (encoding) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            case "protobuf" -> new ProtobufFactory();
+            default -> new JsonFactory();
+        });
+        writer = mapper.writerFor(StudentPageResponse.class);
+        reader = mapper.readerFor(StudentPageResponse.class);
+        if (encoding.equals("json-indented")) {
+            writer = writer.with(SerializationFeature.INDENT_OUTPUT);
+        } else if (encoding.equals("protobuf")) {
+            StudentProtobufSchemas schemas = new StudentProtobufSchemas(mapper);
+            writer = writer.with(schemas.forType(StudentPageResponse.class));
+            reader = reader.with(schemas.forType(StudentPageResponse.class));
+        }
+
+        StudentMapper studentMapper = new StudentMapper();
+        page = StudentPageResponse.builder()
+                .content(StudentDataGenerator.students(pageSize, 42).stream().map(studentMapper::toResponse).toList())
+                .page(StudentPageResponse.PageInfo.builder()
+                        .number(0)
+                        .size(pageSize)
+                        .totalElements(pageSize)
+                        .totalPages(1)
+                        .build())
+                .build();
+        encoded = encode();
+        System.out.printf("%n%s, %d students: payload bytes %d%n", encoding, pageSize, encoded.length);
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public StudentPageResponse decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
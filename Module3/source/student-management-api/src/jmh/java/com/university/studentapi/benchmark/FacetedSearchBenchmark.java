@@ -0,0 +1,77 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentFacetedSearchResponse;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentFacet;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A page of students in two of 20 cities without backlogs, plus the counts of every facet:
+ * {@code GET /v1/students/faceted-search} against filtering every student and counting each
+ * facet with one more pass over the students matching the other facets' selections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FacetedSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final List<String> CITIES = List.of("Mumbai", "Pune");
+    private static final List<String> BACKLOGS = List.of("0");
+
+    @Param({"1000", "100000", "1000000"})
+    private int students;
+
+    private StudentRepository repository;
+    private StudentService studentService;
+
+    @Setup
+    public void setUp() {
+        repository = new IndexedStudentRepository();
+        StudentDataGenerator.populate(repository, students, 42);
+        studentService = new StudentService(repository, new StudentMapper());
+    }
+
+    @Benchmark
+    public StudentFacetedSearchResponse bitmaps() {
+        return studentService.facetedSearch(null, CITIES, null, null, BACKLOGS, null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void scans(Blackhole blackhole) {
+        List<Student> all = repository.findAll();
+        Predicate<Student> inCities = s -> CITIES.contains(s.getAddress().getCity());
+        Predicate<Student> noBacklogs = s -> BACKLOGS.contains(StudentFacet.backlogBucket(s.getBacklogs()));
+
+        List<Student> page = all.stream().filter(inCities.and(noBacklogs)).limit(PAGE_SIZE).toList();
+        Map<StudentFacet, Map<String, Long>> counts = new EnumMap<>(StudentFacet.class);
+        counts.put(StudentFacet.CITY, count(all, noBacklogs, s -> s.getAddress().getCity()));
+        counts.put(StudentFacet.STATE, count(all, inCities.and(noBacklogs), s -> s.getAddress().getState()));
+        counts.put(StudentFacet.COUNTRY, count(all, inCities.and(noBacklogs), s -> s.getAddress().getCountry()));
+        counts.put(StudentFacet.BACKLOGS, count(all, inCities, s -> StudentFacet.backlogBucket(s.getBacklogs())));
+        counts.put(StudentFacet.CGPA, count(all, inCities.and(noBacklogs), s -> StudentFacet.cgpaBand(s.getCgpa())));
+        blackhole.consume(page);
+        blackhole.consume(counts);
+    }
+
+    private static Map<String, Long> count(List<Student> all, Predicate<Student> filter,
+                                           Function<Student, String> value) {
+        return all.stream().filter(filter).collect(Collectors.groupingBy(value, Collectors.counting()));
+    }
+}
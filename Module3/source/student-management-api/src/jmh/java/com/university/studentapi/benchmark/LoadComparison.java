@@ -0,0 +1,191 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.model.Student;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop HTTP load against a running server: {@code connections} clients each send a
+ * GET for a random student, wait for the response and send the next, for {@code seconds}.
+ * Prints one row (throughput, latency percentiles, errors and the server's live and peak
+ * thread counts from the actuator), so running it once against a server started with the
+ * default pooled model and once with {@code --spring.threads.virtual.enabled=true} gives
+ * a side-by-side comparison.
+ * <p>
+ * Usage: {@code mvn -P benchmark test-compile exec:exec
+ * -Dbenchmark.main=com.university.studentapi.benchmark.LoadComparison
+ * -Djmh.args="http://localhost:8080 10000 60 pooled"}
+ */
+public final class LoadComparison {
+
+    private static final int STUDENTS = 10_000;
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private LoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        int connections = Integer.parseInt(args[1]);
+        int seconds = Integer.parseInt(args[2]);
+        String label = args.length > 3 ? args[3] : "";
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        seed(client, baseUrl);
+
+        // Warm up the server's JIT before measuring
+        run(client, baseUrl, Math.min(connections, 64), 10);
+        Result result = run(client, baseUrl, connections, seconds);
+
+        System.out.printf("%-10s %12s %12s %10s %10s %10s %8s %8s %8s%n", "mode", "connections",
+                "requests/s", "p50 ms", "p99 ms", "max ms", "errors", "threads", "peak");
+        System.out.printf(Locale.ROOT, "%-10s %12d %12.0f %10.1f %10.1f %10.1f %8d %8.0f %8.0f%n", label, connections,
+                result.count() / (double) seconds, result.percentile(0.50), result.percentile(0.99),
+                result.percentile(1.0), result.errors(),
+                metric(client, baseUrl, "jvm.threads.live"), metric(client, baseUrl, "jvm.threads.peak"));
+    }
+
+    /**
+     * Import the students the load reads, skipping those a previous run already imported
+     */
+    private static void seed(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        Random random = new Random(42);
+        String body = IntStream.range(0, STUDENTS)
+                .mapToObj(i -> json(studentNumber(i), StudentDataGenerator.student(i, random)))
+                .collect(Collectors.joining("\n"));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/v1/students/bulk"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    /**
+     * Keep {@code connections} requests in flight until the deadline. Each client chains its
+     * next request onto the completion of the previous one, so no client thread blocks.
+     */
+    private static Result run(HttpClient client, String baseUrl, int connections, int seconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        Recorder recorder = new Recorder(seconds);
+        CountDownLatch finished = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            send(client, baseUrl, deadline, recorder, finished);
+        }
+        finished.await();
+        return recorder.result();
+    }
+
+    private static void send(HttpClient client, String baseUrl, long deadline, Recorder recorder,
+                             CountDownLatch finished) {
+        if (System.nanoTime() - deadline >= 0) {
+            finished.countDown();
+            return;
+        }
+        String studentNumber = studentNumber(ThreadLocalRandom.current().nextInt(STUDENTS));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/students/" + studentNumber))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        long started = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    recorder.record(System.nanoTime() - started, failure == null && response.statusCode() == 200);
+                    send(client, baseUrl, deadline, recorder, finished);
+                });
+    }
+
+    private static double metric(HttpClient client, String baseUrl, String name)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = METRIC_VALUE.matcher(response.body());
+        return response.statusCode() == 200 && matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+    }
+
+    // Within the create request's STU + 3-6 digits pattern
+    private static String studentNumber(int i) {
+        return String.format("STU%06d", i);
+    }
+
+    private static String json(String studentNumber, Student student) {
+        Student.Address address = student.getAddress();
+        return String.format(Locale.ROOT, "{\"studentNumber\":\"%s\",\"name\":\"%s\",\"address\":{\"street\":\"%s\","
+                        + "\"city\":\"%s\",\"state\":\"%s\",\"country\":\"%s\"},\"cgpa\":%.1f,\"backlogs\":%d}",
+                studentNumber, student.getName(), address.getStreet(), address.getCity(), address.getState(),
+                address.getCountry(), student.getCgpa(), student.getBacklogs());
+    }
+
+    /**
+     * Response latencies in microseconds, appended from the client's completion threads
+     */
+    private static final class Recorder {
+        private long[] latencies;
+        private int count;
+        private final AtomicLong errors = new AtomicLong();
+
+        Recorder(int seconds) {
+            latencies = new long[Math.max(1024, seconds * 10_000)];
+        }
+
+        synchronized void recordLatency(long micros) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = micros;
+        }
+
+        void record(long nanos, boolean success) {
+            if (success) {
+                recordLatency(nanos / 1_000);
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized Result result() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Result(sorted, errors.get());
+        }
+    }
+
+    private record Result(long[] latencies, long errors) {
+
+        long count() {
+            return latencies.length;
+        }
+
+        /**
+         * Latency in milliseconds at the given quantile (nearest rank)
+         */
+        double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(quantile * latencies.length);
+            return latencies[Math.max(0, rank - 1)] / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.ParallelScanner;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.persistence.StudentJournal;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential versus fork/join scans of the whole store, to find the dataset size where the
+ * parallel path starts to pay off (the {@code student.repository.parallel-scan.threshold}).
+ * Results depend on the core count; run on the target hardware, e.g. with
+ * {@code -p students=10000,50000,200000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelScanBenchmark {
+
+    @Param({"5000", "20000", "50000", "200000"})
+    private int students;
+
+    @Param({"sequential", "parallel"})
+    private String scan;
+
+    private ParallelScanner scanner;
+    private StudentService studentService;
+
+    @Setup
+    public void setUp() {
+        // Threshold 0, so the parallel variant goes parallel at every size
+        scanner = "parallel".equals(scan) ? new ParallelScanner(0, 0) : ParallelScanner.SEQUENTIAL;
+        StudentRepository repository = new IndexedStudentRepository(new HeapStudentStore(), StudentJournal.NONE, scanner);
+        StudentDataGenerator.students(students, 42).forEach(repository::save);
+        studentService = new StudentService(repository, new StudentMapper());
+    }
+
+    @TearDown
+    public void tearDown() {
+        scanner.close();
+    }
+
+    /**
+     * Full scan, then a sort of every student (creation dates have no ordered scan path)
+     */
+    @Benchmark
+    public StudentPageResponse sortedList() {
+        return studentService.getAllStudents(0, 20, null, null, null, "createdDate", "desc", null);
+    }
+
+    /**
+     * Full scan with a filter no index can answer
+     */
+    @Benchmark
+    public List<StudentResponse> unindexedSearch() {
+        return studentService.advancedSearch(null, null, null, null, null, null, 0);
+    }
+}
@@ -0,0 +1,92 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.persistence.FsyncPolicy;
+import com.university.studentapi.repository.persistence.WriteAheadJournal;
+import com.university.studentapi.repository.store.ColumnarStudentStore;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import com.university.studentapi.repository.store.StudentStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Restart-to-ready time of a journaled repository: replaying a write-ahead log of N saves,
+ * and restoring the snapshot written on a clean shutdown. Both include rebuilding every
+ * secondary index.
+ * <p>
+ * Usage: {@code mvn -P benchmark test-compile exec:exec
+ * -Dbenchmark.main=com.university.studentapi.benchmark.RecoveryReport
+ * -Djmh.args="heap 1000000"}
+ */
+public final class RecoveryReport {
+
+    private RecoveryReport() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String storage = args[0];
+        int records = Integer.parseInt(args[1]);
+        Path directory = Files.createTempDirectory("student-journal");
+        try {
+            // Write the log directly, then abandon it unclosed as after a crash
+            WriteAheadJournal loading = new WriteAheadJournal(new HeapStudentStore(), directory,
+                    FsyncPolicy.INTERVAL, Duration.ofMillis(100), Duration.ZERO);
+            loading.recover((studentNumber, student) -> {
+            });
+            Random random = new Random(42);
+            for (int i = 0; i < records; i++) {
+                loading.logSave(StudentDataGenerator.student(i, random));
+            }
+            Thread.sleep(1000);
+            long logBytes = directorySize(directory);
+
+            long started = System.nanoTime();
+            Journaled replaying = open(storage, directory);
+            double replaySeconds = (System.nanoTime() - started) / 1e9;
+
+            started = System.nanoTime();
+            replaying.journal().close();
+            double snapshotSeconds = (System.nanoTime() - started) / 1e9;
+            long snapshotBytes = directorySize(directory);
+            replaying = null;
+
+            started = System.nanoTime();
+            Journaled restoring = open(storage, directory);
+            double restoreSeconds = (System.nanoTime() - started) / 1e9;
+
+            System.out.printf("%-9s %10s %9s %10s %10s %10s %11s%n",
+                    "store", "students", "log (MB)", "replay (s)", "snap (MB)", "write (s)", "restore (s)");
+            System.out.printf("%-9s %10d %9.1f %10.2f %10.1f %10.2f %11.2f%n",
+                    storage, restoring.repository().count(), logBytes / 1048576.0, replaySeconds,
+                    snapshotBytes / 1048576.0, snapshotSeconds, restoreSeconds);
+            restoring.journal().close();
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    private static Journaled open(String storage, Path directory) {
+        StudentStore store = "columnar".equals(storage) ? new ColumnarStudentStore() : new HeapStudentStore();
+        WriteAheadJournal journal = new WriteAheadJournal(store, directory,
+                FsyncPolicy.INTERVAL, Duration.ofMillis(100), Duration.ZERO);
+        return new Journaled(journal, new IndexedStudentRepository(store, journal));
+    }
+
+    private static long directorySize(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private record Journaled(WriteAheadJournal journal, StudentRepository repository) {
+    }
+}
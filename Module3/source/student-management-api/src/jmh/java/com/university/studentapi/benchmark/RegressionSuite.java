@@ -0,0 +1,54 @@
+package com.university.studentapi.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The hot-path benchmarks tracked between releases: repository CRUD, list pages, search,
+ * statistics, response serialization, the response cache and batch lookups, each at the
+ * given dataset sizes. Runs with the GC profiler, so every score comes with its allocation
+ * rate per operation ({@code gc.alloc.rate.norm}), and writes all results as JSON for
+ * comparison with a previous release's file.
+ * <p>
+ * Usage: {@code mvn -P benchmark test-compile exec:exec
+ * -Dbenchmark.main=com.university.studentapi.benchmark.RegressionSuite
+ * -Djmh.args="1000,100000,1000000 target/jmh-result.json"}
+ * <p>
+ * Ten million students take about 14 GB of heap (1.4 KB each with indexes): add
+ * {@code 10000000} to the sizes and run with {@code -Dbenchmark.jvmArgs="-Xms20g -Xmx20g"}.
+ */
+public final class RegressionSuite {
+
+    private static final String[] BENCHMARKS = {
+            RepositoryCrudBenchmark.class.getSimpleName(),
+            StudentListBenchmark.class.getSimpleName(),
+            AdvancedSearchBenchmark.class.getSimpleName(),
+            StatisticsBenchmark.class.getSimpleName(),
+            SerializationBenchmark.class.getSimpleName(),
+            ResponseCacheBenchmark.class.getSimpleName(),
+            BatchGetBenchmark.class.getSimpleName(),
+            TopKBenchmark.class.getSimpleName(),
+            FacetedSearchBenchmark.class.getSimpleName()};
+
+    private RegressionSuite() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String[] sizes = (args.length > 0 ? args[0] : "1000,100000,1000000").split(",");
+        String output = args.length > 1 ? args[1] : "target/jmh-result.json";
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .param("students", sizes)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(output);
+        for (String benchmark : BENCHMARKS) {
+            options.include("\\." + benchmark + "\\.");
+        }
+        new Runner(options.build()).run();
+    }
+}
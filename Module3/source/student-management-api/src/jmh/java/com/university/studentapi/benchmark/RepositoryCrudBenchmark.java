@@ -0,0 +1,77 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-student repository operations with every secondary index maintained. Reads and
+ * updates pick students at random, so larger datasets also show cache misses; inserts are
+ * deleted again so the dataset size stays fixed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryCrudBenchmark {
+
+    // Power of two, so the operation counter wraps with a mask
+    private static final int PREPARED = 4096;
+
+    @Param({"1000", "100000", "1000000"})
+    private int students;
+
+    private StudentRepository repository;
+    private String[] studentNumbers;
+    private Student[] updates;
+    private Student[] inserts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        repository = new IndexedStudentRepository();
+        StudentDataGenerator.populate(repository, students, 42);
+
+        Random random = new Random(7);
+        studentNumbers = new String[PREPARED];
+        updates = new Student[PREPARED];
+        inserts = new Student[PREPARED];
+        for (int i = 0; i < PREPARED; i++) {
+            int existing = random.nextInt(students);
+            studentNumbers[i] = StudentDataGenerator.studentNumber(existing);
+            // A different generated record under an existing number moves it in every index
+            updates[i] = StudentDataGenerator.student(existing, random);
+            inserts[i] = StudentDataGenerator.student(students + i, random);
+        }
+    }
+
+    @Benchmark
+    public Optional<Student> findByStudentNumber() {
+        return repository.findByStudentNumber(studentNumbers[next++ & (PREPARED - 1)]);
+    }
+
+    @Benchmark
+    public boolean existsByStudentNumber() {
+        return repository.existsByStudentNumber(studentNumbers[next++ & (PREPARED - 1)]);
+    }
+
+    @Benchmark
+    public Student update() {
+        return repository.save(updates[next++ & (PREPARED - 1)]);
+    }
+
+    @Benchmark
+    public Student insertAndDelete() {
+        Student student = inserts[next++ & (PREPARED - 1)];
+        Student saved = repository.save(student);
+        repository.deleteByStudentNumber(student.getStudentNumber());
+        return saved;
+    }
+}
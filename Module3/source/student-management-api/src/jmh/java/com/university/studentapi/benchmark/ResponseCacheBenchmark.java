@@ -0,0 +1,87 @@
+package com.university.studentapi.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.service.StudentResponseCache;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Rendering a page of students to JSON bytes, from stored students to response body:
+ * <ul>
+ *   <li>{@code indented}: mapping every student and writing indented output (the previous
+ *       {@code indent-output: true} setting)</li>
+ *   <li>{@code mapped}: mapping every student and writing compact output</li>
+ *   <li>{@code cached}: taking every student's response and encoding from a warm
+ *       {@link StudentResponseCache} and copying the encodings into compact output</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCacheBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper compact;
+    private ObjectMapper indenting;
+    private Function<Student, StudentResponse> mapper;
+    private StudentResponseCache responseCache;
+    private List<Student> students;
+
+    @Setup
+    public void setUp() {
+        // Same settings as spring.jackson in application.yml
+        compact = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        indenting = compact.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        mapper = new StudentMapper()::toResponse;
+        responseCache = new StudentResponseCache(compact, true, DataSize.ofMegabytes(64));
+        students = StudentDataGenerator.students(pageSize, 42);
+        students.forEach(student -> responseCache.toResponse(student, mapper));
+    }
+
+    @Benchmark
+    public byte[] indented() throws JsonProcessingException {
+        return indenting.writeValueAsBytes(page(mapper));
+    }
+
+    @Benchmark
+    public byte[] mapped() throws JsonProcessingException {
+        return compact.writeValueAsBytes(page(mapper));
+    }
+
+    @Benchmark
+    public byte[] cached() throws JsonProcessingException {
+        return compact.writeValueAsBytes(page(student -> responseCache.toResponse(student, mapper)));
+    }
+
+    private StudentPageResponse page(Function<Student, StudentResponse> toResponse) {
+        return StudentPageResponse.builder()
+                .content(students.stream().map(toResponse).toList())
+                .page(StudentPageResponse.PageInfo.builder()
+                        .number(0)
+                        .size(pageSize)
+                        .totalElements(pageSize)
+                        .totalPages(1)
+                        .build())
+                .build();
+    }
+}
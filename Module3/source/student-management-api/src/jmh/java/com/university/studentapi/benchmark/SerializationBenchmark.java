@@ -0,0 +1,72 @@
+package com.university.studentapi.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response rendering: mapping stored students to DTOs, and writing a page of them as JSON
+ * with the application's Jackson settings (ISO dates, nulls omitted, compact output).
+ * {@link ResponseCacheBenchmark} compares this with serving cached encodings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private StudentMapper mapper;
+    private ObjectMapper objectMapper;
+    private List<Student> students;
+    private StudentPageResponse page;
+
+    @Setup
+    public void setUp() {
+        mapper = new StudentMapper();
+        // Same settings as spring.jackson in application.yml
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        students = StudentDataGenerator.students(pageSize, 42);
+        page = toPage();
+    }
+
+    @Benchmark
+    public StudentResponse toResponse() {
+        return mapper.toResponse(students.get(0));
+    }
+
+    @Benchmark
+    public StudentPageResponse toPage() {
+        return StudentPageResponse.builder()
+                .content(students.stream().map(mapper::toResponse).toList())
+                .page(StudentPageResponse.PageInfo.builder()
+                        .number(0)
+                        .size(pageSize)
+                        .totalElements(pageSize)
+                        .totalPages(1)
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
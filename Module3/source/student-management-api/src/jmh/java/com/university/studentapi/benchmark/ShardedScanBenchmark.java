@@ -0,0 +1,77 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.ShardedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.StudentStatisticsAggregator;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One repository versus students hash-partitioned over shards (the
+ * {@code student.repository.shards} setting), for scans that scatter to every shard and
+ * merge. Like {@link ParallelScanBenchmark} the results depend on the core count; run on
+ * the target hardware, e.g. with {@code -p shards=1,4,8}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardedScanBenchmark {
+
+    @Param({"50000", "200000"})
+    private int students;
+
+    @Param({"1", "4"})
+    private int shards;
+
+    private StudentRepository repository;
+    private StudentService studentService;
+
+    @Setup
+    public void setUp() {
+        repository = shards > 1 ? new ShardedStudentRepository(shards, HeapStudentStore::new) : new IndexedStudentRepository();
+        StudentDataGenerator.students(students, 42).forEach(repository::save);
+        studentService = new StudentService(repository, new StudentMapper());
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (repository instanceof ShardedStudentRepository sharded) {
+            sharded.close();
+        }
+    }
+
+    /**
+     * Full scan and sort per shard, then a k-way merge of the sorted parts
+     */
+    @Benchmark
+    public StudentPageResponse sortedList() {
+        return studentService.getAllStudents(0, 20, null, null, null, "createdDate", "desc", null);
+    }
+
+    /**
+     * Full scan with a filter no index can answer
+     */
+    @Benchmark
+    public List<StudentResponse> unindexedSearch() {
+        return studentService.advancedSearch(null, null, null, null, null, null, 0);
+    }
+
+    /**
+     * Recount of every shard's statistics, merged
+     */
+    @Benchmark
+    public StudentStatisticsAggregator.Snapshot recount() {
+        return repository.recomputeStatistics();
+    }
+}
@@ -0,0 +1,47 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentStatistics;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.StudentStatisticsAggregator;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /v1/students/statistics, served from the running counters, against the full recount
+ * used to reconcile them. The first should stay flat as the dataset grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int students;
+
+    private StudentRepository repository;
+    private StudentService studentService;
+
+    @Setup
+    public void setUp() {
+        repository = new IndexedStudentRepository();
+        StudentDataGenerator.populate(repository, students, 42);
+        studentService = new StudentService(repository, new StudentMapper());
+    }
+
+    @Benchmark
+    public StudentStatistics getStatistics() {
+        return studentService.getStatistics();
+    }
+
+    @Benchmark
+    public StudentStatisticsAggregator.Snapshot recomputeStatistics() {
+        return repository.recomputeStatistics();
+    }
+}
@@ -0,0 +1,97 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.index.LocationDictionary;
+import com.university.studentapi.repository.store.ColumnarStudentStore;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import com.university.studentapi.repository.store.StudentStore;
+
+import java.lang.ref.Reference;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Retained heap per record of each {@link StudentStore}, measured as the growth in used heap
+ * after loading N students and forcing GC. Location strings are copied per student, as they
+ * would be when deserialized from requests; {@code interned} is the heap store holding the
+ * shared location strings of a {@link LocationDictionary}, as the repository saves them.
+ * <p>
+ * Usage: {@code mvn -P benchmark test-compile exec:exec
+ * -Dbenchmark.main=com.university.studentapi.benchmark.StoreFootprintReport
+ * -Djmh.args="heap:1000000 interned:1000000 columnar:1000000 columnar:10000000"}
+ */
+public final class StoreFootprintReport {
+
+    private StoreFootprintReport() {
+    }
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %12s %14s %12s%n", "store", "records", "retained (MB)", "bytes/record");
+        for (String arg : args) {
+            String[] parts = arg.split(":");
+            int records = Integer.parseInt(parts[1]);
+            Supplier<StudentStore> factory = switch (parts[0]) {
+                case "heap", "interned" -> HeapStudentStore::new;
+                case "columnar" -> ColumnarStudentStore::new;
+                default -> throw new IllegalArgumentException("Unknown store: " + parts[0]);
+            };
+            measure(parts[0], factory, records, parts[0].equals("interned"));
+        }
+    }
+
+    private static void measure(String label, Supplier<StudentStore> factory, int records, boolean intern) {
+        long before = usedHeap();
+        StudentStore store = factory.get();
+        LocationDictionary locations = new LocationDictionary();
+        Random random = new Random(42);
+        for (int i = 0; i < records; i++) {
+            Student owned = withOwnStrings(StudentDataGenerator.student(i, random));
+            Student student = intern ? interned(owned, locations) : owned;
+            store.compute(student.getStudentNumber(), (key, existing) -> student);
+        }
+        long retained = usedHeap() - before;
+        System.out.printf("%-10s %12d %14.1f %12.1f%n",
+                label, records, retained / (1024.0 * 1024.0), (double) retained / records);
+        Reference.reachabilityFence(store);
+        Reference.reachabilityFence(locations);
+    }
+
+    private static Student withOwnStrings(Student student) {
+        Student.Address address = student.getAddress();
+        return student.toBuilder()
+                .name(new String(student.getName()))
+                .address(Student.Address.builder()
+                        .street(new String(address.getStreet()))
+                        .city(new String(address.getCity()))
+                        .state(new String(address.getState()))
+                        .country(new String(address.getCountry()))
+                        .build())
+                .build();
+    }
+
+    private static Student interned(Student student, LocationDictionary locations) {
+        Student.Address address = student.getAddress();
+        // Held for the life of the report, as a repository holds them for stored students
+        locations.retain(address.getCity(), address.getState(), address.getCountry());
+        return student.toBuilder()
+                .address(address.toBuilder()
+                        .city(locations.intern(address.getCity()))
+                        .state(locations.intern(address.getState()))
+                        .country(locations.intern(address.getCountry()))
+                        .build())
+                .build();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,81 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.StudentRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic students for benchmarks
+ */
+public final class StudentDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Rajesh", "Priya", "Amit", "Sneha", "Vikram", "Anjali", "Karthik", "Divya", "Rohan", "Meera",
+            "Arjun", "Kavya", "Nikhil", "Pooja", "Suresh", "Lakshmi", "Manoj", "Deepa", "Ravi", "Swati"};
+    private static final String[] LAST_NAMES = {
+            "Kumar", "Sharma", "Patel", "Reddy", "Singh", "Desai", "Menon", "Iyer", "Gupta", "Krishnan",
+            "Rao", "Nair", "Joshi", "Mehta", "Verma", "Pillai", "Shetty", "Bose", "Das", "Chopra"};
+    private static final String[][] LOCATIONS = {
+            {"Bangalore", "Karnataka"}, {"Mysore", "Karnataka"}, {"Mumbai", "Maharashtra"},
+            {"Pune", "Maharashtra"}, {"Nagpur", "Maharashtra"}, {"Hyderabad", "Telangana"},
+            {"Delhi", "Delhi"}, {"Chennai", "Tamil Nadu"}, {"Coimbatore", "Tamil Nadu"},
+            {"Kochi", "Kerala"}, {"Kolkata", "West Bengal"}, {"Ahmedabad", "Gujarat"},
+            {"Jaipur", "Rajasthan"}, {"Lucknow", "Uttar Pradesh"}, {"Bhopal", "Madhya Pradesh"},
+            {"Chandigarh", "Punjab"}, {"Bhubaneswar", "Odisha"}, {"Patna", "Bihar"},
+            {"Guwahati", "Assam"}, {"Goa", "Goa"}};
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private StudentDataGenerator() {
+    }
+
+    /**
+     * Student number for the i-th generated student
+     */
+    public static String studentNumber(int i) {
+        return String.format("STU%07d", i);
+    }
+
+    public static Student student(int i, Random random) {
+        String[] location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+        LocalDateTime created = EPOCH.plusMinutes(random.nextInt(500_000));
+        return Student.builder()
+                .studentNumber(studentNumber(i))
+                .name(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                        + LAST_NAMES[random.nextInt(LAST_NAMES.length)])
+                .address(Student.Address.builder()
+                        .street((1 + random.nextInt(200)) + " Main Road")
+                        .city(location[0])
+                        .state(location[1])
+                        .country("India")
+                        .build())
+                .cgpa(random.nextInt(101) / 10.0)
+                .backlogs(random.nextInt(10) < 6 ? 0 : random.nextInt(5))
+                .createdDate(created)
+                .lastModifiedDate(created)
+                .build();
+    }
+
+    /**
+     * Save {@code count} generated students without holding them all in a list first,
+     * so the largest datasets only need memory for the repository itself
+     */
+    public static void populate(StudentRepository repository, int count, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++) {
+            repository.save(student(i, random));
+        }
+    }
+
+    public static List<Student> students(int count, long seed) {
+        Random random = new Random(seed);
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(student(i, random));
+        }
+        return students;
+    }
+}
@@ -0,0 +1,50 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /v1/students with the filter, sort and page combinations clients use most: the
+ * default first page, a filtered page sorted by CGPA, and a name search further in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int students;
+
+    private StudentService studentService;
+
+    @Setup
+    public void setUp() {
+        StudentRepository repository = new IndexedStudentRepository();
+        StudentDataGenerator.populate(repository, students, 42);
+        studentService = new StudentService(repository, new StudentMapper());
+    }
+
+    @Benchmark
+    public StudentPageResponse firstPage() {
+        return studentService.getAllStudents(0, 20, null, null, null, "studentNumber", "asc", null);
+    }
+
+    @Benchmark
+    public StudentPageResponse cityByCgpaDescending() {
+        return studentService.getAllStudents(0, 20, null, 8.0, "Pune", "cgpa", "desc", null);
+    }
+
+    @Benchmark
+    public StudentPageResponse nameByNameTenthPage() {
+        return studentService.getAllStudents(9, 20, "sharma", null, null, "name", "asc", null);
+    }
+}
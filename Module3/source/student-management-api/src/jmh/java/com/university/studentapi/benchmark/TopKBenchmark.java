@@ -0,0 +1,71 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The top 50 students by CGPA, overall and within one of 20 cities:
+ * {@code GET /v1/students/top} against the first page of a descending
+ * {@code GET /v1/students?sortBy=cgpa&sortOrder=desc} and against sorting every matching
+ * student and keeping the first 50.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopKBenchmark {
+
+    private static final int K = 50;
+
+    @Param({"1000", "100000", "1000000"})
+    private int students;
+
+    @Param({"all", "Mumbai"})
+    private String city;
+
+    private StudentRepository repository;
+    private StudentService studentService;
+    private StudentMapper mapper;
+    private String cityFilter;
+
+    @Setup
+    public void setUp() {
+        repository = new IndexedStudentRepository();
+        StudentDataGenerator.populate(repository, students, 42);
+        mapper = new StudentMapper();
+        studentService = new StudentService(repository, mapper);
+        cityFilter = city.equals("all") ? null : city;
+    }
+
+    @Benchmark
+    public List<StudentResponse> top() {
+        return studentService.getTopStudents("cgpa", K, cityFilter);
+    }
+
+    @Benchmark
+    public StudentPageResponse listPage() {
+        return studentService.getAllStudents(0, K, null, null, cityFilter, "cgpa", "desc", null);
+    }
+
+    @Benchmark
+    public List<StudentResponse> sortThenSubList() {
+        List<Student> matching = new ArrayList<>(cityFilter != null
+                ? repository.findByCity(cityFilter)
+                : repository.findAll());
+        matching.sort(Comparator.comparing(Student::getCgpa).reversed());
+        return matching.subList(0, Math.min(K, matching.size())).stream().map(mapper::toResponse).toList();
+    }
+}
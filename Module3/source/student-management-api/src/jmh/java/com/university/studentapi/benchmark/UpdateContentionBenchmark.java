@@ -0,0 +1,51 @@
+package com.university.studentapi.benchmark;
+
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.dto.StudentUpdateRequest;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many writers PATCHing a small set of hot students. Updates are optimistic (copy the
+ * snapshot, save only if its version is unchanged, otherwise retry), so throughput with a
+ * single hot key shows the cost of retries compared with writers spread over many keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class UpdateContentionBenchmark {
+
+    private static final int STUDENTS = 10_000;
+
+    @Param({"1", "16", "10000"})
+    private int hotKeys;
+
+    private StudentService studentService;
+
+    @Setup
+    public void setUp() {
+        StudentRepository repository = new IndexedStudentRepository();
+        StudentDataGenerator.students(STUDENTS, 42).forEach(repository::save);
+        studentService = new StudentService(repository, new StudentMapper());
+    }
+
+    @Benchmark
+    public StudentResponse patchHotStudent() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StudentUpdateRequest request = StudentUpdateRequest.builder()
+                .cgpa(random.nextInt(101) / 10.0)
+                .build();
+        return studentService.partialUpdateStudent(
+                StudentDataGenerator.studentNumber(random.nextInt(hotKeys)), request);
+    }
+}
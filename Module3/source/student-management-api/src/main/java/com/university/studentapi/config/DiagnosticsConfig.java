@@ -0,0 +1,29 @@
+package com.university.studentapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.studentapi.diagnostics.FlightRecordingEndpoint;
+import com.university.studentapi.diagnostics.RecordingJsonConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * JDK Flight Recorder support: the on-demand recording endpoint (only when
+ * {@code student.diagnostics.flight-recording.enabled}), and a JSON converter that emits
+ * serialization events (it replaces Spring Boot's default one)
+ */
+@Configuration
+public class DiagnosticsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "student.diagnostics.flight-recording.enabled", havingValue = "true")
+    public FlightRecordingEndpoint flightRecordingEndpoint() {
+        return new FlightRecordingEndpoint();
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new RecordingJsonConverter(objectMapper);
+    }
+}
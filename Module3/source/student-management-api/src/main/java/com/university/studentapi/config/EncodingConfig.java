@@ -0,0 +1,59 @@
+package com.university.studentapi.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.university.studentapi.util.StudentProtobufConverter;
+import com.university.studentapi.util.StudentProtobufSchemas;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary encodings of request and response bodies, chosen by the {@code Accept} and
+ * {@code Content-Type} headers: CBOR ({@code application/cbor}), Smile
+ * ({@code application/x-jackson-smile}) and, for responses only, protobuf
+ * ({@code application/x-protobuf}). All of them use the {@code spring.jackson} settings;
+ * JSON stays the default, as it comes first among the converters.
+ */
+@Configuration
+public class EncodingConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<StudentProtobufSchemas> protobufSchemas;
+
+    public EncodingConfig(ObjectProvider<StudentProtobufSchemas> protobufSchemas) {
+        this.protobufSchemas = protobufSchemas;
+    }
+
+    // Replace the converters Spring registers for CBOR and Smile, in the same position
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public StudentProtobufSchemas studentProtobufSchemas(Jackson2ObjectMapperBuilder builder) {
+        return new StudentProtobufSchemas(builder.factory(new ProtobufFactory()).build());
+    }
+
+    /**
+     * Protobuf goes last: converter beans would be put before JSON, making protobuf the
+     * answer to {@code Accept: *}{@code /*}
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new StudentProtobufConverter(protobufSchemas.getObject()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.university.studentapi.config;
+
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.service.StudentResponseCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Repository gauges and response cache meters, alongside the per-operation meters of
+ * {@link com.university.studentapi.service.StudentMetrics}.
+ * Scrape everything from {@code /actuator/prometheus} with
+ * {@code management.prometheus.metrics.export.enabled}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder studentRepositoryMetrics(StudentRepository repository) {
+        return registry -> Gauge.builder("student.repository.size", repository, StudentRepository::count)
+                .description("Students stored")
+                .baseUnit("students")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder studentResponseCacheMetrics(StudentResponseCache responseCache) {
+        return responseCache::bindTo;
+    }
+}
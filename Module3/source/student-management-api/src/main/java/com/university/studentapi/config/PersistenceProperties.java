@@ -0,0 +1,22 @@
+package com.university.studentapi.config;
+
+import com.university.studentapi.repository.persistence.FsyncPolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the optional write-ahead log and snapshots ({@code student.repository.persistence})
+ */
+@Data
+@ConfigurationProperties(prefix = "student.repository.persistence")
+public class PersistenceProperties {
+
+    private boolean enabled = false;
+    private Path directory = Path.of("data");
+    private FsyncPolicy fsync = FsyncPolicy.ALWAYS;
+    private Duration fsyncInterval = Duration.ofMillis(100);
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+}
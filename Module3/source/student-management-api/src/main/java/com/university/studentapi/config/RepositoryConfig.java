@@ -0,0 +1,97 @@
+package com.university.studentapi.config;
+
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.ParallelScanner;
+import com.university.studentapi.repository.ShardedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.index.LocationDictionary;
+import com.university.studentapi.repository.persistence.StudentJournal;
+import com.university.studentapi.repository.persistence.WriteAheadJournal;
+import com.university.studentapi.repository.store.ColumnarStudentStore;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import com.university.studentapi.repository.store.StudentStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the primary student store.
+ * Set {@code student.repository.storage} to {@code heap} (default) or {@code columnar}.
+ * With {@code student.repository.persistence.enabled}, changes are also journaled to disk.
+ * Large scans run on a dedicated pool sized by {@code student.repository.parallel-scan}.
+ * With {@code student.repository.shards} above 1, students are partitioned over that many
+ * shards instead, each with its own store of the configured kind, and the single store and
+ * journal beans are not created. At most
+ * {@code student.repository.max-locations} distinct locations are held at once.
+ */
+@Configuration
+@EnableConfigurationProperties(PersistenceProperties.class)
+@Slf4j
+public class RepositoryConfig {
+
+    private static final String SINGLE = "${student.repository.shards:1} <= 1";
+    private static final String SHARDED = "${student.repository.shards:1} > 1";
+
+    @Bean
+    @ConditionalOnExpression(SINGLE)
+    public StudentStore studentStore(@Value("${student.repository.storage:heap}") String storage) {
+        log.info("Using {} student store", storage);
+        return store(storage);
+    }
+
+    @Bean
+    @ConditionalOnExpression(SINGLE)
+    public StudentRepository studentRepository(StudentStore store, StudentJournal journal, ParallelScanner scanner,
+                                               @Value("${student.repository.max-locations:100000}") int maxLocations) {
+        return new IndexedStudentRepository(store, journal, scanner, new LocationDictionary(maxLocations));
+    }
+
+    @Bean
+    @ConditionalOnExpression(SHARDED)
+    public StudentRepository shardedStudentRepository(PersistenceProperties persistence,
+                                                      @Value("${student.repository.storage:heap}") String storage,
+                                                      @Value("${student.repository.shards}") int shards,
+                                                      @Value("${student.repository.max-locations:100000}") int maxLocations) {
+        if (persistence.isEnabled()) {
+            throw new IllegalStateException("student.repository.persistence is not supported with "
+                    + shards + " student.repository.shards");
+        }
+        log.info("Partitioning students over {} shards", shards);
+        return new ShardedStudentRepository(shards, () -> store(storage), new LocationDictionary(maxLocations));
+    }
+
+    @Bean
+    @ConditionalOnExpression(SINGLE)
+    public StudentJournal studentJournal(StudentStore store, PersistenceProperties persistence) {
+        if (!persistence.isEnabled()) {
+            return StudentJournal.NONE;
+        }
+        log.info("Journaling students to {} (fsync: {})", persistence.getDirectory().toAbsolutePath(), persistence.getFsync());
+        return new WriteAheadJournal(store, persistence.getDirectory(), persistence.getFsync(),
+                persistence.getFsyncInterval(), persistence.getSnapshotInterval());
+    }
+
+    @Bean
+    public ParallelScanner parallelScanner(
+            @Value("${student.repository.parallel-scan.enabled:true}") boolean enabled,
+            @Value("${student.repository.parallel-scan.parallelism:0}") int parallelism,
+            @Value("${student.repository.parallel-scan.threshold:50000}") long threshold) {
+        if (!enabled) {
+            return ParallelScanner.SEQUENTIAL;
+        }
+        ParallelScanner scanner = new ParallelScanner(parallelism, threshold);
+        log.info("Scanning {}+ students on {} threads", threshold, scanner.getParallelism());
+        return scanner;
+    }
+
+    private static StudentStore store(String storage) {
+        return switch (storage.toLowerCase()) {
+            case "heap" -> new HeapStudentStore();
+            case "columnar" -> new ColumnarStudentStore();
+            default -> throw new IllegalArgumentException("Unknown student.repository.storage: " + storage);
+        };
+    }
+}
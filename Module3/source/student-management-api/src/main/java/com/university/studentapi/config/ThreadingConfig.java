@@ -0,0 +1,38 @@
+package com.university.studentapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reports the request execution mode.
+ * With {@code spring.threads.virtual.enabled} on Java 21+, Spring Boot runs every servlet
+ * request and every async task (streamed exports, MVC async) on its own virtual thread;
+ * otherwise requests share Tomcat's bounded worker pool. Scans and journal maintenance stay
+ * on their own platform threads either way, since they are CPU-bound or long-lived.
+ */
+@Configuration
+@Slf4j
+public class ThreadingConfig {
+
+    static final int VIRTUAL_THREADS_FEATURE = 21;
+
+    @Bean
+    public ApplicationRunner logThreadingMode(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${server.tomcat.threads.max:200}") int maxThreads) {
+        return args -> {
+            int feature = Runtime.version().feature();
+            if (virtualThreads && feature >= VIRTUAL_THREADS_FEATURE) {
+                log.info("Handling requests on virtual threads");
+            } else if (virtualThreads) {
+                log.warn("spring.threads.virtual.enabled needs Java {}+ (running {}); handling requests on up to {} pooled threads",
+                        VIRTUAL_THREADS_FEATURE, feature, maxThreads);
+            } else {
+                log.info("Handling requests on up to {} pooled threads", maxThreads);
+            }
+        };
+    }
+}
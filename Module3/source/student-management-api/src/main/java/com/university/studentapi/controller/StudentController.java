@@ -1,7 +1,14 @@
 package com.university.studentapi.controller;
 
 import com.university.studentapi.dto.*;
+import com.university.studentapi.service.Explained;
+import com.university.studentapi.service.StudentChangeFeed;
+import com.university.studentapi.service.StudentDataFormat;
+import com.university.studentapi.service.StudentExportService;
+import com.university.studentapi.service.StudentImportService;
 import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.ETags;
+import com.university.studentapi.util.StudentProtobufSchemas;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,17 +20,30 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
 import java.util.List;
 
 /**
- * REST Controller for Student Management API
+ * REST Controller for Student Management API.
+ * Bodies are JSON unless the request asks for CBOR, Smile or protobuf (responses only; see
+ * {@code GET /v1/students/schema.proto}) through its Accept or Content-Type header.
  */
 @RestController
 @RequestMapping("/v1/students")
@@ -32,10 +52,27 @@ import java.util.List;
 @Tag(name = "Students", description = "Student management operations")
 public class StudentController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    private static final String QUERY_PLAN_HEADER = "X-Query-Plan";
+    private static final String ROWS_EXAMINED_HEADER = "X-Rows-Examined";
+
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final StudentExportService studentExportService;
+    private final StudentProtobufSchemas protobufSchemas;
+    private final StudentChangeFeed changeFeed;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService,
+                             StudentImportService studentImportService,
+                             StudentExportService studentExportService,
+                             StudentProtobufSchemas protobufSchemas,
+                             StudentChangeFeed changeFeed) {
         this.studentService = studentService;
+        this.studentImportService = studentImportService;
+        this.studentExportService = studentExportService;
+        this.protobufSchemas = protobufSchemas;
+        this.changeFeed = changeFeed;
     }
 
     /**
@@ -45,6 +82,7 @@ public class StudentController {
     @Operation(summary = "Get all students", description = "Retrieve a paginated list of all students with optional filtering")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful response with paginated student list"),
+            @ApiResponse(responseCode = "304", description = "Nothing written since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Bad request - Invalid parameters")
     })
     public ResponseEntity<StudentPageResponse> getAllStudents(
@@ -67,12 +105,32 @@ public class StudentController {
             @RequestParam(defaultValue = "studentNumber") String sortBy,
             
             @Parameter(description = "Sort order (asc/desc)")
-            @RequestParam(defaultValue = "asc") String sortOrder) {
+            @RequestParam(defaultValue = "asc") String sortOrder,
+            
+            @Parameter(description = "Opaque cursor from a previous page's nextCursor; resumes after it and ignores page")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Describe the query plan in the X-Query-Plan and X-Rows-Examined headers")
+            @RequestParam(defaultValue = "false") boolean explain,
+
+            WebRequest webRequest) {
+
+        // Read before querying: a write racing with the query leaves a stale tag, never a stale body
+        String etag = studentService.getCollectionETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (explain) {
+            Explained<StudentPageResponse> explained = studentService.getAllStudentsExplained(
+                    page, size, name, minCgpa, city, sortBy, sortOrder, cursor);
+            return revalidated(etag).headers(planHeaders(explained)).body(explained.getContent());
+        }
 
         StudentPageResponse response = studentService.getAllStudents(
-                page, size, name, minCgpa, city, sortBy, sortOrder);
+                page, size, name, minCgpa, city, sortBy, sortOrder, cursor);
 
-        return ResponseEntity.ok(response);
+        return revalidated(etag).body(response);
     }
 
     /**
@@ -82,16 +140,86 @@ public class StudentController {
     @Operation(summary = "Get student by student number", description = "Retrieve a single student record by their unique student number")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Student found"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Student not found")
     })
     public ResponseEntity<StudentResponse> getStudentByNumber(
             @Parameter(description = "Unique student identifier", required = true)
-            @PathVariable String studentNumber) {
+            @PathVariable String studentNumber,
+            WebRequest webRequest) {
+
+        String etag = studentService.getStudentETag(studentNumber);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
 
         StudentResponse response = studentService.getStudentByNumber(studentNumber);
+        return revalidated(ETags.ofStudent(response.getLastModifiedDate())).body(response);
+    }
+
+    /**
+     * POST /v1/students/batch-get - Get many students by student number
+     */
+    @PostMapping("/batch-get")
+    @Operation(summary = "Get students by student numbers",
+            description = "Resolve up to " + StudentBatchGetRequest.MAX_STUDENT_NUMBERS
+                    + " student numbers in one call; numbers not found are listed in missing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Students found, and the student numbers not found"),
+            @ApiResponse(responseCode = "400", description = "No, too many or blank student numbers")
+    })
+    public ResponseEntity<StudentBatchGetResponse> batchGetStudents(
+            @Valid @RequestBody StudentBatchGetRequest request) {
+
+        StudentBatchGetResponse response = studentService.getStudentsByNumbers(request.getStudentNumbers());
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * GET /v1/students/changes - Changes following a sequence
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Get student changes",
+            description = "Creates, updates and deletes following sequence since, oldest first; without since, "
+                    + "only the sequence to follow from. Read again from lastSequence while hasMore is true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes following since"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Invalid parameters"),
+            @ApiResponse(responseCode = "410", description = "Changes following since are no longer retained; "
+                    + "reload the students and follow changes from the sequence in the message")
+    })
+    public ResponseEntity<StudentChangesResponse> getChanges(
+            @Parameter(description = "Sequence of the last change already applied")
+            @RequestParam(required = false) Long since,
+
+            @Parameter(description = "Maximum number of changes")
+            @RequestParam(defaultValue = "1000") @Min(1) @Max(10000) int limit) {
+
+        return ResponseEntity.ok(changeFeed.getChanges(since, limit));
+    }
+
+    /**
+     * GET /v1/students/changes/stream - Server-Sent Events stream of changes
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream student changes",
+            description = "A change event (its id the sequence) for every change following since or Last-Event-ID, "
+                    + "then for every change as it happens; a resync event closes a stream that fell too far behind")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream"),
+            @ApiResponse(responseCode = "410", description = "Changes following since are no longer retained"),
+            @ApiResponse(responseCode = "503", description = "Already serving student.changes.max-subscribers streams")
+    })
+    public SseEmitter streamChanges(
+            @Parameter(description = "Sequence of the last change already applied; defaults to now")
+            @RequestParam(required = false) Long since,
+
+            @Parameter(description = "Sent by reconnecting EventSource clients; used when since is absent")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+
+        return changeFeed.subscribe(since != null ? since : lastEventId);
+    }
+
     /**
      * POST /v1/students - Create new student
      */
@@ -114,7 +242,120 @@ public class StudentController {
                 .buildAndExpand(response.getStudentNumber())
                 .toUri();
 
-        return ResponseEntity.created(location).body(response);
+        return ResponseEntity.created(location).headers(etagHeader(response)).body(response);
+    }
+
+    /**
+     * POST /v1/students/bulk - Stream many students in one request
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    @Operation(summary = "Bulk import students",
+            description = "Stream students as NDJSON (one JSON object per line) or CSV with a header row "
+                    + "(studentNumber,name,street,city,state,country,cgpa,backlogs). Invalid or duplicate "
+                    + "lines are skipped and reported by line number; all other lines are imported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; see counts and errors"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Unusable CSV header"),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    })
+    public ResponseEntity<BulkImportResponse> bulkImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        StudentDataFormat format = mediaType.isCompatibleWith(TEXT_CSV)
+                ? StudentDataFormat.CSV
+                : StudentDataFormat.NDJSON;
+
+        BulkImportResponse response = studentImportService.importStudents(
+                body, mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8, format);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /v1/students/export - Stream every matching student
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    @Operation(summary = "Export students",
+            description = "Stream all students matching the filters in student number order, as NDJSON "
+                    + "(default) or as CSV when the Accept header prefers text/csv. The CSV columns are "
+                    + "accepted by the bulk import endpoint.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Students are streamed in the response body"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Invalid parameters"),
+            @ApiResponse(responseCode = "406", description = "Accept header allows neither NDJSON nor CSV")
+    })
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @Parameter(description = "Filter by student name (partial match)")
+            @RequestParam(required = false) String name,
+
+            @Parameter(description = "Filter by minimum CGPA")
+            @RequestParam(required = false) @Min(0) @Max(10) Double minCgpa,
+
+            @Parameter(description = "Filter by city")
+            @RequestParam(required = false) String city,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        StudentDataFormat format = exportFormat(accept);
+        MediaType contentType = format == StudentDataFormat.CSV
+                ? new MediaType(TEXT_CSV, StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        String fileName = format == StudentDataFormat.CSV ? "students.csv" : "students.ndjson";
+
+        StreamingResponseBody body = out -> studentExportService.exportStudents(name, minCgpa, city, format, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    /**
+     * 200 response carrying the ETag; clients may cache it but must revalidate before reuse
+     */
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        // Every encoding of a version shares its tag, so caches must key on Accept too
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+        return etag != null ? response.eTag(etag) : response;
+    }
+
+    private static HttpHeaders etagHeader(StudentResponse student) {
+        HttpHeaders headers = new HttpHeaders();
+        String etag = ETags.ofStudent(student.getLastModifiedDate());
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        return headers;
+    }
+
+    private static HttpHeaders planHeaders(Explained<?> explained) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(QUERY_PLAN_HEADER, explained.getPlan());
+        headers.set(ROWS_EXAMINED_HEADER, String.valueOf(explained.getRowsExamined()));
+        return headers;
+    }
+
+    /**
+     * CSV when the most preferred acceptable type is a CSV type, otherwise NDJSON
+     */
+    private static StudentDataFormat exportFormat(String accept) {
+        if (accept == null) {
+            return StudentDataFormat.NDJSON;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.isWildcardType() || type.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+                return StudentDataFormat.NDJSON;
+            }
+            if (type.isCompatibleWith(TEXT_CSV)) {
+                return StudentDataFormat.CSV;
+            }
+        }
+        return StudentDataFormat.NDJSON;
     }
 
     /**
@@ -125,17 +366,21 @@ public class StudentController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Student updated successfully"),
             @ApiResponse(responseCode = "400", description = "Bad request - Validation failed"),
-            @ApiResponse(responseCode = "404", description = "Student not found")
+            @ApiResponse(responseCode = "404", description = "Student not found"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag")
     })
     public ResponseEntity<StudentResponse> updateStudent(
             @Parameter(description = "Student number", required = true)
             @PathVariable String studentNumber,
             
             @Parameter(description = "Updated student data", required = true)
-            @Valid @RequestBody StudentUpdateRequest request) {
+            @Valid @RequestBody StudentUpdateRequest request,
 
-        StudentResponse response = studentService.updateStudent(studentNumber, request);
-        return ResponseEntity.ok(response);
+            @Parameter(description = "Apply only if the student's current ETag matches")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        StudentResponse response = studentService.updateStudent(studentNumber, request, ifMatch);
+        return ResponseEntity.ok().headers(etagHeader(response)).body(response);
     }
 
     /**
@@ -146,17 +391,21 @@ public class StudentController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Student updated successfully"),
             @ApiResponse(responseCode = "400", description = "Bad request - Validation failed"),
-            @ApiResponse(responseCode = "404", description = "Student not found")
+            @ApiResponse(responseCode = "404", description = "Student not found"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag")
     })
     public ResponseEntity<StudentResponse> partialUpdateStudent(
             @Parameter(description = "Student number", required = true)
             @PathVariable String studentNumber,
             
             @Parameter(description = "Partial student data to update", required = true)
-            @Valid @RequestBody StudentUpdateRequest request) {
+            @Valid @RequestBody StudentUpdateRequest request,
 
-        StudentResponse response = studentService.partialUpdateStudent(studentNumber, request);
-        return ResponseEntity.ok(response);
+            @Parameter(description = "Apply only if the student's current ETag matches")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        StudentResponse response = studentService.partialUpdateStudent(studentNumber, request, ifMatch);
+        return ResponseEntity.ok().headers(etagHeader(response)).body(response);
     }
 
     /**
@@ -191,7 +440,15 @@ public class StudentController {
             @RequestParam(required = false) String country,
             @RequestParam(required = false) @Min(0) @Max(10) Double minCgpa,
             @RequestParam(required = false) @Min(0) @Max(10) Double maxCgpa,
-            @RequestParam(required = false) @Min(0) Integer maxBacklogs) {
+            @RequestParam(required = false) @Min(0) Integer maxBacklogs,
+            @Parameter(description = "Describe the query plan in the X-Query-Plan and X-Rows-Examined headers")
+            @RequestParam(defaultValue = "false") boolean explain) {
+
+        if (explain) {
+            Explained<List<StudentResponse>> explained = studentService.advancedSearchExplained(
+                    name, city, state, country, minCgpa, maxCgpa, maxBacklogs);
+            return ResponseEntity.ok().headers(planHeaders(explained)).body(explained.getContent());
+        }
 
         List<StudentResponse> results = studentService.advancedSearch(
                 name, city, state, country, minCgpa, maxCgpa, maxBacklogs);
@@ -199,14 +456,118 @@ public class StudentController {
         return ResponseEntity.ok(results);
     }
 
+    /**
+     * GET /v1/students/top - Top students by a field
+     */
+    @GetMapping("/top")
+    @Operation(summary = "Get top students",
+            description = "The k students with the highest values of a field, optionally within a city, highest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Top students, highest first"),
+            @ApiResponse(responseCode = "304", description = "Nothing written since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Invalid parameters")
+    })
+    public ResponseEntity<List<StudentResponse>> getTopStudents(
+            @Parameter(description = "Field to rank by (cgpa, name, createdDate, studentNumber)")
+            @RequestParam(defaultValue = "cgpa") String by,
+
+            @Parameter(description = "Number of students")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int k,
+
+            @Parameter(description = "Only students in this city")
+            @RequestParam(required = false) String city,
+
+            @Parameter(description = "Describe the query plan in the X-Query-Plan and X-Rows-Examined headers")
+            @RequestParam(defaultValue = "false") boolean explain,
+
+            WebRequest webRequest) {
+
+        String etag = studentService.getCollectionETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (explain) {
+            Explained<List<StudentResponse>> explained = studentService.getTopStudentsExplained(by, k, city);
+            return revalidated(etag).headers(planHeaders(explained)).body(explained.getContent());
+        }
+
+        List<StudentResponse> top = studentService.getTopStudents(by, k, city);
+        return revalidated(etag).body(top);
+    }
+
+    /**
+     * GET /v1/students/faceted-search - Search with facet counts
+     */
+    @GetMapping("/faceted-search")
+    @Operation(summary = "Faceted search",
+            description = "A page of students matching a name and any values of each facet, with the counts of "
+                    + "every facet's values among students matching the other facets")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Students and facet counts"),
+            @ApiResponse(responseCode = "304", description = "Nothing written since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Bad request - Invalid parameters")
+    })
+    public ResponseEntity<StudentFacetedSearchResponse> facetedSearch(
+            @Parameter(description = "Name contains (case-insensitive)")
+            @RequestParam(required = false) String name,
+
+            @Parameter(description = "Cities, repeated or comma-separated")
+            @RequestParam(required = false) List<String> city,
+
+            @Parameter(description = "States, repeated or comma-separated")
+            @RequestParam(required = false) List<String> state,
+
+            @Parameter(description = "Countries, repeated or comma-separated")
+            @RequestParam(required = false) List<String> country,
+
+            @Parameter(description = "Backlog buckets (0, 1, 2, 3+), repeated or comma-separated")
+            @RequestParam(required = false) List<String> backlogs,
+
+            @Parameter(description = "CGPA bands (0-5, 5-6, 6-7, 7-8, 8-9, 9-10), repeated or comma-separated")
+            @RequestParam(required = false) List<String> cgpa,
+
+            @Parameter(description = "Page number (0-indexed)")
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+
+            @Parameter(description = "Number of items per page")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+
+            WebRequest webRequest) {
+
+        String etag = studentService.getCollectionETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        StudentFacetedSearchResponse response = studentService.facetedSearch(
+                name, city, state, country, backlogs, cgpa, page, size);
+        return revalidated(etag).body(response);
+    }
+
+    /**
+     * GET /v1/students/schema.proto - Protobuf messages of application/x-protobuf responses
+     */
+    @GetMapping(value = "/schema.proto", produces = MediaType.TEXT_PLAIN_VALUE)
+    @Operation(summary = "Get protobuf schema",
+            description = "Messages of student, page and error responses requested as application/x-protobuf")
+    @ApiResponse(responseCode = "200", description = "Schema in .proto syntax")
+    public String getProtobufSchema() {
+        return protobufSchemas.getDefinitions();
+    }
+
     /**
      * GET /v1/students/statistics - Get student statistics
      */
     @GetMapping("/statistics")
     @Operation(summary = "Get student statistics", description = "Retrieve statistical information about students")
     @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
-    public ResponseEntity<StudentStatistics> getStatistics() {
+    public ResponseEntity<StudentStatistics> getStatistics(WebRequest webRequest) {
+        String etag = studentService.getCollectionETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         StudentStatistics statistics = studentService.getStatistics();
-        return ResponseEntity.ok(statistics);
+        return revalidated(etag).body(statistics);
     }
 }
@@ -0,0 +1,149 @@
+package com.university.studentapi.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * {@code /actuator/flightrecording}: an on-demand JDK Flight Recorder recording, including
+ * the application's own events (query scans, sorts, page slices, statistics, serialization).
+ * <ul>
+ *   <li>{@code POST} starts a recording, replacing the previous one; optional
+ *       {@code settings} ({@code default} or {@code profile}) and {@code duration}
+ *       (ISO-8601, e.g. {@code PT5M}; the recording stops by itself after it)</li>
+ *   <li>{@code GET} reports its state and download name</li>
+ *   <li>{@code DELETE} stops it, keeping the data for download</li>
+ *   <li>{@code GET /actuator/flightrecording/{file}} downloads it as a {@code .jfr} file,
+ *       also while it is still running</li>
+ * </ul>
+ * Recordings hold the JVM's environment variables, system properties and thread stacks, so
+ * the endpoint is off unless enabled, and must then sit behind actuator security.
+ */
+@Endpoint(id = "flightrecording")
+@Slf4j
+public class FlightRecordingEndpoint implements AutoCloseable {
+
+    static final Duration DEFAULT_DURATION = Duration.ofMinutes(5);
+    static final long MAX_SIZE = 256L * 1024 * 1024;
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private Recording recording;
+    private String settings;
+    private String file;
+    private Path dumpDirectory;
+
+    @ReadOperation
+    public synchronized RecordingStatus status() {
+        if (recording == null) {
+            return new RecordingStatus("NONE", null, null, null, null, 0);
+        }
+        return new RecordingStatus(recording.getState().name(), settings, recording.getStartTime(),
+                recording.getDuration(), file, recording.getSize());
+    }
+
+    @WriteOperation
+    public synchronized RecordingStatus start(@Nullable String settings, @Nullable Duration duration) {
+        String configurationName = settings != null ? settings : "default";
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configurationName);
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown recording settings: " + configurationName,
+                    "Settings must be 'default' or 'profile'");
+        }
+        close();
+
+        recording = new Recording(configuration);
+        recording.setName("student-api-on-demand");
+        recording.setToDisk(true);
+        recording.setMaxSize(MAX_SIZE);
+        recording.setDuration(duration != null ? duration : DEFAULT_DURATION);
+        recording.start();
+        this.settings = configurationName;
+        file = "student-api-" + FILE_TIMESTAMP.format(recording.getStartTime()) + ".jfr";
+        log.info("Started flight recording {} ({} settings, {})", file, configurationName, recording.getDuration());
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized RecordingStatus stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped flight recording {}", file);
+        }
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector String file) {
+        if (recording == null || !file.equals(this.file) || recording.getState() == RecordingState.NEW) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        try {
+            if (dumpDirectory == null) {
+                dumpDirectory = Files.createTempDirectory("student-api-jfr");
+            }
+            Path dump = dumpDirectory.resolve(file);
+            recording.dump(dump);
+            return new WebEndpointResponse<>(new FileSystemResource(dump));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Discard the recording and its downloaded copies
+     */
+    @Override
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (dumpDirectory != null) {
+            try (var dumps = Files.list(dumpDirectory)) {
+                for (Path dump : dumps.toList()) {
+                    Files.deleteIfExists(dump);
+                }
+                Files.deleteIfExists(dumpDirectory);
+            } catch (IOException e) {
+                log.warn("Could not delete flight recording dumps in {}", dumpDirectory, e);
+            }
+            dumpDirectory = null;
+        }
+    }
+
+    @Value
+    public static class RecordingStatus {
+        String state;
+        String settings;
+        Instant startTime;
+        Duration duration;
+        String file;
+        long size;
+    }
+}
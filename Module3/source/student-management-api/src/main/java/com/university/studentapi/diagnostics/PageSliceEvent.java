@@ -0,0 +1,30 @@
+package com.university.studentapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Cutting a page out of the query results and mapping it to responses
+ */
+@Name("com.university.studentapi.PageSlice")
+@Label("Student Page Slice")
+@Category({"Student API", "Query"})
+public class PageSliceEvent extends Event {
+
+    @Label("Page")
+    @Description("Page number, or -1 for a cursor page")
+    public int page;
+
+    @Label("Size")
+    public int size;
+
+    @Label("Total Elements")
+    @Description("Students matching the query, or -1 for a cursor page")
+    public long totalElements;
+
+    @Label("Rows Returned")
+    public int rowsReturned;
+}
@@ -0,0 +1,44 @@
+package com.university.studentapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A list page or search running its query plan: scanning the candidates, filtering them and
+ * sorting the matches. Criteria are recorded by shape only, never by value.
+ */
+@Name("com.university.studentapi.QueryScan")
+@Label("Student Query Scan")
+@Category({"Student API", "Query"})
+@Description("Candidates scanned and students matched by a list or search query")
+public class QueryScanEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Criteria")
+    @Description("Criteria set on the query, e.g. city,minCgpa")
+    public String criteria;
+
+    @Label("Order By")
+    public String orderBy;
+
+    @Label("Estimated Rows")
+    @Description("Candidates the planner expected the access path to produce")
+    public long estimatedRows;
+
+    @Label("Rows Examined")
+    public long rowsExamined;
+
+    @Label("Rows Returned")
+    public long rowsReturned;
+
+    @Label("Sort Time")
+    @Description("Time spent sorting the matches, summed over workers for parallel scans")
+    @Timespan(Timespan.NANOSECONDS)
+    public long sortTime;
+}
@@ -0,0 +1,86 @@
+package com.university.studentapi.diagnostics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.studentapi.dto.StudentPageResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * The JSON message converter, emitting a {@link SerializationEvent} per response body while
+ * a flight recording is running. Without one it only adds an {@code isEnabled} check.
+ */
+public class RecordingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    public RecordingJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        CountingOutputMessage counting = new CountingOutputMessage(outputMessage);
+        event.begin();
+        super.writeInternal(object, type, counting);
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = object.getClass().getSimpleName();
+            event.rows = rows(object);
+            event.bytes = counting.bytes;
+            event.commit();
+        }
+    }
+
+    private static int rows(Object body) {
+        if (body instanceof StudentPageResponse page) {
+            return page.getContent() != null ? page.getContent().size() : 0;
+        }
+        return body instanceof Collection<?> collection ? collection.size() : 1;
+    }
+
+    /**
+     * Counts the bytes written to the response body
+     */
+    private static final class CountingOutputMessage implements HttpOutputMessage {
+        private final HttpOutputMessage delegate;
+        private long bytes;
+
+        CountingOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return new FilterOutputStream(delegate.getBody()) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    bytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    bytes += len;
+                }
+            };
+        }
+    }
+}
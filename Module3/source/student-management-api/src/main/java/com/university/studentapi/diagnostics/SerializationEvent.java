@@ -0,0 +1,26 @@
+package com.university.studentapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Writing a JSON response body
+ */
+@Name("com.university.studentapi.Serialization")
+@Label("Student Response Serialization")
+@Category({"Student API", "Response"})
+public class SerializationEvent extends Event {
+
+    @Label("Type")
+    public String type;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
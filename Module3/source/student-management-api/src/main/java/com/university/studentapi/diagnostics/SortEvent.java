@@ -0,0 +1,19 @@
+package com.university.studentapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One sorted run of query results. Parallel scans sort each partition on its own worker,
+ * so a single query can emit several.
+ */
+@Name("com.university.studentapi.Sort")
+@Label("Student Sort")
+@Category({"Student API", "Query"})
+public class SortEvent extends Event {
+
+    @Label("Rows")
+    public long rows;
+}
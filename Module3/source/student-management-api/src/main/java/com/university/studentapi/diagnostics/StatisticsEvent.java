@@ -0,0 +1,21 @@
+package com.university.studentapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Building the statistics response from the repository's running counters
+ */
+@Name("com.university.studentapi.Statistics")
+@Label("Student Statistics")
+@Category({"Student API", "Query"})
+public class StatisticsEvent extends Event {
+
+    @Label("Total Students")
+    public long totalStudents;
+
+    @Label("Cities")
+    public int cities;
+}
@@ -0,0 +1,37 @@
+package com.university.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a bulk student import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResponse {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private List<LineError> errors;
+    private boolean errorsTruncated; // more lines failed than are listed in errors
+
+    /**
+     * Why one input line was not imported
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private String studentNumber;
+        private String message;
+    }
+}
@@ -0,0 +1,57 @@
+package com.university.studentapi.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * A {@link StudentResponse} carrying its own compact JSON encoding, written out as raw bytes
+ * instead of being serialized field by field. Instances are cached and shared between
+ * requests, so they must not be modified.
+ */
+@JsonSerialize(using = EncodedStudentResponse.Serializer.class)
+public class EncodedStudentResponse extends StudentResponse {
+
+    private final SerializedString json;
+
+    public EncodedStudentResponse(StudentResponse response, String json) {
+        super(response.getStudentNumber(), response.getName(), response.getAddress(), response.getCgpa(),
+                response.getBacklogs(), response.getCreatedDate(), response.getLastModifiedDate());
+        this.json = new SerializedString(json);
+        // Encode to UTF-8 once, up front, rather than on the first response that writes it
+        this.json.asUnquotedUTF8();
+    }
+
+    /**
+     * Size of the encoding in bytes
+     */
+    public int getEncodedLength() {
+        return json.asUnquotedUTF8().length;
+    }
+
+    /**
+     * Copies the encoding into compact JSON output. Indented JSON and binary encodings
+     * serialize the fields as usual, so the fragment never breaks the surrounding document.
+     */
+    static final class Serializer extends StdSerializer<EncodedStudentResponse> {
+
+        Serializer() {
+            super(EncodedStudentResponse.class);
+        }
+
+        @Override
+        public void serialize(EncodedStudentResponse value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            if (generator instanceof JsonGeneratorImpl && generator.getPrettyPrinter() == null) {
+                generator.writeRawValue(value.json);
+            } else {
+                provider.findValueSerializer(StudentResponse.class).serialize(value, generator, provider);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.university.studentapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for looking up many students by student number in one request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentBatchGetRequest {
+
+    public static final int MAX_STUDENT_NUMBERS = 10_000;
+
+    @NotEmpty(message = "Student numbers are required")
+    @Size(max = MAX_STUDENT_NUMBERS, message = "At most " + MAX_STUDENT_NUMBERS + " student numbers per request")
+    private List<@NotBlank(message = "Student number must not be blank") String> studentNumbers;
+}
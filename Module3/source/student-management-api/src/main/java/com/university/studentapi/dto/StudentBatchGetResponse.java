@@ -0,0 +1,22 @@
+package com.university.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a batch lookup: the students found, in request order, and the
+ * requested student numbers that were not
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentBatchGetResponse {
+
+    private List<StudentResponse> students;
+    private List<String> missing;
+}
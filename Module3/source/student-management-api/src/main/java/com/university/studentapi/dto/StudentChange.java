@@ -0,0 +1,25 @@
+package com.university.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one entry of the student change feed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentChange {
+
+    private long sequence;
+    private Type type;
+    private String studentNumber;
+    private StudentResponse student; // the student after the change; absent for deletes
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,22 @@
+package com.university.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a batch of changes read from the change feed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentChangesResponse {
+
+    private List<StudentChange> changes;
+    private long lastSequence; // pass as since to read the changes that follow
+    private boolean hasMore; // more changes follow lastSequence already
+}
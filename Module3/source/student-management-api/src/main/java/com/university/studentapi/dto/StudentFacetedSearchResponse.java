@@ -0,0 +1,32 @@
+package com.university.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a page of faceted search results together with the counts of every facet
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentFacetedSearchResponse {
+
+    private List<StudentResponse> content;
+    private StudentPageResponse.PageInfo page;
+    private Map<String, List<FacetCount>> facets; // keyed by facet parameter name
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCount {
+        private String value;
+        private long count;
+    }
+}
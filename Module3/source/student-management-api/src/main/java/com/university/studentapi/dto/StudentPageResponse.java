@@ -17,7 +17,8 @@ import java.util.List;
 public class StudentPageResponse {
     
     private List<StudentResponse> content;
-    private PageInfo page;
+    private PageInfo page; // absent for cursor pages, which carry no position information
+    private String nextCursor; // present when more results follow this page
 
     @Data
     @Builder
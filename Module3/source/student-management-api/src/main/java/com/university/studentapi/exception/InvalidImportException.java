@@ -0,0 +1,11 @@
+package com.university.studentapi.exception;
+
+/**
+ * Exception thrown when a bulk import cannot be processed at all (e.g. an unusable CSV header)
+ */
+public class InvalidImportException extends RuntimeException {
+    
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.university.studentapi.exception;
+
+/**
+ * Exception thrown when a conditional update's If-Match does not match the student's current ETag
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String studentNumber) {
+        super("Student " + studentNumber + " has been modified; fetch it again and retry");
+    }
+}
@@ -0,0 +1,20 @@
+package com.university.studentapi.exception;
+
+/**
+ * Exception thrown when changes are requested from a sequence the change feed no longer
+ * retains (or never issued, e.g. before a restart)
+ */
+public class ResyncRequiredException extends RuntimeException {
+
+    private final long lastSequence;
+
+    public ResyncRequiredException(long since, long lastSequence) {
+        super("Changes after sequence " + since + " are no longer available; reload the students and "
+                + "follow changes from sequence " + lastSequence);
+        this.lastSequence = lastSequence;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+}
@@ -0,0 +1,13 @@
+package com.university.studentapi.exception;
+
+/**
+ * Exception thrown when a change stream is requested while the feed already serves as many
+ * streams as it allows
+ */
+public class SubscriberLimitExceededException extends RuntimeException {
+
+    public SubscriberLimitExceededException(int maxSubscribers) {
+        super("The change feed is serving its limit of " + maxSubscribers + " streams; retry later "
+                + "or poll /v1/students/changes");
+    }
+}
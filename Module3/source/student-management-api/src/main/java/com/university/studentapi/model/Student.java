@@ -1,41 +1,38 @@
 package com.university.studentapi.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
 
 import java.time.LocalDateTime;
 
 /**
  * Student entity representing a student record.
  * Uses in-memory storage (no JPA annotations needed).
+ * <p>
+ * Students are immutable: the repository stores the saved instance and hands it to every
+ * reader, so a change is made with {@link #toBuilder()} and saved as a new snapshot.
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder(toBuilder = true)
 public class Student {
     
-    private String studentNumber;
-    private String name;
-    private Address address;
-    private Double cgpa;
-    private Integer backlogs;
-    private LocalDateTime createdDate;
-    private LocalDateTime lastModifiedDate;
+    String studentNumber;
+    String name;
+    Address address;
+    Double cgpa;
+    Integer backlogs;
+    LocalDateTime createdDate;
+    LocalDateTime lastModifiedDate;
 
     /**
      * Address embedded object
      */
-    @Data
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
+    @Value
+    @Builder(toBuilder = true)
     public static class Address {
-        private String street;
-        private String city;
-        private String state;
-        private String country;
+        String street;
+        String city;
+        String state;
+        String country;
     }
 }
@@ -0,0 +1,18 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a faceted search, the total number of matches, and for every facet the number
+ * of students holding each value among those matching the other facets' selections
+ */
+@Value
+public class FacetedSearchResult {
+    long total;
+    List<Student> students;
+    Map<StudentFacet, Map<String, Long>> counts;
+}
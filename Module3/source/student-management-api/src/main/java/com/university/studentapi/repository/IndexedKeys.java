@@ -0,0 +1,62 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.index.LocationDictionary;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Attribute values a student is currently indexed under. Names are kept pre-normalized so
+ * substring filters can run without allocating, locations are {@link LocationDictionary}
+ * codes so equality filters compare ints, and query filters are evaluated against these keys
+ * before the stored record is read.
+ */
+@Value
+class IndexedKeys {
+    String studentNumber;
+    String name;
+    String sortName;
+    int city;
+    int state;
+    int country;
+    Double cgpa;
+    Integer backlogs;
+    LocalDateTime createdDate;
+
+    /**
+     * Keys of a student, retaining its location codes; give them back with {@link #release}
+     * once the keys are discarded
+     */
+    static IndexedKeys of(Student student, LocationDictionary locations) {
+        Student.Address address = student.getAddress();
+        int[] codes = address != null
+                ? locations.retain(address.getCity(), address.getState(), address.getCountry())
+                : locations.retain(null, null, null);
+        return new IndexedKeys(
+                student.getStudentNumber(),
+                StudentRepository.normalizeName(student.getName()),
+                (String) StudentSortField.NAME.keyOf(student),
+                codes[0],
+                codes[1],
+                codes[2],
+                student.getCgpa(),
+                student.getBacklogs(),
+                student.getCreatedDate());
+    }
+
+    void release(LocationDictionary locations) {
+        locations.release(city);
+        locations.release(state);
+        locations.release(country);
+    }
+
+    Comparable<?> sortKey(StudentSortField field) {
+        return switch (field) {
+            case STUDENT_NUMBER -> studentNumber;
+            case NAME -> sortName;
+            case CGPA -> cgpa;
+            case CREATED_DATE -> createdDate;
+        };
+    }
+}
@@ -0,0 +1,666 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.index.FacetIndex;
+import com.university.studentapi.repository.index.HashIndex;
+import com.university.studentapi.repository.index.LocationDictionary;
+import com.university.studentapi.repository.index.SortedIndex;
+import com.university.studentapi.repository.index.TrigramIndex;
+import com.university.studentapi.repository.persistence.StudentJournal;
+import com.university.studentapi.repository.store.DictionaryFullException;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import com.university.studentapi.repository.store.StudentStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * {@link StudentRepository} keeping every student in one in-memory store with its own
+ * secondary indexes. Records live in a {@link StudentStore} (a ConcurrentHashMap by default, or the columnar store).
+ * <p>
+ * Students are immutable, so every save stores a snapshot that readers share and never see
+ * change (with location strings interned). Updates replace the snapshot atomically; use
+ * {@link #saveIf} to make a read-modify-write optimistic.
+ * <p>
+ * Secondary indexes and running statistics are updated inside the per-key {@code compute} of the store, so a
+ * student's index entries always change together with the stored record. The values each
+ * student was last indexed under are remembered separately, so index maintenance never
+ * depends on the stored instance.
+ * <p>
+ * Changes are also logged to a {@link StudentJournal} from inside the same {@code compute},
+ * and a write returns once its change is durable; once the journal fails, the repository is
+ * read-only. On construction the repository is rebuilt from whatever the journal recovers,
+ * and the indexes are then built in bulk. {@link StudentChangeListener}s are notified from the same
+ * {@code compute}.
+ * <p>
+ * Queries that collect every match and statistics recounts run on a {@link ParallelScanner}
+ * once they are large enough. A {@link ShardedStudentRepository} partitions students over
+ * several of these instead.
+ */
+@Slf4j
+public class IndexedStudentRepository implements StudentRepository {
+
+    private static final long UNCHANGED = -1;
+    
+    private final StudentStore students;
+    private final StudentJournal journal;
+    private final ParallelScanner scanner;
+    // Starts at the construction time so that epochs are not reused after a restart
+    private final AtomicLong modificationEpoch = new AtomicLong(System.currentTimeMillis() * 1_000_000L);
+    private final Map<String, IndexedKeys> indexedKeys = new ConcurrentHashMap<>();
+    private final List<StudentChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final LocationDictionary locations;
+
+    private final HashIndex cityIndex = new HashIndex();
+    private final HashIndex stateIndex = new HashIndex();
+    private final HashIndex countryIndex = new HashIndex();
+    private final SortedIndex<Double> cgpaIndex = new SortedIndex<>();
+    private final Map<StudentSortField, SortedIndex<?>> orderIndexes = new EnumMap<>(Map.of(
+            StudentSortField.STUDENT_NUMBER, new SortedIndex<String>(),
+            StudentSortField.NAME, new SortedIndex<String>(),
+            StudentSortField.CGPA, cgpaIndex,
+            StudentSortField.CREATED_DATE, new SortedIndex<LocalDateTime>()));
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private final FacetIndex facetIndex = new FacetIndex(StudentFacet.values().length);
+    private final StudentStatisticsAggregator statistics;
+    private final StudentQueryPlanner planner;
+
+    public IndexedStudentRepository() {
+        this(new HeapStudentStore());
+    }
+
+    public IndexedStudentRepository(StudentStore store) {
+        this(store, StudentJournal.NONE);
+    }
+
+    public IndexedStudentRepository(StudentStore store, StudentJournal journal) {
+        this(store, journal, ParallelScanner.SEQUENTIAL);
+    }
+
+    public IndexedStudentRepository(StudentStore store, StudentJournal journal, ParallelScanner scanner) {
+        this(store, journal, scanner, new LocationDictionary());
+    }
+
+    /**
+     * Repository coding locations with the given dictionary, which bounds how many distinct
+     * locations it accepts and may be shared with other repositories
+     */
+    public IndexedStudentRepository(StudentStore store, StudentJournal journal, ParallelScanner scanner,
+                      LocationDictionary locations) {
+        this.locations = locations;
+        this.statistics = new StudentStatisticsAggregator(locations);
+        this.planner = new StudentQueryPlanner(indexedKeys, locations,
+                cityIndex, stateIndex, countryIndex, nameIndex, cgpaIndex, orderIndexes::get, statistics);
+        this.students = store;
+        this.journal = journal;
+        this.scanner = scanner;
+        journal.recover(this::restore);
+        rebuildIndexes();
+    }
+
+    @Override
+    public Student save(Student student) {
+        journal.awaitDurable(write(student.getStudentNumber(), student, existing -> true));
+        return student;
+    }
+
+    @Override
+    public boolean saveIf(Student student, Predicate<? super Student> expected) {
+        long position = write(student.getStudentNumber(), student, expected);
+        journal.awaitDurable(position);
+        return position != UNCHANGED;
+    }
+
+    @Override
+    public boolean[] saveAllIfAbsent(List<Student> batch, ObjIntConsumer<DictionaryFullException> refused) {
+        boolean[] inserted = new boolean[batch.size()];
+        long last = UNCHANGED;
+        for (int i = 0; i < inserted.length; i++) {
+            Student student = batch.get(i);
+            long position;
+            try {
+                position = write(student.getStudentNumber(), student, Objects::isNull);
+            } catch (DictionaryFullException e) {
+                refused.accept(e, i);
+                continue;
+            }
+            inserted[i] = position != UNCHANGED;
+            last = Math.max(last, position);
+        }
+        journal.awaitDurable(last);
+        return inserted;
+    }
+
+    @Override
+    public void addChangeListener(StudentChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    @Override
+    public Optional<Student> findByStudentNumber(String studentNumber) {
+        return Optional.ofNullable(students.get(studentNumber));
+    }
+
+    @Override
+    public boolean existsByStudentNumber(String studentNumber) {
+        return students.contains(studentNumber);
+    }
+
+    @Override
+    public List<Student> findAll() {
+        List<Student> result = new ArrayList<>((int) students.size());
+        students.values().forEach(result::add);
+        return result;
+    }
+
+    @Override
+    public boolean deleteByStudentNumber(String studentNumber) {
+        long position = write(studentNumber, null, existing -> true);
+        journal.awaitDurable(position);
+        return position != UNCHANGED;
+    }
+
+    @Override
+    public void deleteAll() {
+        students.keys().forEach(this::deleteByStudentNumber);
+    }
+
+    @Override
+    public long count() {
+        return students.size();
+    }
+
+    @Override
+    public List<Student> findByNameContaining(String name) {
+        String query = StudentRepository.normalizeName(name);
+        Set<String> candidates = nameIndex.candidates(query);
+        List<Student> result = new ArrayList<>();
+
+        if (candidates == null) {
+            // Query shorter than a trigram: scan the pre-normalized names instead
+            indexedKeys.forEach((studentNumber, keys) -> addIfNameMatches(studentNumber, keys, query, result));
+            return result;
+        }
+        for (String studentNumber : candidates) {
+            addIfNameMatches(studentNumber, indexedKeys.get(studentNumber), query, result);
+        }
+        return result;
+    }
+
+    /**
+     * Starts from the smallest matching posting list and verifies the remaining fields by
+     * comparing location codes of the indexed keys
+     */
+    @Override
+    public List<Student> findByLocation(String city, String state, String country) {
+        if (city == null && state == null && country == null) {
+            return findAll();
+        }
+        int cityCode = locations.find(city);
+        int stateCode = locations.find(state);
+        int countryCode = locations.find(country);
+        if (cityCode == LocationDictionary.UNKNOWN_CODE || stateCode == LocationDictionary.UNKNOWN_CODE
+                || countryCode == LocationDictionary.UNKNOWN_CODE) {
+            return new ArrayList<>();
+        }
+
+        Set<String> candidates = null;
+        for (Set<String> ids : Arrays.asList(
+                city != null ? cityIndex.get(city) : null,
+                state != null ? stateIndex.get(state) : null,
+                country != null ? countryIndex.get(country) : null)) {
+            if (ids != null && (candidates == null || ids.size() < candidates.size())) {
+                candidates = ids;
+            }
+        }
+
+        List<Student> result = new ArrayList<>(candidates.size());
+        for (String studentNumber : candidates) {
+            IndexedKeys keys = indexedKeys.get(studentNumber);
+            if (keys == null
+                    || (city != null && keys.getCity() != cityCode)
+                    || (state != null && keys.getState() != stateCode)
+                    || (country != null && keys.getCountry() != countryCode)) {
+                continue;
+            }
+            Student student = students.get(studentNumber);
+            if (student != null) {
+                result.add(student);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Student> findByCgpaBetween(Double minCgpa, Double maxCgpa) {
+        List<Student> result = new ArrayList<>();
+        for (SortedIndex.Entry<Double> entry : cgpaIndex.range(minCgpa, maxCgpa)) {
+            Student student = students.get(entry.getStudentNumber());
+            if (student != null
+                    && student.getCgpa() != null
+                    && (minCgpa == null || student.getCgpa() >= minCgpa)
+                    && (maxCgpa == null || student.getCgpa() <= maxCgpa)) {
+                result.add(student);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Walks the field's ordered index, so reading k students costs O(log n + k)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterable<Student> findAllOrderedAfter(StudentSortField field, boolean descending,
+                                                 Comparable<?> afterKey, String afterStudentNumber) {
+        NavigableSet<? extends SortedIndex.Entry<?>> entries =
+                orderIndex(field).after(afterKey, afterStudentNumber, descending);
+
+        // Skip entries left behind by an update racing with this iteration
+        return () -> new StudentIterator<SortedIndex.Entry<?>>(entries.iterator(), entry -> {
+            IndexedKeys keys = indexedKeys.get(entry.getStudentNumber());
+            return keys != null && entry.getValue().equals(keys.sortKey(field)) ? entry.getStudentNumber() : null;
+        });
+    }
+
+    @Override
+    public QueryPlan plan(StudentQuery query) {
+        return planner.plan(query);
+    }
+
+    @Override
+    public QueryPlan planOrderedAfter(StudentQuery query, StudentSortField field, boolean descending,
+                                      Comparable<?> afterKey, String afterStudentNumber) {
+        return planner.planOrderedAfter(query, field, descending, afterKey, afterStudentNumber);
+    }
+
+    /**
+     * Filters are evaluated on indexed keys, so only matching students are read from the store
+     */
+    @Override
+    public long execute(QueryPlan plan, Predicate<Student> sink) {
+        LongAdder examined = new LongAdder();
+        Iterator<Student> matches = iterate(plan, examined);
+        while (matches.hasNext()) {
+            if (!sink.test(matches.next())) {
+                break;
+            }
+        }
+        return examined.sum();
+    }
+
+    /**
+     * The students a plan yields, read lazily in candidate order, counting each candidate
+     * examined into {@code examined}
+     */
+    Iterator<Student> iterate(QueryPlan plan, LongAdder examined) {
+        return new StudentIterator<>(Spliterators.iterator(plan.candidates()), keys -> {
+            examined.increment();
+            return plan.matches(keys) ? keys.getStudentNumber() : null;
+        });
+    }
+
+    @Override
+    public QueryResult query(StudentQuery query) {
+        QueryPlan plan = plan(query);
+        StudentSortField orderBy = query.getOrderBy();
+        Comparator<Student> order = orderBy != null && plan.getOrder() != orderBy ? orderBy.comparator() : null;
+        LongAdder examined = new LongAdder();
+        LongAdder sortTime = new LongAdder();
+        List<Student> result = scanner.collect(plan.candidates(), plan.getEstimatedRows(), keys -> {
+            examined.increment();
+            return plan.matches(keys) ? students.get(keys.getStudentNumber()) : null;
+        }, order, sortTime);
+        return new QueryResult(plan, result, examined.sum(), sortTime.sum());
+    }
+
+    /**
+     * Either walks the field's ordered index from the top until k students match, costing
+     * O(log n + rows examined), or selects from the query's most selective index with a
+     * bounded heap of k indexed keys, costing O(m log k) for m candidates, whichever the
+     * planner expects to examine fewer rows. Only the k selected students are read from the
+     * store, and the heap selection is reported as sort time.
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public QueryResult findTop(StudentQuery query, StudentSortField field, int k) {
+        QueryPlan plan = planner.planTop(query, field, k);
+        if (plan.getOrder() == field) {
+            List<Student> top = new ArrayList<>(k);
+            long examined = execute(plan, student -> top.add(student) && top.size() < k);
+            return new QueryResult(plan, top, examined, 0);
+        }
+
+        long started = System.nanoTime();
+        Comparator<IndexedKeys> order = (a, b) -> {
+            int result = ((Comparable) a.sortKey(field)).compareTo(b.sortKey(field));
+            return result != 0 ? result : a.getStudentNumber().compareTo(b.getStudentNumber());
+        };
+        // Min-heap of the best k so far: the root is the candidate a better one replaces
+        PriorityQueue<IndexedKeys> heap = new PriorityQueue<>(k + 1, order);
+        long examined = 0;
+        Iterator<IndexedKeys> candidates = Spliterators.iterator(plan.candidates());
+        while (candidates.hasNext()) {
+            IndexedKeys keys = candidates.next();
+            examined++;
+            if (keys.sortKey(field) == null || !plan.matches(keys)) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(keys);
+            } else if (order.compare(keys, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(keys);
+            }
+        }
+        IndexedKeys[] selected = heap.toArray(new IndexedKeys[0]);
+        Arrays.sort(selected, order.reversed());
+        long sortNanos = System.nanoTime() - started;
+
+        List<Student> top = new ArrayList<>(selected.length);
+        for (IndexedKeys keys : selected) {
+            Student student = students.get(keys.getStudentNumber());
+            if (student != null) {
+                top.add(student);
+            }
+        }
+        return new QueryResult(plan, top, examined, sortNanos);
+    }
+
+    /**
+     * The total, page and counts are all computed from the facet bitmaps in one pass under
+     * one read lock
+     */
+    @Override
+    public FacetedSearchResult facetedSearch(String name, Map<StudentFacet, ? extends Set<String>> selections,
+                                             int offset, int limit) {
+        List<Set<String>> byOrdinal = new ArrayList<>();
+        for (StudentFacet facet : StudentFacet.values()) {
+            byOrdinal.add(selections.get(facet));
+        }
+        FacetIndex.Result found = facetIndex.search(byOrdinal, name != null ? findStudentNumbersByName(name) : null,
+                offset, limit);
+
+        List<Student> page = new ArrayList<>(found.studentNumbers().size());
+        for (String studentNumber : found.studentNumbers()) {
+            Student student = students.get(studentNumber);
+            if (student != null) {
+                page.add(student);
+            }
+        }
+        Map<StudentFacet, Map<String, Long>> counts = new EnumMap<>(StudentFacet.class);
+        for (StudentFacet facet : StudentFacet.values()) {
+            counts.put(facet, found.counts().get(facet.ordinal()));
+        }
+        return new FacetedSearchResult(found.total(), page, counts);
+    }
+
+    @Override
+    public List<Student> findByBacklogsEquals(Integer backlogs) {
+        List<Student> result = new ArrayList<>();
+        for (Student student : students.values()) {
+            if (backlogs.equals(student.getBacklogs())) {
+                result.add(student);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getModificationEpoch() {
+        return modificationEpoch.get();
+    }
+
+    @Override
+    public StudentStatisticsAggregator.Snapshot getStatistics() {
+        return statistics.snapshot();
+    }
+
+    @Override
+    public StudentStatisticsAggregator.Snapshot recomputeStatistics() {
+        if (!scanner.isParallel(students.size())) {
+            return StudentStatisticsAggregator.scan(students.values(), locations);
+        }
+        // Student numbers split evenly for every store, and the counters take concurrent adds
+        StudentStatisticsAggregator aggregator = new StudentStatisticsAggregator(locations);
+        scanner.forEach(students.keys().spliterator(), students.size(), studentNumber -> {
+            Student student = students.get(studentNumber);
+            if (student != null) {
+                aggregator.add(student.getCgpa(), student.getBacklogs(),
+                        student.getAddress() != null ? student.getAddress().getCity() : null);
+            }
+        });
+        return aggregator.snapshot();
+    }
+
+    /**
+     * Store (or delete, when {@code student} is null) a student and log the change, provided the
+     * existing record (null when absent) satisfies {@code expected}.
+     * Returns the journal position to wait for, or {@link #UNCHANGED}.
+     */
+    private long write(String studentNumber, Student student, Predicate<? super Student> expected) {
+        // Retain the location codes first: a full dictionary refuses the student before anything changes
+        IndexedKeys nextKeys = student != null ? IndexedKeys.of(student, locations) : null;
+        Student next = student != null ? internLocations(student) : null;
+        // Keys whose codes are given back afterwards: the new ones, unless they replace others
+        IndexedKeys[] discarded = {nextKeys};
+        try {
+            return journal.guard(() -> {
+                long[] logged = {UNCHANGED};
+                students.compute(studentNumber, (key, existing) -> {
+                    if ((next == null && existing == null) || !expected.test(existing)) {
+                        return existing;
+                    }
+                    // Log first, so a failed journal refuses the change before anything is applied.
+                    // Logging only buffers it: a failure to write it out surfaces in awaitDurable,
+                    // after the change is visible, and fails the journal (see StudentJournal).
+                    logged[0] = next != null ? journal.logSave(next) : journal.logDelete(key);
+                    discarded[0] = reindex(key, nextKeys);
+                    modificationEpoch.incrementAndGet();
+                    for (StudentChangeListener listener : changeListeners) {
+                        listener.changed(key, existing, next);
+                    }
+                    return next;
+                });
+                return logged[0];
+            });
+        } finally {
+            if (discarded[0] != null) {
+                discarded[0].release(locations);
+            }
+        }
+    }
+
+    /**
+     * Apply a recovered change to the store only, without logging it again. Locations are
+     * coded and interned once recovery is complete, by {@link #rebuildIndexes}.
+     */
+    private void restore(String studentNumber, Student next) {
+        students.compute(studentNumber, (key, existing) -> next);
+    }
+
+    /**
+     * The snapshot with its location strings replaced by the dictionary's shared instances,
+     * so stored students do not each keep their own copies
+     */
+    private Student internLocations(Student snapshot) {
+        Student.Address address = snapshot.getAddress();
+        if (address == null) {
+            return snapshot;
+        }
+        return snapshot.toBuilder()
+                .address(address.toBuilder()
+                        .city(locations.intern(address.getCity()))
+                        .state(locations.intern(address.getState()))
+                        .country(locations.intern(address.getCountry()))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Index every stored student in bulk, which is much cheaper than one student at a time:
+     * posting lists are allocated at their final size and ordered indexes are loaded from
+     * pre-sorted entries. Only used before the repository is shared.
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuildIndexes() {
+        if (students.size() == 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        // Students are coded independently, and the dictionary and counters take concurrent adds
+        scanner.forEach(students.keys().spliterator(), students.size(), studentNumber ->
+                students.compute(studentNumber, (key, student) -> {
+                    if (student == null) {
+                        return null;
+                    }
+                    IndexedKeys keys = IndexedKeys.of(student, locations);
+                    indexedKeys.put(key, keys);
+                    statistics.add(keys.getCgpa(), keys.getBacklogs(), keys.getCity());
+                    // Now that the codes are held, the recovered copies can share their spellings
+                    return internLocations(student);
+                }));
+
+        Collection<IndexedKeys> all = indexedKeys.values();
+        Function<IndexedKeys, String> studentNumberOf = IndexedKeys::getStudentNumber;
+        List<Runnable> builds = new ArrayList<>(List.of(
+                () -> nameIndex.addAll(all, IndexedKeys::getName, studentNumberOf),
+                () -> cityIndex.addAll(all, keys -> locations.label(keys.getCity()), studentNumberOf),
+                () -> stateIndex.addAll(all, keys -> locations.label(keys.getState()), studentNumberOf),
+                () -> countryIndex.addAll(all, keys -> locations.label(keys.getCountry()), studentNumberOf),
+                () -> facetIndex.addAll(all, studentNumberOf, keys -> StudentFacet.valuesOf(keys, locations))));
+        for (StudentSortField field : StudentSortField.values()) {
+            Function<IndexedKeys, Comparable<?>> sortKey = keys -> keys.sortKey(field);
+            builds.add(() -> orderIndex(field).addAll(all, sortKey, studentNumberOf));
+        }
+        // Each index is a separate structure, so they can be built side by side
+        scanner.runAll(builds);
+        log.info("Indexed {} recovered students in {} ms", all.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Move a student's index entries from the previously indexed values to the new ones,
+     * returning the previous keys. Must be called from within the primary map's compute for
+     * the same key.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private IndexedKeys reindex(String studentNumber, IndexedKeys next) {
+        IndexedKeys previous = next != null
+                ? indexedKeys.put(studentNumber, next)
+                : indexedKeys.remove(studentNumber);
+
+        nameIndex.replace(previous != null ? previous.getName() : null,
+                next != null ? next.getName() : null,
+                studentNumber);
+        facetIndex.replace(studentNumber,
+                previous != null ? StudentFacet.valuesOf(previous, locations) : null,
+                next != null ? StudentFacet.valuesOf(next, locations) : null);
+
+        for (StudentSortField field : StudentSortField.values()) {
+            SortedIndex index = orderIndex(field);
+            if (previous != null) {
+                index.remove(previous.sortKey(field), studentNumber);
+            }
+            if (next != null) {
+                index.add(next.sortKey(field), studentNumber);
+            }
+        }
+
+        if (previous != null) {
+            cityIndex.remove(locations.label(previous.getCity()), studentNumber);
+            stateIndex.remove(locations.label(previous.getState()), studentNumber);
+            countryIndex.remove(locations.label(previous.getCountry()), studentNumber);
+            statistics.remove(previous.getCgpa(), previous.getBacklogs(), previous.getCity());
+        }
+        if (next != null) {
+            cityIndex.add(locations.label(next.getCity()), studentNumber);
+            stateIndex.add(locations.label(next.getState()), studentNumber);
+            countryIndex.add(locations.label(next.getCountry()), studentNumber);
+            statistics.add(next.getCgpa(), next.getBacklogs(), next.getCity());
+        }
+        return previous;
+    }
+
+    /**
+     * Ordered index of a field. Raw because each field's index has its own key type;
+     * keys always come from {@link IndexedKeys#sortKey} or the field's own parser.
+     */
+    @SuppressWarnings("rawtypes")
+    private SortedIndex orderIndex(StudentSortField field) {
+        return orderIndexes.get(field);
+    }
+
+    /**
+     * Student numbers of the students whose name contains {@code name} (case-insensitive),
+     * read from the indexed keys without touching the store
+     */
+    private List<String> findStudentNumbersByName(String name) {
+        String query = StudentRepository.normalizeName(name);
+        Set<String> candidates = nameIndex.candidates(query);
+        Iterable<String> scanned = candidates != null ? candidates : indexedKeys.keySet();
+        List<String> result = new ArrayList<>();
+        for (String studentNumber : scanned) {
+            IndexedKeys keys = indexedKeys.get(studentNumber);
+            if (keys != null && keys.getName() != null && keys.getName().contains(query)) {
+                result.add(studentNumber);
+            }
+        }
+        return result;
+    }
+
+    private void addIfNameMatches(String studentNumber, IndexedKeys keys, String query, List<Student> result) {
+        if (keys == null || keys.getName() == null || !keys.getName().contains(query)) {
+            return;
+        }
+        Student student = students.get(studentNumber);
+        if (student != null) {
+            result.add(student);
+        }
+    }
+
+    /**
+     * Students read from the store for the student numbers a source maps its elements to,
+     * skipping elements mapped to null and students deleted meanwhile. Advances only when
+     * asked, so a caller that stops early examines no extra rows.
+     */
+    private final class StudentIterator<T> implements Iterator<Student> {
+
+        private final Iterator<? extends T> source;
+        private final Function<? super T, String> studentNumber;
+        private Student next;
+
+        StudentIterator(Iterator<? extends T> source, Function<? super T, String> studentNumber) {
+            this.source = source;
+            this.studentNumber = studentNumber;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && source.hasNext()) {
+                String number = studentNumber.apply(source.next());
+                if (number != null) {
+                    next = students.get(number);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Student next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Student current = next;
+            next = null;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.diagnostics.SortEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs large scans on a dedicated fork/join pool, so a single search can use every core
+ * without competing with the common pool (used by parallel streams and CompletableFuture).
+ * Bulk index rebuilds run their independent builds on the same pool, and bulk imports
+ * prepare their records on it.
+ * <p>
+ * A scan splits its source spliterator into partitions. Each leaf maps and filters its
+ * partition, then sorts it when an order is requested, and the partial results are
+ * merged back in encounter order or, for sorted scans, by a merge of sorted partitions
+ * that runs in parallel across the task tree. Scans below the threshold run on the
+ * calling thread.
+ */
+public class ParallelScanner implements AutoCloseable {
+
+    /**
+     * Never goes parallel; every scan runs on the calling thread
+     */
+    public static final ParallelScanner SEQUENTIAL = new ParallelScanner(null, Long.MAX_VALUE);
+
+    /**
+     * Partitions smaller than this are not split further, whatever the pool size
+     */
+    private static final long MIN_PARTITION = 1024;
+
+    // Partitions per worker, so uneven partitions still keep every worker busy
+    private static final int PARTITIONS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final long threshold;
+
+    /**
+     * @param parallelism number of worker threads, or 0 for one per available processor
+     * @param threshold   smallest estimated scan size that runs in parallel
+     */
+    public ParallelScanner(int parallelism, long threshold) {
+        this(new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    worker.setName("student-scan-" + worker.getPoolIndex());
+                    return worker;
+                }, null, false), threshold);
+    }
+
+    private ParallelScanner(ForkJoinPool pool, long threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Whether a scan of about this many elements runs in parallel
+     */
+    public boolean isParallel(long estimatedSize) {
+        return pool != null && estimatedSize >= threshold;
+    }
+
+    public int getParallelism() {
+        return pool != null ? pool.getParallelism() : 1;
+    }
+
+    /**
+     * Map every element, dropping those mapped to null, and return the results in encounter
+     * order or, when {@code order} is non-null, sorted (stably) by it. The mapper may be
+     * called from several threads at once.
+     */
+    public <T, R> List<R> collect(Spliterator<T> source, long estimatedSize,
+                                  Function<? super T, ? extends R> mapper, Comparator<? super R> order) {
+        return collect(source, estimatedSize, mapper, order, new LongAdder());
+    }
+
+    /**
+     * {@link #collect}, adding the nanoseconds spent sorting and merging to {@code sortTime}.
+     * In parallel scans this is the sum over all workers, so it can exceed the elapsed time.
+     */
+    public <T, R> List<R> collect(Spliterator<T> source, long estimatedSize,
+                                  Function<? super T, ? extends R> mapper, Comparator<? super R> order,
+                                  LongAdder sortTime) {
+        if (!isParallel(estimatedSize)) {
+            List<R> result = new ArrayList<>();
+            source.forEachRemaining(element -> addMapped(result, mapper, element));
+            sort(result, order, sortTime);
+            return result;
+        }
+        return pool.invoke(new CollectTask<T, R>(source, partitionSize(estimatedSize), mapper, order, sortTime));
+    }
+
+    /**
+     * Pass every element to {@code action}, which may be called from several threads at once
+     */
+    public <T> void forEach(Spliterator<T> source, long estimatedSize, Consumer<? super T> action) {
+        collect(source, estimatedSize, element -> {
+            action.accept(element);
+            return null;
+        }, null);
+    }
+
+    /**
+     * Run independent tasks side by side on the pool, returning once all are done, or one
+     * after another on the calling thread when this scanner never goes parallel
+     */
+    public void runAll(List<? extends Runnable> tasks) {
+        if (pool == null) {
+            tasks.forEach(Runnable::run);
+            return;
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks.stream().map(ForkJoinTask::adapt).toList())));
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Map every element of a list whose elements each take real work to map (parsing and
+     * validating a record, say), dropping those mapped to null, and return the results in
+     * list order. Unlike a scan this goes parallel whenever the pool is enabled, whatever
+     * the threshold. The mapper may be called from several threads at once.
+     */
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> mapper) {
+        if (pool == null || items.size() < 2) {
+            List<R> result = new ArrayList<>(items.size());
+            items.forEach(item -> addMapped(result, mapper, item));
+            return result;
+        }
+        long partitionSize = Math.max(1, items.size() / ((long) pool.getParallelism() * PARTITIONS_PER_WORKER));
+        return pool.invoke(new CollectTask<T, R>(items.spliterator(), partitionSize, mapper, null, new LongAdder()));
+    }
+
+    private long partitionSize(long estimatedSize) {
+        return Math.max(MIN_PARTITION, estimatedSize / ((long) pool.getParallelism() * PARTITIONS_PER_WORKER));
+    }
+
+    private static <R> void sort(List<R> result, Comparator<? super R> order, LongAdder sortTime) {
+        if (order != null) {
+            SortEvent event = new SortEvent();
+            event.begin();
+            long started = System.nanoTime();
+            result.sort(order);
+            sortTime.add(System.nanoTime() - started);
+            event.end();
+            if (event.shouldCommit()) {
+                event.rows = result.size();
+                event.commit();
+            }
+        }
+    }
+
+    private static <T, R> void addMapped(List<? super R> result, Function<? super T, ? extends R> mapper, T element) {
+        R mapped = mapper.apply(element);
+        if (mapped != null) {
+            result.add(mapped);
+        }
+    }
+
+    /**
+     * Collects one partition, splitting off and forking prefixes while it is large
+     */
+    private static final class CollectTask<T, R> extends RecursiveTask<List<R>> {
+        private final Spliterator<T> source;
+        private final long partitionSize;
+        private final Function<? super T, ? extends R> mapper;
+        private final Comparator<? super R> order;
+        private final LongAdder sortTime;
+
+        CollectTask(Spliterator<T> source, long partitionSize,
+                    Function<? super T, ? extends R> mapper, Comparator<? super R> order, LongAdder sortTime) {
+            this.source = source;
+            this.partitionSize = partitionSize;
+            this.mapper = mapper;
+            this.order = order;
+            this.sortTime = sortTime;
+        }
+
+        @Override
+        protected List<R> compute() {
+            Spliterator<T> prefix;
+            // Sources of unknown size report Long.MAX_VALUE and split until they cannot
+            if (source.estimateSize() > partitionSize && (prefix = source.trySplit()) != null) {
+                CollectTask<T, R> head = new CollectTask<T, R>(prefix, partitionSize, mapper, order, sortTime);
+                head.fork();
+                List<R> tail = new CollectTask<T, R>(source, partitionSize, mapper, order, sortTime).compute();
+                return merge(head.join(), tail);
+            }
+            List<R> result = new ArrayList<>();
+            source.forEachRemaining(element -> addMapped(result, mapper, element));
+            sort(result, order, sortTime);
+            return result;
+        }
+
+        /**
+         * Concatenate, or merge two sorted runs taking ties from the head to stay stable
+         */
+        private List<R> merge(List<R> head, List<R> tail) {
+            if (tail.isEmpty()) {
+                return head;
+            }
+            if (head.isEmpty()) {
+                return tail;
+            }
+            List<R> merged = new ArrayList<>(head.size() + tail.size());
+            if (order == null) {
+                merged.addAll(head);
+                merged.addAll(tail);
+                return merged;
+            }
+            long started = System.nanoTime();
+            int i = 0;
+            int j = 0;
+            while (i < head.size() && j < tail.size()) {
+                merged.add(order.compare(tail.get(j), head.get(i)) < 0 ? tail.get(j++) : head.get(i++));
+            }
+            merged.addAll(head.subList(i, head.size()));
+            merged.addAll(tail.subList(j, tail.size()));
+            sortTime.add(System.nanoTime() - started);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A compiled student query: the access path that produces candidates, and the filters each
+ * candidate must pass, ordered so the cheapest way to reject a candidate runs first.
+ * Plans read live indexes; execute them with {@link StudentRepository#execute} right after
+ * planning. A {@link ShardedStudentRepository} plans one query per shard and combines those
+ * plans into a scatter plan.
+ */
+public final class QueryPlan {
+
+    private final String access;
+    private final long estimatedRows;
+    private final StudentSortField order;
+    private final Supplier<Spliterator<IndexedKeys>> candidates;
+    private final List<Filter> filters;
+    private final List<QueryPlan> shards;
+    private final Comparator<Student> mergeOrder;
+
+    QueryPlan(String access, long estimatedRows, StudentSortField order,
+              Supplier<Spliterator<IndexedKeys>> candidates, List<Filter> filters) {
+        this(access, estimatedRows, order, candidates, filters, List.of(), null);
+    }
+
+    private QueryPlan(String access, long estimatedRows, StudentSortField order,
+                      Supplier<Spliterator<IndexedKeys>> candidates, List<Filter> filters,
+                      List<QueryPlan> shards, Comparator<Student> mergeOrder) {
+        this.access = access;
+        this.estimatedRows = estimatedRows;
+        this.order = order;
+        this.candidates = candidates;
+        this.filters = filters.stream().sorted(Comparator.comparingDouble(Filter::rank)).toList();
+        this.shards = shards;
+        this.mergeOrder = mergeOrder;
+    }
+
+    /**
+     * Plan of one query on every shard, each shard's students merged in {@code mergeOrder}
+     * (which the shard plans must already produce), or concatenated shard by shard when null.
+     * Its candidates are empty; only {@link ShardedStudentRepository#execute} runs it.
+     */
+    static QueryPlan scatter(List<QueryPlan> shards, Comparator<Student> mergeOrder) {
+        List<String> accesses = shards.stream().map(QueryPlan::getAccess).distinct().toList();
+        StudentSortField order = shards.stream().allMatch(shard -> shard.order == shards.get(0).order)
+                ? shards.get(0).order
+                : null;
+        return new QueryPlan("scatter to " + shards.size() + " shards: " + String.join(" or ", accesses),
+                shards.stream().mapToLong(QueryPlan::getEstimatedRows).sum(), order,
+                Spliterators::emptySpliterator, shards.get(0).filters, List.copyOf(shards), mergeOrder);
+    }
+
+    /**
+     * How candidates are produced, e.g. {@code index city = 'Mumbai'} or {@code full scan}
+     */
+    public String getAccess() {
+        return access;
+    }
+
+    /**
+     * Estimated number of candidates the access path produces
+     */
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    /**
+     * Field the candidates are produced in order of, or null when unordered. The ordered
+     * paths produce ascending order, except resumed keyset scans, which follow the cursor, and
+     * top-k walks, which run from the highest value down.
+     */
+    public StudentSortField getOrder() {
+        return order;
+    }
+
+    /**
+     * Filters in evaluation order
+     */
+    public List<String> getFilters() {
+        return filters.stream().map(Filter::toString).toList();
+    }
+
+    /**
+     * One-line description of the plan, e.g.
+     * {@code index city = 'Mumbai' (~1200 rows) | cgpa >= 8.0 (est. 31%) | city = 'Mumbai' (recheck)}
+     */
+    public String explain() {
+        StringBuilder plan = new StringBuilder(access).append(" (~").append(estimatedRows).append(" rows)");
+        for (Filter filter : filters) {
+            plan.append(" | ").append(filter);
+        }
+        return plan.toString();
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+
+    /**
+     * The same candidates and filters under another description, estimate and order
+     */
+    QueryPlan derive(String access, long estimatedRows, StudentSortField order) {
+        return new QueryPlan(access, estimatedRows, order, candidates, filters, shards, mergeOrder);
+    }
+
+    /**
+     * Plans of the shards of a scatter plan, in shard order; empty for a plan of one repository
+     */
+    List<QueryPlan> shards() {
+        return shards;
+    }
+
+    /**
+     * Order a scatter plan merges its shards' students in, or null to concatenate them
+     */
+    Comparator<Student> mergeOrder() {
+        return mergeOrder;
+    }
+
+    Spliterator<IndexedKeys> candidates() {
+        return candidates.get();
+    }
+
+    boolean matches(IndexedKeys keys) {
+        for (Filter filter : filters) {
+            if (!filter.test.test(keys)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Render a literal for the plan text, keeping it printable ASCII so it is safe in a header
+     */
+    static String literal(Object value) {
+        if (!(value instanceof String text)) {
+            return String.valueOf(value);
+        }
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('\'');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            quoted.append(c >= 0x20 && c < 0x7f ? c : '?');
+        }
+        return quoted.append('\'').toString();
+    }
+
+    /**
+     * A residual predicate with its estimated pass rate and relative evaluation cost
+     */
+    static final class Filter {
+        private final String description;
+        private final double selectivity;
+        private final int cost;
+        private final boolean recheck;
+        private final Predicate<IndexedKeys> test;
+
+        Filter(String description, double selectivity, int cost, Predicate<IndexedKeys> test) {
+            this(description, selectivity, cost, false, test);
+        }
+
+        private Filter(String description, double selectivity, int cost, boolean recheck,
+                       Predicate<IndexedKeys> test) {
+            this.description = description;
+            this.selectivity = Math.max(0, Math.min(1, selectivity));
+            this.cost = cost;
+            this.recheck = recheck;
+            this.test = test;
+        }
+
+        /**
+         * The same predicate re-verifying candidates of the index that produced them. Nearly
+         * every candidate passes, so it is evaluated last.
+         */
+        Filter asRecheck() {
+            return new Filter(description, 1, cost, true, test);
+        }
+
+        /**
+         * Estimated fraction of candidates that pass
+         */
+        double selectivity() {
+            return selectivity;
+        }
+
+        /**
+         * Evaluation rank: filters that reject the most candidates per unit of cost come first,
+         * and rechecks of the driving index after everything else
+         */
+        double rank() {
+            if (recheck) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return selectivity >= 1 ? Double.MAX_VALUE : cost / (1 - selectivity);
+        }
+
+        @Override
+        public String toString() {
+            return description + (recheck
+                    ? " (recheck)"
+                    : String.format(Locale.ROOT, " (est. %.0f%%)", selectivity * 100));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Students returned by an executed {@link QueryPlan}, with the number of candidates examined
+ * and the time spent sorting them (zero when the plan already yields the requested order)
+ */
+@Value
+public class QueryResult {
+    QueryPlan plan;
+    List<Student> students;
+    long rowsExamined;
+    long sortNanos;
+}
@@ -0,0 +1,465 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.index.LocationDictionary;
+import com.university.studentapi.repository.persistence.StudentJournal;
+import com.university.studentapi.repository.store.DictionaryFullException;
+import com.university.studentapi.repository.store.StudentStore;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Repository partitioning students by student number hash over several shards, each a
+ * {@link IndexedStudentRepository} with its own store, indexes and statistics, and its own
+ * small pool of threads. The shards share one {@link LocationDictionary}, so a location
+ * string is interned once and labelled the same on every shard.
+ * <p>
+ * Reads and writes of one student go straight to its shard on the caller's thread. Queries
+ * that collect every match (searches, list pages, top-k, faceted search, statistics recounts)
+ * are scattered to every shard's pool and run side by side, each shard planning against
+ * its own indexes; the results are gathered with a k-way merge when ordered, and partial
+ * aggregates (counts, sums, per-city and per-facet counts) are added up. Lazy walks (keyset
+ * pages, exports) merge the shards' ordered iterators on the caller's thread and read only
+ * as far as the caller does. A shard's pool has several threads, so one slow query does not
+ * hold up the others scattered to that shard.
+ * <p>
+ * Shards are not journaled: the repository starts empty.
+ */
+public class ShardedStudentRepository implements StudentRepository, AutoCloseable {
+
+    private static final int MIN_THREADS_PER_SHARD = 2;
+
+    private final IndexedStudentRepository[] shards;
+    private final ExecutorService[] executors;
+    // One epoch for all shards, bumped by each of their writes; starts like a single repository's
+    private final AtomicLong modificationEpoch = new AtomicLong(System.currentTimeMillis() * 1_000_000L);
+
+    public ShardedStudentRepository(int shardCount, Supplier<StudentStore> stores) {
+        this(shardCount, stores, new LocationDictionary());
+    }
+
+    /**
+     * @param locations dictionary the shards share, which bounds how many distinct locations
+     *                  they accept
+     */
+    public ShardedStudentRepository(int shardCount, Supplier<StudentStore> stores, LocationDictionary locations) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        // Enough threads between them to use every processor, and never fewer than two per shard
+        int threadsPerShard = Math.max(MIN_THREADS_PER_SHARD,
+                Runtime.getRuntime().availableProcessors() / shardCount);
+        this.shards = new IndexedStudentRepository[shardCount];
+        this.executors = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            // The shards are the parallelism, so each one scans sequentially
+            shards[i] = new IndexedStudentRepository(stores.get(), StudentJournal.NONE, ParallelScanner.SEQUENTIAL,
+                    locations);
+            shards[i].addChangeListener((studentNumber, previous, next) -> modificationEpoch.incrementAndGet());
+            String name = "student-shard-" + i + "-";
+            AtomicInteger threads = new AtomicInteger();
+            executors[i] = Executors.newFixedThreadPool(threadsPerShard, runnable -> {
+                Thread thread = new Thread(runnable, name + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public Student save(Student student) {
+        return shard(student.getStudentNumber()).save(student);
+    }
+
+    @Override
+    public boolean saveIf(Student student, Predicate<? super Student> expected) {
+        return shard(student.getStudentNumber()).saveIf(student, expected);
+    }
+
+    @Override
+    public boolean[] saveAllIfAbsent(List<Student> batch, ObjIntConsumer<DictionaryFullException> refused) {
+        List<List<Integer>> positions = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            positions.get(shardIndex(batch.get(i).getStudentNumber())).add(i);
+        }
+
+        boolean[] inserted = new boolean[batch.size()];
+        for (int shard = 0; shard < shards.length; shard++) {
+            List<Integer> indexes = positions.get(shard);
+            if (indexes.isEmpty()) {
+                continue;
+            }
+            boolean[] shardInserted = shards[shard].saveAllIfAbsent(indexes.stream().map(batch::get).toList(),
+                    (e, i) -> refused.accept(e, indexes.get(i)));
+            for (int i = 0; i < shardInserted.length; i++) {
+                inserted[indexes.get(i)] = shardInserted[i];
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public void addChangeListener(StudentChangeListener listener) {
+        for (IndexedStudentRepository shard : shards) {
+            shard.addChangeListener(listener);
+        }
+    }
+
+    @Override
+    public Optional<Student> findByStudentNumber(String studentNumber) {
+        return shard(studentNumber).findByStudentNumber(studentNumber);
+    }
+
+    @Override
+    public boolean existsByStudentNumber(String studentNumber) {
+        return shard(studentNumber).existsByStudentNumber(studentNumber);
+    }
+
+    @Override
+    public List<Student> findAll() {
+        return concat(scatter(IndexedStudentRepository::findAll));
+    }
+
+    @Override
+    public boolean deleteByStudentNumber(String studentNumber) {
+        return shard(studentNumber).deleteByStudentNumber(studentNumber);
+    }
+
+    @Override
+    public void deleteAll() {
+        for (IndexedStudentRepository shard : shards) {
+            shard.deleteAll();
+        }
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (IndexedStudentRepository shard : shards) {
+            count += shard.count();
+        }
+        return count;
+    }
+
+    @Override
+    public List<Student> findByNameContaining(String name) {
+        return concat(scatter(shard -> shard.findByNameContaining(name)));
+    }
+
+    @Override
+    public List<Student> findByLocation(String city, String state, String country) {
+        return concat(scatter(shard -> shard.findByLocation(city, state, country)));
+    }
+
+    @Override
+    public List<Student> findByCgpaBetween(Double minCgpa, Double maxCgpa) {
+        List<List<Student>> parts = scatter(shard -> shard.findByCgpaBetween(minCgpa, maxCgpa));
+        List<Student> result = new ArrayList<>();
+        merge(parts.stream().map(List::iterator).toList(), StudentSortField.CGPA.comparator())
+                .forEachRemaining(result::add);
+        return result;
+    }
+
+    @Override
+    public List<Student> findByBacklogsEquals(Integer backlogs) {
+        return concat(scatter(shard -> shard.findByBacklogsEquals(backlogs)));
+    }
+
+    @Override
+    public Iterable<Student> findAllOrderedAfter(StudentSortField field, boolean descending,
+                                                 Comparable<?> afterKey, String afterStudentNumber) {
+        Comparator<Student> order = descending ? field.comparator().reversed() : field.comparator();
+        return () -> {
+            List<Iterator<Student>> walks = new ArrayList<>(shards.length);
+            for (IndexedStudentRepository shard : shards) {
+                walks.add(shard.findAllOrderedAfter(field, descending, afterKey, afterStudentNumber).iterator());
+            }
+            return merge(walks, order);
+        };
+    }
+
+    @Override
+    public QueryPlan plan(StudentQuery query) {
+        List<QueryPlan> plans = new ArrayList<>(shards.length);
+        for (IndexedStudentRepository shard : shards) {
+            plans.add(shard.plan(query));
+        }
+        QueryPlan scatter = QueryPlan.scatter(plans, null);
+        return scatter.getOrder() != null ? QueryPlan.scatter(plans, scatter.getOrder().comparator()) : scatter;
+    }
+
+    @Override
+    public QueryPlan planOrderedAfter(StudentQuery query, StudentSortField field, boolean descending,
+                                      Comparable<?> afterKey, String afterStudentNumber) {
+        List<QueryPlan> plans = new ArrayList<>(shards.length);
+        for (IndexedStudentRepository shard : shards) {
+            plans.add(shard.planOrderedAfter(query, field, descending, afterKey, afterStudentNumber));
+        }
+        return QueryPlan.scatter(plans, descending ? field.comparator().reversed() : field.comparator());
+    }
+
+    /**
+     * Run a plan from {@link #plan} or {@link #planOrderedAfter} on the caller's thread,
+     * merging the shards' students in the plan's order or taking them shard by shard
+     */
+    @Override
+    public long execute(QueryPlan plan, Predicate<Student> sink) {
+        if (plan.shards().size() != shards.length) {
+            throw new IllegalArgumentException("Plan was not made by this repository: " + plan);
+        }
+        LongAdder examined = new LongAdder();
+        List<Iterator<Student>> matches = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            matches.add(shards[i].iterate(plan.shards().get(i), examined));
+        }
+        Iterator<Student> students = plan.mergeOrder() != null
+                ? merge(matches, plan.mergeOrder())
+                : concat(matches.iterator());
+        while (students.hasNext()) {
+            if (!sink.test(students.next())) {
+                break;
+            }
+        }
+        return examined.sum();
+    }
+
+    @Override
+    public QueryResult query(StudentQuery query) {
+        List<QueryResult> results = scatter(shard -> shard.query(query));
+        List<QueryPlan> plans = results.stream().map(QueryResult::getPlan).toList();
+        long examined = results.stream().mapToLong(QueryResult::getRowsExamined).sum();
+        long sortNanos = results.stream().mapToLong(QueryResult::getSortNanos).sum();
+        List<List<Student>> parts = results.stream().map(QueryResult::getStudents).toList();
+
+        StudentSortField orderBy = query.getOrderBy();
+        if (orderBy == null) {
+            return new QueryResult(QueryPlan.scatter(plans, null), concat(parts), examined, sortNanos);
+        }
+        // Every shard's students are in ascending orderBy order; merging them is the last step of the sort
+        long started = System.nanoTime();
+        List<Student> merged = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        merge(parts.stream().map(List::iterator).toList(), orderBy.comparator()).forEachRemaining(merged::add);
+        sortNanos += System.nanoTime() - started;
+        return new QueryResult(QueryPlan.scatter(plans, orderBy.comparator()), merged, examined, sortNanos);
+    }
+
+    @Override
+    public QueryResult findTop(StudentQuery query, StudentSortField field, int k) {
+        List<QueryResult> results = scatter(shard -> shard.findTop(query, field, k));
+        Comparator<Student> order = field.comparator().reversed();
+        List<Student> top = new ArrayList<>(k);
+        Iterator<Student> merged = merge(results.stream().map(result -> result.getStudents().iterator()).toList(), order);
+        while (merged.hasNext() && top.size() < k) {
+            top.add(merged.next());
+        }
+        return new QueryResult(QueryPlan.scatter(results.stream().map(QueryResult::getPlan).toList(), order), top,
+                results.stream().mapToLong(QueryResult::getRowsExamined).sum(),
+                results.stream().mapToLong(QueryResult::getSortNanos).sum());
+    }
+
+    /**
+     * Search every shard in parallel for its counts together with its first
+     * {@code offset + limit} matches, so each shard's rows agree with its counts, and add the
+     * counts up; the page is then cut from the shards it spans, in shard order
+     */
+    @Override
+    public FacetedSearchResult facetedSearch(String name, Map<StudentFacet, ? extends Set<String>> selections,
+                                             int offset, int limit) {
+        int window = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, (long) offset + limit));
+        List<FacetedSearchResult> parts = scatter(shard -> shard.facetedSearch(name, selections, 0, window));
+
+        long total = 0;
+        Map<StudentFacet, Map<String, Long>> counts = new EnumMap<>(StudentFacet.class);
+        for (FacetedSearchResult part : parts) {
+            total += part.getTotal();
+            part.getCounts().forEach((facet, values) -> {
+                Map<String, Long> merged = counts.computeIfAbsent(facet, key -> new LinkedHashMap<>());
+                values.forEach((value, count) -> merged.merge(value, count, Long::sum));
+            });
+        }
+
+        List<Student> page = new ArrayList<>(Math.max(0, limit));
+        long skip = offset;
+        for (int i = 0; i < parts.size() && page.size() < limit; i++) {
+            FacetedSearchResult part = parts.get(i);
+            if (skip >= part.getTotal()) {
+                skip -= part.getTotal();
+                continue;
+            }
+            // Fewer rows than counted when students were deleted while the shard was searched
+            List<Student> rows = part.getStudents();
+            int from = (int) Math.min(skip, rows.size());
+            page.addAll(rows.subList(from, Math.min(rows.size(), from + limit - page.size())));
+            skip = 0;
+        }
+        return new FacetedSearchResult(total, page, counts);
+    }
+
+    @Override
+    public long getModificationEpoch() {
+        return modificationEpoch.get();
+    }
+
+    @Override
+    public StudentStatisticsAggregator.Snapshot getStatistics() {
+        List<StudentStatisticsAggregator.Snapshot> parts = new ArrayList<>(shards.length);
+        for (IndexedStudentRepository shard : shards) {
+            parts.add(shard.getStatistics());
+        }
+        return merge(parts);
+    }
+
+    @Override
+    public StudentStatisticsAggregator.Snapshot recomputeStatistics() {
+        return merge(scatter(IndexedStudentRepository::recomputeStatistics));
+    }
+
+    /**
+     * Stop the shards' pools
+     */
+    @Override
+    public void close() {
+        for (ExecutorService executor : executors) {
+            executor.shutdownNow();
+        }
+    }
+
+    private IndexedStudentRepository shard(String studentNumber) {
+        return shards[shardIndex(studentNumber)];
+    }
+
+    private int shardIndex(String studentNumber) {
+        int hash = studentNumber.hashCode();
+        // Spread the high bits, as HashMap does, so numbers differing only there still spread
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    /**
+     * Run {@code call} on every shard's pool and wait for all of them
+     */
+    private <T> List<T> scatter(Function<IndexedStudentRepository, T> call) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            IndexedStudentRepository shard = shards[i];
+            futures.add(CompletableFuture.supplyAsync(() -> call.apply(shard), executors[i]));
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    private static List<Student> concat(List<List<Student>> parts) {
+        List<Student> all = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        parts.forEach(all::addAll);
+        return all;
+    }
+
+    /**
+     * Lazily chain iterators, one after another
+     */
+    private static Iterator<Student> concat(Iterator<Iterator<Student>> sources) {
+        return new Iterator<>() {
+            private Iterator<Student> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && sources.hasNext()) {
+                    current = sources.next();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public Student next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    /**
+     * Lazily merge iterators that each yield students in {@code order}, keeping only the head
+     * of each in a heap: O(log shards) per student
+     */
+    private static Iterator<Student> merge(List<Iterator<Student>> sources, Comparator<Student> order) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> order.compare(a.student, b.student));
+        for (Iterator<Student> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Student next() {
+                Head head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.source.hasNext()) {
+                    heads.add(new Head(head.source.next(), head.source));
+                }
+                return head.student;
+            }
+        };
+    }
+
+    /**
+     * Add up the shards' statistics; the shared dictionary labels each city the same on every shard
+     */
+    private static StudentStatisticsAggregator.Snapshot merge(List<StudentStatisticsAggregator.Snapshot> parts) {
+        long total = 0;
+        double cgpaSum = 0;
+        long withoutBacklogs = 0;
+        long topPerformers = 0;
+        Map<String, Long> cities = new HashMap<>();
+        for (StudentStatisticsAggregator.Snapshot part : parts) {
+            total += part.getTotalStudents();
+            cgpaSum += part.getCgpaSum();
+            withoutBacklogs += part.getStudentsWithNoBacklogs();
+            topPerformers += part.getTopPerformers();
+            part.getCityDistribution().forEach((city, count) -> cities.merge(city, count, Long::sum));
+        }
+        return new StudentStatisticsAggregator.Snapshot(total, cgpaSum, withoutBacklogs, topPerformers, cities);
+    }
+
+    private record Head(Student student, Iterator<Student> source) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+
+/**
+ * Notified of every change the repository applies (not of students restored on startup).
+ * <p>
+ * Called from inside the store's {@code compute} for the student, like the journal, so the
+ * changes to one student arrive in the order they were applied. Implementations must be
+ * quick, must not throw and must not call back into the repository.
+ */
+@FunctionalInterface
+public interface StudentChangeListener {
+
+    /**
+     * @param previous the stored snapshot before the change, null if the student is new
+     * @param next     the stored snapshot after it, null if the student was deleted
+     */
+    void changed(String studentNumber, Student previous, Student next);
+}
@@ -0,0 +1,81 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.repository.index.LocationDictionary;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Attributes faceted search filters and counts by. Locations facet on their own values;
+ * backlogs and CGPA on fixed buckets, which are always listed in order.
+ */
+public enum StudentFacet {
+
+    CITY("city", (keys, locations) -> locations.label(keys.getCity()), List.of()),
+    STATE("state", (keys, locations) -> locations.label(keys.getState()), List.of()),
+    COUNTRY("country", (keys, locations) -> locations.label(keys.getCountry()), List.of()),
+    BACKLOGS("backlogs", (keys, locations) -> backlogBucket(keys.getBacklogs()), List.of("0", "1", "2", "3+")),
+    CGPA("cgpa", (keys, locations) -> cgpaBand(keys.getCgpa()), List.of("0-5", "5-6", "6-7", "7-8", "8-9", "9-10"));
+
+    private final String parameter;
+    private final BiFunction<IndexedKeys, LocationDictionary, String> extractor;
+    private final List<String> buckets;
+
+    StudentFacet(String parameter, BiFunction<IndexedKeys, LocationDictionary, String> extractor,
+                 List<String> buckets) {
+        this.parameter = parameter;
+        this.extractor = extractor;
+        this.buckets = buckets;
+    }
+
+    /**
+     * Name of the request parameter selecting values of this facet, and of its counts
+     */
+    public String getParameter() {
+        return parameter;
+    }
+
+    /**
+     * The fixed buckets of this facet in display order, or empty when it facets on values
+     */
+    public List<String> getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * Bucket of a backlog count: "0", "1", "2" or "3+"
+     */
+    public static String backlogBucket(Integer backlogs) {
+        if (backlogs == null || backlogs < 0) {
+            return null;
+        }
+        return backlogs >= 3 ? "3+" : backlogs.toString();
+    }
+
+    /**
+     * Band of a CGPA: "0-5" below 5, then one band per point up to "9-10", which includes 10
+     */
+    public static String cgpaBand(Double cgpa) {
+        if (cgpa == null || cgpa < 0) {
+            return null;
+        }
+        if (cgpa < 5) {
+            return "0-5";
+        }
+        int lower = (int) Math.min(Math.floor(cgpa), 9);
+        return lower + "-" + (lower + 1);
+    }
+
+    /**
+     * The value of every facet a student is indexed under, by ordinal; locations are
+     * labelled by {@code locations}
+     */
+    static String[] valuesOf(IndexedKeys keys, LocationDictionary locations) {
+        StudentFacet[] facets = values();
+        String[] values = new String[facets.length];
+        for (StudentFacet facet : facets) {
+            values[facet.ordinal()] = facet.extractor.apply(keys, locations);
+        }
+        return values;
+    }
+}
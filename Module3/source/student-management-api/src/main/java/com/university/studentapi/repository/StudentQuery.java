@@ -0,0 +1,52 @@
+package com.university.studentapi.repository;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.StringJoiner;
+
+/**
+ * Search criteria for {@link StudentRepository#plan}. Every non-null criterion must match:
+ * name is a case-insensitive substring, locations are case-insensitive equality and the
+ * CGPA and backlog bounds are inclusive.
+ */
+@Value
+@Builder
+public class StudentQuery {
+    String name;
+    String city;
+    String state;
+    String country;
+    Double minCgpa;
+    Double maxCgpa;
+    Integer maxBacklogs;
+
+    /**
+     * Order results are returned in by {@link StudentRepository#query} (ascending, ties by
+     * student number), if any. When no filter narrows the search the planner scans this
+     * field's ordered index instead of the whole store, so the results come out presorted.
+     */
+    StudentSortField orderBy;
+
+    /**
+     * Names of the criteria that are set, e.g. {@code city,minCgpa}, without their values;
+     * queries of the same shape get the same plan
+     */
+    public String shape() {
+        StringJoiner shape = new StringJoiner(",");
+        addIfSet(shape, "name", name);
+        addIfSet(shape, "city", city);
+        addIfSet(shape, "state", state);
+        addIfSet(shape, "country", country);
+        addIfSet(shape, "minCgpa", minCgpa);
+        addIfSet(shape, "maxCgpa", maxCgpa);
+        addIfSet(shape, "maxBacklogs", maxBacklogs);
+        return shape.toString();
+    }
+
+    private static void addIfSet(StringJoiner shape, String criterion, Object value) {
+        if (value != null) {
+            shape.add(criterion);
+        }
+    }
+}
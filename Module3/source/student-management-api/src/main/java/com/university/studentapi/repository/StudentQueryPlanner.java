@@ -0,0 +1,309 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.repository.index.HashIndex;
+import com.university.studentapi.repository.index.LocationDictionary;
+import com.university.studentapi.repository.index.SortedIndex;
+import com.university.studentapi.repository.index.TrigramIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import static com.university.studentapi.repository.QueryPlan.literal;
+
+/**
+ * Compiles a {@link StudentQuery} into a {@link QueryPlan}.
+ * <p>
+ * Each criterion becomes a filter whose selectivity is estimated cheaply: posting list sizes
+ * for locations, the smallest trigram list for names, and the running statistics' CGPA
+ * histogram and no-backlog counter. The criterion an index can answer with
+ * the fewest estimated matches drives the plan; every other criterion is evaluated on the
+ * candidates' indexed keys, so stored records are only read for students that match.
+ */
+class StudentQueryPlanner {
+
+    /**
+     * Assumed pass rate of a filter nothing can estimate
+     */
+    private static final double UNKNOWN_SELECTIVITY = 0.5;
+
+    // Relative per-candidate evaluation costs
+    private static final int COMPARE_COST = 1;
+    private static final int CONTAINS_COST = 4;
+
+    /**
+     * Relative cost of a step down an ordered index against taking an index candidate: each
+     * step of a descending skip list walk searches again from the head
+     */
+    private static final int DESCENDING_STEP_COST = 4;
+
+    private final Map<String, IndexedKeys> indexedKeys;
+    private final LocationDictionary locations;
+    private final HashIndex cityIndex;
+    private final HashIndex stateIndex;
+    private final HashIndex countryIndex;
+    private final TrigramIndex nameIndex;
+    private final SortedIndex<Double> cgpaIndex;
+    private final Function<StudentSortField, SortedIndex<?>> orderIndexes;
+    private final StudentStatisticsAggregator statistics;
+
+    StudentQueryPlanner(Map<String, IndexedKeys> indexedKeys, LocationDictionary locations,
+                        HashIndex cityIndex, HashIndex stateIndex, HashIndex countryIndex,
+                        TrigramIndex nameIndex, SortedIndex<Double> cgpaIndex,
+                        Function<StudentSortField, SortedIndex<?>> orderIndexes,
+                        StudentStatisticsAggregator statistics) {
+        this.indexedKeys = indexedKeys;
+        this.locations = locations;
+        this.cityIndex = cityIndex;
+        this.stateIndex = stateIndex;
+        this.countryIndex = countryIndex;
+        this.nameIndex = nameIndex;
+        this.cgpaIndex = cgpaIndex;
+        this.orderIndexes = orderIndexes;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Plan a query, driving it from the most selective index or, failing that, a scan
+     */
+    QueryPlan plan(StudentQuery query) {
+        long total = indexedKeys.size();
+        List<Criterion> criteria = criteria(query, total);
+
+        StudentSortField orderBy = query.getOrderBy();
+        List<Access> paths = new ArrayList<>();
+        criteria.stream().map(Criterion::access).filter(access -> access != null).forEach(paths::add);
+        // Ordered scans skip students without a value for the field. Creation dates are the
+        // only sort key requests do not require, so that order always falls back to a sort.
+        if (orderBy != null && orderBy != StudentSortField.CREATED_DATE) {
+            SortedIndex<?> index = orderIndexes.apply(orderBy);
+            paths.add(new Access("ordered scan " + orderBy, total, orderBy, entries(index.all(), orderBy)));
+        } else {
+            paths.add(new Access("full scan", total, null, () -> indexedKeys.values().spliterator()));
+        }
+
+        // Fewest candidates wins; on a tie prefer the path that already yields the requested order
+        Access driver = paths.stream()
+                .min(Comparator.comparingLong(Access::estimate)
+                        .thenComparing(access -> orderBy == null || access.order() != orderBy))
+                .orElseThrow();
+
+        List<QueryPlan.Filter> filters = criteria.stream()
+                .map(criterion -> criterion.access() == driver ? criterion.filter().asRecheck() : criterion.filter())
+                .toList();
+        return new QueryPlan(driver.description(), driver.estimate(), driver.order(), driver.candidates(), filters);
+    }
+
+    /**
+     * Plan a keyset page: walk the field's ordered index strictly after the given position
+     * and evaluate every criterion as a filter
+     */
+    QueryPlan planOrderedAfter(StudentQuery query, StudentSortField field, boolean descending,
+                               Comparable<?> afterKey, String afterStudentNumber) {
+        long total = indexedKeys.size();
+        List<QueryPlan.Filter> filters = criteria(query, total).stream().map(Criterion::filter).toList();
+
+        NavigableSet<? extends SortedIndex.Entry<?>> entries =
+                after(orderIndexes.apply(field), afterKey, afterStudentNumber, descending);
+        String description = "ordered scan " + field + (descending ? " DESC" : "")
+                + (afterKey != null ? " after " + literal(afterKey.toString()) : "");
+        return new QueryPlan(description, total, field, entries(entries, field), filters);
+    }
+
+    /**
+     * Entries of an index strictly after a position whose key was parsed for the index's field
+     */
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<? super K>> NavigableSet<SortedIndex.Entry<K>> after(
+            SortedIndex<K> index, Comparable<?> afterKey, String afterStudentNumber, boolean descending) {
+        return index.after((K) afterKey, afterStudentNumber, descending);
+    }
+
+    /**
+     * Plan a top-k query: walk the field's ordered index from the highest value, stopping at
+     * the k-th match, when that is expected to be cheaper than taking every candidate of the
+     * most selective index; otherwise take those candidates unordered, for the caller to
+     * select the top k from with a bounded heap.
+     * The walk is ordered by {@code field} (descending); the heap plan is unordered.
+     */
+    QueryPlan planTop(StudentQuery query, StudentSortField field, int k) {
+        long total = indexedKeys.size();
+        double selectivity = criteria(query, total).stream()
+                .mapToDouble(criterion -> criterion.filter().selectivity())
+                .reduce(1, (a, b) -> a * b);
+        QueryPlan filtered = plan(StudentQuery.builder()
+                .name(query.getName())
+                .city(query.getCity())
+                .state(query.getState())
+                .country(query.getCountry())
+                .minCgpa(query.getMinCgpa())
+                .maxCgpa(query.getMaxCgpa())
+                .maxBacklogs(query.getMaxBacklogs())
+                .build());
+        double walk = selectivity > 0 ? k / selectivity : Double.POSITIVE_INFINITY;
+        if (walk * DESCENDING_STEP_COST < filtered.getEstimatedRows()) {
+            QueryPlan ordered = planOrderedAfter(query, field, true, null, null);
+            return ordered.derive("top " + k + " " + ordered.getAccess(), Math.min(total, (long) Math.ceil(walk)), field);
+        }
+        return filtered.derive("top " + k + " " + field + " (bounded heap) of " + filtered.getAccess(),
+                filtered.getEstimatedRows(), null);
+    }
+
+    /**
+     * One filter per criterion, plus the index access path that can answer it, if any
+     */
+    private List<Criterion> criteria(StudentQuery query, long total) {
+        List<Criterion> criteria = new ArrayList<>();
+        location(criteria, "city", query.getCity(), cityIndex, IndexedKeys::getCity, total);
+        location(criteria, "state", query.getState(), stateIndex, IndexedKeys::getState, total);
+        location(criteria, "country", query.getCountry(), countryIndex, IndexedKeys::getCountry, total);
+
+        String name = StudentRepository.normalizeName(query.getName());
+        if (name != null) {
+            int estimate = nameIndex.estimate(name);
+            String description = "name contains " + literal(name);
+            QueryPlan.Filter filter = new QueryPlan.Filter(description,
+                    estimate >= 0 ? ratio(estimate, total) : UNKNOWN_SELECTIVITY, CONTAINS_COST,
+                    keys -> keys.getName() != null && keys.getName().contains(name));
+            // Queries shorter than a trigram cannot use the index
+            Access access = estimate >= 0
+                    ? new Access("trigram index " + description, estimate, null,
+                            () -> lookup(nameIndex.candidates(name)))
+                    : null;
+            criteria.add(new Criterion(filter, access));
+        }
+
+        Double minCgpa = query.getMinCgpa();
+        Double maxCgpa = query.getMaxCgpa();
+        if (minCgpa != null || maxCgpa != null) {
+            String description = minCgpa == null ? "cgpa <= " + maxCgpa
+                    : maxCgpa == null ? "cgpa >= " + minCgpa
+                    : "cgpa between " + minCgpa + " and " + maxCgpa;
+            long estimate = statistics.estimateCgpaBetween(minCgpa, maxCgpa);
+            QueryPlan.Filter filter = new QueryPlan.Filter(description, ratio(estimate, total), COMPARE_COST,
+                    keys -> keys.getCgpa() != null
+                            && (minCgpa == null || keys.getCgpa() >= minCgpa)
+                            && (maxCgpa == null || keys.getCgpa() <= maxCgpa));
+            Access access = new Access("index " + description, estimate, StudentSortField.CGPA,
+                    entries(cgpaIndex.range(minCgpa, maxCgpa), StudentSortField.CGPA));
+            criteria.add(new Criterion(filter, access));
+        }
+
+        Integer maxBacklogs = query.getMaxBacklogs();
+        if (maxBacklogs != null) {
+            // The statistics count students without backlogs, which is exactly "backlogs <= 0"
+            double selectivity = maxBacklogs == 0
+                    ? ratio(statistics.studentsWithNoBacklogs(), total)
+                    : UNKNOWN_SELECTIVITY;
+            criteria.add(new Criterion(new QueryPlan.Filter("backlogs <= " + maxBacklogs, selectivity, COMPARE_COST,
+                    keys -> keys.getBacklogs() != null && keys.getBacklogs() <= maxBacklogs), null));
+        }
+        return criteria;
+    }
+
+    private void location(List<Criterion> criteria, String field, String value, HashIndex index,
+                          ToIntFunction<IndexedKeys> attribute, long total) {
+        if (value == null) {
+            return;
+        }
+        Set<String> ids = index.get(value);
+        String description = field + " = " + literal(value);
+        // A value never seen has no code, and no student holds UNKNOWN_CODE
+        int code = locations.find(value);
+        QueryPlan.Filter filter = new QueryPlan.Filter(description, ratio(ids.size(), total), COMPARE_COST,
+                keys -> attribute.applyAsInt(keys) == code);
+        criteria.add(new Criterion(filter, new Access("index " + description, ids.size(), null, () -> lookup(ids))));
+    }
+
+    /**
+     * Indexed keys of the given student numbers, skipping students deleted since
+     */
+    private Spliterator<IndexedKeys> lookup(Collection<String> studentNumbers) {
+        return new KeysSpliterator<>(studentNumbers.spliterator(), indexedKeys::get);
+    }
+
+    /**
+     * Indexed keys in index order, skipping entries left behind by a racing update
+     */
+    private Supplier<Spliterator<IndexedKeys>> entries(Iterable<? extends SortedIndex.Entry<?>> entries,
+                                                    StudentSortField field) {
+        return () -> new KeysSpliterator<SortedIndex.Entry<?>>(entries.spliterator(), entry -> {
+            IndexedKeys keys = indexedKeys.get(entry.getStudentNumber());
+            return keys != null && entry.getValue().equals(keys.sortKey(field)) ? keys : null;
+        });
+    }
+
+    private static double ratio(long count, long total) {
+        return total == 0 ? 0 : (double) count / total;
+    }
+
+    private record Criterion(QueryPlan.Filter filter, Access access) {
+    }
+
+    private record Access(String description, long estimate, StudentSortField order,
+                          Supplier<Spliterator<IndexedKeys>> candidates) {
+    }
+
+    /**
+     * Maps a source spliterator to indexed keys, dropping elements that map to null.
+     * Splits whenever the source does, so candidates can be scanned in parallel.
+     */
+    private static final class KeysSpliterator<T> implements Spliterator<IndexedKeys> {
+        private final Spliterator<? extends T> source;
+        private final Function<T, IndexedKeys> mapping;
+        private IndexedKeys current;
+
+        KeysSpliterator(Spliterator<? extends T> source, Function<T, IndexedKeys> mapping) {
+            this.source = source;
+            this.mapping = mapping;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super IndexedKeys> action) {
+            do {
+                current = null;
+                if (!source.tryAdvance(element -> current = mapping.apply(element))) {
+                    return false;
+                }
+            } while (current == null);
+            action.accept(current);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super IndexedKeys> action) {
+            source.forEachRemaining(element -> {
+                IndexedKeys keys = mapping.apply(element);
+                if (keys != null) {
+                    action.accept(keys);
+                }
+            });
+        }
+
+        @Override
+        public Spliterator<IndexedKeys> trySplit() {
+            Spliterator<? extends T> prefix = source.trySplit();
+            return prefix != null ? new KeysSpliterator<>(prefix, mapping) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            // Dropped elements make sizes approximate
+            return source.characteristics() & (ORDERED | NONNULL | CONCURRENT | IMMUTABLE);
+        }
+    }
+}
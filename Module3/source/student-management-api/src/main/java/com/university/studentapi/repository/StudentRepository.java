@@ -1,104 +1,202 @@
 package com.university.studentapi.repository;
 
 import com.university.studentapi.model.Student;
-import org.springframework.stereotype.Repository;
+import com.university.studentapi.repository.store.DictionaryFullException;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
 
 /**
- * In-memory repository for Student entities.
- * Uses ConcurrentHashMap for thread-safe operations.
+ * Repository for Student entities, keyed by student number.
+ * {@link IndexedStudentRepository} keeps every student in one indexed store;
+ * {@link ShardedStudentRepository} partitions students over several of them.
+ * <p>
+ * Students are immutable snapshots: readers share them and never see them change.
  */
-@Repository
-public class StudentRepository {
-    
-    private final Map<String, Student> students = new ConcurrentHashMap<>();
+public interface StudentRepository {
 
     /**
      * Save a student (create or update)
      */
-    public Student save(Student student) {
-        students.put(student.getStudentNumber(), student);
-        return student;
+    Student save(Student student);
+
+    /**
+     * Save a student only if the currently stored record (null when absent) satisfies
+     * {@code expected}, checked atomically with the write. Returns whether it was saved.
+     */
+    boolean saveIf(Student student, Predicate<? super Student> expected);
+
+    /**
+     * Insert each student whose student number is not taken yet, waiting for the journal once
+     * for the whole batch instead of once per student. Returns whether each one was inserted.
+     * A student refused because the location dictionary is full does not stop the batch: it
+     * is passed to {@code refused} with its index in the batch, and not inserted.
+     */
+    boolean[] saveAllIfAbsent(List<Student> batch, ObjIntConsumer<DictionaryFullException> refused);
+
+    /**
+     * {@link #saveAllIfAbsent(List, ObjIntConsumer)}, throwing the first refusal once the rest
+     * of the batch has been inserted
+     */
+    default boolean[] saveAllIfAbsent(List<Student> batch) {
+        DictionaryFullException[] first = {null};
+        boolean[] inserted = saveAllIfAbsent(batch, (e, i) -> {
+            if (first[0] == null) {
+                first[0] = e;
+            }
+        });
+        if (first[0] != null) {
+            throw first[0];
+        }
+        return inserted;
     }
 
+    /**
+     * Notify {@code listener} of every change applied from now on
+     */
+    void addChangeListener(StudentChangeListener listener);
+
     /**
      * Find student by student number
      */
-    public Optional<Student> findByStudentNumber(String studentNumber) {
-        return Optional.ofNullable(students.get(studentNumber));
-    }
+    Optional<Student> findByStudentNumber(String studentNumber);
 
     /**
      * Check if student exists by student number
      */
-    public boolean existsByStudentNumber(String studentNumber) {
-        return students.containsKey(studentNumber);
-    }
+    boolean existsByStudentNumber(String studentNumber);
 
     /**
      * Find all students
      */
-    public List<Student> findAll() {
-        return new ArrayList<>(students.values());
-    }
+    List<Student> findAll();
 
     /**
-     * Delete student by student number
+     * Delete student by student number. Returns whether a student was deleted, so of
+     * concurrent deletes of one student exactly one returns true.
      */
-    public void deleteByStudentNumber(String studentNumber) {
-        students.remove(studentNumber);
-    }
+    boolean deleteByStudentNumber(String studentNumber);
 
     /**
      * Delete all students
      */
-    public void deleteAll() {
-        students.clear();
-    }
+    void deleteAll();
 
     /**
      * Count total students
      */
-    public long count() {
-        return students.size();
-    }
+    long count();
 
     /**
      * Find students by name (partial match, case-insensitive)
      */
-    public List<Student> findByNameContaining(String name) {
-        return students.values().stream()
-                .filter(s -> s.getName().toLowerCase().contains(name.toLowerCase()))
-                .collect(Collectors.toList());
+    List<Student> findByNameContaining(String name);
+
+    /**
+     * Normalize a name or name query for substring matching
+     */
+    static String normalizeName(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : null;
     }
 
     /**
      * Find students by city
      */
-    public List<Student> findByCity(String city) {
-        return students.values().stream()
-                .filter(s -> s.getAddress().getCity().equalsIgnoreCase(city))
-                .collect(Collectors.toList());
+    default List<Student> findByCity(String city) {
+        return findByLocation(city, null, null);
     }
 
+    /**
+     * Find students matching every non-null location field (case-insensitive)
+     */
+    List<Student> findByLocation(String city, String state, String country);
+
     /**
      * Find students with CGPA greater than or equal to minimum
      */
-    public List<Student> findByCgpaGreaterThanEqual(Double minCgpa) {
-        return students.values().stream()
-                .filter(s -> s.getCgpa() >= minCgpa)
-                .collect(Collectors.toList());
+    default List<Student> findByCgpaGreaterThanEqual(Double minCgpa) {
+        return findByCgpaBetween(minCgpa, null);
     }
 
+    /**
+     * Find students with CGPA in [minCgpa, maxCgpa], ordered by CGPA then student number.
+     * A null bound leaves that side of the range open.
+     */
+    List<Student> findByCgpaBetween(Double minCgpa, Double maxCgpa);
+
+    /**
+     * Students ordered by the given field (ties by student number), resuming strictly after
+     * the given position when {@code afterKey} is non-null. Iteration is lazy and reads only
+     * as far as the caller does. Students without a value for the field are not included.
+     */
+    Iterable<Student> findAllOrderedAfter(StudentSortField field, boolean descending,
+                                          Comparable<?> afterKey, String afterStudentNumber);
+
+    /**
+     * Compile a query into a plan, choosing the most selective index to drive it
+     */
+    QueryPlan plan(StudentQuery query);
+
+    /**
+     * Plan a walk of the field's ordered index strictly after the given position (see
+     * {@link #findAllOrderedAfter}), keeping only students that match the query
+     */
+    QueryPlan planOrderedAfter(StudentQuery query, StudentSortField field, boolean descending,
+                               Comparable<?> afterKey, String afterStudentNumber);
+
+    /**
+     * Run a plan made by this repository, passing each matching student to {@code sink}
+     * until it returns false
+     *
+     * @return the number of candidates examined
+     */
+    long execute(QueryPlan plan, Predicate<Student> sink);
+
+    /**
+     * Plan and run a query, collecting every matching student in ascending order of the
+     * query's {@code orderBy} field, if set. Large scans run in parallel.
+     */
+    QueryResult query(StudentQuery query);
+
+    /**
+     * The {@code k} students matching the query with the highest values of {@code field},
+     * highest first, ties by descending student number (the order of a descending list).
+     * Students without a value for the field are not included.
+     */
+    QueryResult findTop(StudentQuery query, StudentSortField field, int k);
+
+    /**
+     * Students whose name contains {@code name} (when set) and, for every facet with a
+     * selection, who hold any of its selected values (case-insensitive), paged in the facet
+     * index's row order; with the total and every facet's counts. A facet's counts ignore its
+     * own selection, so they show what selecting another of its values would add.
+     */
+    FacetedSearchResult facetedSearch(String name, Map<StudentFacet, ? extends Set<String>> selections,
+                                      int offset, int limit);
+
     /**
      * Find students with no backlogs
      */
-    public List<Student> findByBacklogsEquals(Integer backlogs) {
-        return students.values().stream()
-                .filter(s -> s.getBacklogs().equals(backlogs))
-                .collect(Collectors.toList());
-    }
+    List<Student> findByBacklogsEquals(Integer backlogs);
+
+    /**
+     * Changes on every save or delete and is never reused, even across restarts; equal
+     * epochs mean nothing was written in between
+     */
+    long getModificationEpoch();
+
+    /**
+     * Running statistics over all stored students
+     */
+    StudentStatisticsAggregator.Snapshot getStatistics();
+
+    /**
+     * Recompute statistics with a full scan, for reconciling the running counters
+     */
+    StudentStatisticsAggregator.Snapshot recomputeStatistics();
 }
@@ -0,0 +1,67 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.index.HashIndex;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Fields students can be ordered by. Each field defines the key stored in its ordered
+ * index and how that key is written to and read back from a pagination cursor.
+ */
+public enum StudentSortField {
+
+    STUDENT_NUMBER(Student::getStudentNumber, raw -> raw),
+    NAME(s -> s.getName() != null ? HashIndex.fold(s.getName()) : null, raw -> raw),
+    CGPA(Student::getCgpa, Double::valueOf),
+    CREATED_DATE(Student::getCreatedDate, LocalDateTime::parse);
+
+    private final Function<Student, Comparable<?>> extractor;
+    private final Function<String, Comparable<?>> parser;
+
+    StudentSortField(Function<Student, ? extends Comparable<?>> extractor,
+                     Function<String, ? extends Comparable<?>> parser) {
+        this.extractor = extractor::apply;
+        this.parser = parser::apply;
+    }
+
+    /**
+     * Resolve the sortBy request parameter, defaulting to student number
+     */
+    public static StudentSortField fromParameter(String sortBy) {
+        if (sortBy == null) {
+            return STUDENT_NUMBER;
+        }
+        return switch (sortBy.toLowerCase()) {
+            case "name" -> NAME;
+            case "cgpa" -> CGPA;
+            case "createddate" -> CREATED_DATE;
+            default -> STUDENT_NUMBER;
+        };
+    }
+
+    /**
+     * Sort key of the given student (names are case-folded so they order case-insensitively)
+     */
+    public Comparable<?> keyOf(Student student) {
+        return extractor.apply(student);
+    }
+
+    /**
+     * Parse a key previously produced by {@link #keyOf(Student)} and rendered with {@code toString()}
+     */
+    public Comparable<?> parseKey(String raw) {
+        return parser.apply(raw);
+    }
+
+    /**
+     * Ascending order by this field, ties broken by student number
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<Student> comparator() {
+        Comparator<Student> byKey = Comparator.comparing(s -> (Comparable) keyOf(s));
+        return this == STUDENT_NUMBER ? byKey : byKey.thenComparing(Student::getStudentNumber);
+    }
+}
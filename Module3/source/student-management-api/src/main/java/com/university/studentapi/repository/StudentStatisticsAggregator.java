@@ -0,0 +1,217 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.index.LocationDictionary;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running student statistics, updated on every write instead of recomputed per request.
+ * <p>
+ * Counters are striped adders so concurrent writers do not contend on a single cell.
+ * Cities are counted in an array indexed by their {@link LocationDictionary} code, so
+ * spellings differing only in case are counted together under the first one seen. City
+ * counters are never removed once created; cities whose count drops to zero are simply left
+ * out of the snapshot, and a counter is reused with its code once the dictionary frees it. A snapshot reads the counters one by one, so while writes are in
+ * flight its fields may reflect slightly different instants.
+ * <p>
+ * A CGPA histogram in 0.1-wide buckets is kept as well, so the query planner can estimate
+ * how many students a CGPA range holds without walking the CGPA index.
+ */
+public class StudentStatisticsAggregator {
+
+    public static final double TOP_PERFORMER_CGPA = 9.0;
+
+    private static final int CGPA_BUCKETS = 101;
+    // Tolerance for binary rounding of CGPA bounds such as 0.1 * 10
+    private static final double BUCKET_EPSILON = 1e-9;
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder withoutBacklogs = new LongAdder();
+    private final LongAdder topPerformers = new LongAdder();
+    private final DoubleAdder cgpaSum = new DoubleAdder();
+    private final LongAdder[] cgpaBuckets = new LongAdder[CGPA_BUCKETS];
+    private final LocationDictionary cities;
+    // Copied on write; only grows, up to the dictionary's maximum size
+    private volatile LongAdder[] cityCounts = new LongAdder[0];
+
+    public StudentStatisticsAggregator() {
+        this(new LocationDictionary());
+    }
+
+    /**
+     * Aggregator counting cities by their codes in {@code cities}
+     */
+    public StudentStatisticsAggregator(LocationDictionary cities) {
+        this.cities = cities;
+        for (int i = 0; i < CGPA_BUCKETS; i++) {
+            cgpaBuckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Add one student's contribution; a city no stored student holds is not counted
+     */
+    public void add(Double cgpa, Integer backlogs, String city) {
+        apply(cgpa, backlogs, cities.find(city), 1);
+    }
+
+    /**
+     * Add one student's contribution, the city given by its code
+     */
+    public void add(Double cgpa, Integer backlogs, int city) {
+        apply(cgpa, backlogs, city, 1);
+    }
+
+    /**
+     * Remove a contribution previously passed to {@link #add}
+     */
+    public void remove(Double cgpa, Integer backlogs, int city) {
+        apply(cgpa, backlogs, city, -1);
+    }
+
+    public void clear() {
+        total.reset();
+        withoutBacklogs.reset();
+        topPerformers.reset();
+        cgpaSum.reset();
+        for (LongAdder count : cityCounts) {
+            count.reset();
+        }
+        for (LongAdder bucket : cgpaBuckets) {
+            bucket.reset();
+        }
+    }
+
+    /**
+     * Number of students without backlogs, without building a full snapshot
+     */
+    public long studentsWithNoBacklogs() {
+        return withoutBacklogs.sum();
+    }
+
+    /**
+     * Estimated number of students with a CGPA in [minCgpa, maxCgpa], a null bound leaving
+     * that side open. Costs O(buckets) and is exact for CGPAs with one decimal place.
+     */
+    public long estimateCgpaBetween(Double minCgpa, Double maxCgpa) {
+        int from = minCgpa != null ? clampBucket(Math.ceil(minCgpa * 10 - BUCKET_EPSILON)) : 0;
+        int to = maxCgpa != null ? clampBucket(Math.floor(maxCgpa * 10 + BUCKET_EPSILON)) : CGPA_BUCKETS - 1;
+        long count = 0;
+        for (int bucket = from; bucket <= to; bucket++) {
+            count += cgpaBuckets[bucket].sum();
+        }
+        return Math.max(0, count);
+    }
+
+    /**
+     * Current totals, in O(#cities)
+     */
+    public Snapshot snapshot() {
+        LongAdder[] counts = cityCounts;
+        Map<String, Long> distribution = new HashMap<>();
+        for (int city = 0; city < counts.length; city++) {
+            long value = counts[city].sum();
+            if (value > 0) {
+                distribution.put(cities.label(city), value);
+            }
+        }
+        return new Snapshot(total.sum(), cgpaSum.sum(), withoutBacklogs.sum(), topPerformers.sum(), distribution);
+    }
+
+    /**
+     * Compute the same totals with a full scan. Used to reconcile the running counters.
+     */
+    public static Snapshot scan(Iterable<Student> students) {
+        // A dictionary of its own, holding every city the students name
+        LocationDictionary cities = new LocationDictionary(Integer.MAX_VALUE);
+        for (Student student : students) {
+            cities.retain(student.getAddress() != null ? student.getAddress().getCity() : null);
+        }
+        return scan(students, cities);
+    }
+
+    /**
+     * {@link #scan(Iterable)}, labelling cities the way {@code cities} does
+     */
+    public static Snapshot scan(Iterable<Student> students, LocationDictionary cities) {
+        StudentStatisticsAggregator aggregator = new StudentStatisticsAggregator(cities);
+        for (Student student : students) {
+            aggregator.add(student.getCgpa(), student.getBacklogs(),
+                    student.getAddress() != null ? student.getAddress().getCity() : null);
+        }
+        return aggregator.snapshot();
+    }
+
+    private void apply(Double cgpa, Integer backlogs, int city, int sign) {
+        total.add(sign);
+        if (cgpa != null) {
+            cgpaSum.add(sign * cgpa);
+            if (cgpa >= TOP_PERFORMER_CGPA) {
+                topPerformers.add(sign);
+            }
+            cgpaBuckets[clampBucket(Math.rint(cgpa * 10))].add(sign);
+        }
+        if (backlogs != null && backlogs == 0) {
+            withoutBacklogs.add(sign);
+        }
+        if (city >= 0) {
+            cityCount(city).add(sign);
+        }
+    }
+
+    private LongAdder cityCount(int city) {
+        LongAdder[] counts = cityCounts;
+        return city < counts.length ? counts[city] : addCityCounts(city);
+    }
+
+    private synchronized LongAdder addCityCounts(int city) {
+        LongAdder[] counts = cityCounts;
+        if (city >= counts.length) {
+            int from = counts.length;
+            counts = Arrays.copyOf(counts, Math.max(city + 1, cities.size()));
+            for (int i = from; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+            cityCounts = counts;
+        }
+        return counts[city];
+    }
+
+    private static int clampBucket(double bucket) {
+        return (int) Math.max(0, Math.min(CGPA_BUCKETS - 1, bucket));
+    }
+
+    /**
+     * Point-in-time view of the aggregated statistics
+     */
+    @Value
+    public static class Snapshot {
+        long totalStudents;
+        double cgpaSum;
+        long studentsWithNoBacklogs;
+        long topPerformers;
+        Map<String, Long> cityDistribution;
+
+        public double getAverageCgpa() {
+            return totalStudents == 0 ? 0.0 : cgpaSum / totalStudents;
+        }
+
+        /**
+         * Whether two snapshots agree, allowing for floating-point drift in the CGPA sum
+         */
+        public boolean reconcilesWith(Snapshot other) {
+            return totalStudents == other.totalStudents
+                    && studentsWithNoBacklogs == other.studentsWithNoBacklogs
+                    && topPerformers == other.topPerformers
+                    && Math.abs(cgpaSum - other.cgpaSum) < 1e-6 * Math.max(1, totalStudents)
+                    && Objects.equals(cityDistribution, other.cityDistribution);
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package com.university.studentapi.repository.index;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Compressed bitmaps (Roaring) of the students holding each value of a fixed number of
+ * facets, such as city or a CGPA band. Students are numbered with dense rows, reused after
+ * deletes, so filtering is a union of the selected values' bitmaps per facet and an
+ * intersection across facets, and counting a value is the cardinality of an intersection.
+ * <p>
+ * Values match case-insensitively (see {@link HashIndex#fold}) and are reported with the
+ * spelling first indexed.
+ * <p>
+ * Bitmaps are copy-on-write, so searches take no lock and never hold up writes. Each value's
+ * rows are split into chunks of {@value #CHUNK_ROWS} (one Roaring container each), and a write
+ * replaces the value with a copy in which only the chunk holding the student's row is cloned
+ * and changed. Writers are serialized among themselves only. A search works on the bitmaps
+ * current when it starts, so a write running alongside it may count under one facet and not
+ * yet under another. A row freed by a delete is only reused once no search is running, so a
+ * search never reports a row under another student's number.
+ */
+public class FacetIndex {
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+
+    private final Lock writeLock = new ReentrantLock();
+    private final AtomicInteger searches = new AtomicInteger();
+    private final List<Map<String, Posting>> postings = new ArrayList<>();
+    private final Map<String, Integer> rows = new ConcurrentHashMap<>();
+    private volatile Chunks live = Chunks.EMPTY;
+    private volatile String[] studentNumbers = new String[1024];
+    // Guarded by writeLock
+    private int[] freeRows = new int[64];
+    private int freeCount;
+    private int[] retiredRows = new int[64];
+    private int retiredCount;
+    private int rowLimit;
+
+    public FacetIndex(int facets) {
+        for (int i = 0; i < facets; i++) {
+            postings.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Move a student from its previously indexed values (one per facet, null for none) to
+     * new ones. A null array means "not indexed" on that side.
+     */
+    public void replace(String studentNumber, String[] previous, String[] next) {
+        writeLock.lock();
+        try {
+            if (next == null) {
+                Integer row = rows.remove(studentNumber);
+                if (row != null) {
+                    live = live.without(row);
+                    update(row, previous, null);
+                    studentNumbers[row] = null;
+                    retire(row);
+                }
+                return;
+            }
+            Integer row = rows.get(studentNumber);
+            if (row == null) {
+                row = allocate(studentNumber);
+                update(row, null, next);
+                live = live.with(row);
+                return;
+            }
+            update(row, previous, next);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Index many students at once, in order, building each value's bitmaps in place before
+     * publishing them
+     */
+    public <T> void addAll(Collection<T> items, Function<? super T, String> studentNumber,
+                           Function<? super T, String[]> values) {
+        writeLock.lock();
+        try {
+            List<Map<String, Builder>> built = new ArrayList<>(postings.size());
+            for (int facet = 0; facet < postings.size(); facet++) {
+                built.add(new HashMap<>());
+            }
+            Builder added = new Builder(null, live);
+            for (T item : items) {
+                String key = studentNumber.apply(item);
+                if (rows.containsKey(key)) {
+                    continue;
+                }
+                int row = allocate(key);
+                added.add(row);
+                String[] next = values.apply(item);
+                for (int facet = 0; facet < postings.size(); facet++) {
+                    String value = next[facet];
+                    if (value != null) {
+                        Map<String, Posting> current = postings.get(facet);
+                        built.get(facet).computeIfAbsent(HashIndex.fold(value), folded -> {
+                            Posting posting = current.get(folded);
+                            return posting != null ? new Builder(posting.label(), posting.rows())
+                                    : new Builder(value, Chunks.EMPTY);
+                        }).add(row);
+                    }
+                }
+            }
+            for (int facet = 0; facet < postings.size(); facet++) {
+                Map<String, Posting> current = postings.get(facet);
+                built.get(facet).forEach((key, builder) -> current.put(key, builder.build()));
+            }
+            live = added.build().rows();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Students matching every facet's selection (any of its values; facets without one are
+     * not filtered) and, when {@code restrictTo} is non-null, among those students; a page of
+     * them in row order; and for every facet, the students per value that match the other
+     * facets' selections, so each count is what selecting that value as well would return
+     *
+     * @param selections one set of values per facet, null or empty for no filter
+     */
+    public Result search(List<? extends Set<String>> selections, Collection<String> restrictTo,
+                         int offset, int limit) {
+        searches.incrementAndGet();
+        try {
+            Chunks all = live;
+            // Postings are immutable: take those current now and work on them throughout
+            List<List<Posting>> values = new ArrayList<>(postings.size());
+            List<List<Posting>> selected = new ArrayList<>(postings.size());
+            for (int facet = 0; facet < postings.size(); facet++) {
+                Map<String, Posting> facetPostings = postings.get(facet);
+                values.add(List.copyOf(facetPostings.values()));
+                Set<String> selection = facet < selections.size() ? selections.get(facet) : null;
+                selected.add(selection != null && !selection.isEmpty() ? select(facetPostings, selection) : null);
+            }
+            RoaringBitmap[] restriction = restrictTo != null ? rowsOf(restrictTo) : null;
+
+            long total = 0;
+            long skip = offset;
+            List<String> page = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+            String[] numbers = studentNumbers;
+            long[][] counts = new long[values.size()][];
+            for (int facet = 0; facet < counts.length; facet++) {
+                counts[facet] = new long[values.get(facet).size()];
+            }
+            for (int chunk = 0; chunk < all.length(); chunk++) {
+                RoaringBitmap liveRows = all.chunk(chunk);
+                if (liveRows == null) {
+                    continue;
+                }
+                RoaringBitmap restricted = restriction == null ? null
+                        : chunk < restriction.length && restriction[chunk] != null ? restriction[chunk]
+                        : new RoaringBitmap();
+                RoaringBitmap[] chosen = new RoaringBitmap[selected.size()];
+                for (int facet = 0; facet < chosen.length; facet++) {
+                    if (selected.get(facet) != null) {
+                        chosen[facet] = union(selected.get(facet), chunk);
+                    }
+                }
+
+                RoaringBitmap matches = intersect(chosen, restricted, -1);
+                RoaringBitmap source = matches != null ? matches : liveRows;
+                long cardinality = source.getLongCardinality();
+                total += cardinality;
+                if (page.size() < limit) {
+                    if (skip >= cardinality) {
+                        skip -= cardinality;
+                    } else {
+                        addPage(page, source, (int) skip, limit, numbers);
+                        skip = 0;
+                    }
+                }
+
+                for (int facet = 0; facet < chosen.length; facet++) {
+                    RoaringBitmap base = chosen[facet] == null ? matches : intersect(chosen, restricted, facet);
+                    List<Posting> facetValues = values.get(facet);
+                    for (int i = 0; i < facetValues.size(); i++) {
+                        RoaringBitmap rows = facetValues.get(i).rows().chunk(chunk);
+                        if (rows != null) {
+                            counts[facet][i] += base != null
+                                    ? RoaringBitmap.andCardinality(base, rows)
+                                    : rows.getLongCardinality();
+                        }
+                    }
+                }
+            }
+
+            List<Map<String, Long>> facetCounts = new ArrayList<>(values.size());
+            for (int facet = 0; facet < values.size(); facet++) {
+                Map<String, Long> byLabel = new LinkedHashMap<>();
+                List<Posting> facetValues = values.get(facet);
+                for (int i = 0; i < facetValues.size(); i++) {
+                    byLabel.put(facetValues.get(i).label(), counts[facet][i]);
+                }
+                facetCounts.add(byLabel);
+            }
+            return new Result(total, page, facetCounts);
+        } finally {
+            searches.decrementAndGet();
+        }
+    }
+
+    /**
+     * Number of students indexed
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Bytes held by the bitmaps, as serialized
+     */
+    public long bitmapBytes() {
+        long bytes = live.serializedSizeInBytes();
+        for (Map<String, Posting> facet : postings) {
+            for (Posting posting : facet.values()) {
+                bytes += posting.rows().serializedSizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Publish a copy of each changed value's postings with the row moved. Must hold the
+     * write lock.
+     */
+    private void update(int row, String[] previous, String[] next) {
+        for (int facet = 0; facet < postings.size(); facet++) {
+            String before = previous != null ? previous[facet] : null;
+            String after = next != null ? next[facet] : null;
+            if (Objects.equals(before, after)) {
+                continue;
+            }
+            Map<String, Posting> values = postings.get(facet);
+            if (before != null) {
+                values.computeIfPresent(HashIndex.fold(before), (key, posting) -> {
+                    Chunks rows = posting.rows().without(row);
+                    return rows.isEmpty() ? null : new Posting(posting.label(), rows);
+                });
+            }
+            if (after != null) {
+                values.compute(HashIndex.fold(after), (key, posting) -> posting == null
+                        ? new Posting(after, Chunks.EMPTY.with(row))
+                        : new Posting(posting.label(), posting.rows().with(row)));
+            }
+        }
+    }
+
+    /**
+     * Postings of the given values of a facet
+     */
+    private static List<Posting> select(Map<String, Posting> facetPostings, Set<String> values) {
+        List<Posting> selected = new ArrayList<>(values.size());
+        for (String value : values) {
+            Posting posting = value != null ? facetPostings.get(HashIndex.fold(value)) : null;
+            if (posting != null) {
+                selected.add(posting);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Union of one chunk of the given postings
+     */
+    private static RoaringBitmap union(List<Posting> selected, int chunk) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(selected.size());
+        for (Posting posting : selected) {
+            RoaringBitmap rows = posting.rows().chunk(chunk);
+            if (rows != null) {
+                bitmaps.add(rows);
+            }
+        }
+        return switch (bitmaps.size()) {
+            case 0 -> new RoaringBitmap();
+            case 1 -> bitmaps.get(0);
+            default -> FastAggregation.or(bitmaps.iterator());
+        };
+    }
+
+    /**
+     * Intersection of every selection except {@code skipFacet}'s, and the restriction; null
+     * when nothing constrains it
+     */
+    private static RoaringBitmap intersect(RoaringBitmap[] selected, RoaringBitmap restriction, int skipFacet) {
+        List<RoaringBitmap> constraints = new ArrayList<>(selected.length + 1);
+        for (int facet = 0; facet < selected.length; facet++) {
+            if (facet != skipFacet && selected[facet] != null) {
+                constraints.add(selected[facet]);
+            }
+        }
+        if (restriction != null) {
+            constraints.add(restriction);
+        }
+        return switch (constraints.size()) {
+            case 0 -> null;
+            case 1 -> constraints.get(0);
+            default -> FastAggregation.and(constraints.iterator());
+        };
+    }
+
+    /**
+     * Add the rows of {@code source} from its {@code skip}th on until the page is full
+     */
+    private static void addPage(List<String> page, RoaringBitmap source, int skip, int limit, String[] numbers) {
+        PeekableIntIterator cursor = source.getIntIterator();
+        cursor.advanceIfNeeded(source.select(skip));
+        while (cursor.hasNext() && page.size() < limit) {
+            int row = cursor.next();
+            // Null once deleted since the search started
+            String studentNumber = row < numbers.length ? numbers[row] : null;
+            if (studentNumber != null) {
+                page.add(studentNumber);
+            }
+        }
+    }
+
+    /**
+     * Rows of the given students, by chunk
+     */
+    private RoaringBitmap[] rowsOf(Collection<String> keys) {
+        RoaringBitmap[] chunks = new RoaringBitmap[0];
+        for (String key : keys) {
+            Integer row = rows.get(key);
+            if (row == null) {
+                continue;
+            }
+            int chunk = row >>> CHUNK_SHIFT;
+            if (chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunk + 1);
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new RoaringBitmap();
+            }
+            chunks[chunk].add(row);
+        }
+        return chunks;
+    }
+
+    /**
+     * Must hold the write lock
+     */
+    private int allocate(String studentNumber) {
+        if (freeCount == 0 && retiredCount > 0 && searches.get() == 0) {
+            // No search started before these rows were removed is still running
+            int[] reusable = retiredRows;
+            retiredRows = freeRows;
+            freeRows = reusable;
+            freeCount = retiredCount;
+            retiredCount = 0;
+        }
+        int row = freeCount > 0 ? freeRows[--freeCount] : rowLimit++;
+        String[] numbers = studentNumbers;
+        if (row >= numbers.length) {
+            numbers = Arrays.copyOf(numbers, numbers.length * 2);
+        }
+        numbers[row] = studentNumber;
+        studentNumbers = numbers;
+        rows.put(studentNumber, row);
+        return row;
+    }
+
+    /**
+     * Set a freed row aside until no search can still see it. Must hold the write lock.
+     */
+    private void retire(int row) {
+        if (retiredCount == retiredRows.length) {
+            retiredRows = Arrays.copyOf(retiredRows, retiredRows.length * 2);
+        }
+        retiredRows[retiredCount++] = row;
+    }
+
+    /**
+     * Outcome of {@link #search}: the number of matches, a page of their student numbers,
+     * and per facet, each value's count
+     */
+    public record Result(long total, List<String> studentNumbers, List<Map<String, Long>> counts) {
+    }
+
+    private record Posting(String label, Chunks rows) {
+    }
+
+    /**
+     * Immutable set of rows, as one bitmap per chunk of {@value #CHUNK_ROWS} rows (null when
+     * the chunk holds none). Changing a row copies the chunk array and clones that chunk only.
+     */
+    private static final class Chunks {
+
+        static final Chunks EMPTY = new Chunks(new RoaringBitmap[0], 0);
+
+        private final RoaringBitmap[] bitmaps;
+        private final long cardinality;
+
+        Chunks(RoaringBitmap[] bitmaps, long cardinality) {
+            this.bitmaps = bitmaps;
+            this.cardinality = cardinality;
+        }
+
+        int length() {
+            return bitmaps.length;
+        }
+
+        RoaringBitmap chunk(int chunk) {
+            return chunk < bitmaps.length ? bitmaps[chunk] : null;
+        }
+
+        boolean isEmpty() {
+            return cardinality == 0;
+        }
+
+        Chunks with(int row) {
+            int chunk = row >>> CHUNK_SHIFT;
+            RoaringBitmap current = chunk(chunk);
+            if (current != null && current.contains(row)) {
+                return this;
+            }
+            RoaringBitmap changed = current != null ? current.clone() : new RoaringBitmap();
+            changed.add(row);
+            RoaringBitmap[] copy = Arrays.copyOf(bitmaps, Math.max(bitmaps.length, chunk + 1));
+            copy[chunk] = changed;
+            return new Chunks(copy, cardinality + 1);
+        }
+
+        Chunks without(int row) {
+            int chunk = row >>> CHUNK_SHIFT;
+            RoaringBitmap current = chunk(chunk);
+            if (current == null || !current.contains(row)) {
+                return this;
+            }
+            RoaringBitmap changed = current.clone();
+            changed.remove(row);
+            RoaringBitmap[] copy = bitmaps.clone();
+            copy[chunk] = changed.isEmpty() ? null : changed;
+            return new Chunks(copy, cardinality - 1);
+        }
+
+        long serializedSizeInBytes() {
+            long bytes = 0;
+            for (RoaringBitmap bitmap : bitmaps) {
+                if (bitmap != null) {
+                    bytes += bitmap.serializedSizeInBytes();
+                }
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Rows being added in bulk to a private copy of a value's chunks; a shared chunk is cloned
+     * the first time a row is added to it
+     */
+    private static final class Builder {
+
+        private final String label;
+        private RoaringBitmap[] bitmaps;
+        private boolean[] owned;
+        private long cardinality;
+
+        Builder(String label, Chunks from) {
+            this.label = label;
+            this.bitmaps = from.bitmaps.clone();
+            this.owned = new boolean[bitmaps.length];
+            this.cardinality = from.cardinality;
+        }
+
+        void add(int row) {
+            int chunk = row >>> CHUNK_SHIFT;
+            if (chunk >= bitmaps.length) {
+                bitmaps = Arrays.copyOf(bitmaps, chunk + 1);
+                owned = Arrays.copyOf(owned, chunk + 1);
+            }
+            if (!owned[chunk]) {
+                bitmaps[chunk] = bitmaps[chunk] != null ? bitmaps[chunk].clone() : new RoaringBitmap();
+                owned[chunk] = true;
+            }
+            if (bitmaps[chunk].checkedAdd(row)) {
+                cardinality++;
+            }
+        }
+
+        Posting build() {
+            for (int chunk = 0; chunk < bitmaps.length; chunk++) {
+                if (owned[chunk]) {
+                    bitmaps[chunk].runOptimize();
+                }
+            }
+            return new Posting(label, new Chunks(bitmaps, cardinality));
+        }
+    }
+}
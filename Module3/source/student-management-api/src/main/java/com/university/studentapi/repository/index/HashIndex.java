@@ -0,0 +1,98 @@
+package com.university.studentapi.repository.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Case-insensitive secondary index from an attribute value to the student numbers holding it.
+ * Keys are folded the same way {@link String#equalsIgnoreCase(String)} compares characters,
+ * so an index hit never disagrees with the equality check the repository verifies against.
+ */
+public class HashIndex {
+
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Add a student number under the given value
+     */
+    public void add(String value, String studentNumber) {
+        if (value == null) {
+            return;
+        }
+        postings.compute(fold(value), (key, ids) -> {
+            Set<String> target = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            target.add(studentNumber);
+            return target;
+        });
+    }
+
+    /**
+     * Add many items at once, grouping them first so each posting list is allocated at its
+     * final size instead of being resized repeatedly
+     */
+    public <T> void addAll(Collection<T> items, Function<? super T, String> value,
+                           Function<? super T, String> studentNumber) {
+        Map<String, List<String>> groups = new HashMap<>();
+        for (T item : items) {
+            String key = value.apply(item);
+            if (key != null) {
+                groups.computeIfAbsent(fold(key), k -> new ArrayList<>()).add(studentNumber.apply(item));
+            }
+        }
+        groups.forEach((key, ids) ->
+                postings.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet(ids.size())).addAll(ids));
+    }
+
+    /**
+     * Remove a student number from the given value, dropping the posting list once it is empty
+     */
+    public void remove(String value, String studentNumber) {
+        if (value == null) {
+            return;
+        }
+        postings.computeIfPresent(fold(value), (key, ids) -> {
+            ids.remove(studentNumber);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Student numbers currently indexed under the given value (read-only live view)
+     */
+    public Set<String> get(String value) {
+        if (value == null) {
+            return Collections.emptySet();
+        }
+        Set<String> ids = postings.get(fold(value));
+        return ids != null ? Collections.unmodifiableSet(ids) : Collections.emptySet();
+    }
+
+    /**
+     * Number of distinct indexed values
+     */
+    public int distinctValues() {
+        return postings.size();
+    }
+
+    public void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Fold a value to the canonical form used for case-insensitive equality
+     */
+    public static String fold(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
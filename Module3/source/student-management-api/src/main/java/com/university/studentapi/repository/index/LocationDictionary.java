@@ -0,0 +1,99 @@
+package com.university.studentapi.repository.index;
+
+import com.university.studentapi.repository.store.DictionaryFullException;
+import com.university.studentapi.repository.store.StringDictionary;
+
+/**
+ * Case-insensitive dictionary of the location values (cities, states, countries) stored
+ * students hold. Values that are equal ignoring case (see {@link HashIndex#fold}) share one
+ * entry and dense int code, so equality filters compare codes and per-value counters live in
+ * int-indexed arrays. Each code is labelled with the spelling it was first assigned for.
+ * <p>
+ * Codes are reference-counted: a repository retains a student's codes when it stores the
+ * student and releases them when the student is replaced or deleted, so a location no
+ * student holds any more is dropped and its code reused. The entry also interns the
+ * spellings in use: {@link #intern} returns one shared instance per spelling, so stored
+ * records do not each keep their own copy of "Mumbai".
+ * <p>
+ * Since address values come from clients, at most {@code maxSize} locations are held at
+ * once, counting every case variant of one as a single location; a student bringing a new
+ * one beyond that is refused with a {@link DictionaryFullException}.
+ */
+public class LocationDictionary {
+
+    public static final int NULL_CODE = StringDictionary.NULL_CODE;
+    /**
+     * Code of a value no stored student holds
+     */
+    public static final int UNKNOWN_CODE = StringDictionary.NOT_FOUND;
+    /**
+     * Default most distinct locations, across cities, states and countries
+     */
+    public static final int DEFAULT_MAX_SIZE = 100_000;
+
+    private final StringDictionary codes;
+
+    public LocationDictionary() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public LocationDictionary(int maxSize) {
+        this.codes = new StringDictionary(HashIndex::fold, maxSize);
+    }
+
+    /**
+     * Codes of the given values, taking a reference to each; either all are taken or none
+     *
+     * @throws DictionaryFullException when a value is new and the dictionary is full
+     */
+    public int[] retain(String... values) {
+        int[] retained = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            try {
+                retained[i] = codes.retain(values[i]);
+            } catch (DictionaryFullException e) {
+                for (int j = 0; j < i; j++) {
+                    codes.release(retained[j]);
+                }
+                throw e;
+            }
+        }
+        return retained;
+    }
+
+    /**
+     * Give back a reference taken by {@link #retain}
+     */
+    public void release(int code) {
+        codes.release(code);
+    }
+
+    /**
+     * Code of a value without taking a reference: {@link #UNKNOWN_CODE} when no one holds it
+     */
+    public int find(String value) {
+        return codes.find(value);
+    }
+
+    /**
+     * Spelling a code was first assigned for
+     */
+    public String label(int code) {
+        return codes.decode(code);
+    }
+
+    /**
+     * The shared instance of this exact spelling while the location is held, otherwise the
+     * value itself
+     */
+    public String intern(String value) {
+        return codes.intern(value);
+    }
+
+    /**
+     * Number of distinct locations held
+     */
+    public int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,135 @@
+package com.university.studentapi.repository.index;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Inverted index from character trigrams of a normalized value to student numbers.
+ * A substring query of three or more characters can only match values containing every
+ * trigram of the query, so intersecting those posting lists yields a small candidate set
+ * that the caller then verifies with a real {@code contains} check.
+ */
+public class TrigramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Move a student from its previously indexed value to a new one, touching only the
+     * trigrams that differ. A null value means "not indexed" on that side.
+     */
+    public void replace(String previous, String next, String studentNumber) {
+        if (Objects.equals(previous, next)) {
+            return;
+        }
+        Set<String> previousGrams = previous != null ? grams(previous) : Collections.emptySet();
+        Set<String> nextGrams = next != null ? grams(next) : Collections.emptySet();
+
+        for (String gram : previousGrams) {
+            if (!nextGrams.contains(gram)) {
+                postings.computeIfPresent(gram, (key, ids) -> {
+                    ids.remove(studentNumber);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+        for (String gram : nextGrams) {
+            if (!previousGrams.contains(gram)) {
+                postings.compute(gram, (key, ids) -> {
+                    Set<String> target = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    target.add(studentNumber);
+                    return target;
+                });
+            }
+        }
+    }
+
+    /**
+     * Index many items at once, grouping them by trigram first so each posting list is
+     * allocated at its final size instead of being resized repeatedly
+     */
+    public <T> void addAll(Collection<T> items, Function<? super T, String> value,
+                           Function<? super T, String> studentNumber) {
+        Map<String, List<String>> groups = new HashMap<>();
+        for (T item : items) {
+            String normalized = value.apply(item);
+            if (normalized == null) {
+                continue;
+            }
+            String id = studentNumber.apply(item);
+            for (String gram : grams(normalized)) {
+                groups.computeIfAbsent(gram, key -> new ArrayList<>()).add(id);
+            }
+        }
+        groups.forEach((gram, ids) ->
+                postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet(ids.size())).addAll(ids));
+    }
+
+    /**
+     * Upper bound on the number of candidates for a normalized substring query (the size of
+     * its smallest trigram posting list), or -1 when the query is shorter than a trigram.
+     * Costs one map lookup per trigram and no intersection.
+     */
+    public int estimate(String normalizedQuery) {
+        if (normalizedQuery.length() < GRAM_LENGTH) {
+            return -1;
+        }
+        int smallest = Integer.MAX_VALUE;
+        for (String gram : grams(normalizedQuery)) {
+            Set<String> ids = postings.get(gram);
+            smallest = Math.min(smallest, ids != null ? ids.size() : 0);
+        }
+        return smallest;
+    }
+
+    /**
+     * Candidate student numbers for a normalized substring query, or {@code null} when the
+     * query is shorter than a trigram and the index cannot narrow the search.
+     * Candidates may include false positives and must be verified by the caller.
+     */
+    public Set<String> candidates(String normalizedQuery) {
+        if (normalizedQuery.length() < GRAM_LENGTH) {
+            return null;
+        }
+
+        List<Set<String>> lists = new ArrayList<>();
+        for (String gram : grams(normalizedQuery)) {
+            Set<String> ids = postings.get(gram);
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<String> result = new HashSet<>();
+        Set<String> smallest = lists.get(0);
+        outer:
+        for (String studentNumber : smallest) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(studentNumber)) {
+                    continue outer;
+                }
+            }
+            result.add(studentNumber);
+        }
+        return result;
+    }
+
+    public void clear() {
+        postings.clear();
+    }
+
+    private static Set<String> grams(String value) {
+        if (value.length() < GRAM_LENGTH) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
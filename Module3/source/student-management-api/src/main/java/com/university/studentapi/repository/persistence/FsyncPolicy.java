@@ -0,0 +1,22 @@
+package com.university.studentapi.repository.persistence;
+
+/**
+ * When write-ahead log entries are forced to disk
+ */
+public enum FsyncPolicy {
+
+    /**
+     * A write is acknowledged only after an fsync covering it; concurrent writes share one fsync
+     */
+    ALWAYS,
+
+    /**
+     * The log is fsynced on a fixed interval; a crash may lose writes from the last interval
+     */
+    INTERVAL,
+
+    /**
+     * The log is written on a fixed interval and flushing is left to the operating system
+     */
+    NEVER
+}
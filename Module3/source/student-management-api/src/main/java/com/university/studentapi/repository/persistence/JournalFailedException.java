@@ -0,0 +1,15 @@
+package com.university.studentapi.repository.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Exception thrown by a {@link StudentJournal} that could not write its log: the journal
+ * refuses every later change until the application is restarted and recovers
+ */
+public class JournalFailedException extends UncheckedIOException {
+
+    public JournalFailedException(String message, IOException cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,119 @@
+package com.university.studentapi.repository.persistence;
+
+import com.university.studentapi.model.Student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact binary snapshot of every student, written and read through memory-mapped windows.
+ * <p>
+ * Layout: a header {@code [int magic][int version][long segment][long count]} followed by
+ * {@code count} save frames in the {@link StudentCodec} format. The header is written last,
+ * so a snapshot interrupted before its rename is never mistaken for a complete one.
+ */
+final class SnapshotFile {
+
+    private static final int MAGIC = 0x53545553;
+    private static final int VERSION = 1;
+    private static final int HEADER = 24;
+    private static final long WINDOW = 64L << 20;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Write a snapshot that covers the log up to (not including) {@code segment}.
+     * Returns the number of students written.
+     */
+    static long write(Path file, long segment, Iterable<Student> students) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long windowStart = HEADER;
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW);
+            long count = 0;
+
+            for (Student student : students) {
+                byte[] frame = StudentCodec.save(student);
+                if (window.remaining() < frame.length) {
+                    window.force();
+                    windowStart += window.position();
+                    window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, Math.max(WINDOW, frame.length));
+                }
+                window.put(frame);
+                count++;
+            }
+            window.force();
+            channel.truncate(windowStart + window.position());
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+            header.putInt(MAGIC).putInt(VERSION).putLong(segment).putLong(count);
+            header.force();
+            channel.force(true);
+            return count;
+        }
+    }
+
+    /**
+     * Pass every student in the snapshot to {@code replay}
+     */
+    static void read(Path file, long segment, BiConsumer<String, Student> replay) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER) {
+                throw corrupt(file, "truncated header");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getLong() != segment) {
+                throw corrupt(file, "bad header");
+            }
+            long expected = header.getLong();
+
+            long windowStart = HEADER;
+            ByteBuffer window = map(channel, windowStart, WINDOW);
+            long count = 0;
+            while (windowStart + window.position() < size) {
+                if (size - windowStart - window.position() < StudentCodec.FRAME_HEADER) {
+                    throw corrupt(file, "truncated frame");
+                }
+                if (window.remaining() < StudentCodec.FRAME_HEADER) {
+                    windowStart += window.position();
+                    window = map(channel, windowStart, WINDOW);
+                }
+                int length = window.getInt(window.position());
+                if (length < 0 || windowStart + window.position() + StudentCodec.FRAME_HEADER + length > size) {
+                    throw corrupt(file, "truncated frame");
+                }
+                if (window.remaining() < StudentCodec.FRAME_HEADER + length) {
+                    windowStart += window.position();
+                    window = map(channel, windowStart, Math.max(WINDOW, StudentCodec.FRAME_HEADER + length));
+                }
+                window.position(window.position() + Integer.BYTES);
+                int checksum = window.getInt();
+                ByteBuffer payload = window.slice(window.position(), length);
+                if (StudentCodec.checksum(payload.duplicate()) != checksum) {
+                    throw corrupt(file, "checksum mismatch");
+                }
+                StudentCodec.replay(payload, replay);
+                window.position(window.position() + length);
+                count++;
+            }
+            if (count != expected) {
+                throw corrupt(file, "expected " + expected + " students but found " + count);
+            }
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(length, channel.size() - position));
+    }
+
+    private static IllegalStateException corrupt(Path file, String reason) {
+        return new IllegalStateException("Corrupt snapshot " + file + ": " + reason);
+    }
+}
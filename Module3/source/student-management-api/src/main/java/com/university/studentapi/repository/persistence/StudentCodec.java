@@ -0,0 +1,196 @@
+package com.university.studentapi.repository.persistence;
+
+import com.university.studentapi.model.Student;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary encoding of log entries, shared by the write-ahead log and snapshots.
+ * <p>
+ * A frame is {@code [int length][int crc32c][payload]}; the payload is an operation byte,
+ * the student number and, for saves, a presence bitmask followed by the non-null fields.
+ * Strings are length-prefixed UTF-8 and timestamps are UTC epoch seconds plus nanos.
+ */
+final class StudentCodec {
+
+    static final int FRAME_HEADER = 8;
+
+    static final byte SAVE = 1;
+    static final byte DELETE = 2;
+
+    private static final int HAS_ADDRESS = 1;
+    private static final int HAS_CGPA = 1 << 1;
+    private static final int HAS_BACKLOGS = 1 << 2;
+    private static final int HAS_CREATED = 1 << 3;
+    private static final int HAS_MODIFIED = 1 << 4;
+
+    private StudentCodec() {
+    }
+
+    /**
+     * Frame a save of the student's current state
+     */
+    static byte[] save(Student student) {
+        Student.Address address = student.getAddress();
+        Double cgpa = student.getCgpa();
+        Integer backlogs = student.getBacklogs();
+        LocalDateTime created = student.getCreatedDate();
+        LocalDateTime modified = student.getLastModifiedDate();
+
+        byte[][] strings = {
+                utf8(student.getStudentNumber()),
+                utf8(student.getName()),
+                address != null ? utf8(address.getStreet()) : null,
+                address != null ? utf8(address.getCity()) : null,
+                address != null ? utf8(address.getState()) : null,
+                address != null ? utf8(address.getCountry()) : null
+        };
+        int flags = (address != null ? HAS_ADDRESS : 0)
+                | (cgpa != null ? HAS_CGPA : 0)
+                | (backlogs != null ? HAS_BACKLOGS : 0)
+                | (created != null ? HAS_CREATED : 0)
+                | (modified != null ? HAS_MODIFIED : 0);
+
+        int length = 2 + stringBytes(strings[0]) + stringBytes(strings[1])
+                + (address != null ? stringBytes(strings[2]) + stringBytes(strings[3])
+                        + stringBytes(strings[4]) + stringBytes(strings[5]) : 0)
+                + (cgpa != null ? Double.BYTES : 0)
+                + (backlogs != null ? Integer.BYTES : 0)
+                + (created != null ? Long.BYTES + Integer.BYTES : 0)
+                + (modified != null ? Long.BYTES + Integer.BYTES : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME_HEADER + length);
+        buffer.position(FRAME_HEADER);
+        buffer.put(SAVE);
+        putString(buffer, strings[0]);
+        buffer.put((byte) flags);
+        putString(buffer, strings[1]);
+        if (address != null) {
+            for (int i = 2; i < strings.length; i++) {
+                putString(buffer, strings[i]);
+            }
+        }
+        if (cgpa != null) {
+            buffer.putDouble(cgpa);
+        }
+        if (backlogs != null) {
+            buffer.putInt(backlogs);
+        }
+        putTime(buffer, created);
+        putTime(buffer, modified);
+        return seal(buffer);
+    }
+
+    /**
+     * Frame a delete
+     */
+    static byte[] delete(String studentNumber) {
+        byte[] key = utf8(studentNumber);
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME_HEADER + 1 + stringBytes(key));
+        buffer.position(FRAME_HEADER);
+        buffer.put(DELETE);
+        putString(buffer, key);
+        return seal(buffer);
+    }
+
+    /**
+     * Checksum of a frame payload
+     */
+    static int checksum(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Decode a frame payload and pass it to {@code replay} (a null student for deletes)
+     */
+    static void replay(ByteBuffer payload, BiConsumer<String, Student> replay) {
+        byte operation = payload.get();
+        String studentNumber = getString(payload);
+        switch (operation) {
+            case SAVE -> replay.accept(studentNumber, readStudent(studentNumber, payload));
+            case DELETE -> replay.accept(studentNumber, null);
+            default -> throw new IllegalStateException("Unknown log operation: " + operation);
+        }
+    }
+
+    private static Student readStudent(String studentNumber, ByteBuffer payload) {
+        int flags = payload.get();
+        Student.StudentBuilder builder = Student.builder()
+                .studentNumber(studentNumber)
+                .name(getString(payload));
+        if ((flags & HAS_ADDRESS) != 0) {
+            builder.address(Student.Address.builder()
+                    .street(getString(payload))
+                    .city(getString(payload))
+                    .state(getString(payload))
+                    .country(getString(payload))
+                    .build());
+        }
+        if ((flags & HAS_CGPA) != 0) {
+            builder.cgpa(payload.getDouble());
+        }
+        if ((flags & HAS_BACKLOGS) != 0) {
+            builder.backlogs(payload.getInt());
+        }
+        if ((flags & HAS_CREATED) != 0) {
+            builder.createdDate(getTime(payload));
+        }
+        if ((flags & HAS_MODIFIED) != 0) {
+            builder.lastModifiedDate(getTime(payload));
+        }
+        return builder.build();
+    }
+
+    private static byte[] seal(ByteBuffer buffer) {
+        int length = buffer.position() - FRAME_HEADER;
+        buffer.putInt(0, length);
+        buffer.putInt(4, checksum(buffer.slice(FRAME_HEADER, length)));
+        return buffer.array();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int stringBytes(byte[] bytes) {
+        return Integer.BYTES + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        if (time != null) {
+            buffer.putLong(time.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC);
+    }
+}
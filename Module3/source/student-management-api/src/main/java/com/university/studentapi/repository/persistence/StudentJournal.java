@@ -0,0 +1,95 @@
+package com.university.studentapi.repository.persistence;
+
+import com.university.studentapi.model.Student;
+
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Durable record of repository changes.
+ * <p>
+ * The repository logs each change from inside the store's {@code compute} for that student,
+ * so the journal holds changes to one student in the order they were applied, and then
+ * waits for the returned position to become durable outside of it.
+ * <p>
+ * Logging only buffers a change, so by the time it is found not to be durable it has already
+ * been applied. A journal that fails to write its log therefore fails for good: the change
+ * stays visible in memory, but {@link #awaitDurable} reports the failure to its writer and
+ * every later change is refused with a {@link JournalFailedException} before it is applied,
+ * leaving the repository read-only until a restart recovers what the log holds.
+ */
+public interface StudentJournal extends AutoCloseable {
+
+    /**
+     * Position returned when nothing was logged
+     */
+    long NOT_LOGGED = 0;
+
+    /**
+     * Journal that keeps nothing; the repository is purely in-memory
+     */
+    StudentJournal NONE = new StudentJournal() {
+        @Override
+        public void recover(BiConsumer<String, Student> replay) {
+        }
+
+        @Override
+        public long guard(LongSupplier change) {
+            return change.getAsLong();
+        }
+
+        @Override
+        public long logSave(Student student) {
+            return NOT_LOGGED;
+        }
+
+        @Override
+        public long logDelete(String studentNumber) {
+            return NOT_LOGGED;
+        }
+
+        @Override
+        public void awaitDurable(long position) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Replay the persisted state, calling {@code replay} with each student in order
+     * (a null student means it was deleted). Called once, before any change is logged.
+     */
+    void recover(BiConsumer<String, Student> replay);
+
+    /**
+     * Run one logged change so that checkpoints never observe it half-applied.
+     * Returns the journal position produced by the change.
+     */
+    long guard(LongSupplier change);
+
+    /**
+     * Append a save of the student's current state
+     *
+     * @throws JournalFailedException when the journal has failed
+     */
+    long logSave(Student student);
+
+    /**
+     * Append a delete
+     *
+     * @throws JournalFailedException when the journal has failed
+     */
+    long logDelete(String studentNumber);
+
+    /**
+     * Block until the entry at {@code position} is as durable as the fsync policy promises
+     *
+     * @throws JournalFailedException when the journal failed before the entry became durable
+     */
+    void awaitDurable(long position);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,429 @@
+package com.university.studentapi.repository.persistence;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.store.StudentStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, checksummed write-ahead log with periodic snapshots.
+ * <p>
+ * Entries are appended to an in-memory batch and written out by whichever writer first needs
+ * them durable (group commit): under {@link FsyncPolicy#ALWAYS} concurrent writers share one
+ * write and fsync, otherwise a background task flushes on a fixed interval.
+ * <p>
+ * A checkpoint briefly excludes writers to roll the log over to a new segment, then writes a
+ * snapshot of the store while writes continue into that segment. Every change in earlier
+ * segments is complete by then, and each log entry holds a student's full state, so loading
+ * the snapshot and replaying the log from its segment on reproduces the latest state.
+ * Older segments and snapshots are deleted once the new snapshot is durable.
+ * <p>
+ * The first failure to write or roll over the log fails the journal: whatever was batched is
+ * lost, nothing after it is written (a later fsync must not vouch for entries the failed write
+ * dropped) and every later append or wait throws {@link JournalFailedException}.
+ */
+@Slf4j
+public class WriteAheadJournal implements StudentJournal {
+
+    private static final Pattern SEGMENT = Pattern.compile("wal-(\\d{20})\\.log");
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d{20})\\.bin");
+    private static final int MAX_FRAME = 64 << 20;
+
+    private final StudentStore store;
+    private final Path directory;
+    private final FsyncPolicy fsync;
+    private final Duration fsyncInterval;
+    private final Duration snapshotInterval;
+
+    private final ReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Object appendLock = new Object();
+
+    private Batch pending = new Batch();
+    private long appended;
+    private Batch spare = new Batch();
+    private FileChannel channel;
+    private long segment;
+    private long checkpointed;
+    private volatile long durable;
+    private volatile IOException failure;
+    private ScheduledExecutorService scheduler;
+
+    public WriteAheadJournal(StudentStore store, Path directory, FsyncPolicy fsync,
+                             Duration fsyncInterval, Duration snapshotInterval) {
+        this.store = store;
+        this.directory = directory;
+        this.fsync = fsync;
+        this.fsyncInterval = fsyncInterval;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    public void recover(BiConsumer<String, Student> replay) {
+        long started = System.nanoTime();
+        AtomicLong restored = new AtomicLong();
+        AtomicLong replayed = new AtomicLong();
+        try {
+            Files.createDirectories(directory);
+            List<Long> snapshots = list(SNAPSHOT);
+            long first = 0;
+            if (!snapshots.isEmpty()) {
+                first = snapshots.get(snapshots.size() - 1);
+                SnapshotFile.read(snapshotPath(first), first, (studentNumber, student) -> {
+                    restored.incrementAndGet();
+                    replay.accept(studentNumber, student);
+                });
+            }
+
+            long start = first;
+            List<Long> segments = list(SEGMENT).stream().filter(id -> id >= start).toList();
+            for (int i = 0; i < segments.size(); i++) {
+                replaySegment(segmentPath(segments.get(i)), i == segments.size() - 1, (studentNumber, student) -> {
+                    replayed.incrementAndGet();
+                    replay.accept(studentNumber, student);
+                });
+            }
+
+            // Make the next checkpoint fold the replayed log into a snapshot
+            checkpointed = replayed.get() > 0 ? -1 : 0;
+            deleteBefore(first);
+            openSegment(segments.isEmpty() ? first : segments.get(segments.size() - 1) + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover students from " + directory, e);
+        }
+        startBackgroundTasks();
+        log.info("Recovered {} students from snapshot and {} log entries in {} ms",
+                restored.get(), replayed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @Override
+    public long guard(LongSupplier change) {
+        Lock lock = checkpointLock.readLock();
+        lock.lock();
+        try {
+            return change.getAsLong();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long logSave(Student student) {
+        return append(StudentCodec.save(student));
+    }
+
+    @Override
+    public long logDelete(String studentNumber) {
+        return append(StudentCodec.delete(studentNumber));
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        if (position <= durable) {
+            return;
+        }
+        checkFailed();
+        if (fsync != FsyncPolicy.ALWAYS) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            // Another writer may have synced this position while we waited
+            if (position > durable) {
+                flush(true);
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot the store and drop the log segments the snapshot covers.
+     * Does nothing if nothing was logged since the last checkpoint.
+     */
+    public synchronized void checkpoint() {
+        long started = System.nanoTime();
+        long covered;
+        Lock lock = checkpointLock.writeLock();
+        lock.lock();
+        try {
+            synchronized (appendLock) {
+                if (appended == checkpointed) {
+                    return;
+                }
+                checkpointed = appended;
+            }
+            covered = rotate();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            Path temporary = directory.resolve(snapshotPath(covered).getFileName() + ".tmp");
+            Files.deleteIfExists(temporary);
+            long count = SnapshotFile.write(temporary, covered, store.values());
+            Files.move(temporary, snapshotPath(covered), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+            deleteBefore(covered);
+            log.info("Wrote snapshot of {} students in {} ms",
+                    count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write student snapshot", e);
+        }
+    }
+
+    /**
+     * Stop background tasks, write a final snapshot and close the log
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (channel == null) {
+            return;
+        }
+        if (failure == null) {
+            runQuietly("checkpoint", this::checkpoint);
+        }
+        syncLock.lock();
+        try {
+            if (failure == null) {
+                flush(true);
+            }
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close student log", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private long append(byte[] frame) {
+        synchronized (appendLock) {
+            checkFailed();
+            if (channel == null) {
+                throw new IllegalStateException("Student log has not been recovered");
+            }
+            pending.write(frame, 0, frame.length);
+            return ++appended;
+        }
+    }
+
+    /**
+     * Write out everything appended so far, forcing it to disk if requested.
+     * Must hold {@link #syncLock}.
+     */
+    private void flush(boolean force) {
+        checkFailed();
+        Batch batch;
+        long upTo;
+        synchronized (appendLock) {
+            batch = pending;
+            pending = spare;
+            upTo = appended;
+        }
+        try {
+            ByteBuffer buffer = batch.buffer();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (force) {
+                channel.force(false);
+                durable = upTo;
+            }
+        } catch (IOException e) {
+            failure = e;
+            throw new JournalFailedException("Could not write student log", e);
+        } finally {
+            batch.reset();
+            spare = batch;
+        }
+    }
+
+    /**
+     * Start a new segment, returning its id. Must be called with writers excluded.
+     */
+    private long rotate() {
+        syncLock.lock();
+        try {
+            flush(true);
+            channel.close();
+            openSegment(segment + 1);
+            return segment;
+        } catch (IOException e) {
+            failure = e;
+            throw new JournalFailedException("Could not roll over student log", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void checkFailed() {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new JournalFailedException("Student log failed; changes are refused until restart", cause);
+        }
+    }
+
+    private void openSegment(long id) throws IOException {
+        channel = FileChannel.open(segmentPath(id),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segment = id;
+        syncDirectory();
+    }
+
+    private void replaySegment(Path file, boolean last, BiConsumer<String, Student> replay) throws IOException {
+        long size = Files.size(file);
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 20))) {
+            while (offset < size) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if (length < 0 || length > MAX_FRAME) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    if (StudentCodec.checksum(ByteBuffer.wrap(payload)) != checksum) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                StudentCodec.replay(ByteBuffer.wrap(payload), replay);
+                offset += StudentCodec.FRAME_HEADER + payload.length;
+            }
+        }
+        if (offset < size) {
+            if (!last) {
+                throw new IllegalStateException("Corrupt student log " + file + " at offset " + offset);
+            }
+            // A crash mid-append leaves a torn or partially written final entry
+            log.warn("Discarding {} bytes of incomplete entries at the end of {}", size - offset, file);
+            try (FileChannel torn = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                torn.truncate(offset);
+                torn.force(true);
+            }
+        }
+    }
+
+    private void startBackgroundTasks() {
+        scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "student-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (fsync != FsyncPolicy.ALWAYS) {
+            long interval = fsyncInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(() -> runQuietly("flush", () -> {
+                syncLock.lock();
+                try {
+                    flush(fsync == FsyncPolicy.INTERVAL);
+                } finally {
+                    syncLock.unlock();
+                }
+            }), interval, interval, TimeUnit.MILLISECONDS);
+        }
+        if (!snapshotInterval.isZero() && !snapshotInterval.isNegative()) {
+            long interval = snapshotInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(() -> runQuietly("checkpoint", this::checkpoint),
+                    interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void runQuietly(String task, Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            log.error("Student journal {} failed", task, e);
+        }
+    }
+
+    private void deleteBefore(long id) throws IOException {
+        for (Long old : list(SEGMENT)) {
+            if (old < id) {
+                Files.deleteIfExists(segmentPath(old));
+            }
+        }
+        for (Long old : list(SNAPSHOT)) {
+            if (old < id) {
+                Files.deleteIfExists(snapshotPath(old));
+            }
+        }
+    }
+
+    private List<Long> list(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(file -> pattern.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("wal-%020d.log", id));
+    }
+
+    private Path snapshotPath(long id) {
+        return directory.resolve(String.format("snapshot-%020d.bin", id));
+    }
+
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not every platform allows syncing a directory
+        }
+    }
+
+    /**
+     * Append buffer whose contents can be written without copying
+     */
+    private static final class Batch extends ByteArrayOutputStream {
+        Batch() {
+            super(64 * 1024);
+        }
+
+        ByteBuffer buffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
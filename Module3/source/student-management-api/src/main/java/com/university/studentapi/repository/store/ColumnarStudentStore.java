@@ -0,0 +1,312 @@
+package com.university.studentapi.repository.store;
+
+import com.university.studentapi.model.Student;
+
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+
+/**
+ * Column-oriented store for a low heap footprint.
+ * <p>
+ * Each student occupies one row spread over primitive columns (CGPA, backlogs, timestamps as
+ * UTC epoch nanoseconds) and dictionary-encoded location columns; only the student number,
+ * name and street are kept as Strings. Columns are allocated in fixed-size chunks so they
+ * never have to be copied as the store grows, and rows freed by deletes are reused. A row
+ * holds references to its location codes, given back when it is overwritten or freed, so the
+ * dictionary only keeps the locations stored rows use.
+ * {@link Student} objects are materialized on every read.
+ * <p>
+ * Writers are serialized per key by lock striping. Each row carries a sequence stamp that is
+ * odd while the row is being written, so readers retry instead of observing a torn row.
+ */
+public class ColumnarStudentStore implements StudentStore {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MAX_CHUNKS = 1 << 15;
+    private static final int LOCK_STRIPES = 256;
+
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private final Map<String, Integer> rows = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Chunk> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private final AtomicInteger nextRow = new AtomicInteger();
+    private final Queue<Integer> freeRows = new ConcurrentLinkedQueue<>();
+    // Unbounded: behind a repository it only sees spellings its LocationDictionary accepted
+    private final StringDictionary locations = new StringDictionary();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ColumnarStudentStore() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Student get(String studentNumber) {
+        Integer row = rows.get(studentNumber);
+        return row != null ? read(row, studentNumber) : null;
+    }
+
+    @Override
+    public boolean contains(String studentNumber) {
+        return rows.containsKey(studentNumber);
+    }
+
+    @Override
+    public Student compute(String studentNumber, BiFunction<String, ? super Student, ? extends Student> remapping) {
+        synchronized (lockFor(studentNumber)) {
+            Integer row = rows.get(studentNumber);
+            Student existing = row != null ? read(row, studentNumber) : null;
+            Student next = remapping.apply(studentNumber, existing);
+
+            if (next == null) {
+                if (row != null) {
+                    rows.remove(studentNumber);
+                    clear(row);
+                    freeRows.add(row);
+                }
+                return null;
+            }
+
+            int target = row != null ? row : allocate();
+            write(target, next, row != null);
+            if (row == null) {
+                rows.put(studentNumber, target);
+            }
+            return next;
+        }
+    }
+
+    @Override
+    public long size() {
+        return rows.size();
+    }
+
+    @Override
+    public Iterable<String> keys() {
+        return rows.keySet();
+    }
+
+    @Override
+    public Iterable<Student> values() {
+        return () -> new Iterator<>() {
+            private final Iterator<Map.Entry<String, Integer>> entries = rows.entrySet().iterator();
+            private Student next = advance();
+
+            private Student advance() {
+                while (entries.hasNext()) {
+                    Map.Entry<String, Integer> entry = entries.next();
+                    Student student = read(entry.getValue(), entry.getKey());
+                    if (student != null) {
+                        return student;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Student next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Student current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Number of distinct city/state/country values held by the location dictionary
+     */
+    public int distinctLocations() {
+        return locations.size();
+    }
+
+    private Object lockFor(String studentNumber) {
+        return locks[(studentNumber.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    private int allocate() {
+        Integer free = freeRows.poll();
+        if (free != null) {
+            return free;
+        }
+        int row = nextRow.getAndIncrement();
+        if ((row >>> CHUNK_BITS) >= MAX_CHUNKS) {
+            throw new IllegalStateException("Columnar store is full");
+        }
+        return row;
+    }
+
+    private Chunk chunk(int row) {
+        int index = row >>> CHUNK_BITS;
+        Chunk chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null, new Chunk());
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    /**
+     * Fill a row, replacing (and releasing the location codes of) the student it holds when
+     * {@code occupied}
+     */
+    private void write(int row, Student student, boolean occupied) {
+        Chunk chunk = chunk(row);
+        int i = row & CHUNK_MASK;
+        Student.Address address = student.getAddress();
+        int city = locations.retain(address != null ? address.getCity() : null);
+        int state = locations.retain(address != null ? address.getState() : null);
+        int country = locations.retain(address != null ? address.getCountry() : null);
+        int[] replaced = occupied ? new int[] {chunk.city[i], chunk.state[i], chunk.country[i]} : null;
+
+        chunk.stamps.incrementAndGet(i);
+        VarHandle.releaseFence();
+        chunk.studentNumber[i] = student.getStudentNumber();
+        chunk.name[i] = student.getName();
+        chunk.street[i] = address != null ? address.getStreet() : null;
+        chunk.city[i] = city;
+        chunk.state[i] = state;
+        chunk.country[i] = country;
+        chunk.hasAddress[i] = address != null;
+        chunk.cgpa[i] = student.getCgpa() != null ? student.getCgpa() : Double.NaN;
+        chunk.backlogs[i] = student.getBacklogs() != null ? student.getBacklogs() : NULL_INT;
+        chunk.createdNanos[i] = toNanos(student.getCreatedDate());
+        chunk.modifiedNanos[i] = toNanos(student.getLastModifiedDate());
+        chunk.stamps.incrementAndGet(i);
+        if (replaced != null) {
+            release(replaced);
+        }
+    }
+
+    private void clear(int row) {
+        Chunk chunk = chunk(row);
+        int i = row & CHUNK_MASK;
+        int[] replaced = {chunk.city[i], chunk.state[i], chunk.country[i]};
+        chunk.stamps.incrementAndGet(i);
+        VarHandle.releaseFence();
+        chunk.studentNumber[i] = null;
+        chunk.name[i] = null;
+        chunk.street[i] = null;
+        chunk.city[i] = StringDictionary.NULL_CODE;
+        chunk.state[i] = StringDictionary.NULL_CODE;
+        chunk.country[i] = StringDictionary.NULL_CODE;
+        chunk.stamps.incrementAndGet(i);
+        release(replaced);
+    }
+
+    /**
+     * Give back the location codes a row held. Only called once the row's stamp has moved on,
+     * so a reader that decoded a code before it was reassigned fails its stamp check and retries.
+     */
+    private void release(int[] codes) {
+        for (int code : codes) {
+            locations.release(code);
+        }
+    }
+
+    /**
+     * Materialize a row, or return null if the row no longer holds the expected student
+     */
+    private Student read(int row, String expectedStudentNumber) {
+        Chunk chunk = chunks.get(row >>> CHUNK_BITS);
+        int i = row & CHUNK_MASK;
+        while (true) {
+            int before = chunk.stamps.get(i);
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            String studentNumber = chunk.studentNumber[i];
+            String name = chunk.name[i];
+            String street = chunk.street[i];
+            // Decoded before the stamp check, while the row still holds the codes
+            String city = locations.decode(chunk.city[i]);
+            String state = locations.decode(chunk.state[i]);
+            String country = locations.decode(chunk.country[i]);
+            boolean hasAddress = chunk.hasAddress[i];
+            double cgpa = chunk.cgpa[i];
+            int backlogs = chunk.backlogs[i];
+            long created = chunk.createdNanos[i];
+            long modified = chunk.modifiedNanos[i];
+            VarHandle.acquireFence();
+            if (chunk.stamps.get(i) != before) {
+                continue;
+            }
+            if (!expectedStudentNumber.equals(studentNumber)) {
+                return null;
+            }
+
+            return Student.builder()
+                    .studentNumber(studentNumber)
+                    .name(name)
+                    .address(hasAddress
+                            ? Student.Address.builder()
+                                    .street(street)
+                                    .city(city)
+                                    .state(state)
+                                    .country(country)
+                                    .build()
+                            : null)
+                    .cgpa(Double.isNaN(cgpa) ? null : cgpa)
+                    .backlogs(backlogs == NULL_INT ? null : backlogs)
+                    .createdDate(fromNanos(created))
+                    .lastModifiedDate(fromNanos(modified))
+                    .build();
+        }
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static LocalDateTime fromNanos(long nanos) {
+        if (nanos == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * Fixed-size slice of every column
+     */
+    private static final class Chunk {
+        final AtomicIntegerArray stamps = new AtomicIntegerArray(CHUNK_SIZE);
+        final String[] studentNumber = new String[CHUNK_SIZE];
+        final String[] name = new String[CHUNK_SIZE];
+        final String[] street = new String[CHUNK_SIZE];
+        final int[] city = new int[CHUNK_SIZE];
+        final int[] state = new int[CHUNK_SIZE];
+        final int[] country = new int[CHUNK_SIZE];
+        final boolean[] hasAddress = new boolean[CHUNK_SIZE];
+        final double[] cgpa = new double[CHUNK_SIZE];
+        final int[] backlogs = new int[CHUNK_SIZE];
+        final long[] createdNanos = new long[CHUNK_SIZE];
+        final long[] modifiedNanos = new long[CHUNK_SIZE];
+    }
+}
@@ -0,0 +1,18 @@
+package com.university.studentapi.repository.store;
+
+/**
+ * Exception thrown when a value would take a {@link StringDictionary} past its maximum size
+ */
+public class DictionaryFullException extends IllegalStateException {
+
+    private final int maxSize;
+
+    public DictionaryFullException(int maxSize) {
+        super("Limit of " + maxSize + " distinct values reached");
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,45 @@
+package com.university.studentapi.repository.store;
+
+import com.university.studentapi.model.Student;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Default store: keeps the {@link Student} objects themselves in a ConcurrentHashMap
+ */
+public class HeapStudentStore implements StudentStore {
+
+    private final Map<String, Student> students = new ConcurrentHashMap<>();
+
+    @Override
+    public Student get(String studentNumber) {
+        return students.get(studentNumber);
+    }
+
+    @Override
+    public boolean contains(String studentNumber) {
+        return students.containsKey(studentNumber);
+    }
+
+    @Override
+    public Student compute(String studentNumber, BiFunction<String, ? super Student, ? extends Student> remapping) {
+        return students.compute(studentNumber, remapping);
+    }
+
+    @Override
+    public long size() {
+        return students.size();
+    }
+
+    @Override
+    public Iterable<String> keys() {
+        return students.keySet();
+    }
+
+    @Override
+    public Iterable<Student> values() {
+        return students.values();
+    }
+}
@@ -0,0 +1,204 @@
+package com.university.studentapi.repository.store;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Reference-counted dictionary assigning dense int codes to distinct strings.
+ * <p>
+ * Strings with the same key (by default the string itself, e.g. a case-folded form for
+ * case-insensitive codes) share one entry and code, which decodes to the first of them
+ * retained. Every holder of a code takes a reference with {@link #retain} and gives it back
+ * with {@link #release}; a code nobody holds any more is freed and later reassigned, oldest
+ * freed first, so the dictionary only ever holds the values in use. A dictionary fed unvetted
+ * values can also be given a maximum size: retaining a new key beyond it throws
+ * {@link DictionaryFullException}.
+ * <p>
+ * An entry also keeps the first few distinct spellings of its key, so {@link #intern} can
+ * hand out one shared instance per spelling in use.
+ */
+public class StringDictionary {
+
+    public static final int NULL_CODE = -1;
+    /**
+     * Code {@link #find} returns for a value no one holds
+     */
+    public static final int NOT_FOUND = -2;
+
+    static final int MAX_SPELLINGS = 4;
+
+    private final Function<String, String> key;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile Entry[] byCode = new Entry[64];
+    // Guarded by this
+    private int nextCode;
+    private int size;
+    private final Queue<Integer> freeCodes = new ArrayDeque<>();
+
+    public StringDictionary() {
+        this(Function.identity(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param key     maps a value to the key it is coded by
+     * @param maxSize most distinct keys the dictionary holds at once
+     */
+    public StringDictionary(Function<String, String> key, int maxSize) {
+        this.key = key;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Code of a value, taking one reference to it and assigning a code if no one holds the
+     * value's key yet. Each call must be matched by one {@link #release} of the code.
+     *
+     * @throws DictionaryFullException when the key is new and the dictionary is full
+     */
+    public int retain(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        String k = key.apply(value);
+        Entry entry = entries.get(k);
+        return entry != null && entry.tryRetain() ? entry.code : add(k, value);
+    }
+
+    /**
+     * Give back a reference taken by {@link #retain}; the last one frees the code
+     */
+    public void release(int code) {
+        if (code < 0) {
+            return;
+        }
+        Entry entry = byCode[code];
+        int references;
+        while ((references = entry.references.get()) > 1) {
+            if (entry.references.compareAndSet(references, references - 1)) {
+                return;
+            }
+        }
+        synchronized (this) {
+            // A retain may have slipped in since; only a drop to zero frees the code
+            if (entry.references.decrementAndGet() == 0) {
+                entries.remove(entry.key, entry);
+                freeCodes.add(code);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Code of a value without taking a reference: {@link #NOT_FOUND} when no one holds it
+     */
+    public int find(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Entry entry = entries.get(key.apply(value));
+        return entry != null ? entry.code : NOT_FOUND;
+    }
+
+    public String decode(int code) {
+        return code < 0 ? null : byCode[code].value;
+    }
+
+    /**
+     * The shared instance of this exact spelling while its key is held, or the value itself
+     * when the key is not held or already has {@value #MAX_SPELLINGS} other spellings
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        Entry entry = entries.get(key.apply(value));
+        return entry != null ? entry.intern(value) : value;
+    }
+
+    /**
+     * Number of distinct keys held
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private synchronized int add(String k, String value) {
+        Entry existing = entries.get(k);
+        if (existing != null && existing.tryRetain()) {
+            return existing.code;
+        }
+        if (size == maxSize) {
+            throw new DictionaryFullException(maxSize);
+        }
+        Integer free = freeCodes.poll();
+        int code = free != null ? free : nextCode++;
+        Entry[] current = byCode;
+        if (code == current.length) {
+            current = Arrays.copyOf(current, code * 2);
+        }
+        Entry entry = new Entry(code, k, value);
+        current[code] = entry;
+        // Publish the array before the code so a decoder always sees the value
+        byCode = current;
+        entries.put(k, entry);
+        size++;
+        return code;
+    }
+
+    private static final class Entry {
+        final int code;
+        final String key;
+        final String value;
+        // Zero once released by its last holder: the entry is then being removed
+        final AtomicInteger references = new AtomicInteger(1);
+        volatile String[] spellings;
+
+        Entry(int code, String key, String value) {
+            this.code = code;
+            this.key = key;
+            this.value = value;
+            this.spellings = new String[] {value};
+        }
+
+        boolean tryRetain() {
+            int current;
+            while ((current = references.get()) > 0) {
+                if (references.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String intern(String spelling) {
+            String[] known = spellings;
+            for (String candidate : known) {
+                if (candidate.equals(spelling)) {
+                    return candidate;
+                }
+            }
+            if (known.length == MAX_SPELLINGS) {
+                return spelling;
+            }
+            synchronized (this) {
+                known = spellings;
+                for (String candidate : known) {
+                    if (candidate.equals(spelling)) {
+                        return candidate;
+                    }
+                }
+                if (known.length < MAX_SPELLINGS) {
+                    String[] grown = Arrays.copyOf(known, known.length + 1);
+                    grown[known.length] = spelling;
+                    spellings = grown;
+                }
+                return spelling;
+            }
+        }
+    }
+}
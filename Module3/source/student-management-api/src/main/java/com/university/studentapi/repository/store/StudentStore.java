@@ -0,0 +1,39 @@
+package com.university.studentapi.repository.store;
+
+import com.university.studentapi.model.Student;
+
+import java.util.function.BiFunction;
+
+/**
+ * Primary storage for student records, keyed by student number.
+ * {@link com.university.studentapi.repository.IndexedStudentRepository} layers its secondary
+ * indexes on top of a store and relies on {@link #compute} being atomic per key.
+ */
+public interface StudentStore {
+
+    /**
+     * Current record, or null when absent. Implementations that do not keep
+     * {@link Student} objects return a freshly materialized copy.
+     */
+    Student get(String studentNumber);
+
+    boolean contains(String studentNumber);
+
+    /**
+     * Same contract as {@link java.util.concurrent.ConcurrentHashMap#compute}: the remapping
+     * function runs atomically for the key and returning null removes the record.
+     */
+    Student compute(String studentNumber, BiFunction<String, ? super Student, ? extends Student> remapping);
+
+    long size();
+
+    /**
+     * Weakly consistent view of the stored student numbers
+     */
+    Iterable<String> keys();
+
+    /**
+     * Weakly consistent view of the stored records
+     */
+    Iterable<Student> values();
+}
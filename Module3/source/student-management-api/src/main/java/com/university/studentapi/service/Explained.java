@@ -0,0 +1,21 @@
+package com.university.studentapi.service;
+
+import lombok.Value;
+
+/**
+ * A service result together with the query plan that produced it
+ */
+@Value
+public class Explained<T> {
+    T content;
+
+    /**
+     * {@link com.university.studentapi.repository.QueryPlan#explain()} of the plan used
+     */
+    String plan;
+
+    /**
+     * Candidates the plan read before filtering
+     */
+    long rowsExamined;
+}
@@ -0,0 +1,273 @@
+package com.university.studentapi.service;
+
+import com.university.studentapi.dto.StudentChange;
+import com.university.studentapi.dto.StudentChangesResponse;
+import com.university.studentapi.exception.ErrorResponse;
+import com.university.studentapi.exception.ResyncRequiredException;
+import com.university.studentapi.exception.SubscriberLimitExceededException;
+import com.university.studentapi.util.StudentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the {@link StudentChangeLog} to clients: as pages of changes following a sequence,
+ * and as Server-Sent Events streams of every change as it happens.
+ * <p>
+ * Writers never wait for subscribers. A change only wakes up idle subscribers; each one
+ * then reads the log from its own position on a background thread and sends what it finds
+ * in batches, one write per batch, so a slow client receives fewer, larger writes and only
+ * holds up its own thread. A subscriber that falls further behind than the log retains is
+ * sent a {@code resync} event and its stream is closed.
+ * <p>
+ * At most {@code student.changes.max-subscribers} streams are open at once, and further
+ * subscriptions are refused, so stalled clients cannot pile up threads. Senders run on
+ * virtual threads in the virtual-thread request mode on Java 21+, and otherwise on a pool of
+ * at most one platform thread per allowed stream.
+ */
+@Service
+@Slf4j
+public class StudentChangeFeed implements AutoCloseable {
+
+    /**
+     * Most changes sent in one write to a stream
+     */
+    static final int STREAM_BATCH_SIZE = 256;
+
+    private final StudentChangeLog changeLog;
+    private final StudentMapper studentMapper;
+    private final StudentResponseCache responseCache;
+    private final Duration streamTimeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int maxSubscribers;
+    private final Semaphore streams;
+    private final ExecutorService senders;
+
+    public StudentChangeFeed(StudentChangeLog changeLog, StudentMapper studentMapper,
+                             StudentResponseCache responseCache,
+                             @Value("${student.changes.stream-timeout:30m}") Duration streamTimeout,
+                             @Value("${student.changes.max-subscribers:1000}") int maxSubscribers,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.changeLog = changeLog;
+        this.studentMapper = studentMapper;
+        this.responseCache = responseCache;
+        this.streamTimeout = streamTimeout;
+        this.maxSubscribers = maxSubscribers;
+        this.streams = new Semaphore(maxSubscribers);
+        ExecutorService virtual = virtualThreads ? virtualThreadPerTaskExecutor() : null;
+        this.senders = virtual != null ? virtual : boundedPool(maxSubscribers);
+        changeLog.onAppend(this::wakeUp);
+    }
+
+    /**
+     * Up to {@code limit} changes following sequence {@code since}; without {@code since},
+     * no changes and the sequence to follow from
+     *
+     * @throws ResyncRequiredException when {@code since} is no longer retained
+     */
+    public StudentChangesResponse getChanges(Long since, int limit) {
+        if (since == null) {
+            return StudentChangesResponse.builder()
+                    .changes(List.of())
+                    .lastSequence(changeLog.getLastSequence())
+                    .hasMore(false)
+                    .build();
+        }
+        List<StudentChangeLog.Entry> entries = changeLog.read(since, limit);
+        long lastSequence = entries.isEmpty() ? since : entries.get(entries.size() - 1).sequence();
+        return StudentChangesResponse.builder()
+                .changes(entries.stream().map(this::toChange).toList())
+                .lastSequence(lastSequence)
+                .hasMore(lastSequence < changeLog.getLastSequence())
+                .build();
+    }
+
+    /**
+     * Stream the changes following sequence {@code since} and every change after them, or
+     * without {@code since}, only changes from now on
+     *
+     * @throws ResyncRequiredException when {@code since} is no longer retained
+     * @throws SubscriberLimitExceededException when as many streams as allowed are open
+     */
+    public SseEmitter subscribe(Long since) {
+        long position = since != null ? since : changeLog.getLastSequence();
+        changeLog.read(position, 0); // fail before the stream starts rather than with a resync event
+        if (!streams.tryAcquire()) {
+            throw new SubscriberLimitExceededException(maxSubscribers);
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, position);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.wakeUp();
+        return emitter;
+    }
+
+    /**
+     * Number of open streams
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void wakeUp() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.wakeUp();
+        }
+    }
+
+    private StudentChange toChange(StudentChangeLog.Entry entry) {
+        return StudentChange.builder()
+                .sequence(entry.sequence())
+                .type(entry.type())
+                .studentNumber(entry.studentNumber())
+                .student(entry.student() != null
+                        ? responseCache.toResponse(entry.student(), studentMapper::toResponse)
+                        : null)
+                .build();
+    }
+
+    /**
+     * Close every stream; clients reconnect with the last event ID they received
+     */
+    @Override
+    public void close() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+            subscriber.close();
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * Executor starting a virtual thread per task, or null before Java 21, which the build
+     * still targets
+     */
+    private static ExecutorService virtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads need Java 21+; sending change streams on pooled threads");
+            return null;
+        }
+    }
+
+    /**
+     * Pool of up to one daemon thread per allowed stream, each subscriber running at most one
+     * task at a time; idle threads exit after a minute
+     */
+    private static ExecutorService boundedPool(int maxSubscribers) {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxSubscribers, maxSubscribers, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "student-changes-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * One stream and the sequence of the last change sent to it
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        private long position; // only read and written while scheduled
+
+        Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+
+        void wakeUp() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RuntimeException e) { // shut down
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<StudentChangeLog.Entry> entries;
+                while (!closed && !(entries = changeLog.read(position, STREAM_BATCH_SIZE)).isEmpty()) {
+                    Set<ResponseBodyEmitter.DataWithMediaType> batch = new LinkedHashSet<>();
+                    for (StudentChangeLog.Entry entry : entries) {
+                        batch.addAll(SseEmitter.event()
+                                .id(Long.toString(entry.sequence()))
+                                .name("change")
+                                .data(toChange(entry))
+                                .build());
+                    }
+                    emitter.send(batch);
+                    position = entries.get(entries.size() - 1).sequence();
+                }
+            } catch (ResyncRequiredException e) {
+                log.debug("Change stream fell behind at sequence {}", position);
+                resync(e);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, or the stream already completed
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // A change appended after the last read, while still scheduled, did not wake us up
+            if (!closed && position < changeLog.getLastSequence()) {
+                wakeUp();
+            }
+        }
+
+        private void resync(ResyncRequiredException e) {
+            close();
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("resync")
+                        .data(ErrorResponse.builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.GONE.value())
+                                .error("Gone")
+                                .message(e.getMessage())
+                                .build()));
+                emitter.complete();
+            } catch (IOException | IllegalStateException ignored) {
+                // Nothing more to tell a client that went away
+            }
+        }
+
+        void close() {
+            closed = true;
+            if (subscribers.remove(this)) {
+                streams.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.university.studentapi.service;
+
+import com.university.studentapi.dto.StudentChange;
+import com.university.studentapi.exception.ResyncRequiredException;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recent student changes (creates, updates, deletes, including bulk imports), each
+ * numbered with a sequence that increases by one per change, kept in a ring buffer of
+ * {@code student.changes.buffer-size} entries.
+ * <p>
+ * Changes are recorded by the repository as they are applied, so those to one student are
+ * in the order they happened. Sequences start from the clock in milliseconds times 1000, so
+ * they are not reused after a restart (unless it averaged over 1000 changes per
+ * millisecond) and stay exact in JavaScript numbers.
+ * <p>
+ * Appends come from inside the repository's per-student writes, so they take no lock: a
+ * writer claims its sequence atomically, fills its slot, then moves the published sequence
+ * past every slot filled without a gap. Readers see changes up to the published sequence
+ * only, so a change never appears before one numbered below it.
+ */
+@Component
+public class StudentChangeLog {
+
+    private final AtomicReferenceArray<Entry> ring;
+    private final List<Runnable> appendListeners = new CopyOnWriteArrayList<>();
+    private final long firstSequence;
+    private final AtomicLong claimed;
+    private final AtomicLong published;
+
+    @Autowired
+    public StudentChangeLog(StudentRepository repository,
+                            @Value("${student.changes.buffer-size:65536}") int capacity) {
+        this(capacity, System.currentTimeMillis() * 1000);
+        repository.addChangeListener(this::append);
+    }
+
+    StudentChangeLog(int capacity, long lastSequence) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Change buffer size must be positive: " + capacity);
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.firstSequence = lastSequence + 1;
+        this.claimed = new AtomicLong(lastSequence);
+        this.published = new AtomicLong(lastSequence);
+    }
+
+    /**
+     * Record a change and wake up the listeners
+     */
+    void append(String studentNumber, Student previous, Student next) {
+        StudentChange.Type type = previous == null ? StudentChange.Type.CREATED
+                : next == null ? StudentChange.Type.DELETED
+                : StudentChange.Type.UPDATED;
+        long sequence = claimed.incrementAndGet();
+        Entry entry = new Entry(sequence, type, studentNumber, next);
+        int index = index(sequence);
+        Entry replaced;
+        do {
+            replaced = ring.get(index);
+            if (replaced != null && replaced.sequence() > sequence) {
+                // A writer a whole ring ahead took the slot first; its change wins
+                break;
+            }
+        } while (!ring.compareAndSet(index, replaced, entry));
+        publish();
+        for (Runnable listener : appendListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Run {@code listener} after every change; it must be quick, as writers wait for it
+     */
+    public void onAppend(Runnable listener) {
+        appendListeners.add(listener);
+    }
+
+    /**
+     * Sequence of the latest change
+     */
+    public long getLastSequence() {
+        return published.get();
+    }
+
+    /**
+     * Up to {@code limit} changes following sequence {@code since}, oldest first
+     *
+     * @throws ResyncRequiredException when changes following {@code since} are no longer
+     *                                 retained, or {@code since} was never issued
+     */
+    public List<Entry> read(long since, int limit) {
+        long lastSequence = published.get();
+        long oldest = Math.max(firstSequence, lastSequence - ring.length() + 1);
+        if (since < oldest - 1 || since > lastSequence) {
+            throw new ResyncRequiredException(since, lastSequence);
+        }
+        int count = (int) Math.min(limit, lastSequence - since);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        List<Entry> entries = new ArrayList<>(count);
+        for (long sequence = since + 1; sequence <= since + count; sequence++) {
+            Entry entry = ring.get(index(sequence));
+            if (entry.sequence() != sequence) {
+                // Overwritten by later changes while reading
+                throw new ResyncRequiredException(since, published.get());
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Move the published sequence past every filled slot that follows it. Each writer calls
+     * this after filling its own slot, so the last of them to finish publishes them all.
+     */
+    private void publish() {
+        long last;
+        while ((last = published.get()) < claimed.get()) {
+            Entry next = ring.get(index(last + 1));
+            if (next == null || next.sequence() <= last) {
+                // Not filled yet: its writer publishes it, and whatever follows, when done
+                return;
+            }
+            // A slot holding a later change lost its own; readers resync when they get there
+            published.compareAndSet(last, last + 1);
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) Math.floorMod(sequence, (long) ring.length());
+    }
+
+    /**
+     * One change: the student's snapshot after it, or null for a delete
+     */
+    public record Entry(long sequence, StudentChange.Type type, String studentNumber, Student student) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.university.studentapi.service;
+
+/**
+ * Line-oriented formats used for bulk import and export
+ */
+public enum StudentDataFormat {
+    /**
+     * One JSON student object per line
+     */
+    NDJSON,
+    /**
+     * A header row followed by one student per line
+     */
+    CSV
+}
@@ -0,0 +1,118 @@
+package com.university.studentapi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.repository.QueryPlan;
+import com.university.studentapi.repository.StudentQuery;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.StudentSortField;
+import com.university.studentapi.util.StudentCsvWriter;
+import com.university.studentapi.util.StudentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming export of students as NDJSON or CSV.
+ * <p>
+ * Students are read lazily from the repository's student number index, filtered by the
+ * repository's query plan and written one at a time, so memory use does not depend on how
+ * many students are exported. The export is weakly consistent: students saved or deleted
+ * while it runs may or may not be included.
+ */
+@Service
+@Slf4j
+public class StudentExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final StudentRepository studentRepository;
+    private final StudentMapper studentMapper;
+    private final ObjectWriter jsonWriter;
+    private final ObjectMapper objectMapper;
+
+    public StudentExportService(StudentRepository studentRepository,
+                                StudentMapper studentMapper,
+                                ObjectMapper objectMapper) {
+        this.studentRepository = studentRepository;
+        this.studentMapper = studentMapper;
+        this.objectMapper = objectMapper;
+        // One compact object per line, flushed by the buffer rather than after every student
+        this.jsonWriter = objectMapper.writerFor(StudentResponse.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write every student matching the filters, in student number order
+     *
+     * @return the number of students written
+     */
+    public long exportStudents(String name, Double minCgpa, String city,
+                               StudentDataFormat format, OutputStream out) throws IOException {
+        log.info("Starting export ({}): name={}, minCgpa={}, city={}", format, name, minCgpa, city);
+
+        StudentQuery query = StudentQuery.builder()
+                .name(name)
+                .minCgpa(minCgpa)
+                .city(city)
+                .build();
+        QueryPlan plan = studentRepository.planOrderedAfter(query, StudentSortField.STUDENT_NUMBER, false, null, null);
+
+        long written;
+        try {
+            written = format == StudentDataFormat.CSV ? writeCsv(plan, out) : writeNdjson(plan, out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("Export finished: {} students", written);
+        return written;
+    }
+
+    private long writeNdjson(QueryPlan plan, OutputStream out) throws IOException {
+        long[] written = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            studentRepository.execute(plan, student -> {
+                try {
+                    jsonWriter.writeValue(generator, studentMapper.toResponse(student));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                written[0]++;
+                return true;
+            });
+        }
+        return written[0];
+    }
+
+    private long writeCsv(QueryPlan plan, OutputStream out) throws IOException {
+        long[] written = {0};
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        StudentCsvWriter.writeHeader(writer);
+        studentRepository.execute(plan, student -> {
+            try {
+                StudentCsvWriter.writeRow(studentMapper.toResponse(student), writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written[0]++;
+            return true;
+        });
+        writer.flush();
+        return written[0];
+    }
+}
@@ -0,0 +1,222 @@
+package com.university.studentapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.university.studentapi.dto.BulkImportResponse;
+import com.university.studentapi.dto.StudentCreateRequest;
+import com.university.studentapi.exception.InvalidImportException;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.ParallelScanner;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.util.LineReader;
+import com.university.studentapi.util.StudentCsvParser;
+import com.university.studentapi.util.StudentMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk import of students from NDJSON or CSV.
+ * <p>
+ * The body is read line by line and processed in batches: each batch is parsed, validated
+ * and mapped in parallel on the repository's {@link ParallelScanner} pool, then inserted in one repository call that waits for durability
+ * once. Memory use is bounded by the batch size, the line length limit and the number of
+ * errors reported, regardless of how many records are uploaded.
+ */
+@Service
+@Slf4j
+public class StudentImportService {
+
+    private final StudentRepository studentRepository;
+    private final StudentMapper studentMapper;
+    private final Validator validator;
+    private final ParallelScanner scanner;
+    private final ObjectReader jsonReader;
+    private final int batchSize;
+    private final int maxErrors;
+    private final int maxLineLength;
+
+    public StudentImportService(StudentRepository studentRepository,
+                                StudentMapper studentMapper,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                ParallelScanner scanner,
+                                @Value("${student.bulk-import.batch-size:1000}") int batchSize,
+                                @Value("${student.bulk-import.max-errors:1000}") int maxErrors,
+                                @Value("${student.bulk-import.max-line-length:8192}") int maxLineLength) {
+        this.studentRepository = studentRepository;
+        this.studentMapper = studentMapper;
+        this.validator = validator;
+        this.jsonReader = objectMapper.readerFor(StudentCreateRequest.class);
+        this.scanner = scanner;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Import every record in the stream. Lines that fail to parse or validate, whose student
+     * number already exists or whose address would take the location dictionary past its
+     * limit are skipped and reported; blank lines are ignored.
+     */
+    public BulkImportResponse importStudents(InputStream body, Charset charset, StudentDataFormat format) throws IOException {
+        log.info("Starting bulk import ({})", format);
+
+        LineReader lines = new LineReader(new InputStreamReader(body, charset), maxLineLength);
+        RecordParser parser = format == StudentDataFormat.CSV ? csvParser(lines) : jsonReader::readValue;
+
+        Summary summary = new Summary();
+        List<Line> batch = new ArrayList<>(batchSize);
+        String text;
+        while ((text = lines.readLine()) != null) {
+            if (text.isBlank()) {
+                continue;
+            }
+            batch.add(new Line(lines.getLineNumber(), text, lines.isTruncated()));
+            if (batch.size() == batchSize) {
+                importBatch(batch, parser, summary);
+                batch.clear();
+            }
+        }
+        importBatch(batch, parser, summary);
+
+        log.info("Bulk import finished: received={}, imported={}, failed={}",
+                summary.received, summary.imported, summary.failed);
+        return BulkImportResponse.builder()
+                .received(summary.received)
+                .imported(summary.imported)
+                .failed(summary.failed)
+                .errors(summary.errors)
+                .errorsTruncated(summary.failed > summary.errors.size())
+                .build();
+    }
+
+    /**
+     * Parser for the rows following the CSV header, which is read first
+     */
+    private RecordParser csvParser(LineReader lines) throws IOException {
+        String header = lines.readLine();
+        // Columns past the cut would be silently missing, so a cut-off header is unusable
+        if (lines.isTruncated()) {
+            throw new InvalidImportException("CSV header exceeds " + maxLineLength + " characters");
+        }
+        return StudentCsvParser.forHeader(header)::parse;
+    }
+
+    private void importBatch(List<Line> batch, RecordParser parser, Summary summary) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Parsing, validation and mapping touch no shared state, so lines are prepared in parallel
+        List<Prepared> prepared = scanner.map(batch, line -> prepare(line, parser, now));
+
+        List<Student> valid = new ArrayList<>(prepared.size());
+        for (Prepared record : prepared) {
+            if (record.student() != null) {
+                valid.add(record.student());
+            }
+        }
+        String[] refused = new String[valid.size()];
+        boolean[] inserted = studentRepository.saveAllIfAbsent(valid, (e, i) -> refused[i] =
+                "The address adds a new location, but the limit of " + e.getMaxSize()
+                        + " distinct locations has been reached");
+
+        int next = 0;
+        for (Prepared record : prepared) {
+            if (record.student() == null) {
+                summary.fail(record.line(), record.studentNumber(), record.error());
+            } else if (refused[next] != null) {
+                summary.fail(record.line(), record.studentNumber(), refused[next++]);
+            } else if (inserted[next++]) {
+                summary.imported++;
+            } else {
+                summary.fail(record.line(), record.studentNumber(),
+                        "Student with student number " + record.studentNumber() + " already exists");
+            }
+        }
+        summary.received += batch.size();
+    }
+
+    private Prepared prepare(Line line, RecordParser parser, LocalDateTime now) {
+        if (line.truncated()) {
+            return Prepared.failed(line.number(), null, "Line exceeds " + maxLineLength + " characters");
+        }
+
+        StudentCreateRequest request;
+        try {
+            request = parser.parse(line.text());
+        } catch (JsonProcessingException e) {
+            return Prepared.failed(line.number(), null, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException | IllegalArgumentException e) {
+            return Prepared.failed(line.number(), null, e.getMessage());
+        }
+        if (request == null) {
+            return Prepared.failed(line.number(), null, "Expected a student object");
+        }
+
+        List<ConstraintViolation<StudentCreateRequest>> violations = validator.validate(request).stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .toList();
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining("; "));
+            return Prepared.failed(line.number(), request.getStudentNumber(), message);
+        }
+
+        Student student = studentMapper.toEntity(request).toBuilder()
+                .createdDate(now)
+                .lastModifiedDate(now)
+                .build();
+        return new Prepared(line.number(), request.getStudentNumber(), student, null);
+    }
+
+    @FunctionalInterface
+    private interface RecordParser {
+        StudentCreateRequest parse(String line) throws IOException;
+    }
+
+    private record Line(long number, String text, boolean truncated) {
+    }
+
+    private record Prepared(long line, String studentNumber, Student student, String error) {
+        static Prepared failed(long line, String studentNumber, String error) {
+            return new Prepared(line, studentNumber, null, error);
+        }
+    }
+
+    /**
+     * Running counts, keeping only the first {@code maxErrors} errors
+     */
+    private class Summary {
+        long received;
+        long imported;
+        long failed;
+        final List<BulkImportResponse.LineError> errors = new ArrayList<>();
+
+        void fail(long line, String studentNumber, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(BulkImportResponse.LineError.builder()
+                        .line(line)
+                        .studentNumber(studentNumber)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
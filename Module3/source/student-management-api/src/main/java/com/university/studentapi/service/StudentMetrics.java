@@ -0,0 +1,129 @@
+package com.university.studentapi.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for student operations, tagged by {@code operation}:
+ * <ul>
+ *   <li>{@value #OPERATION}: duration of each service call, also tagged with the exception
+ *       it failed with ({@code none} on success)</li>
+ *   <li>{@value #ROWS_EXAMINED} and {@value #ROWS_RETURNED}: candidates a query examined
+ *       versus students it matched</li>
+ *   <li>{@value #SORT}: time spent sorting query results</li>
+ *   <li>{@value #MAPPING}: time spent mapping students to responses</li>
+ * </ul>
+ * Percentiles and histograms are configured per meter name prefix through
+ * {@code management.metrics.distribution}.
+ */
+@Component
+public class StudentMetrics {
+
+    public static final String OPERATION = "student.operation";
+    public static final String ROWS_EXAMINED = "student.query.rows.examined";
+    public static final String ROWS_RETURNED = "student.query.rows.returned";
+    public static final String SORT = "student.query.sort";
+    public static final String MAPPING = "student.response.mapping";
+
+    private final MeterRegistry registry;
+    // Meter lookups allocate ids and sort tags, so each operation's meters are registered once
+    private final Map<String, Timer> durations = new ConcurrentHashMap<>();
+    private final Map<String, QueryMeters> queries = new ConcurrentHashMap<>();
+
+    public StudentMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Run a service call, timing it as the given operation
+     */
+    public <T> T time(String operation, Supplier<T> call) {
+        long started = registry.config().clock().monotonicTime();
+        try {
+            T result = call.get();
+            duration(operation).record(elapsedSince(started), TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            Timer.builder(OPERATION)
+                    .tag("operation", operation)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(registry)
+                    .record(elapsedSince(started), TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * {@link #time(String, Supplier)} for calls without a result
+     */
+    public void time(String operation, Runnable call) {
+        time(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Map students to responses, timing the mapping
+     */
+    public <T> T timeMapping(String operation, Supplier<T> mapping) {
+        return query(operation).mapping().record(mapping);
+    }
+
+    /**
+     * Record what a query cost: candidates examined, students matched and time sorted
+     */
+    public void recordQuery(String operation, long rowsExamined, long rowsReturned, long sortNanos) {
+        QueryMeters meters = query(operation);
+        meters.rowsExamined().record(rowsExamined);
+        meters.rowsReturned().record(rowsReturned);
+        if (sortNanos > 0) {
+            meters.sort().record(sortNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long elapsedSince(long started) {
+        return registry.config().clock().monotonicTime() - started;
+    }
+
+    private Timer duration(String operation) {
+        return durations.computeIfAbsent(operation, key -> Timer.builder(OPERATION)
+                .description("Student service calls")
+                .tag("operation", key)
+                .tag("exception", "none")
+                .register(registry));
+    }
+
+    private QueryMeters query(String operation) {
+        return queries.computeIfAbsent(operation, key -> new QueryMeters(
+                DistributionSummary.builder(ROWS_EXAMINED)
+                        .description("Candidates examined per query")
+                        .baseUnit("rows")
+                        .tag("operation", key)
+                        .register(registry),
+                DistributionSummary.builder(ROWS_RETURNED)
+                        .description("Students matched per query")
+                        .baseUnit("rows")
+                        .tag("operation", key)
+                        .register(registry),
+                Timer.builder(SORT)
+                        .description("Sorting of query results")
+                        .tag("operation", key)
+                        .register(registry),
+                Timer.builder(MAPPING)
+                        .description("Mapping of students to responses")
+                        .tag("operation", key)
+                        .register(registry)));
+    }
+
+    private record QueryMeters(DistributionSummary rowsExamined, DistributionSummary rowsReturned,
+                               Timer sort, Timer mapping) {
+    }
+}
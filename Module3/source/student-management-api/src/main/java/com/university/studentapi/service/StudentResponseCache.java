@@ -0,0 +1,112 @@
+package com.university.studentapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.university.studentapi.dto.EncodedStudentResponse;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.model.Student;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Responses of recently read students, each with its JSON encoding, so list pages and
+ * searches copy bytes instead of mapping and serializing every student again.
+ * <p>
+ * An entry is only served for the version it was built from (the student's
+ * {@code lastModifiedDate}), so a stale one is never returned even if a write races with
+ * the read that cached it; the service also drops entries of students it updates or
+ * deletes. Entries are evicted by size, bounded by {@code student.response-cache.max-size}.
+ */
+@Component
+@Slf4j
+public class StudentResponseCache {
+
+    static final String NAME = "studentResponses";
+
+    // Per-entry memory beyond the encoding: the key, the DTO and address, the cache node
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Cache<String, EncodedStudentResponse> cache;
+    private final ObjectWriter writer;
+
+    /**
+     * A cache that stores nothing: every response is mapped
+     */
+    public static StudentResponseCache disabled() {
+        return new StudentResponseCache(null, null);
+    }
+
+    @Autowired
+    public StudentResponseCache(ObjectMapper objectMapper,
+                                @Value("${student.response-cache.enabled:true}") boolean enabled,
+                                @Value("${student.response-cache.max-size:64MB}") DataSize maxSize) {
+        this(enabled ? Caffeine.newBuilder()
+                        .maximumWeight(maxSize.toBytes())
+                        .<String, EncodedStudentResponse>weigher((studentNumber, response) ->
+                                ENTRY_OVERHEAD + 2 * response.getEncodedLength())
+                        .recordStats()
+                        .build() : null,
+                // Fragments are spliced into other documents, so they are always compact
+                objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT));
+    }
+
+    private StudentResponseCache(Cache<String, EncodedStudentResponse> cache, ObjectWriter writer) {
+        this.cache = cache;
+        this.writer = writer;
+    }
+
+    /**
+     * The response for a student: the cached one if it was built from this version of the
+     * student, otherwise {@code mapper}'s, encoded and cached
+     */
+    public StudentResponse toResponse(Student student, Function<Student, StudentResponse> mapper) {
+        if (cache == null || student.getLastModifiedDate() == null) {
+            return mapper.apply(student);
+        }
+        EncodedStudentResponse cached = cache.getIfPresent(student.getStudentNumber());
+        if (cached != null && Objects.equals(cached.getLastModifiedDate(), student.getLastModifiedDate())) {
+            return cached;
+        }
+
+        StudentResponse response = mapper.apply(student);
+        try {
+            EncodedStudentResponse encoded = new EncodedStudentResponse(response, writer.writeValueAsString(response));
+            cache.put(student.getStudentNumber(), encoded);
+            return encoded;
+        } catch (JsonProcessingException e) {
+            log.warn("Could not encode student {}, serving it uncached", student.getStudentNumber(), e);
+            return response;
+        }
+    }
+
+    /**
+     * Drop a student's cached response
+     */
+    public void invalidate(String studentNumber) {
+        if (cache != null) {
+            cache.invalidate(studentNumber);
+        }
+    }
+
+    /**
+     * Register hit, miss, eviction and size meters ({@code cache.*}, tagged
+     * {@code cache=studentResponses})
+     */
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, NAME);
+        }
+    }
+}
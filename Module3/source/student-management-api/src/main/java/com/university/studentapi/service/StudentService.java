@@ -1,12 +1,28 @@
 package com.university.studentapi.service;
 
+import com.university.studentapi.diagnostics.PageSliceEvent;
+import com.university.studentapi.diagnostics.QueryScanEvent;
+import com.university.studentapi.diagnostics.StatisticsEvent;
 import com.university.studentapi.dto.*;
 import com.university.studentapi.exception.DuplicateStudentException;
+import com.university.studentapi.exception.InvalidCursorException;
+import com.university.studentapi.exception.PreconditionFailedException;
 import com.university.studentapi.exception.StudentNotFoundException;
 import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.FacetedSearchResult;
+import com.university.studentapi.repository.QueryPlan;
+import com.university.studentapi.repository.QueryResult;
+import com.university.studentapi.repository.StudentQuery;
+import com.university.studentapi.repository.StudentFacet;
 import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.StudentSortField;
+import com.university.studentapi.repository.StudentStatisticsAggregator;
+import com.university.studentapi.util.ETags;
+import com.university.studentapi.util.PageCursor;
 import com.university.studentapi.util.StudentMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -14,7 +30,13 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * Service layer for student business logic
+ * Service layer for student business logic.
+ * Every public operation is timed through {@link StudentMetrics}, and queries also record
+ * the rows they examined and returned and the time spent sorting and mapping. While a
+ * flight recording runs, scans, page slices and statistics also emit JFR events
+ * (see {@code com.university.studentapi.diagnostics}).
+ * Reads map students through {@link StudentResponseCache}, so unchanged students are
+ * served with their previous response and its JSON encoding.
  */
 @Service
 @Slf4j
@@ -22,14 +44,27 @@ public class StudentService {
 
     private final StudentRepository studentRepository;
     private final StudentMapper studentMapper;
+    private final StudentMetrics metrics;
+    private final StudentResponseCache responseCache;
 
     public StudentService(StudentRepository studentRepository, StudentMapper studentMapper) {
+        this(studentRepository, studentMapper, new StudentMetrics(new SimpleMeterRegistry()),
+                StudentResponseCache.disabled());
+    }
+
+    @Autowired
+    public StudentService(StudentRepository studentRepository, StudentMapper studentMapper, StudentMetrics metrics,
+                          StudentResponseCache responseCache) {
         this.studentRepository = studentRepository;
         this.studentMapper = studentMapper;
+        this.metrics = metrics;
+        this.responseCache = responseCache;
     }
 
     /**
-     * Get all students with pagination and filtering
+     * Get all students with pagination and filtering.
+     * When a cursor is given, the page resumes right after the cursor position (keyset paging)
+     * and {@code page} is ignored; otherwise offset paging is used.
      */
     public StudentPageResponse getAllStudents(
             int page,
@@ -38,26 +73,57 @@ public class StudentService {
             Double minCgpa,
             String city,
             String sortBy,
-            String sortOrder) {
+            String sortOrder,
+            String cursor) {
+        return getAllStudentsExplained(page, size, name, minCgpa, city, sortBy, sortOrder, cursor).getContent();
+    }
 
-        log.info("Fetching students: page={}, size={}, name={}, minCgpa={}, city={}, sortBy={}, sortOrder={}",
-                page, size, name, minCgpa, city, sortBy, sortOrder);
+    /**
+     * {@link #getAllStudents}, also returning the query plan used and the rows it examined
+     */
+    public Explained<StudentPageResponse> getAllStudentsExplained(
+            int page,
+            int size,
+            String name,
+            Double minCgpa,
+            String city,
+            String sortBy,
+            String sortOrder,
+            String cursor) {
+        return metrics.time("list", () -> listStudents(page, size, name, minCgpa, city, sortBy, sortOrder, cursor));
+    }
 
-        List<Student> allStudents = studentRepository.findAll();
+    private Explained<StudentPageResponse> listStudents(int page, int size, String name, Double minCgpa, String city,
+                                                        String sortBy, String sortOrder, String cursor) {
+        log.info("Fetching students: page={}, size={}, name={}, minCgpa={}, city={}, sortBy={}, sortOrder={}, cursor={}",
+                page, size, name, minCgpa, city, sortBy, sortOrder, cursor);
+
+        StudentSortField sortField = StudentSortField.fromParameter(sortBy);
+        boolean descending = "desc".equalsIgnoreCase(sortOrder);
+        StudentQuery query = StudentQuery.builder()
+                .name(name)
+                .minCgpa(minCgpa)
+                .city(city)
+                .orderBy(sortField)
+                .build();
 
-        // Apply filters
-        List<Student> filteredStudents = allStudents.stream()
-                .filter(s -> name == null || s.getName().toLowerCase().contains(name.toLowerCase()))
-                .filter(s -> minCgpa == null || s.getCgpa() >= minCgpa)
-                .filter(s -> city == null || s.getAddress().getCity().equalsIgnoreCase(city))
-                .collect(Collectors.toList());
+        if (cursor != null) {
+            PageCursor after = PageCursor.decode(cursor);
+            if (after.getSortField() != sortField || after.isDescending() != descending) {
+                throw new InvalidCursorException("Cursor was issued for a different sort order");
+            }
+            return getStudentsAfter(after, size, query);
+        }
 
-        // Apply sorting
-        Comparator<Student> comparator = getComparator(sortBy);
-        if ("desc".equalsIgnoreCase(sortOrder)) {
-            comparator = comparator.reversed();
+        // Students come back in ascending sort order; ties are broken by student number, so
+        // reversing gives exactly the descending order
+        QueryResult result = query("list", query);
+        PageSliceEvent slice = new PageSliceEvent();
+        slice.begin();
+        List<Student> filteredStudents = new ArrayList<>(result.getStudents());
+        if (descending) {
+            Collections.reverse(filteredStudents);
         }
-        filteredStudents.sort(comparator);
 
         // Apply pagination
         int totalElements = filteredStudents.size();
@@ -69,9 +135,10 @@ public class StudentService {
                 ? filteredStudents.subList(fromIndex, toIndex)
                 : Collections.emptyList();
 
-        List<StudentResponse> responseContent = pageContent.stream()
-                .map(studentMapper::toResponse)
-                .collect(Collectors.toList());
+        List<StudentResponse> responseContent = metrics.timeMapping("list", () -> pageContent.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList()));
+        commit(slice, page, size, totalElements, responseContent.size());
 
         StudentPageResponse.PageInfo pageInfo = StudentPageResponse.PageInfo.builder()
                 .number(page)
@@ -80,10 +147,115 @@ public class StudentService {
                 .totalPages(totalPages)
                 .build();
 
-        return StudentPageResponse.builder()
+        String nextCursor = toIndex < totalElements
+                ? PageCursor.after(pageContent.get(pageContent.size() - 1), sortField, descending).encode()
+                : null;
+
+        StudentPageResponse response = StudentPageResponse.builder()
                 .content(responseContent)
                 .page(pageInfo)
+                .nextCursor(nextCursor)
                 .build();
+        return new Explained<>(response, result.getPlan().explain(), result.getRowsExamined());
+    }
+
+    /**
+     * Keyset page: walk the sort field's ordered index from the cursor position and keep the
+     * first {@code size} students passing the filters. Costs O(log n + rows examined)
+     * regardless of how deep the page is.
+     */
+    private Explained<StudentPageResponse> getStudentsAfter(PageCursor after, int size, StudentQuery query) {
+        QueryPlan plan = studentRepository.planOrderedAfter(
+                query, after.getSortField(), after.isDescending(), after.getKey(), after.getStudentNumber());
+
+        // Read one student past the page to learn whether another page follows
+        List<Student> pageContent = new ArrayList<>(size + 1);
+        QueryScanEvent scan = new QueryScanEvent();
+        scan.begin();
+        long examined = studentRepository.execute(plan, student -> pageContent.add(student) && pageContent.size() <= size);
+        scan.end();
+        metrics.recordQuery("list", examined, pageContent.size(), 0);
+        commit(scan, "list", query, plan, examined, pageContent.size(), 0);
+        PageSliceEvent slice = new PageSliceEvent();
+        slice.begin();
+        boolean hasMore = pageContent.size() > size;
+        if (hasMore) {
+            pageContent.remove(size);
+        }
+
+        List<StudentResponse> responseContent = metrics.timeMapping("list", () -> pageContent.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList()));
+        commit(slice, -1, size, -1, responseContent.size());
+
+        String nextCursor = hasMore
+                ? PageCursor.after(pageContent.get(pageContent.size() - 1), after.getSortField(), after.isDescending()).encode()
+                : null;
+
+        StudentPageResponse response = StudentPageResponse.builder()
+                .content(responseContent)
+                .nextCursor(nextCursor)
+                .build();
+        return new Explained<>(response, plan.explain(), examined);
+    }
+
+    /**
+     * Run a query, recording its cost as metrics and as a JFR event
+     */
+    private QueryResult query(String operation, StudentQuery query) {
+        QueryScanEvent scan = new QueryScanEvent();
+        scan.begin();
+        QueryResult result = studentRepository.query(query);
+        scan.end();
+        metrics.recordQuery(operation, result.getRowsExamined(), result.getStudents().size(), result.getSortNanos());
+        commit(scan, operation, query, result.getPlan(), result.getRowsExamined(), result.getStudents().size(),
+                result.getSortNanos());
+        return result;
+    }
+
+    private static void commit(QueryScanEvent scan, String operation, StudentQuery query, QueryPlan plan,
+                               long rowsExamined, long rowsReturned, long sortNanos) {
+        if (scan.shouldCommit()) {
+            scan.operation = operation;
+            scan.criteria = query.shape();
+            scan.orderBy = query.getOrderBy() != null ? query.getOrderBy().name() : null;
+            scan.estimatedRows = plan.getEstimatedRows();
+            scan.rowsExamined = rowsExamined;
+            scan.rowsReturned = rowsReturned;
+            scan.sortTime = sortNanos;
+            scan.commit();
+        }
+    }
+
+    private static void commit(PageSliceEvent slice, int page, int size, long totalElements, int rowsReturned) {
+        slice.end();
+        if (slice.shouldCommit()) {
+            slice.page = page;
+            slice.size = size;
+            slice.totalElements = totalElements;
+            slice.rowsReturned = rowsReturned;
+            slice.commit();
+        }
+    }
+
+    private StudentResponse toResponse(Student student) {
+        return responseCache.toResponse(student, studentMapper::toResponse);
+    }
+
+    /**
+     * Current ETag of a student, for answering conditional requests without mapping the record
+     */
+    public String getStudentETag(String studentNumber) {
+        Student student = studentRepository.findByStudentNumber(studentNumber)
+                .orElseThrow(() -> new StudentNotFoundException(studentNumber, true));
+        return ETags.ofStudent(student.getLastModifiedDate());
+    }
+
+    /**
+     * ETag shared by collection resources (list pages, statistics); changes on every write
+     */
+    public String getCollectionETag() {
+        return ETags.ofEpoch(studentRepository.getModificationEpoch());
     }
 
     /**
@@ -92,10 +264,43 @@ public class StudentService {
     public StudentResponse getStudentByNumber(String studentNumber) {
         log.info("Fetching student with number: {}", studentNumber);
 
-        Student student = studentRepository.findByStudentNumber(studentNumber)
-                .orElseThrow(() -> new StudentNotFoundException(studentNumber, true));
+        return metrics.time("get", () -> {
+            Student student = studentRepository.findByStudentNumber(studentNumber)
+                    .orElseThrow(() -> new StudentNotFoundException(studentNumber, true));
+            return toResponse(student);
+        });
+    }
 
-        return studentMapper.toResponse(student);
+    /**
+     * Get many students by student number in one call. Students not found are listed in
+     * {@code missing} instead of failing the call; duplicates are looked up once.
+     */
+    public StudentBatchGetResponse getStudentsByNumbers(List<String> studentNumbers) {
+        log.info("Fetching {} students by number", studentNumbers.size());
+        return metrics.time("batch-get", () -> batchGet(studentNumbers));
+    }
+
+    private StudentBatchGetResponse batchGet(List<String> studentNumbers) {
+        Set<String> keys = new LinkedHashSet<>(studentNumbers);
+        List<Student> found = new ArrayList<>(keys.size());
+        List<String> missing = new ArrayList<>();
+        for (String studentNumber : keys) {
+            Optional<Student> student = studentRepository.findByStudentNumber(studentNumber);
+            if (student.isPresent()) {
+                found.add(student.get());
+            } else {
+                missing.add(studentNumber);
+            }
+        }
+        metrics.recordQuery("batch-get", keys.size(), found.size(), 0);
+
+        List<StudentResponse> responses = metrics.timeMapping("batch-get", () -> found.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList()));
+        return StudentBatchGetResponse.builder()
+                .students(responses)
+                .missing(missing)
+                .build();
     }
 
     /**
@@ -103,48 +308,94 @@ public class StudentService {
      */
     public StudentResponse createStudent(StudentCreateRequest request) {
         log.info("Creating new student with number: {}", request.getStudentNumber());
+        return metrics.time("create", () -> create(request));
+    }
+
+    private StudentResponse create(StudentCreateRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        Student student = studentMapper.toEntity(request).toBuilder()
+                .createdDate(now)
+                .lastModifiedDate(now)
+                .build();
 
-        // Check for duplicate
-        if (studentRepository.existsByStudentNumber(request.getStudentNumber())) {
+        // Insert only if absent, checked atomically with the write, so concurrent creates of one number cannot both win
+        if (!studentRepository.saveIf(student, Objects::isNull)) {
             throw new DuplicateStudentException(request.getStudentNumber(), true);
         }
+        responseCache.invalidate(student.getStudentNumber());
+        log.info("Student created successfully: {}", student.getStudentNumber());
 
-        Student student = studentMapper.toEntity(request);
-        student.setCreatedDate(LocalDateTime.now());
-        student.setLastModifiedDate(LocalDateTime.now());
-
-        Student savedStudent = studentRepository.save(student);
-        log.info("Student created successfully: {}", savedStudent.getStudentNumber());
-
-        return studentMapper.toResponse(savedStudent);
+        return studentMapper.toResponse(student);
     }
 
     /**
      * Update student (full update)
      */
     public StudentResponse updateStudent(String studentNumber, StudentUpdateRequest request) {
-        log.info("Updating student: {}", studentNumber);
-
-        Student existingStudent = studentRepository.findByStudentNumber(studentNumber)
-                .orElseThrow(() -> new StudentNotFoundException(studentNumber, true));
+        return updateStudent(studentNumber, request, null);
+    }
 
-        studentMapper.updateEntity(request, existingStudent);
-        existingStudent.setLastModifiedDate(LocalDateTime.now());
+    /**
+     * Update student, provided {@code ifMatch} (an If-Match header value, or null for an
+     * unconditional update) matches its current ETag when the update is applied.
+     * <p>
+     * The update is optimistic: it builds a new snapshot from the current one and saves it only
+     * if the stored version is still the one it read. An unconditional update that loses
+     * the race re-reads the winner's snapshot and reapplies the request; each retry means
+     * another update succeeded, so some writer always makes progress.
+     */
+    public StudentResponse updateStudent(String studentNumber, StudentUpdateRequest request, String ifMatch) {
+        log.info("Updating student: {}", studentNumber);
+        return metrics.time("update", () -> update(studentNumber, request, ifMatch));
+    }
 
-        Student updatedStudent = studentRepository.save(existingStudent);
-        log.info("Student updated successfully: {}", studentNumber);
+    private StudentResponse update(String studentNumber, StudentUpdateRequest request, String ifMatch) {
+        while (true) {
+            Student current = studentRepository.findByStudentNumber(studentNumber)
+                    .orElseThrow(() -> new StudentNotFoundException(studentNumber, true));
+            LocalDateTime version = current.getLastModifiedDate();
+            if (ifMatch != null && !ETags.ifMatch(ifMatch, ETags.ofStudent(version))) {
+                throw new PreconditionFailedException(studentNumber);
+            }
+
+            Student updatedStudent = studentMapper.updateEntity(request, current).toBuilder()
+                    .lastModifiedDate(nextModifiedDate(version))
+                    .build();
 
-        return studentMapper.toResponse(updatedStudent);
+            if (studentRepository.saveIf(updatedStudent, stored ->
+                    stored != null && Objects.equals(stored.getLastModifiedDate(), version))) {
+                responseCache.invalidate(studentNumber);
+                log.info("Student updated successfully: {}", studentNumber);
+                return studentMapper.toResponse(updatedStudent);
+            }
+            log.debug("Concurrent update of student {}, retrying", studentNumber);
+        }
     }
 
     /**
      * Partial update student
      */
     public StudentResponse partialUpdateStudent(String studentNumber, StudentUpdateRequest request) {
+        return partialUpdateStudent(studentNumber, request, null);
+    }
+
+    /**
+     * Partial update student, conditional on {@code ifMatch} as for {@link #updateStudent}
+     */
+    public StudentResponse partialUpdateStudent(String studentNumber, StudentUpdateRequest request, String ifMatch) {
         log.info("Partially updating student: {}", studentNumber);
         
         // Reuse the same update logic as full update since we check for nulls in mapper
-        return updateStudent(studentNumber, request);
+        return metrics.time("patch", () -> update(studentNumber, request, ifMatch));
+    }
+
+    /**
+     * Now, or just after the previous modification if the clock has not moved past it, so
+     * every update changes the student's ETag
+     */
+    private static LocalDateTime nextModifiedDate(LocalDateTime previous) {
+        LocalDateTime now = LocalDateTime.now();
+        return previous == null || now.isAfter(previous) ? now : previous.plusNanos(1);
     }
 
     /**
@@ -153,11 +404,12 @@ public class StudentService {
     public void deleteStudent(String studentNumber) {
         log.info("Deleting student: {}", studentNumber);
 
-        if (!studentRepository.existsByStudentNumber(studentNumber)) {
-            throw new StudentNotFoundException(studentNumber, true);
-        }
-
-        studentRepository.deleteByStudentNumber(studentNumber);
+        metrics.time("delete", () -> {
+            if (!studentRepository.deleteByStudentNumber(studentNumber)) {
+                throw new StudentNotFoundException(studentNumber, true);
+            }
+            responseCache.invalidate(studentNumber);
+        });
         log.info("Student deleted successfully: {}", studentNumber);
     }
 
@@ -172,21 +424,133 @@ public class StudentService {
             Double minCgpa,
             Double maxCgpa,
             Integer maxBacklogs) {
+        return advancedSearchExplained(name, city, state, country, minCgpa, maxCgpa, maxBacklogs).getContent();
+    }
+
+    /**
+     * {@link #advancedSearch}, also returning the query plan used and the rows it examined
+     */
+    public Explained<List<StudentResponse>> advancedSearchExplained(
+            String name,
+            String city,
+            String state,
+            String country,
+            Double minCgpa,
+            Double maxCgpa,
+            Integer maxBacklogs) {
 
         log.info("Performing advanced search with criteria");
 
-        List<Student> results = studentRepository.findAll().stream()
-                .filter(s -> name == null || s.getName().toLowerCase().contains(name.toLowerCase()))
-                .filter(s -> city == null || s.getAddress().getCity().equalsIgnoreCase(city))
-                .filter(s -> state == null || s.getAddress().getState().equalsIgnoreCase(state))
-                .filter(s -> country == null || s.getAddress().getCountry().equalsIgnoreCase(country))
-                .filter(s -> minCgpa == null || s.getCgpa() >= minCgpa)
-                .filter(s -> maxCgpa == null || s.getCgpa() <= maxCgpa)
-                .filter(s -> maxBacklogs == null || s.getBacklogs() <= maxBacklogs)
-                .collect(Collectors.toList());
+        StudentQuery query = StudentQuery.builder()
+                .name(name)
+                .city(city)
+                .state(state)
+                .country(country)
+                .minCgpa(minCgpa)
+                .maxCgpa(maxCgpa)
+                .maxBacklogs(maxBacklogs)
+                .build();
+        return metrics.time("search", () -> {
+            QueryResult result = query("search", query);
+
+            List<StudentResponse> responses = metrics.timeMapping("search", () -> result.getStudents().stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList()));
+            return new Explained<>(responses, result.getPlan().explain(), result.getRowsExamined());
+        });
+    }
 
-        return results.stream()
-                .map(studentMapper::toResponse)
+    /**
+     * Get the {@code k} students with the highest values of {@code by}, optionally within a
+     * city, highest first; the same students as the first page of a descending list
+     */
+    public List<StudentResponse> getTopStudents(String by, int k, String city) {
+        return getTopStudentsExplained(by, k, city).getContent();
+    }
+
+    /**
+     * {@link #getTopStudents}, also returning the query plan used and the rows it examined
+     */
+    public Explained<List<StudentResponse>> getTopStudentsExplained(String by, int k, String city) {
+        log.info("Fetching top {} students by {}, city={}", k, by, city);
+
+        StudentSortField field = StudentSortField.fromParameter(by);
+        StudentQuery query = StudentQuery.builder()
+                .city(city)
+                .build();
+        return metrics.time("top", () -> {
+            QueryScanEvent scan = new QueryScanEvent();
+            scan.begin();
+            QueryResult result = studentRepository.findTop(query, field, k);
+            scan.end();
+            metrics.recordQuery("top", result.getRowsExamined(), result.getStudents().size(), result.getSortNanos());
+            commit(scan, "top", query, result.getPlan(), result.getRowsExamined(), result.getStudents().size(),
+                    result.getSortNanos());
+
+            List<StudentResponse> responses = metrics.timeMapping("top", () -> result.getStudents().stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList()));
+            return new Explained<>(responses, result.getPlan().explain(), result.getRowsExamined());
+        });
+    }
+
+    /**
+     * Search students by name and any number of values per facet, returning a page of them
+     * together with every facet's counts. Values within a facet are alternatives; facets
+     * must all match. Each facet's counts ignore its own selection, so a client can show
+     * how many students every other value would add. Bucketed facets list every bucket in
+     * order; the others list their values by descending count, leaving out zero counts.
+     */
+    public StudentFacetedSearchResponse facetedSearch(String name, List<String> cities, List<String> states,
+                                                      List<String> countries, List<String> backlogs,
+                                                      List<String> cgpaBands, int page, int size) {
+        log.info("Faceted search: name={}, cities={}, states={}, countries={}, backlogs={}, cgpa={}, page={}, size={}",
+                name, cities, states, countries, backlogs, cgpaBands, page, size);
+
+        Map<StudentFacet, Set<String>> selections = new EnumMap<>(StudentFacet.class);
+        selections.put(StudentFacet.CITY, selection(cities));
+        selections.put(StudentFacet.STATE, selection(states));
+        selections.put(StudentFacet.COUNTRY, selection(countries));
+        selections.put(StudentFacet.BACKLOGS, selection(backlogs));
+        selections.put(StudentFacet.CGPA, selection(cgpaBands));
+
+        return metrics.time("facets", () -> {
+            FacetedSearchResult result = studentRepository.facetedSearch(name, selections, page * size, size);
+            List<StudentResponse> content = metrics.timeMapping("facets", () -> result.getStudents().stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList()));
+
+            Map<String, List<StudentFacetedSearchResponse.FacetCount>> facets = new LinkedHashMap<>();
+            result.getCounts().forEach((facet, counts) -> facets.put(facet.getParameter(), facetCounts(facet, counts)));
+            return StudentFacetedSearchResponse.builder()
+                    .content(content)
+                    .page(StudentPageResponse.PageInfo.builder()
+                            .number(page)
+                            .size(size)
+                            .totalElements(result.getTotal())
+                            .totalPages((int) Math.ceil((double) result.getTotal() / size))
+                            .build())
+                    .facets(facets)
+                    .build();
+        });
+    }
+
+    private static Set<String> selection(List<String> values) {
+        return values != null ? new LinkedHashSet<>(values) : null;
+    }
+
+    private static List<StudentFacetedSearchResponse.FacetCount> facetCounts(StudentFacet facet,
+                                                                              Map<String, Long> counts) {
+        if (!facet.getBuckets().isEmpty()) {
+            return facet.getBuckets().stream()
+                    .map(bucket -> new StudentFacetedSearchResponse.FacetCount(bucket, counts.getOrDefault(bucket, 0L)))
+                    .collect(Collectors.toList());
+        }
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new StudentFacetedSearchResponse.FacetCount(entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
     }
 
@@ -195,10 +559,22 @@ public class StudentService {
      */
     public StudentStatistics getStatistics() {
         log.info("Calculating student statistics");
+        return metrics.time("statistics", this::statistics);
+    }
 
-        List<Student> allStudents = studentRepository.findAll();
-        
-        if (allStudents.isEmpty()) {
+    private StudentStatistics statistics() {
+        StatisticsEvent event = new StatisticsEvent();
+        event.begin();
+        // Maintained incrementally by the repository on every write
+        StudentStatisticsAggregator.Snapshot snapshot = studentRepository.getStatistics();
+        event.end();
+        if (event.shouldCommit()) {
+            event.totalStudents = snapshot.getTotalStudents();
+            event.cities = snapshot.getCityDistribution().size();
+            event.commit();
+        }
+
+        if (snapshot.getTotalStudents() == 0) {
             return StudentStatistics.builder()
                     .totalStudents(0)
                     .averageCgpa(0.0)
@@ -209,51 +585,16 @@ public class StudentService {
                     .build();
         }
 
-        long totalStudents = allStudents.size();
-        double averageCgpa = allStudents.stream()
-                .mapToDouble(Student::getCgpa)
-                .average()
-                .orElse(0.0);
-
-        long noBacklogs = allStudents.stream()
-                .filter(s -> s.getBacklogs() == 0)
-                .count();
-
-        long withBacklogs = totalStudents - noBacklogs;
-
-        long topPerformers = allStudents.stream()
-                .filter(s -> s.getCgpa() >= 9.0)
-                .count();
-
-        Map<String, Long> cityDistribution = allStudents.stream()
-                .collect(Collectors.groupingBy(
-                        s -> s.getAddress().getCity(),
-                        Collectors.counting()
-                ));
+        long totalStudents = snapshot.getTotalStudents();
+        long noBacklogs = snapshot.getStudentsWithNoBacklogs();
 
         return StudentStatistics.builder()
                 .totalStudents(totalStudents)
-                .averageCgpa(Math.round(averageCgpa * 100.0) / 100.0)
+                .averageCgpa(Math.round(snapshot.getAverageCgpa() * 100.0) / 100.0)
                 .studentsWithNoBacklogs(noBacklogs)
-                .studentsWithBacklogs(withBacklogs)
-                .topPerformers(topPerformers)
-                .cityDistribution(cityDistribution)
+                .studentsWithBacklogs(totalStudents - noBacklogs)
+                .topPerformers(snapshot.getTopPerformers())
+                .cityDistribution(snapshot.getCityDistribution())
                 .build();
     }
-
-    /**
-     * Get comparator based on sort field
-     */
-    private Comparator<Student> getComparator(String sortBy) {
-        if (sortBy == null) {
-            sortBy = "studentNumber";
-        }
-
-        return switch (sortBy.toLowerCase()) {
-            case "name" -> Comparator.comparing(Student::getName, String.CASE_INSENSITIVE_ORDER);
-            case "cgpa" -> Comparator.comparing(Student::getCgpa);
-            case "createddate" -> Comparator.comparing(Student::getCreatedDate);
-            default -> Comparator.comparing(Student::getStudentNumber);
-        };
-    }
 }
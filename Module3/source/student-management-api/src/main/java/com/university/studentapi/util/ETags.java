@@ -0,0 +1,55 @@
+package com.university.studentapi.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Strong entity tags for student resources.
+ * <p>
+ * A student's tag is derived from its last modification time, which the service keeps
+ * strictly increasing per student. Collections (list pages, statistics) are tagged with the
+ * repository's modification epoch, which changes on every write.
+ */
+public final class ETags {
+
+    private static final String WILDCARD = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * Tag of a single student, or null when it has no modification time
+     */
+    public static String ofStudent(LocalDateTime lastModifiedDate) {
+        if (lastModifiedDate == null) {
+            return null;
+        }
+        long nanos = lastModifiedDate.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + lastModifiedDate.getNano();
+        return "\"" + Long.toHexString(nanos) + "\"";
+    }
+
+    /**
+     * Tag of a collection resource at the given repository modification epoch
+     */
+    public static String ofEpoch(long epoch) {
+        return "\"e" + Long.toHexString(epoch) + "\"";
+    }
+
+    /**
+     * Whether an {@code If-Match} header value admits the current tag. Uses the strong
+     * comparison of RFC 9110, so weak tags never match; {@code *} matches any current tag.
+     */
+    public static boolean ifMatch(String header, String current) {
+        if (current == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (WILDCARD.equals(tag) || (!tag.startsWith(WEAK_PREFIX) && tag.equals(current))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
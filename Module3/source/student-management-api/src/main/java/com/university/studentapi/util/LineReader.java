@@ -0,0 +1,81 @@
+package com.university.studentapi.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines from a stream without ever holding more than one line, itself capped at
+ * {@code maxLength} characters. Longer lines are cut off and flagged rather than buffered,
+ * so a malformed upload cannot exhaust memory.
+ */
+public class LineReader {
+
+    private final Reader in;
+    private final int maxLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long lineNumber;
+    private boolean truncated;
+
+    public LineReader(Reader in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Next line without its terminator ({@code \n} or {@code \r\n}), or null at end of input
+     */
+    public String readLine() throws IOException {
+        StringBuilder line = null;
+        truncated = false;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(in.read(buffer), 0);
+                position = 0;
+                if (limit == 0) {
+                    return line != null ? finish(line) : null;
+                }
+            }
+            if (line == null) {
+                line = new StringBuilder();
+            }
+            char c = buffer[position++];
+            if (c == '\n') {
+                return finish(line);
+            }
+            if (line.length() < maxLength) {
+                line.append(c);
+            } else {
+                truncated = true;
+            }
+        }
+    }
+
+    /**
+     * 1-based number of the line last returned
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Whether the line last returned was longer than the limit and has been cut off
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    private String finish(StringBuilder line) {
+        lineNumber++;
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        // Drop a byte order mark some spreadsheet exports start with
+        if (lineNumber == 1 && line.length() > 0 && line.charAt(0) == '\uFEFF') {
+            line.deleteCharAt(0);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.university.studentapi.util;
+
+import com.university.studentapi.exception.InvalidCursorException;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.StudentSortField;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor: the sort order it was issued for plus the sort key and
+ * student number of the last student on the page. Encoded as URL-safe Base64.
+ */
+@Value
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    StudentSortField sortField;
+    boolean descending;
+    String studentNumber;
+    Comparable<?> key;
+
+    /**
+     * Cursor positioned at the given student
+     */
+    public static PageCursor after(Student student, StudentSortField sortField, boolean descending) {
+        return new PageCursor(sortField, descending, student.getStudentNumber(), sortField.keyOf(student));
+    }
+
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR
+                + (descending ? "d" : "a") + SEPARATOR
+                + studentNumber + SEPARATOR
+                + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The key goes last so that it may itself contain the separator
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !("a".equals(parts[1]) || "d".equals(parts[1]))) {
+                throw new InvalidCursorException("Malformed pagination cursor");
+            }
+            StudentSortField sortField = StudentSortField.valueOf(parts[0]);
+            return new PageCursor(sortField, "d".equals(parts[1]), parts[2], sortField.parseKey(parts[3]));
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.university.studentapi.util;
+
+import com.university.studentapi.dto.AddressDTO;
+import com.university.studentapi.dto.StudentCreateRequest;
+import com.university.studentapi.exception.InvalidImportException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Parses CSV student rows into create requests.
+ * <p>
+ * The first line is a header naming the columns ({@value #COLUMN_LIST}) in any order; the
+ * names are case-insensitive and other columns are ignored. Fields may be double-quoted,
+ * with {@code ""} for a literal quote, but a record cannot span lines. Empty fields become
+ * null and are reported by validation.
+ */
+public class StudentCsvParser {
+
+    private static final String COLUMN_LIST = "studentNumber,name,street,city,state,country,cgpa,backlogs";
+    private static final List<String> COLUMNS = Arrays.asList(COLUMN_LIST.split(","));
+
+    private final int[] positions;
+    private final int width;
+
+    private StudentCsvParser(int[] positions, int width) {
+        this.positions = positions;
+        this.width = width;
+    }
+
+    /**
+     * Parser for rows laid out as described by the header line
+     */
+    public static StudentCsvParser forHeader(String header) {
+        if (header == null) {
+            throw new InvalidImportException("CSV input is empty; expected a header row: " + COLUMN_LIST);
+        }
+        List<String> names = split(header);
+        int[] positions = new int[COLUMNS.size()];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            positions[i] = indexOfIgnoreCase(names, COLUMNS.get(i));
+            if (positions[i] < 0) {
+                missing.add(COLUMNS.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new InvalidImportException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return new StudentCsvParser(positions, names.size());
+    }
+
+    /**
+     * Parse one data row
+     *
+     * @throws IllegalArgumentException if the row is malformed or a number cannot be parsed
+     */
+    public StudentCreateRequest parse(String line) {
+        List<String> fields = split(line);
+        if (fields.size() < width) {
+            throw new IllegalArgumentException("Expected " + width + " fields but found " + fields.size());
+        }
+        return StudentCreateRequest.builder()
+                .studentNumber(field(fields, 0))
+                .name(field(fields, 1))
+                .address(AddressDTO.builder()
+                        .street(field(fields, 2))
+                        .city(field(fields, 3))
+                        .state(field(fields, 4))
+                        .country(field(fields, 5))
+                        .build())
+                .cgpa(number(fields, 6, Double::valueOf))
+                .backlogs(number(fields, 7, Integer::valueOf))
+                .build();
+    }
+
+    private String field(List<String> fields, int column) {
+        String value = fields.get(positions[column]).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private <N> N number(List<String> fields, int column, Function<String, N> parser) {
+        String value = field(fields, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(COLUMNS.get(column) + ": '" + value + "' is not a number");
+        }
+    }
+
+    /**
+     * Split one CSV line into fields, honouring double quotes
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static int indexOfIgnoreCase(List<String> names, String column) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).trim().toLowerCase(Locale.ROOT).equals(column.toLowerCase(Locale.ROOT))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
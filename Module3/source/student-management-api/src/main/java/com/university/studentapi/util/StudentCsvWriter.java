@@ -0,0 +1,91 @@
+package com.university.studentapi.util;
+
+import com.university.studentapi.dto.AddressDTO;
+import com.university.studentapi.dto.StudentResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes students as CSV rows readable by {@link StudentCsvParser}.
+ * <p>
+ * Fields containing a comma, quote or line break are double-quoted with quotes doubled;
+ * line breaks inside a field are replaced by spaces so every record stays on one line.
+ * Null values are written as empty fields.
+ */
+public final class StudentCsvWriter {
+
+    public static final String HEADER =
+            "studentNumber,name,street,city,state,country,cgpa,backlogs,createdDate,lastModifiedDate";
+
+    private StudentCsvWriter() {
+    }
+
+    /**
+     * Write the header row
+     */
+    public static void writeHeader(Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    /**
+     * Write one student as a row, terminated by a newline
+     */
+    public static void writeRow(StudentResponse student, Writer out) throws IOException {
+        AddressDTO address = student.getAddress();
+        writeField(student.getStudentNumber(), out);
+        out.write(',');
+        writeField(student.getName(), out);
+        out.write(',');
+        writeField(address != null ? address.getStreet() : null, out);
+        out.write(',');
+        writeField(address != null ? address.getCity() : null, out);
+        out.write(',');
+        writeField(address != null ? address.getState() : null, out);
+        out.write(',');
+        writeField(address != null ? address.getCountry() : null, out);
+        out.write(',');
+        writeField(student.getCgpa(), out);
+        out.write(',');
+        writeField(student.getBacklogs(), out);
+        out.write(',');
+        writeField(student.getCreatedDate(), out);
+        out.write(',');
+        writeField(student.getLastModifiedDate(), out);
+        out.write('\n');
+    }
+
+    private static void writeField(Object value, Writer out) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (!needsQuoting(text)) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.write("\"\"");
+            } else if (c == '\n' || c == '\r') {
+                out.write(' ');
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -50,25 +50,27 @@ public class StudentMapper {
     }
 
     /**
-     * Update Student entity from StudentUpdateRequest DTO
+     * Apply a StudentUpdateRequest DTO to a Student entity, returning the updated student
      */
-    public void updateEntity(StudentUpdateRequest request, Student student) {
+    public Student updateEntity(StudentUpdateRequest request, Student student) {
         if (request == null || student == null) {
-            return;
+            return student;
         }
 
+        Student.StudentBuilder updated = student.toBuilder();
         if (request.getName() != null) {
-            student.setName(request.getName());
+            updated.name(request.getName());
         }
         if (request.getAddress() != null) {
-            student.setAddress(toAddress(request.getAddress()));
+            updated.address(toAddress(request.getAddress()));
         }
         if (request.getCgpa() != null) {
-            student.setCgpa(request.getCgpa());
+            updated.cgpa(request.getCgpa());
         }
         if (request.getBacklogs() != null) {
-            student.setBacklogs(request.getBacklogs());
+            updated.backlogs(request.getBacklogs());
         }
+        return updated.build();
     }
 
     /**
@@ -0,0 +1,59 @@
+package com.university.studentapi.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Writes student pages, batch lookups, students and errors as {@code application/x-protobuf} messages
+ * described by {@link StudentProtobufSchemas}. Other bodies, such as search result lists
+ * (protobuf has no top-level arrays) and statistics (no maps), are left to the other
+ * encodings. Request bodies are never read as protobuf.
+ */
+public class StudentProtobufConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    private final StudentProtobufSchemas schemas;
+
+    public StudentProtobufConverter(StudentProtobufSchemas schemas) {
+        super(schemas.getObjectMapper(), PROTOBUF);
+        this.schemas = schemas;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return schemas.forType(clazz) != null && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        // The message is chosen by the declared type, unless only the body's own class has one
+        boolean declared = type instanceof Class<?> declaredClass && schemas.forType(declaredClass) != null;
+        super.writeInternal(object, declared ? type : object.getClass(), outputMessage);
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable JavaType javaType,
+                                           @Nullable MediaType contentType) {
+        return writer.with(schemas.forType(javaType.getRawClass()));
+    }
+}
@@ -0,0 +1,96 @@
+package com.university.studentapi.util;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schemagen.ProtobufSchemaGenerator;
+import com.university.studentapi.dto.StudentBatchGetResponse;
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.exception.ErrorResponse;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Protobuf schemas of the responses served as {@code application/x-protobuf}, derived from
+ * the DTOs themselves, so they follow every field added to them. Field numbers follow the
+ * declaration order of the DTO fields: add fields at the end to keep existing clients
+ * compatible.
+ */
+public class StudentProtobufSchemas {
+
+    private static final List<Class<?>> MESSAGE_TYPES = List.of(StudentPageResponse.class,
+            StudentBatchGetResponse.class, StudentResponse.class, ErrorResponse.class);
+    // Messages published as the .proto definitions; they contain all other message types
+    private static final List<Class<?>> ROOT_TYPES =
+            List.of(StudentPageResponse.class, StudentBatchGetResponse.class, ErrorResponse.class);
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ProtobufSchema> schemas = new LinkedHashMap<>();
+
+    /**
+     * @param objectMapper mapper built on a {@link ProtobufFactory}, which also encodes the messages
+     */
+    public StudentProtobufSchemas(ObjectMapper objectMapper) {
+        if (!(objectMapper.getFactory() instanceof ProtobufFactory)) {
+            throw new IllegalArgumentException("Protobuf schemas need an ObjectMapper built on a ProtobufFactory");
+        }
+        this.objectMapper = objectMapper;
+        for (Class<?> type : MESSAGE_TYPES) {
+            schemas.put(type, generate(type));
+        }
+    }
+
+    private ProtobufSchema generate(Class<?> type) {
+        try {
+            ProtobufSchemaGenerator generator = new ProtobufSchemaGenerator();
+            objectMapper.acceptJsonFormatVisitor(type, generator);
+            return generator.getGeneratedSchema();
+        } catch (JsonMappingException e) {
+            throw new IllegalStateException("Cannot derive a protobuf schema for " + type.getSimpleName(), e);
+        }
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Schema of the message a response type is encoded as, or null when it has none
+     */
+    public ProtobufSchema forType(Class<?> type) {
+        for (Map.Entry<Class<?>, ProtobufSchema> schema : schemas.entrySet()) {
+            if (schema.getKey().isAssignableFrom(type)) {
+                return schema.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * All messages as {@code .proto} definitions, for generating client code. Messages
+     * shared by several responses are defined once.
+     */
+    public String getDefinitions() {
+        Map<String, String> messages = new LinkedHashMap<>();
+        for (Class<?> type : ROOT_TYPES) {
+            // Top-level messages start at the beginning of a line and end with a "}" line
+            StringBuilder message = new StringBuilder();
+            String name = null;
+            for (String line : schemas.get(type).getSource().toString().split("\n")) {
+                if (line.startsWith("message ")) {
+                    name = line;
+                }
+                message.append(line).append('\n');
+                if (line.equals("}")) {
+                    messages.putIfAbsent(name, message.toString());
+                    message.setLength(0);
+                }
+            }
+        }
+        return String.join("", messages.values());
+    }
+}
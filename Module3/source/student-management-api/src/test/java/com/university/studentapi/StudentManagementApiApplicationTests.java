@@ -1,10 +1,15 @@
 package com.university.studentapi;
 
+import com.university.studentapi.diagnostics.FlightRecordingEndpoint;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.ActiveProfiles;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * Test to ensure Spring Boot application context loads successfully
  */
@@ -12,9 +17,18 @@ import org.springframework.test.context.ActiveProfiles;
 @DisplayName("Application Context Test")
 class StudentManagementApiApplicationTests {
 
+    @Autowired
+    private ApplicationContext context;
+
     @Test
     @DisplayName("Should load application context successfully")
     void contextLoads() {
         // This test passes if the application context loads without errors
     }
+
+    @Test
+    @DisplayName("Should leave the flight recording endpoint off by default")
+    void flightRecordingDisabledByDefault() {
+        assertTrue(context.getBeansOfType(FlightRecordingEndpoint.class).isEmpty());
+    }
 }
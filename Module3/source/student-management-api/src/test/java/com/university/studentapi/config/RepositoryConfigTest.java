@@ -0,0 +1,45 @@
+package com.university.studentapi.config;
+
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.ShardedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.persistence.StudentJournal;
+import com.university.studentapi.repository.store.StudentStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RepositoryConfig
+ */
+@DisplayName("RepositoryConfig Tests")
+class RepositoryConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(RepositoryConfig.class)
+            .withPropertyValues("student.repository.parallel-scan.enabled=false");
+
+    @Test
+    @DisplayName("Should build one store and journal for a single repository by default")
+    void testSingleRepository() {
+        runner.run(context -> {
+            assertThat(context).hasSingleBean(StudentStore.class);
+            assertThat(context).hasSingleBean(StudentJournal.class);
+            assertThat(context.getBean(StudentRepository.class)).isInstanceOf(IndexedStudentRepository.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Should build no unused store or journal when sharded")
+    void testShardedRepository() {
+        runner.withPropertyValues("student.repository.shards=3").run(context -> {
+            assertThat(context).doesNotHaveBean(StudentStore.class);
+            assertThat(context).doesNotHaveBean(StudentJournal.class);
+            assertThat(context.getBean(StudentRepository.class)).isInstanceOf(ShardedStudentRepository.class);
+            assertThat(((ShardedStudentRepository) context.getBean(StudentRepository.class)).getShardCount())
+                    .isEqualTo(3);
+        });
+    }
+}
@@ -1,24 +1,52 @@
 package com.university.studentapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.university.studentapi.dto.*;
 import com.university.studentapi.exception.DuplicateStudentException;
+import com.university.studentapi.repository.store.DictionaryFullException;
+import com.university.studentapi.exception.InvalidCursorException;
+import com.university.studentapi.exception.PreconditionFailedException;
+import com.university.studentapi.exception.ResyncRequiredException;
+import com.university.studentapi.exception.SubscriberLimitExceededException;
 import com.university.studentapi.exception.StudentNotFoundException;
+import com.university.studentapi.service.Explained;
+import com.university.studentapi.service.StudentChangeFeed;
+import com.university.studentapi.service.StudentDataFormat;
+import com.university.studentapi.service.StudentExportService;
+import com.university.studentapi.service.StudentImportService;
 import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.ETags;
+import com.university.studentapi.util.StudentProtobufConverter;
+import com.university.studentapi.util.StudentProtobufSchemas;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,9 +64,21 @@ class StudentControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private StudentProtobufSchemas protobufSchemas;
+
     @MockBean
     private StudentService studentService;
 
+    @MockBean
+    private StudentImportService studentImportService;
+
+    @MockBean
+    private StudentExportService studentExportService;
+
+    @MockBean
+    private StudentChangeFeed changeFeed;
+
     private StudentResponse studentResponse;
     private StudentCreateRequest createRequest;
 
@@ -84,7 +124,7 @@ class StudentControllerTest {
                         .build())
                 .build();
 
-        when(studentService.getAllStudents(anyInt(), anyInt(), any(), any(), any(), any(), any()))
+        when(studentService.getAllStudents(anyInt(), anyInt(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(pageResponse);
 
         // When & Then
@@ -97,6 +137,20 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.page.totalElements").value(1));
     }
 
+    @Test
+    @DisplayName("GET /v1/students - Should return 400 for an invalid cursor")
+    void testGetAllStudents_InvalidCursor() throws Exception {
+        // Given
+        when(studentService.getAllStudents(anyInt(), anyInt(), any(), any(), any(), any(), any(), eq("bogus")))
+                .thenThrow(new InvalidCursorException("Malformed pagination cursor"));
+
+        // When & Then
+        mockMvc.perform(get("/v1/students")
+                        .param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Malformed pagination cursor"));
+    }
+
     @Test
     @DisplayName("GET /v1/students/{studentNumber} - Should return student")
     void testGetStudentByNumber_Success() throws Exception {
@@ -111,6 +165,26 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.cgpa").value(8.5));
     }
 
+    @Test
+    @DisplayName("GET /v1/students/{studentNumber} - Should tag the student and answer 304 when unchanged")
+    void testGetStudentByNumber_ConditionalGet() throws Exception {
+        // Given
+        String etag = ETags.ofStudent(studentResponse.getLastModifiedDate());
+        when(studentService.getStudentETag("STU001")).thenReturn(etag);
+        when(studentService.getStudentByNumber("STU001")).thenReturn(studentResponse);
+
+        // When & Then
+        mockMvc.perform(get("/v1/students/STU001"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        mockMvc.perform(get("/v1/students/STU001")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(studentService, times(1)).getStudentByNumber("STU001");
+    }
+
     @Test
     @DisplayName("GET /v1/students/{studentNumber} - Should return 404 when not found")
     void testGetStudentByNumber_NotFound() throws Exception {
@@ -125,6 +199,46 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.error").value("Not Found"));
     }
 
+    @Test
+    @DisplayName("POST /v1/students/batch-get - Should return found students and missing numbers")
+    void testBatchGetStudents() throws Exception {
+        // Given
+        when(studentService.getStudentsByNumbers(Arrays.asList("STU001", "STU999")))
+                .thenReturn(StudentBatchGetResponse.builder()
+                        .students(Collections.singletonList(studentResponse))
+                        .missing(Collections.singletonList("STU999"))
+                        .build());
+
+        // When & Then
+        mockMvc.perform(post("/v1/students/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentNumbers\": [\"STU001\", \"STU999\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students[0].studentNumber").value("STU001"))
+                .andExpect(jsonPath("$.missing[0]").value("STU999"));
+    }
+
+    @Test
+    @DisplayName("POST /v1/students/batch-get - Should return 400 for no or too many student numbers")
+    void testBatchGetStudents_Invalid() throws Exception {
+        // Given
+        String tooMany = objectMapper.writeValueAsString(StudentBatchGetRequest.builder()
+                .studentNumbers(Collections.nCopies(StudentBatchGetRequest.MAX_STUDENT_NUMBERS + 1, "STU001"))
+                .build());
+
+        // When & Then
+        mockMvc.perform(post("/v1/students/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentNumbers\": []}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/v1/students/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(tooMany))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].field").value("studentNumbers"));
+        verify(studentService, never()).getStudentsByNumbers(any());
+    }
+
     @Test
     @DisplayName("POST /v1/students - Should create student successfully")
     void testCreateStudent_Success() throws Exception {
@@ -179,6 +293,22 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.error").value("Conflict"));
     }
 
+    @Test
+    @DisplayName("POST /v1/students - Should return 422 when the location dictionary is full")
+    void testCreateStudent_LocationLimit() throws Exception {
+        // Given
+        when(studentService.createStudent(any(StudentCreateRequest.class)))
+                .thenThrow(new DictionaryFullException(100_000));
+
+        // When & Then
+        mockMvc.perform(post("/v1/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422))
+                .andExpect(jsonPath("$.message").value(containsString("100000")));
+    }
+
     @Test
     @DisplayName("PUT /v1/students/{studentNumber} - Should update student")
     void testUpdateStudent_Success() throws Exception {
@@ -198,7 +328,7 @@ class StudentControllerTest {
                 .lastModifiedDate(LocalDateTime.now())
                 .build();
 
-        when(studentService.updateStudent(eq("STU001"), any(StudentUpdateRequest.class)))
+        when(studentService.updateStudent(eq("STU001"), any(StudentUpdateRequest.class), isNull()))
                 .thenReturn(updatedResponse);
 
         // When & Then
@@ -210,6 +340,35 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.cgpa").value(9.0));
     }
 
+    @Test
+    @DisplayName("PUT /v1/students/{studentNumber} - Should return 412 when If-Match is stale")
+    void testUpdateStudent_PreconditionFailed() throws Exception {
+        // Given
+        when(studentService.updateStudent(eq("STU001"), any(StudentUpdateRequest.class), eq("\"stale\"")))
+                .thenThrow(new PreconditionFailedException("STU001"));
+
+        // When & Then
+        mockMvc.perform(put("/v1/students/STU001")
+                        .header(HttpHeaders.IF_MATCH, "\"stale\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(StudentUpdateRequest.builder().cgpa(9.0).build())))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/statistics - Should answer 304 while nothing has been written")
+    void testGetStatistics_NotModified() throws Exception {
+        // Given
+        when(studentService.getCollectionETag()).thenReturn(ETags.ofEpoch(42));
+
+        // When & Then
+        mockMvc.perform(get("/v1/students/statistics")
+                        .header(HttpHeaders.IF_NONE_MATCH, ETags.ofEpoch(42)))
+                .andExpect(status().isNotModified());
+        verify(studentService, never()).getStatistics();
+    }
+
     @Test
     @DisplayName("DELETE /v1/students/{studentNumber} - Should delete student")
     void testDeleteStudent_Success() throws Exception {
@@ -256,4 +415,333 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].studentNumber").value("STU001"));
     }
+
+    @Test
+    @DisplayName("POST /v1/students/bulk - Should import NDJSON and return the summary")
+    void testBulkImport_Ndjson() throws Exception {
+        // Given
+        BulkImportResponse summary = BulkImportResponse.builder()
+                .received(2)
+                .imported(1)
+                .failed(1)
+                .errors(Collections.singletonList(BulkImportResponse.LineError.builder()
+                        .line(2)
+                        .message("Malformed JSON")
+                        .build()))
+                .build();
+        when(studentImportService.importStudents(any(), any(), eq(StudentDataFormat.NDJSON)))
+                .thenReturn(summary);
+
+        // When & Then
+        mockMvc.perform(post("/v1/students/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(createRequest) + "\n{"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /v1/students/bulk - Should treat text/csv bodies as CSV")
+    void testBulkImport_Csv() throws Exception {
+        // Given
+        when(studentImportService.importStudents(any(), any(), any()))
+                .thenReturn(BulkImportResponse.builder().build());
+
+        // When
+        mockMvc.perform(post("/v1/students/bulk")
+                        .contentType("text/csv; charset=UTF-8")
+                        .content("studentNumber,name,street,city,state,country,cgpa,backlogs\n"))
+                .andExpect(status().isOk());
+
+        // Then
+        verify(studentImportService).importStudents(any(), any(), eq(StudentDataFormat.CSV));
+    }
+
+    @Test
+    @DisplayName("POST /v1/students/bulk - Should return 415 for other content types")
+    void testBulkImport_UnsupportedContentType() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/v1/students/bulk")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<students/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/export - Should stream NDJSON by default")
+    void testExport_Ndjson() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(4);
+            out.write("{\"studentNumber\":\"STU001\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(studentExportService).exportStudents(isNull(), eq(7.5), eq("Mumbai"), eq(StudentDataFormat.NDJSON), any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/v1/students/export")
+                        .param("minCgpa", "7.5")
+                        .param("city", "Mumbai"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"students.ndjson\""))
+                .andExpect(content().string("{\"studentNumber\":\"STU001\"}\n"));
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/export - Should stream CSV when the client prefers it")
+    void testExport_Csv() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/v1/students/export")
+                        .header("Accept", "application/x-ndjson;q=0.5, text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"));
+        verify(studentExportService).exportStudents(isNull(), isNull(), isNull(), eq(StudentDataFormat.CSV), any());
+    }
+
+    @Test
+    @DisplayName("POST /v1/students/search?explain=true - Should describe the query plan in headers")
+    void testAdvancedSearch_Explain() throws Exception {
+        // Given
+        when(studentService.advancedSearchExplained(isNull(), eq("Mumbai"), isNull(), isNull(), eq(8.0), isNull(), isNull()))
+                .thenReturn(new Explained<>(Collections.singletonList(studentResponse),
+                        "index city = 'Mumbai' (~120 rows) | cgpa >= 8.0 (est. 30%)", 120));
+
+        // When & Then
+        mockMvc.perform(post("/v1/students/search")
+                        .param("city", "Mumbai")
+                        .param("minCgpa", "8.0")
+                        .param("explain", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Query-Plan", "index city = 'Mumbai' (~120 rows) | cgpa >= 8.0 (est. 30%)"))
+                .andExpect(header().string("X-Rows-Examined", "120"))
+                .andExpect(jsonPath("$[0].studentNumber").value("STU001"));
+    }
+
+    @Test
+    @DisplayName("GET /v1/students - Should answer in CBOR, Smile or protobuf when asked, and in JSON by default")
+    void testGetAllStudents_BinaryEncodings() throws Exception {
+        // Given
+        StudentPageResponse pageResponse = StudentPageResponse.builder()
+                .content(Arrays.asList(studentResponse))
+                .page(StudentPageResponse.PageInfo.builder()
+                        .number(0)
+                        .size(20)
+                        .totalElements(1)
+                        .totalPages(1)
+                        .build())
+                .nextCursor("next")
+                .build();
+        when(studentService.getAllStudents(anyInt(), anyInt(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(pageResponse);
+        Map<String, ObjectReader> readers = Map.of(
+                MediaType.APPLICATION_CBOR_VALUE,
+                new ObjectMapper(new CBORFactory()).findAndRegisterModules().readerFor(StudentPageResponse.class),
+                "application/x-jackson-smile",
+                new ObjectMapper(new SmileFactory()).findAndRegisterModules().readerFor(StudentPageResponse.class),
+                StudentProtobufConverter.PROTOBUF_VALUE,
+                protobufSchemas.getObjectMapper().readerFor(StudentPageResponse.class)
+                        .with(protobufSchemas.forType(StudentPageResponse.class)));
+
+        // When & Then
+        mockMvc.perform(get("/v1/students").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        for (Map.Entry<String, ObjectReader> encoding : readers.entrySet()) {
+            MvcResult result = mockMvc.perform(get("/v1/students").accept(encoding.getKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(encoding.getKey()))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                    .andReturn();
+            StudentPageResponse decoded = encoding.getValue().readValue(result.getResponse().getContentAsByteArray());
+            assertEquals(pageResponse, decoded, encoding.getKey());
+        }
+    }
+
+    @Test
+    @DisplayName("POST /v1/students - Should read CBOR request bodies")
+    void testCreateStudent_Cbor() throws Exception {
+        // Given
+        when(studentService.createStudent(createRequest)).thenReturn(studentResponse);
+
+        // When & Then
+        mockMvc.perform(post("/v1/students")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(new ObjectMapper(new CBORFactory()).writeValueAsBytes(createRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.studentNumber").value("STU001"));
+    }
+
+    @Test
+    @DisplayName("POST /v1/students/search - Should return 406 for protobuf, which has no top-level lists")
+    void testAdvancedSearch_ProtobufNotAcceptable() throws Exception {
+        // Given
+        when(studentService.advancedSearch(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Arrays.asList(studentResponse));
+
+        // When & Then
+        mockMvc.perform(post("/v1/students/search")
+                        .accept(StudentProtobufConverter.PROTOBUF_VALUE, MediaType.APPLICATION_JSON_VALUE + ";q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        mockMvc.perform(post("/v1/students/search")
+                        .accept(StudentProtobufConverter.PROTOBUF_VALUE))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/schema.proto - Should publish the protobuf messages")
+    void testGetProtobufSchema() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/v1/students/schema.proto"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().string(containsString("message StudentPageResponse {")))
+                .andExpect(content().string(containsString("message StudentResponse {")))
+                .andExpect(content().string(containsString("message ErrorResponse {")));
+        verify(studentService, never()).getStudentByNumber(any());
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/top - Should return the top students, with the plan when asked")
+    void testGetTopStudents() throws Exception {
+        // Given
+        when(studentService.getCollectionETag()).thenReturn(ETags.ofEpoch(7));
+        when(studentService.getTopStudents("cgpa", 10, null)).thenReturn(List.of(studentResponse));
+        when(studentService.getTopStudentsExplained("cgpa", 50, "Mumbai"))
+                .thenReturn(new Explained<>(List.of(studentResponse), "top 50 ordered scan CGPA DESC (~200 rows)", 180));
+
+        // When & Then
+        mockMvc.perform(get("/v1/students/top"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.ofEpoch(7)))
+                .andExpect(jsonPath("$[0].studentNumber").value("STU001"));
+        mockMvc.perform(get("/v1/students/top")
+                        .param("by", "cgpa")
+                        .param("k", "50")
+                        .param("city", "Mumbai")
+                        .param("explain", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Query-Plan", "top 50 ordered scan CGPA DESC (~200 rows)"))
+                .andExpect(header().string("X-Rows-Examined", "180"));
+        mockMvc.perform(get("/v1/students/top").header(HttpHeaders.IF_NONE_MATCH, ETags.ofEpoch(7)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/faceted-search - Should return students with facet counts")
+    void testFacetedSearch() throws Exception {
+        // Given
+        StudentFacetedSearchResponse response = StudentFacetedSearchResponse.builder()
+                .content(List.of(studentResponse))
+                .page(StudentPageResponse.PageInfo.builder().number(0).size(20).totalElements(1).totalPages(1).build())
+                .facets(Map.of("city", List.of(new StudentFacetedSearchResponse.FacetCount("Mumbai", 1))))
+                .build();
+        when(studentService.getCollectionETag()).thenReturn(ETags.ofEpoch(7));
+        when(studentService.facetedSearch("john", List.of("Mumbai", "Pune"), null, null, List.of("0", "3+"), null, 0, 20))
+                .thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(get("/v1/students/faceted-search")
+                        .param("name", "john")
+                        .param("city", "Mumbai", "Pune")
+                        .param("backlogs", "0,3+"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.ofEpoch(7)))
+                .andExpect(jsonPath("$.content[0].studentNumber").value("STU001"))
+                .andExpect(jsonPath("$.page.totalElements").value(1))
+                .andExpect(jsonPath("$.facets.city[0].value").value("Mumbai"))
+                .andExpect(jsonPath("$.facets.city[0].count").value(1));
+        mockMvc.perform(get("/v1/students/faceted-search").header(HttpHeaders.IF_NONE_MATCH, ETags.ofEpoch(7)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/changes - Should return the changes following since")
+    void testGetChanges() throws Exception {
+        // Given
+        StudentChangesResponse changes = StudentChangesResponse.builder()
+                .changes(List.of(
+                        StudentChange.builder()
+                                .sequence(41)
+                                .type(StudentChange.Type.UPDATED)
+                                .studentNumber("STU001")
+                                .student(studentResponse)
+                                .build(),
+                        StudentChange.builder()
+                                .sequence(42)
+                                .type(StudentChange.Type.DELETED)
+                                .studentNumber("STU002")
+                                .build()))
+                .lastSequence(42)
+                .hasMore(true)
+                .build();
+        when(changeFeed.getChanges(40L, 2)).thenReturn(changes);
+
+        // When & Then
+        mockMvc.perform(get("/v1/students/changes")
+                        .param("since", "40")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[0].student.name").value("John Doe"))
+                .andExpect(jsonPath("$.changes[1].type").value("DELETED"))
+                .andExpect(jsonPath("$.changes[1].student").doesNotExist())
+                .andExpect(jsonPath("$.lastSequence").value(42))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/changes - Should return 410 when since is no longer retained")
+    void testGetChanges_ResyncRequired() throws Exception {
+        // Given
+        when(changeFeed.getChanges(eq(7L), anyInt())).thenThrow(new ResyncRequiredException(7, 90_000));
+
+        // When & Then
+        mockMvc.perform(get("/v1/students/changes").param("since", "7"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.message").value(containsString("from sequence 90000")));
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/changes/stream - Should resume from Last-Event-ID")
+    void testStreamChanges_LastEventId() throws Exception {
+        // Given
+        when(changeFeed.subscribe(7L)).thenThrow(new ResyncRequiredException(7, 90_000));
+
+        // When & Then
+        mockMvc.perform(get("/v1/students/changes/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "7"))
+                .andExpect(status().isGone())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(410));
+        verify(changeFeed).subscribe(7L);
+    }
+
+    @Test
+    @DisplayName("GET /v1/students/changes/stream - Should return 503 beyond the subscriber limit")
+    void testStreamChanges_SubscriberLimitExceeded() throws Exception {
+        // Given
+        when(changeFeed.subscribe(null)).thenThrow(new SubscriberLimitExceededException(1000));
+
+        // When & Then
+        mockMvc.perform(get("/v1/students/changes/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(503));
+    }
 }
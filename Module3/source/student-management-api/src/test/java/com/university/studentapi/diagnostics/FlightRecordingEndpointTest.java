@@ -0,0 +1,112 @@
+package com.university.studentapi.diagnostics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.service.StudentService;
+import com.university.studentapi.util.StudentMapper;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FlightRecordingEndpoint and the application's JFR events
+ */
+@DisplayName("FlightRecordingEndpoint Tests")
+class FlightRecordingEndpointTest {
+
+    private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint();
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    @DisplayName("Should record query, page, statistics and serialization events on demand")
+    void testRecordAndDownload() throws Exception {
+        // Given
+        StudentRepository repository = new IndexedStudentRepository();
+        for (int i = 0; i < 30; i++) {
+            repository.save(Student.builder()
+                    .studentNumber(String.format("STU%03d", i))
+                    .name("Student " + i)
+                    .address(Student.Address.builder()
+                            .street(i + " Main St")
+                            .city(i % 2 == 0 ? "Mumbai" : "Pune")
+                            .state("Maharashtra")
+                            .country("India")
+                            .build())
+                    .cgpa(i / 4.0)
+                    .backlogs(i % 3)
+                    .createdDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(30 - i))
+                    .build());
+        }
+        StudentService studentService = new StudentService(repository, new StudentMapper());
+        RecordingJsonConverter converter = new RecordingJsonConverter(new ObjectMapper().findAndRegisterModules());
+
+        // When
+        FlightRecordingEndpoint.RecordingStatus started = endpoint.start(null, Duration.ofMinutes(1));
+        StudentPageResponse page = studentService.getAllStudents(1, 10, null, 2.0, "Mumbai", "createdDate", "asc", null);
+        studentService.getStatistics();
+        MockHttpOutputMessage body = new MockHttpOutputMessage();
+        converter.write(page, MediaType.APPLICATION_JSON, body);
+        FlightRecordingEndpoint.RecordingStatus stopped = endpoint.stop();
+        WebEndpointResponse<Resource> download = endpoint.download(started.getFile());
+
+        // Then
+        assertEquals("RUNNING", started.getState());
+        assertEquals("default", started.getSettings());
+        assertEquals("STOPPED", stopped.getState());
+        assertEquals(200, download.getStatus());
+        Map<String, RecordedEvent> events = RecordingFile.readAllEvents(download.getBody().getFile().toPath()).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.university.studentapi."))
+                .collect(Collectors.toMap(event -> event.getEventType().getName(), Function.identity(), (a, b) -> a));
+
+        RecordedEvent scan = events.get("com.university.studentapi.QueryScan");
+        assertEquals("list", scan.getString("operation"));
+        assertEquals("city,minCgpa", scan.getString("criteria"));
+        assertEquals("CREATED_DATE", scan.getString("orderBy"));
+        assertEquals(15, scan.getLong("rowsExamined"));
+        assertEquals(11, scan.getLong("rowsReturned"));
+        assertEquals(11, events.get("com.university.studentapi.Sort").getLong("rows"));
+        assertEquals(1, events.get("com.university.studentapi.PageSlice").getInt("page"));
+        assertEquals(1, events.get("com.university.studentapi.PageSlice").getInt("rowsReturned"));
+        assertEquals(30, events.get("com.university.studentapi.Statistics").getLong("totalStudents"));
+        RecordedEvent serialization = events.get("com.university.studentapi.Serialization");
+        assertEquals("StudentPageResponse", serialization.getString("type"));
+        assertEquals(1, serialization.getInt("rows"));
+        assertEquals(body.getBodyAsBytes().length, serialization.getLong("bytes"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown settings and downloads of other recordings")
+    void testInvalidRequests() {
+        // When & Then
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start("verbose", null));
+        assertEquals("NONE", endpoint.status().getState());
+        assertEquals(404, endpoint.download("student-api-20240101-000000.jfr").getStatus());
+
+        FlightRecordingEndpoint.RecordingStatus started = endpoint.start("profile", null);
+        assertEquals(FlightRecordingEndpoint.DEFAULT_DURATION, started.getDuration());
+        assertEquals(404, endpoint.download("../" + started.getFile()).getStatus());
+    }
+}
@@ -0,0 +1,16 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.repository.store.ColumnarStudentStore;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Runs the StudentRepository tests against the columnar store
+ */
+@DisplayName("StudentRepository Tests (columnar store)")
+class ColumnarStudentRepositoryTest extends StudentRepositoryTest {
+
+    @Override
+    protected StudentRepository createRepository() {
+        return new IndexedStudentRepository(new ColumnarStudentStore());
+    }
+}
@@ -0,0 +1,169 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.persistence.StudentJournal;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParallelScanner and the repository scans that use it
+ */
+@DisplayName("ParallelScanner Tests")
+class ParallelScannerTest {
+
+    private ParallelScanner scanner;
+
+    @BeforeEach
+    void setUp() {
+        // Threshold 0: every scan goes parallel, even on a single-core machine
+        scanner = new ParallelScanner(4, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scanner.close();
+    }
+
+    @Test
+    @DisplayName("Should keep encounter order when collecting in parallel")
+    void testCollectKeepsEncounterOrder() {
+        // Given
+        ConcurrentSkipListSet<Integer> source = new ConcurrentSkipListSet<>();
+        IntStream.range(0, 20_000).forEach(source::add);
+
+        // When
+        List<Integer> even = scanner.collect(source.spliterator(), source.size(),
+                i -> i % 2 == 0 ? i : null, null);
+
+        // Then
+        assertEquals(IntStream.range(0, 10_000).map(i -> i * 2).boxed().toList(), even);
+    }
+
+    @Test
+    @DisplayName("Should merge sorted partitions stably")
+    void testCollectSortsStably() {
+        // Given: keys collide heavily, values record the original position
+        List<int[]> source = IntStream.range(0, 20_000).mapToObj(i -> new int[]{(i * 7919) % 100, i}).toList();
+        Comparator<int[]> byKey = Comparator.comparingInt(pair -> pair[0]);
+        List<int[]> expected = new ArrayList<>(source);
+        expected.sort(byKey);
+
+        // When
+        List<int[]> sorted = scanner.collect(source.spliterator(), source.size(), pair -> pair, byKey);
+
+        // Then
+        assertEquals(expected.stream().map(pair -> pair[1]).toList(), sorted.stream().map(pair -> pair[1]).toList());
+    }
+
+    @Test
+    @DisplayName("Should run small scans on the calling thread")
+    void testSequentialBelowThreshold() {
+        // Given
+        ParallelScanner highThreshold = new ParallelScanner(4, 1_000);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        // When
+        highThreshold.forEach(IntStream.range(0, 999).boxed().toList().spliterator(), 999,
+                i -> threads.add(Thread.currentThread().getName()));
+        highThreshold.close();
+
+        // Then
+        assertFalse(highThreshold.isParallel(999));
+        assertFalse(ParallelScanner.SEQUENTIAL.isParallel(Long.MAX_VALUE));
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+    }
+
+    @Test
+    @DisplayName("Should run every task on the scanner's own workers")
+    void testRunAll() {
+        // Given
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> threads.add(Thread.currentThread().getName()));
+        }
+
+        // When
+        scanner.runAll(tasks);
+        Set<String> sequentialThreads = ConcurrentHashMap.newKeySet();
+        ParallelScanner.SEQUENTIAL.runAll(List.of(() -> sequentialThreads.add(Thread.currentThread().getName())));
+
+        // Then
+        assertFalse(threads.isEmpty());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("student-scan-")), threads.toString());
+        assertEquals(Set.of(Thread.currentThread().getName()), sequentialThreads);
+    }
+
+    @Test
+    @DisplayName("Should map a list below the scan threshold on the scanner's own workers, keeping its order")
+    void testMap() {
+        // Given
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Integer> items = IntStream.range(0, 100).boxed().toList();
+
+        // When
+        List<Integer> doubled;
+        try (ParallelScanner highThreshold = new ParallelScanner(2, Long.MAX_VALUE)) {
+            doubled = highThreshold.map(items, item -> {
+                threads.add(Thread.currentThread().getName());
+                return item % 10 == 0 ? null : item * 2;
+            });
+        }
+
+        // Then
+        assertEquals(items.stream().filter(item -> item % 10 != 0).map(item -> item * 2).toList(), doubled);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("student-scan-")), threads.toString());
+        assertEquals(List.of(2), ParallelScanner.SEQUENTIAL.map(List.of(1), item -> item * 2));
+    }
+
+    @Test
+    @DisplayName("Should return the same query results and statistics as a sequential repository")
+    void testRepositoryParallelScans() {
+        // Given
+        StudentRepository sequential = new IndexedStudentRepository();
+        StudentRepository parallel = new IndexedStudentRepository(new HeapStudentStore(), StudentJournal.NONE, scanner);
+        for (int i = 0; i < 5_000; i++) {
+            Student student = Student.builder()
+                    .studentNumber(String.format("STU%05d", i))
+                    .name("Student " + (i * 31 % 5_000))
+                    .address(Student.Address.builder()
+                            .street(i + " Main St")
+                            .city(i % 3 == 0 ? "Mumbai" : "Pune")
+                            .state("Maharashtra")
+                            .country("India")
+                            .build())
+                    .cgpa((i % 101) / 10.0)
+                    .backlogs(i % 4)
+                    .createdDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i % 50))
+                    .build();
+            sequential.save(student);
+            parallel.save(student);
+        }
+        StudentQuery byCgpa = StudentQuery.builder().maxBacklogs(1).orderBy(StudentSortField.CGPA).build();
+        StudentQuery byCreatedDate = StudentQuery.builder().city("Pune").orderBy(StudentSortField.CREATED_DATE).build();
+
+        // When
+        QueryResult expected = sequential.query(byCgpa);
+        QueryResult actual = parallel.query(byCgpa);
+
+        // Then
+        assertEquals(expected.getStudents(), actual.getStudents());
+        assertEquals(expected.getRowsExamined(), actual.getRowsExamined());
+        assertEquals(sequential.query(byCreatedDate).getStudents(), parallel.query(byCreatedDate).getStudents());
+        assertTrue(parallel.getStatistics().reconcilesWith(parallel.recomputeStatistics()));
+    }
+}
@@ -0,0 +1,210 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the StudentRepository tests against a repository sharded four ways, and checks that
+ * scatter-gather results match a single repository holding the same students
+ */
+@DisplayName("StudentRepository Tests (sharded)")
+class ShardedStudentRepositoryTest extends StudentRepositoryTest {
+
+    private final List<ShardedStudentRepository> created = new ArrayList<>();
+
+    @Override
+    protected StudentRepository createRepository() {
+        ShardedStudentRepository repository = new ShardedStudentRepository(4, HeapStudentStore::new);
+        created.add(repository);
+        return repository;
+    }
+
+    @AfterEach
+    void closeShards() {
+        created.forEach(ShardedStudentRepository::close);
+    }
+
+    @Test
+    @DisplayName("Should keep one increasing modification epoch however many shards there are")
+    void testModificationEpochWithManyShards() {
+        // Given
+        ShardedStudentRepository sharded = new ShardedStudentRepository(8, HeapStudentStore::new);
+        created.add(sharded);
+        long initial = sharded.getModificationEpoch();
+
+        // When
+        List<Long> epochs = new ArrayList<>();
+        for (Student student : students(40)) {
+            sharded.save(student);
+            epochs.add(sharded.getModificationEpoch());
+        }
+        sharded.deleteByStudentNumber("STU00003");
+
+        // Then
+        assertTrue(initial > 0);
+        for (int i = 0; i < epochs.size(); i++) {
+            assertEquals(initial + i + 1, epochs.get(i));
+        }
+        assertEquals(initial + 41, sharded.getModificationEpoch());
+    }
+
+    @Test
+    @DisplayName("Should spread students over the shards and find each one")
+    void testRouting() {
+        // Given
+        ShardedStudentRepository sharded = (ShardedStudentRepository) createRepository();
+        List<Student> students = students(200);
+
+        // When
+        boolean[] saved = sharded.saveAllIfAbsent(students);
+
+        // Then
+        assertEquals(4, sharded.getShardCount());
+        assertEquals(200, sharded.count());
+        for (int i = 0; i < saved.length; i++) {
+            assertTrue(saved[i]);
+            assertTrue(sharded.existsByStudentNumber(students.get(i).getStudentNumber()));
+        }
+        assertFalse(sharded.saveAllIfAbsent(List.of(students.get(0)))[0]);
+    }
+
+    @Test
+    @DisplayName("Should merge sorted queries, keyset pages and top-k across shards")
+    void testMergedOrderMatchesSingleRepository() {
+        // Given
+        StudentRepository single = new IndexedStudentRepository();
+        StudentRepository sharded = createRepository();
+        students(300).forEach(student -> {
+            single.save(student);
+            sharded.save(student);
+        });
+        StudentQuery query = StudentQuery.builder().city("Pune").orderBy(StudentSortField.CGPA).build();
+        StudentQuery all = StudentQuery.builder().build();
+
+        // When / Then
+        assertEquals(numbers(single.query(query).getStudents()), numbers(sharded.query(query).getStudents()));
+        assertEquals(numbers(single.findTop(all, StudentSortField.CGPA, 10).getStudents()),
+                numbers(sharded.findTop(all, StudentSortField.CGPA, 10).getStudents()));
+        assertEquals(numbers(single.findAllOrderedAfter(StudentSortField.NAME, true, null, null)),
+                numbers(sharded.findAllOrderedAfter(StudentSortField.NAME, true, null, null)));
+        assertEquals(page(single, 2.5, "STU00100"), page(sharded, 2.5, "STU00100"));
+    }
+
+    @Test
+    @DisplayName("Should describe a scatter plan with the shards' rows added up")
+    void testScatterPlan() {
+        // Given
+        StudentRepository sharded = createRepository();
+        students(100).forEach(sharded::save);
+
+        // When
+        QueryPlan plan = sharded.plan(StudentQuery.builder().city("Pune").build());
+
+        // Then
+        assertTrue(plan.getAccess().startsWith("scatter to 4 shards: "));
+        assertEquals(4, plan.shards().size());
+        assertEquals(plan.shards().stream().mapToLong(QueryPlan::getEstimatedRows).sum(), plan.getEstimatedRows());
+    }
+
+    @Test
+    @DisplayName("Should add up the shards' statistics")
+    void testMergedStatistics() {
+        // Given
+        StudentRepository single = new IndexedStudentRepository();
+        StudentRepository sharded = createRepository();
+        students(250).forEach(student -> {
+            single.save(student);
+            sharded.save(student);
+        });
+        sharded.deleteByStudentNumber("STU00007");
+        single.deleteByStudentNumber("STU00007");
+
+        // When
+        StudentStatisticsAggregator.Snapshot expected = single.getStatistics();
+        StudentStatisticsAggregator.Snapshot merged = sharded.getStatistics();
+
+        // Then
+        assertEquals(expected.getTotalStudents(), merged.getTotalStudents());
+        assertEquals(expected.getStudentsWithNoBacklogs(), merged.getStudentsWithNoBacklogs());
+        assertEquals(expected.getTopPerformers(), merged.getTopPerformers());
+        assertEquals(expected.getAverageCgpa(), merged.getAverageCgpa(), 1e-9);
+        assertEquals(expected.getCityDistribution(), merged.getCityDistribution());
+        assertTrue(merged.reconcilesWith(sharded.recomputeStatistics()));
+    }
+
+    @Test
+    @DisplayName("Should page faceted searches across shards without skipping or repeating students")
+    void testFacetedSearchPages() {
+        // Given
+        StudentRepository single = new IndexedStudentRepository();
+        StudentRepository sharded = createRepository();
+        students(100).forEach(student -> {
+            single.save(student);
+            sharded.save(student);
+        });
+        Map<StudentFacet, Set<String>> selections = Map.of(StudentFacet.CITY, Set.of("pune", "delhi"));
+
+        // When
+        List<String> paged = new ArrayList<>();
+        FacetedSearchResult page;
+        int offset = 0;
+        do {
+            page = sharded.facetedSearch(null, selections, offset, 7);
+            paged.addAll(numbers(page.getStudents()));
+            offset += 7;
+        } while (offset < page.getTotal());
+
+        // Then
+        FacetedSearchResult expected = single.facetedSearch(null, selections, 0, 100);
+        assertEquals(expected.getTotal(), page.getTotal());
+        assertEquals(expected.getCounts(), page.getCounts());
+        assertEquals(50, paged.size());
+        assertEquals(numbers(expected.getStudents()).stream().sorted().toList(), paged.stream().sorted().toList());
+    }
+
+    private static List<String> page(StudentRepository repository, double afterCgpa, String afterStudentNumber) {
+        QueryPlan plan = repository.planOrderedAfter(StudentQuery.builder().build(), StudentSortField.CGPA, false,
+                afterCgpa, afterStudentNumber);
+        List<String> page = new ArrayList<>();
+        repository.execute(plan, student -> page.add(student.getStudentNumber()) && page.size() < 20);
+        return page;
+    }
+
+    private static List<Student> students(int count) {
+        String[] cities = {"Mumbai", "Pune", "Delhi", "Chennai"};
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            students.add(Student.builder()
+                    .studentNumber(String.format("STU%05d", i))
+                    .name("Student " + (i * 7 % count))
+                    .address(Student.Address.builder()
+                            .city(cities[i % cities.length])
+                            .state("State")
+                            .country("India")
+                            .build())
+                    .cgpa((i * 37 % 100) / 10.0)
+                    .backlogs(i % 5)
+                    .createdDate(LocalDateTime.now())
+                    .lastModifiedDate(LocalDateTime.now())
+                    .build());
+        }
+        return students;
+    }
+
+    private static List<String> numbers(Iterable<Student> students) {
+        List<String> numbers = new ArrayList<>();
+        students.forEach(student -> numbers.add(student.getStudentNumber()));
+        return numbers;
+    }
+}
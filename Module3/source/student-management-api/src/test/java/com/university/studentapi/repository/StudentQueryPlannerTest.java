@@ -0,0 +1,236 @@
+package com.university.studentapi.repository;
+
+import com.university.studentapi.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for query planning and execution in StudentRepository
+ */
+@DisplayName("StudentQueryPlanner Tests")
+class StudentQueryPlannerTest {
+
+    private static final String[] CITIES = {"Mumbai", "Delhi", "Pune", "Chennai"};
+
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new IndexedStudentRepository();
+        // 100 students: 25 per city, CGPA 0.0-9.9, every third student without backlogs,
+        // and a single "Zubair" in Pune
+        for (int i = 0; i < 100; i++) {
+            studentRepository.save(Student.builder()
+                    .studentNumber(String.format("STU%03d", i))
+                    .name(i == 42 ? "Zubair Khan" : "Student " + i)
+                    .address(Student.Address.builder()
+                            .street(i + " Main St")
+                            .city(CITIES[i % CITIES.length])
+                            .state(i % 2 == 0 ? "Maharashtra" : "Other")
+                            .country("India")
+                            .build())
+                    .cgpa(i / 10.0)
+                    .backlogs(i % 3)
+                    .build());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drive the query from the most selective index and recheck it last")
+    void testPlanPicksMostSelectiveIndex() {
+        // Given
+        StudentQuery query = StudentQuery.builder()
+                .name("zubair")
+                .city("pune")
+                .country("India")
+                .minCgpa(1.0)
+                .build();
+
+        // When
+        QueryPlan plan = studentRepository.plan(query);
+        QueryResult result = studentRepository.query(query);
+
+        // Then
+        assertEquals("trigram index name contains 'zubair'", plan.getAccess());
+        assertEquals(1, plan.getEstimatedRows());
+        assertEquals("name contains 'zubair' (recheck)", plan.getFilters().get(plan.getFilters().size() - 1));
+        assertEquals(List.of("STU042"), numbers(result.getStudents()));
+        assertEquals(1, result.getRowsExamined());
+    }
+
+    @Test
+    @DisplayName("Should order residual filters by estimated selectivity")
+    void testPlanOrdersFiltersBySelectivity() {
+        // When
+        QueryPlan plan = studentRepository.plan(StudentQuery.builder()
+                .country("India")
+                .state("Maharashtra")
+                .city("Mumbai")
+                .maxBacklogs(0)
+                .build());
+
+        // Then
+        assertEquals("index city = 'Mumbai'", plan.getAccess());
+        assertEquals(List.of(
+                "backlogs <= 0 (est. 34%)",
+                "state = 'Maharashtra' (est. 50%)",
+                "country = 'India' (est. 100%)",
+                "city = 'Mumbai' (recheck)"), plan.getFilters());
+        assertEquals("index city = 'Mumbai' (~25 rows) | backlogs <= 0 (est. 34%) | state = 'Maharashtra' (est. 50%)"
+                + " | country = 'India' (est. 100%) | city = 'Mumbai' (recheck)", plan.explain());
+    }
+
+    @Test
+    @DisplayName("Should use the CGPA range when it is narrower than the other indexes")
+    void testPlanUsesCgpaRange() {
+        // Given
+        StudentQuery query = StudentQuery.builder()
+                .city("Mumbai")
+                .minCgpa(9.0)
+                .maxCgpa(9.5)
+                .build();
+
+        // When
+        QueryResult result = studentRepository.query(query);
+
+        // Then
+        assertEquals("index cgpa between 9.0 and 9.5", result.getPlan().getAccess());
+        assertEquals(StudentSortField.CGPA, result.getPlan().getOrder());
+        assertEquals(6, result.getPlan().getEstimatedRows());
+        assertEquals(6, result.getRowsExamined());
+        assertEquals(List.of("STU092"), numbers(result.getStudents()));
+    }
+
+    @Test
+    @DisplayName("Should scan the requested order's index when no filter narrows the search")
+    void testPlanUsesOrderedScan() {
+        // When
+        QueryResult byName = studentRepository.query(StudentQuery.builder()
+                .orderBy(StudentSortField.NAME)
+                .maxBacklogs(0)
+                .build());
+        QueryPlan byCreatedDate = studentRepository.plan(StudentQuery.builder()
+                .orderBy(StudentSortField.CREATED_DATE)
+                .build());
+
+        // Then
+        assertEquals("ordered scan NAME", byName.getPlan().getAccess());
+        assertEquals(StudentSortField.NAME, byName.getPlan().getOrder());
+        assertEquals(100, byName.getRowsExamined());
+        assertEquals(34, byName.getStudents().size());
+        assertEquals("STU000", byName.getStudents().get(0).getStudentNumber());
+        assertEquals("STU042", byName.getStudents().get(33).getStudentNumber());
+        assertEquals("full scan", byCreatedDate.getAccess());
+        assertNull(byCreatedDate.getOrder());
+    }
+
+    @Test
+    @DisplayName("Should stop executing when the sink declines more students")
+    void testExecuteStopsEarly() {
+        // Given
+        QueryPlan plan = studentRepository.planOrderedAfter(StudentQuery.builder().city("Delhi").build(),
+                StudentSortField.STUDENT_NUMBER, false, "STU010", "STU010");
+        List<Student> page = new ArrayList<>();
+
+        // When
+        long examined = studentRepository.execute(plan, student -> page.add(student) && page.size() < 3);
+
+        // Then
+        assertEquals(List.of("STU013", "STU017", "STU021"), numbers(page));
+        assertEquals(11, examined);
+        assertEquals("ordered scan STUDENT_NUMBER after 'STU010' (~100 rows) | city = 'Delhi' (est. 25%)",
+                plan.explain());
+    }
+
+    @Test
+    @DisplayName("Should return nothing for a location no student has")
+    void testPlanWithEmptyPostingList() {
+        // When
+        QueryResult result = studentRepository.query(StudentQuery.builder()
+                .city("Atlantis")
+                .minCgpa(0.0)
+                .build());
+
+        // Then
+        assertEquals("index city = 'Atlantis'", result.getPlan().getAccess());
+        assertEquals(0, result.getRowsExamined());
+        assertTrue(result.getStudents().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find the top k by walking the ordered index from the top when few steps should do")
+    void testFindTopWalksOrderedIndex() {
+        // When
+        QueryResult overall = studentRepository.findTop(StudentQuery.builder().build(), StudentSortField.CGPA, 3);
+        QueryResult inPune = studentRepository.findTop(StudentQuery.builder().city("Pune").build(),
+                StudentSortField.CGPA, 1);
+
+        // Then
+        assertEquals("top 3 ordered scan CGPA DESC (~3 rows)", overall.getPlan().explain());
+        assertEquals(List.of("STU099", "STU098", "STU097"), numbers(overall.getStudents()));
+        assertEquals(3, overall.getRowsExamined());
+        assertEquals("top 1 ordered scan CGPA DESC (~4 rows) | city = 'Pune' (est. 25%)", inPune.getPlan().explain());
+        assertEquals(List.of("STU098"), numbers(inPune.getStudents()));
+        assertEquals(2, inPune.getRowsExamined());
+    }
+
+    @Test
+    @DisplayName("Should find the top k with a bounded heap over the most selective index's candidates")
+    void testFindTopUsesBoundedHeap() {
+        // When
+        QueryResult result = studentRepository.findTop(StudentQuery.builder().city("Pune").build(),
+                StudentSortField.CGPA, 10);
+
+        // Then
+        assertEquals("top 10 CGPA (bounded heap) of index city = 'Pune'", result.getPlan().getAccess());
+        assertNull(result.getPlan().getOrder());
+        assertEquals(25, result.getRowsExamined());
+        assertEquals(List.of("STU098", "STU094", "STU090", "STU086", "STU082",
+                "STU078", "STU074", "STU070", "STU066", "STU062"), numbers(result.getStudents()));
+    }
+
+    @Test
+    @DisplayName("Should return the same students as the head of a descending sort, ties included")
+    void testFindTopMatchesSortedHead() {
+        // Given: ties on every CGPA and name, some students without a city or creation date
+        for (int i = 100; i < 160; i++) {
+            studentRepository.save(Student.builder()
+                    .studentNumber(String.format("STU%03d", i))
+                    .name("Student " + (i % 7))
+                    .address(i % 5 == 0 ? null : Student.Address.builder().city(CITIES[i % CITIES.length]).build())
+                    .cgpa((i % 6) * 1.5)
+                    .backlogs(0)
+                    .createdDate(i % 3 == 0 ? null : LocalDateTime.of(2024, 1, 1, 9, 0).plusDays(i % 4))
+                    .build());
+        }
+
+        for (StudentSortField field : StudentSortField.values()) {
+            for (String city : new String[]{null, "Mumbai", "Chennai", "Atlantis"}) {
+                for (int k : new int[]{1, 7, 40, 500}) {
+                    StudentQuery query = StudentQuery.builder().city(city).build();
+                    List<Student> sorted = new ArrayList<>(studentRepository.query(query).getStudents());
+                    sorted.removeIf(student -> field.keyOf(student) == null);
+                    sorted.sort(field.comparator().reversed());
+
+                    // When
+                    QueryResult top = studentRepository.findTop(query, field, k);
+
+                    // Then
+                    assertEquals(numbers(sorted.subList(0, Math.min(k, sorted.size()))), numbers(top.getStudents()),
+                            field + " " + city + " " + k + ": " + top.getPlan().explain());
+                }
+            }
+        }
+    }
+
+    private static List<String> numbers(List<Student> students) {
+        return students.stream().map(Student::getStudentNumber).toList();
+    }
+}
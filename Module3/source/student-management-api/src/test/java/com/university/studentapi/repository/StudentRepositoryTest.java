@@ -1,13 +1,20 @@
 package com.university.studentapi.repository;
 
 import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.index.LocationDictionary;
+import com.university.studentapi.repository.persistence.StudentJournal;
+import com.university.studentapi.repository.store.DictionaryFullException;
+import com.university.studentapi.repository.store.HeapStudentStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Modifier;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,9 +27,16 @@ class StudentRepositoryTest {
     private StudentRepository studentRepository;
     private Student testStudent;
 
+    /**
+     * Repository under test; overridden to run the same tests against other stores
+     */
+    protected StudentRepository createRepository() {
+        return new IndexedStudentRepository();
+    }
+
     @BeforeEach
     void setUp() {
-        studentRepository = new StudentRepository();
+        studentRepository = createRepository();
 
         Student.Address address = Student.Address.builder()
                 .street("123 Main St")
@@ -119,9 +133,12 @@ class StudentRepositoryTest {
         studentRepository.save(testStudent);
 
         // When
-        studentRepository.deleteByStudentNumber("STU001");
+        boolean deleted = studentRepository.deleteByStudentNumber("STU001");
+        boolean deletedAgain = studentRepository.deleteByStudentNumber("STU001");
 
         // Then
+        assertTrue(deleted);
+        assertFalse(deletedAgain);
         assertFalse(studentRepository.existsByStudentNumber("STU001"));
     }
 
@@ -221,7 +238,7 @@ class StudentRepositoryTest {
     void testUpdate() {
         // Given
         studentRepository.save(testStudent);
-        testStudent.setName("Updated Name");
+        testStudent = testStudent.toBuilder().name("Updated Name").build();
 
         // When
         Student updated = studentRepository.save(testStudent);
@@ -232,4 +249,568 @@ class StudentRepositoryTest {
         assertTrue(found.isPresent());
         assertEquals("Updated Name", found.get().getName());
     }
+    @Test
+    @DisplayName("Should find students by city ignoring case")
+    void testFindByCity_CaseInsensitive() {
+        // Given
+        studentRepository.save(testStudent);
+
+        // When
+        List<Student> students = studentRepository.findByCity("mUMBAI");
+
+        // Then
+        assertEquals(1, students.size());
+        assertTrue(studentRepository.findByCity("Pune").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find students by combined location criteria")
+    void testFindByLocation() {
+        // Given
+        studentRepository.save(testStudent);
+
+        Student student2 = Student.builder()
+                .studentNumber("STU002")
+                .name("Jane Smith")
+                .address(Student.Address.builder()
+                        .street("1 FC Road")
+                        .city("Pune")
+                        .state("Maharashtra")
+                        .country("India")
+                        .build())
+                .cgpa(9.0)
+                .backlogs(0)
+                .build();
+        studentRepository.save(student2);
+
+        // When & Then
+        assertEquals(2, studentRepository.findByLocation(null, "maharashtra", "India").size());
+        assertEquals(1, studentRepository.findByLocation("Pune", "Maharashtra", null).size());
+        assertTrue(studentRepository.findByLocation("Pune", "Karnataka", null).isEmpty());
+        assertEquals(2, studentRepository.findByLocation(null, null, null).size());
+    }
+
+    @Test
+    @DisplayName("Should move location index entries when a stored student is updated in place")
+    void testLocationIndex_UpdatedInPlace() {
+        // Given
+        studentRepository.save(testStudent);
+
+        // When
+        testStudent = testStudent.toBuilder()
+                .address(Student.Address.builder()
+                        .street("9 Park Street")
+                        .city("Kolkata")
+                        .state("West Bengal")
+                        .country("India")
+                        .build())
+                .build();
+        studentRepository.save(testStudent);
+
+        // Then
+        assertTrue(studentRepository.findByCity("Mumbai").isEmpty());
+        assertEquals(1, studentRepository.findByCity("Kolkata").size());
+        assertTrue(studentRepository.findByLocation(null, "Maharashtra", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drop location index entries on delete")
+    void testLocationIndex_Delete() {
+        // Given
+        studentRepository.save(testStudent);
+
+        // When
+        studentRepository.deleteByStudentNumber("STU001");
+
+        // Then
+        assertTrue(studentRepository.findByCity("Mumbai").isEmpty());
+
+        // And after deleteAll
+        studentRepository.save(testStudent);
+        studentRepository.deleteAll();
+        assertTrue(studentRepository.findByLocation("Mumbai", "Maharashtra", "India").isEmpty());
+    }
+    @Test
+    @DisplayName("Should find students within a CGPA range in CGPA order")
+    void testFindByCgpaBetween() {
+        // Given
+        studentRepository.save(testStudent);
+        studentRepository.save(Student.builder()
+                .studentNumber("STU002")
+                .name("Jane Smith")
+                .address(testStudent.getAddress())
+                .cgpa(7.0)
+                .backlogs(0)
+                .build());
+        studentRepository.save(Student.builder()
+                .studentNumber("STU003")
+                .name("Ravi Rao")
+                .address(testStudent.getAddress())
+                .cgpa(9.5)
+                .backlogs(2)
+                .build());
+
+        // When
+        List<Student> students = studentRepository.findByCgpaBetween(7.0, 8.5);
+
+        // Then
+        assertEquals(List.of("STU002", "STU001"),
+                students.stream().map(Student::getStudentNumber).toList());
+        assertEquals(3, studentRepository.findByCgpaBetween(null, null).size());
+        assertTrue(studentRepository.findByCgpaBetween(9.6, null).isEmpty());
+        assertTrue(studentRepository.findByCgpaBetween(9.0, 8.0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should move CGPA index entries on update and delete")
+    void testCgpaIndex_UpdateAndDelete() {
+        // Given
+        studentRepository.save(testStudent);
+
+        // When
+        testStudent = testStudent.toBuilder().cgpa(6.0).build();
+        studentRepository.save(testStudent);
+
+        // Then
+        assertTrue(studentRepository.findByCgpaGreaterThanEqual(8.0).isEmpty());
+        assertEquals(1, studentRepository.findByCgpaBetween(5.0, 6.0).size());
+
+        studentRepository.deleteByStudentNumber("STU001");
+        assertTrue(studentRepository.findByCgpaBetween(null, null).isEmpty());
+    }
+    @Test
+    @DisplayName("Should find students by name fragment of any length")
+    void testFindByNameContaining_Fragments() {
+        // Given
+        studentRepository.save(testStudent);
+        studentRepository.save(Student.builder()
+                .studentNumber("STU002")
+                .name("Johnny Walker")
+                .address(testStudent.getAddress())
+                .cgpa(7.0)
+                .backlogs(0)
+                .build());
+
+        // When & Then
+        assertEquals(2, studentRepository.findByNameContaining("JOHN").size());
+        assertEquals(1, studentRepository.findByNameContaining("n d").size());
+        assertEquals(1, studentRepository.findByNameContaining("oe").size());
+        assertEquals(2, studentRepository.findByNameContaining("o").size());
+        assertTrue(studentRepository.findByNameContaining("Jane").isEmpty());
+        assertEquals(1, studentRepository.findByNameContaining("ohn doe").size());
+    }
+
+    @Test
+    @DisplayName("Should re-index the name when a student is renamed")
+    void testNameIndex_Rename() {
+        // Given
+        studentRepository.save(testStudent);
+
+        // When
+        testStudent = testStudent.toBuilder().name("Arjun Mehta").build();
+        studentRepository.save(testStudent);
+
+        // Then
+        assertTrue(studentRepository.findByNameContaining("John").isEmpty());
+        assertEquals(1, studentRepository.findByNameContaining("mehta").size());
+
+        studentRepository.deleteByStudentNumber("STU001");
+        assertTrue(studentRepository.findByNameContaining("mehta").isEmpty());
+    }
+    @Test
+    @DisplayName("Should keep running statistics in line with a full scan")
+    void testStatistics_ReconcileWithFullScan() {
+        // Given
+        studentRepository.save(testStudent);
+        studentRepository.save(Student.builder()
+                .studentNumber("STU002")
+                .name("Jane Smith")
+                .address(testStudent.getAddress())
+                .cgpa(9.4)
+                .backlogs(0)
+                .build());
+        studentRepository.save(Student.builder()
+                .studentNumber("STU003")
+                .name("Ravi Rao")
+                .address(Student.Address.builder()
+                        .street("1 FC Road")
+                        .city("Pune")
+                        .state("Maharashtra")
+                        .country("India")
+                        .build())
+                .cgpa(6.2)
+                .backlogs(3)
+                .build());
+
+        // When
+        testStudent = testStudent.toBuilder()
+                .backlogs(2)
+                .address(Student.Address.builder()
+                        .street("2 Camp")
+                        .city("Pune")
+                        .state("Maharashtra")
+                        .country("India")
+                        .build())
+                .build();
+        studentRepository.save(testStudent);
+        studentRepository.deleteByStudentNumber("STU003");
+
+        // Then
+        StudentStatisticsAggregator.Snapshot running = studentRepository.getStatistics();
+        assertTrue(running.reconcilesWith(studentRepository.recomputeStatistics()));
+        assertEquals(2, running.getTotalStudents());
+        assertEquals(1, running.getStudentsWithNoBacklogs());
+        assertEquals(1, running.getTopPerformers());
+        assertEquals(8.95, running.getAverageCgpa(), 1e-9);
+        assertEquals(Map.of("Mumbai", 1L, "Pune", 1L), running.getCityDistribution());
+
+        studentRepository.deleteAll();
+        assertEquals(0, studentRepository.getStatistics().getTotalStudents());
+        assertTrue(studentRepository.getStatistics().getCityDistribution().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reconcile running statistics after concurrent writes")
+    void testStatistics_ConcurrentWrites() throws Exception {
+        // Given
+        String[] cities = {"Mumbai", "Pune", "Delhi", "Chennai"};
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 2_000; i++) {
+                    String studentNumber = "STU" + (100 + random.nextInt(200));
+                    if (random.nextInt(4) == 0) {
+                        studentRepository.deleteByStudentNumber(studentNumber);
+                        continue;
+                    }
+                    studentRepository.save(Student.builder()
+                            .studentNumber(studentNumber)
+                            .name("Student " + studentNumber)
+                            .address(Student.Address.builder()
+                                    .street("Street")
+                                    .city(cities[random.nextInt(cities.length)])
+                                    .state("State")
+                                    .country("India")
+                                    .build())
+                            .cgpa(random.nextInt(101) / 10.0)
+                            .backlogs(random.nextInt(3))
+                            .build());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertTrue(studentRepository.getStatistics().reconcilesWith(studentRepository.recomputeStatistics()));
+    }
+    @Test
+    @DisplayName("Should iterate students in index order from a keyset position")
+    void testFindAllOrderedAfter() {
+        // Given
+        studentRepository.save(testStudent);
+        studentRepository.save(Student.builder()
+                .studentNumber("STU002")
+                .name("alice Brown")
+                .address(testStudent.getAddress())
+                .cgpa(8.5)
+                .backlogs(0)
+                .build());
+        studentRepository.save(Student.builder()
+                .studentNumber("STU003")
+                .name("Bob Stone")
+                .address(testStudent.getAddress())
+                .cgpa(9.1)
+                .backlogs(0)
+                .build());
+
+        // When & Then
+        assertEquals(List.of("STU002", "STU003", "STU001"),
+                numbers(studentRepository.findAllOrderedAfter(StudentSortField.NAME, false, null, null)));
+        assertEquals(List.of("STU002", "STU003"),
+                numbers(studentRepository.findAllOrderedAfter(StudentSortField.CGPA, false, 8.5, "STU001")));
+        assertEquals(List.of("STU001"),
+                numbers(studentRepository.findAllOrderedAfter(StudentSortField.CGPA, true, 8.5, "STU002")));
+        assertEquals(List.of("STU003"),
+                numbers(studentRepository.findAllOrderedAfter(StudentSortField.STUDENT_NUMBER, false, "STU002", "STU002")));
+
+        // Moving a student moves its position
+        testStudent = testStudent.toBuilder().name("Aaron Doe").build();
+        studentRepository.save(testStudent);
+        assertEquals(List.of("STU001", "STU002", "STU003"),
+                numbers(studentRepository.findAllOrderedAfter(StudentSortField.NAME, false, null, null)));
+    }
+
+    @Test
+    @DisplayName("Should insert only students whose number is not yet taken")
+    void testSaveAllIfAbsent() {
+        // Given
+        studentRepository.save(testStudent);
+        Student duplicate = testStudent.toBuilder().name("Someone Else").build();
+        Student fresh = testStudent.toBuilder().studentNumber("STU002").build();
+        Student repeated = fresh.toBuilder().name("Repeated").build();
+
+        // When
+        boolean[] inserted = studentRepository.saveAllIfAbsent(List.of(duplicate, fresh, repeated));
+
+        // Then
+        assertArrayEquals(new boolean[]{false, true, false}, inserted);
+        assertEquals(2, studentRepository.count());
+        assertEquals(testStudent.getName(), studentRepository.findByStudentNumber("STU001").orElseThrow().getName());
+        assertEquals(fresh.getName(), studentRepository.findByStudentNumber("STU002").orElseThrow().getName());
+        assertEquals(2, studentRepository.findByCity(testStudent.getAddress().getCity()).size());
+    }
+
+    @Test
+    @DisplayName("Should save conditionally and advance the modification epoch on every write")
+    void testSaveIfAndModificationEpoch() {
+        // Given
+        long initial = studentRepository.getModificationEpoch();
+        studentRepository.save(testStudent);
+        long afterSave = studentRepository.getModificationEpoch();
+        Student renamed = testStudent.toBuilder().name("Renamed").build();
+
+        // When
+        boolean rejected = studentRepository.saveIf(renamed, existing -> existing == null);
+        boolean accepted = studentRepository.saveIf(renamed, existing -> existing != null);
+
+        // Then
+        assertTrue(afterSave > initial);
+        assertFalse(rejected);
+        assertTrue(accepted);
+        assertEquals(afterSave + 1, studentRepository.getModificationEpoch());
+        assertEquals("Renamed", studentRepository.findByStudentNumber("STU001").orElseThrow().getName());
+        assertEquals(1, studentRepository.findByNameContaining("renamed").size());
+    }
+
+    @Test
+    @DisplayName("Should store snapshots that neither the saver nor readers can change")
+    void testSaveStoresSnapshot() {
+        // Given
+        studentRepository.save(testStudent);
+
+        // When
+        Student stored = studentRepository.findByStudentNumber("STU001").orElseThrow();
+        Student renamed = stored.toBuilder().name("Changed After Save").build();
+
+        // Then
+        for (Class<?> type : List.of(Student.class, Student.Address.class)) {
+            assertTrue(Arrays.stream(type.getDeclaredFields()).allMatch(field -> Modifier.isFinal(field.getModifiers())),
+                    type.getSimpleName());
+            assertTrue(Arrays.stream(type.getMethods()).noneMatch(method -> method.getName().startsWith("set")),
+                    type.getSimpleName());
+        }
+        assertEquals("Changed After Save", renamed.getName());
+        assertEquals("John Doe", studentRepository.findByStudentNumber("STU001").orElseThrow().getName());
+        assertTrue(studentRepository.findByNameContaining("changed").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should notify change listeners of applied changes only, with the previous and new snapshots")
+    void testChangeListeners() {
+        // Given
+        List<String> changes = new ArrayList<>();
+        studentRepository.addChangeListener((studentNumber, previous, next) -> changes.add(studentNumber + ": "
+                + (previous != null ? previous.getName() : null) + " -> " + (next != null ? next.getName() : null)));
+        Student renamed = testStudent.toBuilder().name("Renamed").build();
+
+        // When
+        studentRepository.save(testStudent);
+        studentRepository.saveIf(renamed, Objects::isNull);
+        studentRepository.save(renamed);
+        studentRepository.saveAllIfAbsent(List.of(renamed));
+        studentRepository.deleteByStudentNumber("STU001");
+        studentRepository.deleteByStudentNumber("STU001");
+
+        // Then
+        assertEquals(List.of(
+                "STU001: null -> John Doe",
+                "STU001: John Doe -> Renamed",
+                "STU001: Renamed -> null"), changes);
+    }
+
+    @Test
+    @DisplayName("Should filter faceted search and count every facet, ignoring its own selection")
+    void testFacetedSearch() {
+        // Given
+        studentRepository.save(testStudent);
+        studentRepository.save(facetStudent("STU002", "Jane Smith", "Pune", 9.4, 1));
+        studentRepository.save(facetStudent("STU003", "Ravi Rao", "pune", 6.2, 3));
+        studentRepository.save(facetStudent("STU004", "Johnny Rao", "Delhi", 5.0, 7));
+
+        // When
+        FacetedSearchResult all = studentRepository.facetedSearch(null, Map.of(), 0, 10);
+        FacetedSearchResult pune = studentRepository.facetedSearch(null,
+                Map.of(StudentFacet.CITY, Set.of("PUNE")), 0, 10);
+        FacetedSearchResult puneOrDelhiWithBacklogs = studentRepository.facetedSearch(null, Map.of(
+                StudentFacet.CITY, Set.of("pune", "delhi"),
+                StudentFacet.BACKLOGS, Set.of("3+")), 0, 10);
+        FacetedSearchResult named = studentRepository.facetedSearch("JOHN", Map.of(), 0, 10);
+        FacetedSearchResult shortName = studentRepository.facetedSearch("Ra", Map.of(), 0, 10);
+
+        // Then
+        assertEquals(4, all.getTotal());
+        assertEquals(Map.of("Mumbai", 1L, "Pune", 2L, "Delhi", 1L), all.getCounts().get(StudentFacet.CITY));
+        assertEquals(Map.of("0", 1L, "1", 1L, "3+", 2L), all.getCounts().get(StudentFacet.BACKLOGS));
+        assertEquals(Map.of("5-6", 1L, "6-7", 1L, "8-9", 1L, "9-10", 1L), all.getCounts().get(StudentFacet.CGPA));
+
+        assertEquals(2, pune.getTotal());
+        assertEquals(Set.of("STU002", "STU003"), new HashSet<>(numbers(pune.getStudents())));
+        assertEquals(Map.of("Mumbai", 1L, "Pune", 2L, "Delhi", 1L), pune.getCounts().get(StudentFacet.CITY));
+        assertEquals(Map.of("0", 0L, "1", 1L, "3+", 1L), pune.getCounts().get(StudentFacet.BACKLOGS));
+        assertEquals(Map.of("Maharashtra", 2L, "Delhi", 0L), pune.getCounts().get(StudentFacet.STATE));
+
+        assertEquals(Set.of("STU003", "STU004"), new HashSet<>(numbers(puneOrDelhiWithBacklogs.getStudents())));
+        assertEquals(Map.of("Mumbai", 0L, "Pune", 1L, "Delhi", 1L),
+                puneOrDelhiWithBacklogs.getCounts().get(StudentFacet.CITY));
+        assertEquals(Map.of("0", 0L, "1", 1L, "3+", 2L), puneOrDelhiWithBacklogs.getCounts().get(StudentFacet.BACKLOGS));
+
+        assertEquals(Set.of("STU001", "STU004"), new HashSet<>(numbers(named.getStudents())));
+        assertEquals(Map.of("Mumbai", 1L, "Pune", 0L, "Delhi", 1L), named.getCounts().get(StudentFacet.CITY));
+        assertEquals(Set.of("STU003", "STU004"), new HashSet<>(numbers(shortName.getStudents())));
+    }
+
+    @Test
+    @DisplayName("Should page faceted search and follow updates and deletes")
+    void testFacetedSearch_PagingAndWrites() {
+        // Given
+        for (int i = 1; i <= 25; i++) {
+            studentRepository.save(facetStudent(String.format("STU%03d", i), "Student " + i,
+                    i % 2 == 0 ? "Pune" : "Mumbai", 5 + (i % 5), i % 4));
+        }
+
+        // When
+        List<String> paged = new ArrayList<>();
+        for (int offset = 0; offset < 13; offset += 5) {
+            paged.addAll(numbers(studentRepository.facetedSearch(null,
+                    Map.of(StudentFacet.CITY, Set.of("Mumbai")), offset, 5).getStudents()));
+        }
+        studentRepository.deleteByStudentNumber("STU001");
+        studentRepository.deleteByStudentNumber("STU002");
+        studentRepository.save(facetStudent("STU003", "Moved", "Delhi", 9.9, 0));
+        studentRepository.save(facetStudent("STU026", "Added", "Pune", 7.5, 0));
+        FacetedSearchResult after = studentRepository.facetedSearch(null, Map.of(), 0, 100);
+
+        // Then
+        assertEquals(13, paged.size());
+        assertEquals(13, new HashSet<>(paged).size());
+        assertTrue(studentRepository.facetedSearch(null, Map.of(), 30, 5).getStudents().isEmpty());
+
+        assertEquals(24, after.getTotal());
+        assertEquals(24, after.getStudents().size());
+        assertFalse(numbers(after.getStudents()).contains("STU001"));
+        assertEquals(Map.of("Mumbai", 11L, "Pune", 12L, "Delhi", 1L), after.getCounts().get(StudentFacet.CITY));
+        studentRepository.deleteAll();
+        FacetedSearchResult empty = studentRepository.facetedSearch(null, Map.of(), 0, 10);
+        assertEquals(0, empty.getTotal());
+        assertTrue(empty.getCounts().get(StudentFacet.CITY).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should bucket backlogs and band CGPAs")
+    void testFacetBuckets() {
+        assertEquals("0", StudentFacet.backlogBucket(0));
+        assertEquals("2", StudentFacet.backlogBucket(2));
+        assertEquals("3+", StudentFacet.backlogBucket(12));
+        assertNull(StudentFacet.backlogBucket(null));
+        assertEquals("0-5", StudentFacet.cgpaBand(4.99));
+        assertEquals("5-6", StudentFacet.cgpaBand(5.0));
+        assertEquals("8-9", StudentFacet.cgpaBand(8.5));
+        assertEquals("9-10", StudentFacet.cgpaBand(10.0));
+        assertNull(StudentFacet.cgpaBand(null));
+    }
+
+    @Test
+    @DisplayName("Should match and count locations ignoring case, sharing one string per spelling")
+    void testLocationDictionary() {
+        // Given
+        studentRepository.save(testStudent);
+        studentRepository.save(facetStudent("STU002", "Jane Smith", new String("MUMBAI"), 9.4, 1));
+        studentRepository.save(facetStudent("STU003", "Ravi Rao", new String("Mumbai"), 6.2, 3));
+
+        // When
+        List<Student> mumbai = studentRepository.findByLocation("mumbai", "MAHARASHTRA", null);
+        List<Student> unknown = studentRepository.findByLocation("Atlantis", null, null);
+        QueryResult planned = studentRepository.query(StudentQuery.builder().city("mUMBAI").build());
+        StudentStatisticsAggregator.Snapshot statistics = studentRepository.getStatistics();
+
+        // Then
+        assertEquals(3, mumbai.size());
+        assertTrue(unknown.isEmpty());
+        assertTrue(studentRepository.query(StudentQuery.builder().city("Atlantis").build()).getStudents().isEmpty());
+        assertEquals(3, planned.getStudents().size());
+        assertEquals(Map.of("Mumbai", 3L), statistics.getCityDistribution());
+        assertTrue(statistics.reconcilesWith(studentRepository.recomputeStatistics()));
+        assertSame(studentRepository.findByStudentNumber("STU001").orElseThrow().getAddress().getCity(),
+                studentRepository.findByStudentNumber("STU003").orElseThrow().getAddress().getCity());
+        assertEquals("MUMBAI", studentRepository.findByStudentNumber("STU002").orElseThrow().getAddress().getCity());
+    }
+
+    @Test
+    @DisplayName("Should refuse students bringing new locations once the dictionary is full, until some are freed")
+    void testLocationDictionary_Limit() {
+        // Given: Mumbai, Maharashtra and India fill a dictionary of three locations
+        LocationDictionary locations = new LocationDictionary(3);
+        StudentRepository limited = new IndexedStudentRepository(new HeapStudentStore(), StudentJournal.NONE,
+                ParallelScanner.SEQUENTIAL, locations);
+        limited.save(testStudent);
+
+        // When: a new city is refused, while case variants share their location's entry
+        assertThrows(DictionaryFullException.class,
+                () -> limited.save(facetStudent("STU002", "Jane Smith", "Pune", 9.4, 1)));
+        limited.save(facetStudent("STU003", "Ravi Rao", "MUMBAI", 6.2, 3));
+        boolean[] inserted = limited.saveAllIfAbsent(List.of(
+                facetStudent("STU004", "Asha Rao", "Delhi", 7.1, 0),
+                facetStudent("STU005", "Vikram Rao", "mumbai", 7.3, 0)), (e, i) -> assertEquals(0, i));
+
+        // Then
+        assertEquals(3, locations.size());
+        assertArrayEquals(new boolean[] {false, true}, inserted);
+        assertEquals(3, limited.count());
+        assertTrue(limited.findByCity("Pune").isEmpty());
+        assertEquals(3, limited.findByCity("mumbai").size());
+        assertTrue(limited.getStatistics().reconcilesWith(limited.recomputeStatistics()));
+
+        // When: once no student holds Mumbai, its entry is freed for a new city
+        limited.deleteByStudentNumber("STU001");
+        limited.deleteByStudentNumber("STU003");
+        limited.save(facetStudent("STU005", "Vikram Rao", "Delhi", 7.3, 0).toBuilder().address(null).build());
+        limited.save(facetStudent("STU006", "Meera Iyer", "Pune", 8.1, 0));
+
+        // Then
+        assertEquals(3, locations.size());
+        assertEquals(2, limited.count());
+        assertEquals(1, limited.findByCity("pune").size());
+        assertTrue(limited.findByCity("Mumbai").isEmpty());
+        assertEquals(Map.of("Pune", 1L), limited.getStatistics().getCityDistribution());
+        assertTrue(limited.getStatistics().reconcilesWith(limited.recomputeStatistics()));
+    }
+
+    private static Student facetStudent(String studentNumber, String name, String city, double cgpa, int backlogs) {
+        return Student.builder()
+                .studentNumber(studentNumber)
+                .name(name)
+                .address(Student.Address.builder()
+                        .street("1 Main Rd")
+                        .city(city)
+                        .state(city.equalsIgnoreCase("Delhi") ? "Delhi" : "Maharashtra")
+                        .country("India")
+                        .build())
+                .cgpa(cgpa)
+                .backlogs(backlogs)
+                .build();
+    }
+
+    private static List<String> numbers(Iterable<Student> students) {
+        List<String> result = new ArrayList<>();
+        students.forEach(s -> result.add(s.getStudentNumber()));
+        return result;
+    }
 }
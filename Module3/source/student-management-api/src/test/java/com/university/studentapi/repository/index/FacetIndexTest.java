@@ -0,0 +1,75 @@
+package com.university.studentapi.repository.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FacetIndex
+ */
+@DisplayName("FacetIndex Tests")
+class FacetIndexTest {
+
+    private static final int STUDENTS = 150_000;
+    private static final String[] CITIES = {"Mumbai", "Pune", "Delhi"};
+
+    @Test
+    @DisplayName("Should filter, count and page across chunks, following updates and deletes")
+    void testSearchAcrossChunks() {
+        // Given
+        FacetIndex index = new FacetIndex(2);
+        index.addAll(IntStream.range(0, STUDENTS).boxed().toList(), FacetIndexTest::number, FacetIndexTest::values);
+        index.replace(number(1), values(1), new String[] {"Delhi", "even"});
+        index.replace(number(70_000), values(70_000), null);
+        index.replace(number(140_001), values(140_001), new String[] {"pune", "odd"});
+
+        // When
+        FacetIndex.Result pune = index.search(List.of(Set.of("PUNE"), Set.of()), null, 49_995, 10);
+        FacetIndex.Result restricted = index.search(List.of(Set.of(), Set.of("odd")),
+                List.of(number(1), number(2), number(70_001), number(140_001)), 0, 10);
+
+        // Then
+        assertEquals(STUDENTS - 1, index.size());
+        assertEquals(49_999, pune.total());
+        assertEquals(List.of(number(149_989), number(149_992), number(149_995), number(149_998)),
+                pune.studentNumbers());
+        assertEquals(Map.of("Mumbai", 49_999L, "Pune", 49_999L, "Delhi", 50_001L), pune.counts().get(0));
+        assertEquals(Map.of("even", 24_999L, "odd", 25_000L), pune.counts().get(1));
+        assertEquals(2, restricted.total());
+        assertEquals(List.of(number(70_001), number(140_001)), restricted.studentNumbers());
+        assertEquals(Map.of("Mumbai", 0L, "Pune", 1L, "Delhi", 1L), restricted.counts().get(0));
+        assertEquals(Map.of("even", 2L, "odd", 2L), restricted.counts().get(1));
+    }
+
+    @Test
+    @DisplayName("Should reuse a deleted student's row for the next student once no search runs")
+    void testReusesRows() {
+        // Given
+        FacetIndex index = new FacetIndex(2);
+        for (int i = 0; i < 3; i++) {
+            index.replace(number(i), null, values(i));
+        }
+        index.replace(number(1), values(1), null);
+
+        // When
+        index.replace(number(3), null, values(3));
+
+        // Then
+        List<String> all = index.search(List.of(), null, 0, 10).studentNumbers();
+        assertEquals(List.of(number(0), number(3), number(2)), all);
+    }
+
+    private static String number(int i) {
+        return String.format("STU%06d", i);
+    }
+
+    private static String[] values(int i) {
+        return new String[] {CITIES[i % CITIES.length], i % 2 == 0 ? "even" : "odd"};
+    }
+}
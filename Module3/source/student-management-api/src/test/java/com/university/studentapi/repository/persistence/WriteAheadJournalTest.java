@@ -0,0 +1,193 @@
+package com.university.studentapi.repository.persistence;
+
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import com.university.studentapi.repository.store.StudentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WriteAheadJournal
+ */
+@DisplayName("WriteAheadJournal Tests")
+class WriteAheadJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private WriteAheadJournal journal;
+    private StudentRepository repository;
+    private Student testStudent;
+
+    @BeforeEach
+    void setUp() {
+        testStudent = Student.builder()
+                .studentNumber("STU001")
+                .name("John Doe")
+                .address(Student.Address.builder()
+                        .street("123 Main St")
+                        .city("Mumbai")
+                        .state("Maharashtra")
+                        .country("India")
+                        .build())
+                .cgpa(8.5)
+                .backlogs(0)
+                .createdDate(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_789))
+                .lastModifiedDate(LocalDateTime.of(2024, 3, 2, 9, 0))
+                .build();
+        repository = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should restore saves and deletes from the log after a restart")
+    void testRecoverFromLog() {
+        // Given
+        repository.save(testStudent);
+        repository.save(testStudent.toBuilder().studentNumber("STU002").name("Jane").address(null).build());
+        repository.save(testStudent.toBuilder().cgpa(9.1).build());
+        repository.deleteByStudentNumber("STU002");
+
+        // When
+        StudentRepository restarted = restartWithoutCheckpoint();
+
+        // Then
+        assertEquals(1, restarted.count());
+        assertEquals(testStudent.toBuilder().cgpa(9.1).build(), restarted.findByStudentNumber("STU001").orElseThrow());
+        assertEquals(1, restarted.findByCity("mumbai").size());
+        assertEquals(1, restarted.getStatistics().getTopPerformers());
+    }
+
+    @Test
+    @DisplayName("Should restore from the latest snapshot plus the log written after it")
+    void testRecoverFromSnapshotAndLog() throws IOException {
+        // Given
+        repository.save(testStudent);
+        repository.save(testStudent.toBuilder().studentNumber("STU002").build());
+        journal.checkpoint();
+        repository.deleteByStudentNumber("STU001");
+        repository.save(testStudent.toBuilder().studentNumber("STU003").build());
+
+        // When
+        StudentRepository restarted = restartWithoutCheckpoint();
+
+        // Then
+        assertEquals(1, files("snapshot-").size());
+        assertEquals(List.of("STU002", "STU003"),
+                restarted.findAll().stream().map(Student::getStudentNumber).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Should drop log segments covered by a snapshot")
+    void testCheckpointDeletesOldSegments() throws IOException {
+        // Given
+        repository.save(testStudent);
+
+        // When
+        journal.checkpoint();
+
+        // Then
+        assertEquals(1, files("wal-").size());
+        assertEquals(0, Files.size(files("wal-").get(0)));
+    }
+
+    @Test
+    @DisplayName("Should discard a torn entry at the end of the log")
+    void testRecoverIgnoresTornTail() throws IOException {
+        // Given
+        repository.save(testStudent);
+        repository.save(testStudent.toBuilder().studentNumber("STU002").build());
+        Path log = files("wal-").get(0);
+        long size = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        // When
+        StudentRepository restarted = restartWithoutCheckpoint();
+
+        // Then
+        assertEquals(1, restarted.count());
+        assertTrue(restarted.existsByStudentNumber("STU001"));
+    }
+
+    @Test
+    @DisplayName("Should stop replaying at an entry whose checksum does not match")
+    void testRecoverStopsAtChecksumMismatch() throws IOException {
+        // Given
+        repository.save(testStudent);
+        repository.save(testStudent.toBuilder().studentNumber("STU002").build());
+        Path log = files("wal-").get(0);
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 3] ^= 0x7f;
+        Files.write(log, bytes);
+
+        // When
+        StudentRepository restarted = restartWithoutCheckpoint();
+
+        // Then
+        assertEquals(1, restarted.count());
+        assertFalse(restarted.existsByStudentNumber("STU002"));
+    }
+
+    @Test
+    @DisplayName("Should refuse every later change once writing the log fails")
+    void testFailedLogMakesRepositoryReadOnly() {
+        // Given
+        repository.save(testStudent);
+        // A closed channel makes the next write of the log fail
+        journal.close();
+        long position = journal.logSave(testStudent.toBuilder().cgpa(9.1).build());
+
+        // When
+        assertThrows(JournalFailedException.class, () -> journal.awaitDurable(position));
+
+        // Then
+        assertThrows(JournalFailedException.class, () -> journal.awaitDurable(position));
+        assertThrows(JournalFailedException.class,
+                () -> repository.save(testStudent.toBuilder().studentNumber("STU002").build()));
+        assertThrows(JournalFailedException.class, () -> repository.deleteByStudentNumber("STU001"));
+        assertFalse(repository.existsByStudentNumber("STU002"));
+        assertEquals(8.5, repository.findByStudentNumber("STU001").orElseThrow().getCgpa());
+    }
+
+    private StudentRepository open() {
+        StudentStore store = new HeapStudentStore();
+        journal = new WriteAheadJournal(store, directory, FsyncPolicy.ALWAYS, Duration.ofMillis(100), Duration.ZERO);
+        return new IndexedStudentRepository(store, journal);
+    }
+
+    /**
+     * Simulate a crash: reopen the directory without the final snapshot a clean close writes
+     */
+    private StudentRepository restartWithoutCheckpoint() {
+        return open();
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+}
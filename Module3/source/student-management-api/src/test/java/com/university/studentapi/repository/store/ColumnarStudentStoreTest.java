@@ -0,0 +1,156 @@
+package com.university.studentapi.repository.store;
+
+import com.university.studentapi.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ColumnarStudentStore
+ */
+@DisplayName("ColumnarStudentStore Tests")
+class ColumnarStudentStoreTest {
+
+    private ColumnarStudentStore store;
+    private Student testStudent;
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarStudentStore();
+
+        testStudent = Student.builder()
+                .studentNumber("STU001")
+                .name("John Doe")
+                .address(Student.Address.builder()
+                        .street("123 Main St")
+                        .city("Mumbai")
+                        .state("Maharashtra")
+                        .country("India")
+                        .build())
+                .cgpa(8.5)
+                .backlogs(0)
+                .createdDate(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_789))
+                .lastModifiedDate(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should materialize an identical copy of the stored student")
+    void testRoundTrip() {
+        // When
+        store.compute("STU001", (key, existing) -> testStudent);
+        Student found = store.get("STU001");
+
+        // Then
+        assertEquals(testStudent, found);
+        assertNotSame(testStudent, found);
+    }
+
+    @Test
+    @DisplayName("Should preserve null fields")
+    void testRoundTrip_Nulls() {
+        // Given
+        Student sparse = Student.builder().studentNumber("STU002").name("Jane").build();
+
+        // When
+        store.compute("STU002", (key, existing) -> sparse);
+
+        // Then
+        assertEquals(sparse, store.get("STU002"));
+    }
+
+    @Test
+    @DisplayName("Should remove a student and reuse its row")
+    void testRemoveAndReuse() {
+        // Given
+        store.compute("STU001", (key, existing) -> testStudent);
+
+        // When
+        store.compute("STU001", (key, existing) -> null);
+        Student other = testStudent.toBuilder().studentNumber("STU003").cgpa(6.0).build();
+        store.compute("STU003", (key, existing) -> other);
+
+        // Then
+        assertNull(store.get("STU001"));
+        assertFalse(store.contains("STU001"));
+        assertEquals(other, store.get("STU003"));
+        assertEquals(1, store.size());
+        assertEquals(3, store.distinctLocations());
+    }
+
+    @Test
+    @DisplayName("Should drop locations no stored row holds any more")
+    void testReleasesLocations() {
+        // Given
+        store.compute("STU001", (key, existing) -> testStudent);
+        store.compute("STU002", (key, existing) -> testStudent.toBuilder().studentNumber("STU002").build());
+
+        // When
+        store.compute("STU001", (key, existing) -> existing.toBuilder()
+                .address(existing.getAddress().toBuilder().city("Pune").build())
+                .build());
+        int whileShared = store.distinctLocations();
+        store.compute("STU002", (key, existing) -> null);
+
+        // Then
+        assertEquals(4, whileShared);
+        assertEquals(3, store.distinctLocations());
+        assertEquals("Pune", store.get("STU001").getAddress().getCity());
+    }
+
+    @Test
+    @DisplayName("Should pass the current record to the remapping function")
+    void testComputeSeesExisting() {
+        // Given
+        store.compute("STU001", (key, existing) -> testStudent);
+
+        // When
+        store.compute("STU001", (key, existing) -> existing.toBuilder().backlogs(existing.getBacklogs() + 1).build());
+
+        // Then
+        assertEquals(1, store.get("STU001").getBacklogs());
+    }
+
+    @Test
+    @DisplayName("Should never expose a partially written row to readers")
+    void testNoTornReads() throws Exception {
+        // Given
+        Student first = testStudent.toBuilder().name("Aaaa").cgpa(1.0).backlogs(1).build();
+        Student second = testStudent.toBuilder().name("Bbbb").cgpa(2.0).backlogs(2).build();
+        store.compute("STU001", (key, existing) -> first);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        futures.add(executor.submit(() -> {
+            for (int i = 0; i < 50_000; i++) {
+                Student next = i % 2 == 0 ? second : first;
+                store.compute("STU001", (key, existing) -> next);
+            }
+            running.set(false);
+        }));
+        futures.add(executor.submit(() -> {
+            while (running.get()) {
+                Student read = store.get("STU001");
+                // Then
+                assertTrue(read.equals(first) || read.equals(second), "Torn read: " + read);
+            }
+        }));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,214 @@
+package com.university.studentapi.service;
+
+import com.university.studentapi.dto.StudentChange;
+import com.university.studentapi.dto.StudentChangesResponse;
+import com.university.studentapi.exception.ResyncRequiredException;
+import com.university.studentapi.exception.SubscriberLimitExceededException;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.util.StudentMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StudentChangeFeed and the StudentChangeLog behind it
+ */
+@DisplayName("StudentChangeFeed Tests")
+class StudentChangeFeedTest {
+
+    private static final int BUFFER_SIZE = 4;
+    private static final int MAX_SUBSCRIBERS = 3;
+
+    private StudentRepository studentRepository;
+    private StudentChangeLog changeLog;
+    private StudentChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new IndexedStudentRepository();
+        changeLog = new StudentChangeLog(studentRepository, BUFFER_SIZE);
+        changeFeed = new StudentChangeFeed(changeLog, new StudentMapper(), StudentResponseCache.disabled(),
+                Duration.ofMinutes(1), MAX_SUBSCRIBERS, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.close();
+    }
+
+    @Test
+    @DisplayName("Should number creates, updates and deletes in order and return those following since")
+    void testGetChanges() {
+        // Given
+        long start = changeFeed.getChanges(null, 10).getLastSequence();
+        Student student = student("STU001", "John Doe");
+        studentRepository.save(student);
+        studentRepository.save(student.toBuilder().name("Jane Doe").build());
+        studentRepository.deleteByStudentNumber("STU001");
+
+        // When
+        StudentChangesResponse all = changeFeed.getChanges(start, 10);
+        StudentChangesResponse first = changeFeed.getChanges(start, 2);
+        StudentChangesResponse rest = changeFeed.getChanges(first.getLastSequence(), 2);
+        StudentChangesResponse none = changeFeed.getChanges(rest.getLastSequence(), 2);
+
+        // Then
+        assertEquals(List.of(StudentChange.Type.CREATED, StudentChange.Type.UPDATED, StudentChange.Type.DELETED),
+                all.getChanges().stream().map(StudentChange::getType).toList());
+        assertEquals(List.of(start + 1, start + 2, start + 3),
+                all.getChanges().stream().map(StudentChange::getSequence).toList());
+        assertEquals("Jane Doe", all.getChanges().get(1).getStudent().getName());
+        assertNull(all.getChanges().get(2).getStudent());
+        assertEquals(start + 3, all.getLastSequence());
+        assertFalse(all.isHasMore());
+
+        assertEquals(start + 2, first.getLastSequence());
+        assertTrue(first.isHasMore());
+        assertEquals(1, rest.getChanges().size());
+        assertFalse(rest.isHasMore());
+        assertTrue(none.getChanges().isEmpty());
+        assertEquals(start + 3, none.getLastSequence());
+    }
+
+    @Test
+    @DisplayName("Should require a resync once since falls out of the buffer, or was never issued")
+    void testGetChanges_ResyncRequired() {
+        // Given
+        long start = changeLog.getLastSequence();
+        for (int i = 1; i <= BUFFER_SIZE + 1; i++) {
+            studentRepository.save(student("STU00" + i, "Student " + i));
+        }
+
+        // When
+        StudentChangesResponse retained = changeFeed.getChanges(start + 1, 10);
+        ResyncRequiredException overwritten = assertThrows(ResyncRequiredException.class,
+                () -> changeFeed.getChanges(start, 10));
+        ResyncRequiredException future = assertThrows(ResyncRequiredException.class,
+                () -> changeFeed.getChanges(start + 100, 10));
+
+        // Then
+        assertEquals(BUFFER_SIZE, retained.getChanges().size());
+        assertEquals(start + BUFFER_SIZE + 1, overwritten.getLastSequence());
+        assertEquals(start + BUFFER_SIZE + 1, future.getLastSequence());
+        assertThrows(ResyncRequiredException.class, () -> changeFeed.subscribe(start));
+        assertEquals(0, changeFeed.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should record bulk imports, and nothing for writes that change nothing")
+    void testChangeLog_BulkAndNoOps() {
+        // Given
+        long start = changeLog.getLastSequence();
+
+        // When
+        studentRepository.saveAllIfAbsent(List.of(student("STU001", "John Doe"), student("STU002", "Jane Doe")));
+        studentRepository.saveAllIfAbsent(List.of(student("STU001", "John Doe")));
+        studentRepository.deleteByStudentNumber("STU404");
+
+        // Then
+        List<StudentChangeLog.Entry> entries = changeLog.read(start, 10);
+        assertEquals(List.of("STU001", "STU002"),
+                entries.stream().map(StudentChangeLog.Entry::studentNumber).toList());
+        assertEquals(start + 2, changeLog.getLastSequence());
+    }
+
+    @Test
+    @DisplayName("Should number concurrent changes without gaps or repeats")
+    void testChangeLog_ConcurrentAppends() throws InterruptedException {
+        // Given
+        StudentChangeLog log = new StudentChangeLog(4096, 0);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int writer = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    log.append("STU" + writer + "-" + i, null, student("STU" + writer + "-" + i, "John Doe"));
+                }
+            }));
+        }
+
+        // When
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // Then
+        List<StudentChangeLog.Entry> entries = log.read(0, 4000);
+        assertEquals(4000, log.getLastSequence());
+        assertEquals(4000, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i + 1, entries.get(i).sequence());
+        }
+        assertEquals(4000, entries.stream().map(StudentChangeLog.Entry::studentNumber).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Should keep subscribers until the feed closes")
+    void testSubscribe() {
+        // When
+        changeFeed.subscribe(null);
+        changeFeed.subscribe(changeLog.getLastSequence());
+
+        // Then
+        assertEquals(2, changeFeed.getSubscriberCount());
+        changeFeed.close();
+        assertEquals(0, changeFeed.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should refuse subscribers beyond the limit until a stream closes")
+    void testSubscribe_LimitExceeded() throws InterruptedException {
+        // Given
+        List<SseEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < MAX_SUBSCRIBERS; i++) {
+            emitters.add(changeFeed.subscribe(null));
+        }
+
+        // When
+        SubscriberLimitExceededException exception = assertThrows(SubscriberLimitExceededException.class,
+                () -> changeFeed.subscribe(null));
+        // The next change fails to reach the completed stream, which then closes
+        emitters.get(0).complete();
+        studentRepository.save(student("STU001", "John Doe"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (changeFeed.getSubscriberCount() == MAX_SUBSCRIBERS && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertTrue(exception.getMessage().contains(String.valueOf(MAX_SUBSCRIBERS)));
+        assertEquals(MAX_SUBSCRIBERS - 1, changeFeed.getSubscriberCount());
+        assertNotNull(changeFeed.subscribe(null));
+        assertThrows(SubscriberLimitExceededException.class, () -> changeFeed.subscribe(null));
+    }
+
+    private static Student student(String studentNumber, String name) {
+        return Student.builder()
+                .studentNumber(studentNumber)
+                .name(name)
+                .address(Student.Address.builder()
+                        .street("123 Main St")
+                        .city("Mumbai")
+                        .state("Maharashtra")
+                        .country("India")
+                        .build())
+                .cgpa(8.5)
+                .backlogs(0)
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build();
+    }
+}
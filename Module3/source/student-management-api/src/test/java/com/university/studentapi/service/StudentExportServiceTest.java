@@ -0,0 +1,113 @@
+package com.university.studentapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.university.studentapi.dto.StudentCreateRequest;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.util.StudentCsvParser;
+import com.university.studentapi.util.StudentCsvWriter;
+import com.university.studentapi.util.StudentMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StudentExportService, run against a real repository
+ */
+@DisplayName("StudentExportService Tests")
+class StudentExportServiceTest {
+
+    private StudentRepository studentRepository;
+    private StudentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new IndexedStudentRepository();
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new StudentExportService(studentRepository, new StudentMapper(), objectMapper);
+
+        studentRepository.save(student("STU003", "Priya Sharma", "Mumbai", 9.2));
+        studentRepository.save(student("STU001", "Rajesh Kumar", "Bangalore", 8.7));
+        studentRepository.save(student("STU002", "Amit \"AP\" Patel, Jr.", "Mumbai", 7.1));
+    }
+
+    @Test
+    @DisplayName("Should write one compact JSON object per line in student number order")
+    void testExportNdjson() throws IOException {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportStudents(null, null, null, StudentDataFormat.NDJSON, out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, written);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"studentNumber\":\"STU001\",\"name\":\"Rajesh Kumar\""));
+        assertTrue(lines.get(1).contains("\"STU002\""));
+        assertTrue(lines.get(2).contains("\"createdDate\":\"2024-03-01T10:15:00\""));
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+    }
+
+    @Test
+    @DisplayName("Should apply the same filters as the student list")
+    void testExportFilters() throws IOException {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportStudents("patel", 7.0, "mumbai", StudentDataFormat.NDJSON, out);
+
+        // Then
+        assertEquals(1, written);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"STU002\""));
+    }
+
+    @Test
+    @DisplayName("Should write CSV that the bulk import parser reads back")
+    void testExportCsvRoundTrip() throws IOException {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportStudents(null, null, "Mumbai", StudentDataFormat.CSV, out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, written);
+        assertEquals(StudentCsvWriter.HEADER, lines.get(0));
+        assertEquals("STU002,\"Amit \"\"AP\"\" Patel, Jr.\",1 Main St,Mumbai,Maharashtra,India,7.1,0,"
+                + "2024-03-01T10:15,2024-03-01T10:15", lines.get(1));
+
+        StudentCsvParser parser = StudentCsvParser.forHeader(lines.get(0));
+        StudentCreateRequest parsed = parser.parse(lines.get(1));
+        assertEquals("Amit \"AP\" Patel, Jr.", parsed.getName());
+        assertEquals(7.1, parsed.getCgpa());
+        assertEquals("STU003", parser.parse(lines.get(2)).getStudentNumber());
+    }
+
+    private static Student student(String studentNumber, String name, String city, double cgpa) {
+        LocalDateTime created = LocalDateTime.of(2024, 3, 1, 10, 15);
+        return Student.builder()
+                .studentNumber(studentNumber)
+                .name(name)
+                .address(Student.Address.builder()
+                        .street("1 Main St")
+                        .city(city)
+                        .state("Maharashtra")
+                        .country("India")
+                        .build())
+                .cgpa(cgpa)
+                .backlogs(0)
+                .createdDate(created)
+                .lastModifiedDate(created)
+                .build();
+    }
+}
@@ -0,0 +1,239 @@
+package com.university.studentapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.university.studentapi.dto.BulkImportResponse;
+import com.university.studentapi.exception.InvalidImportException;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.IndexedStudentRepository;
+import com.university.studentapi.repository.ParallelScanner;
+import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.index.LocationDictionary;
+import com.university.studentapi.repository.persistence.StudentJournal;
+import com.university.studentapi.repository.store.HeapStudentStore;
+import com.university.studentapi.util.StudentMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StudentImportService, run against a real repository
+ */
+@DisplayName("StudentImportService Tests")
+class StudentImportServiceTest {
+
+    private static Validator validator;
+    private static ParallelScanner scanner;
+
+    private StudentRepository studentRepository;
+    private StudentImportService importService;
+
+    @BeforeAll
+    static void createValidatorAndScanner() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        scanner = new ParallelScanner(2, Long.MAX_VALUE);
+    }
+
+    @AfterAll
+    static void closeScanner() {
+        scanner.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = new IndexedStudentRepository();
+        importService = service(2, 10, 200);
+    }
+
+    @Test
+    @DisplayName("Should import valid NDJSON lines and report invalid ones by line number")
+    void testImportNdjson() throws IOException {
+        // Given
+        String body = json("STU001", "Rajesh Kumar", 8.7) + "\n"
+                + "\n"
+                + "{\"studentNumber\": \"STU002\", \"name\": \n"
+                + json("STU003", "Priya Sharma", 11.0) + "\n"
+                + json("STU004", "Amit Patel", 9.1);
+
+        // When
+        BulkImportResponse response = importNdjson(body);
+
+        // Then
+        assertEquals(4, response.getReceived());
+        assertEquals(2, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals(3, response.getErrors().get(0).getLine());
+        assertTrue(response.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(4, response.getErrors().get(1).getLine());
+        assertEquals("STU003", response.getErrors().get(1).getStudentNumber());
+        assertTrue(response.getErrors().get(1).getMessage().contains("cgpa"));
+        assertFalse(response.isErrorsTruncated());
+
+        Student imported = studentRepository.findByStudentNumber("STU004").orElseThrow();
+        assertEquals("Amit Patel", imported.getName());
+        assertNotNull(imported.getCreatedDate());
+        assertEquals(2, studentRepository.findByCity("pune").size());
+    }
+
+    @Test
+    @DisplayName("Should reject student numbers that already exist or repeat within the upload")
+    void testImportDuplicates() throws IOException {
+        // Given
+        importNdjson(json("STU001", "Rajesh Kumar", 8.7));
+        String body = json("STU001", "Someone Else", 7.0) + "\n"
+                + json("STU002", "Priya Sharma", 9.5) + "\n"
+                + json("STU002", "Priya Again", 9.6);
+
+        // When
+        BulkImportResponse response = importNdjson(body);
+
+        // Then
+        assertEquals(1, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals(1, response.getErrors().get(0).getLine());
+        assertEquals(3, response.getErrors().get(1).getLine());
+        assertEquals("Rajesh Kumar", studentRepository.findByStudentNumber("STU001").orElseThrow().getName());
+        assertEquals("Priya Sharma", studentRepository.findByStudentNumber("STU002").orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Should import CSV with reordered, quoted and extra columns")
+    void testImportCsv() throws IOException {
+        // Given
+        String body = "cgpa,Name,studentNumber,street,city,state,country,backlogs,notes\r\n"
+                + "8.5,\"Kumar, Rajesh\",STU001,\"15 \"\"MG\"\" Road\",Bangalore,Karnataka,India,0,x\r\n"
+                + "abc,Priya Sharma,STU002,45 Marine Drive,Mumbai,Maharashtra,India,0,\r\n"
+                + "9.0,,STU003,1 Main St,Pune,Maharashtra,India,1,\r\n";
+
+        // When
+        BulkImportResponse response = importService.importStudents(stream(body), StandardCharsets.UTF_8,
+                StudentDataFormat.CSV);
+
+        // Then
+        assertEquals(3, response.getReceived());
+        assertEquals(1, response.getImported());
+        Student student = studentRepository.findByStudentNumber("STU001").orElseThrow();
+        assertEquals("Kumar, Rajesh", student.getName());
+        assertEquals("15 \"MG\" Road", student.getAddress().getStreet());
+        assertEquals(8.5, student.getCgpa());
+        assertEquals(3, response.getErrors().get(0).getLine());
+        assertEquals("cgpa: 'abc' is not a number", response.getErrors().get(0).getMessage());
+        assertEquals(4, response.getErrors().get(1).getLine());
+        assertTrue(response.getErrors().get(1).getMessage().contains("name: Name is required"));
+    }
+
+    @Test
+    @DisplayName("Should refuse CSV whose header lacks required columns")
+    void testImportCsv_MissingColumns() {
+        // Given
+        String body = "studentNumber,name\nSTU001,Rajesh Kumar\n";
+
+        // When & Then
+        InvalidImportException exception = assertThrows(InvalidImportException.class,
+                () -> importService.importStudents(stream(body), StandardCharsets.UTF_8, StudentDataFormat.CSV));
+        assertTrue(exception.getMessage().contains("street, city, state, country, cgpa, backlogs"));
+    }
+
+    @Test
+    @DisplayName("Should refuse CSV whose header exceeds the line length limit")
+    void testImportCsv_TruncatedHeader() {
+        // Given
+        String body = "studentNumber,name,street,city,state,country,cgpa,backlogs," + "x".repeat(200) + "\n"
+                + "STU001,Rajesh Kumar,1 Main St,Pune,Maharashtra,India,8.7,0\n";
+
+        // When & Then
+        InvalidImportException exception = assertThrows(InvalidImportException.class,
+                () -> importService.importStudents(stream(body), StandardCharsets.UTF_8, StudentDataFormat.CSV));
+        assertEquals("CSV header exceeds 200 characters", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should count every error but list only the configured maximum")
+    void testImportCapsErrors() throws IOException {
+        // Given
+        importService = service(2, 2, 200);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("not json\n");
+        }
+        body.append(json("STU001", "Rajesh Kumar", 8.7));
+
+        // When
+        BulkImportResponse response = importNdjson(body.toString());
+
+        // Then
+        assertEquals(6, response.getReceived());
+        assertEquals(1, response.getImported());
+        assertEquals(5, response.getFailed());
+        assertEquals(2, response.getErrors().size());
+        assertTrue(response.isErrorsTruncated());
+    }
+
+    @Test
+    @DisplayName("Should reject lines longer than the limit without importing them")
+    void testImportRejectsLongLines() throws IOException {
+        // Given
+        String body = json("STU001", "R".repeat(300), 8.7) + "\n" + json("STU002", "Priya Sharma", 9.5);
+
+        // When
+        BulkImportResponse response = importNdjson(body);
+
+        // Then
+        assertEquals(1, response.getImported());
+        assertEquals("Line exceeds 200 characters", response.getErrors().get(0).getMessage());
+        assertTrue(studentRepository.existsByStudentNumber("STU002"));
+    }
+
+    @Test
+    @DisplayName("Should report lines refused by a full location dictionary and import the rest of the batch")
+    void testImportLocationLimit() throws IOException {
+        // Given: Pune, Maharashtra and India fill a dictionary of three locations
+        studentRepository = new IndexedStudentRepository(new HeapStudentStore(), StudentJournal.NONE,
+                ParallelScanner.SEQUENTIAL, new LocationDictionary(3));
+        importService = service(3, 10, 400);
+        String body = json("STU001", "Rajesh Kumar", 8.7) + "\n"
+                + json("STU002", "Priya Sharma", 9.5).replace("Pune", "Delhi") + "\n"
+                + json("STU003", "Amit Patel", 9.1).replace("Pune", "PUNE");
+
+        // When
+        BulkImportResponse response = importNdjson(body);
+
+        // Then
+        assertEquals(3, response.getReceived());
+        assertEquals(2, response.getImported());
+        assertEquals(1, response.getFailed());
+        assertEquals(2, response.getErrors().get(0).getLine());
+        assertEquals("STU002", response.getErrors().get(0).getStudentNumber());
+        assertTrue(response.getErrors().get(0).getMessage().contains("limit of 3 distinct locations"));
+        assertTrue(studentRepository.existsByStudentNumber("STU003"));
+        assertFalse(studentRepository.existsByStudentNumber("STU002"));
+    }
+
+    private StudentImportService service(int batchSize, int maxErrors, int maxLineLength) {
+        return new StudentImportService(studentRepository, new StudentMapper(), validator,
+                new ObjectMapper().findAndRegisterModules(), scanner, batchSize, maxErrors, maxLineLength);
+    }
+
+    private BulkImportResponse importNdjson(String body) throws IOException {
+        return importService.importStudents(stream(body), StandardCharsets.UTF_8, StudentDataFormat.NDJSON);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String json(String studentNumber, String name, double cgpa) {
+        return "{\"studentNumber\":\"" + studentNumber + "\",\"name\":\"" + name + "\","
+                + "\"address\":{\"street\":\"1 Main St\",\"city\":\"Pune\",\"state\":\"Maharashtra\",\"country\":\"India\"},"
+                + "\"cgpa\":" + cgpa + ",\"backlogs\":0}";
+    }
+}
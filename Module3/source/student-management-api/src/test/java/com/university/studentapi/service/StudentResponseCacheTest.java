@@ -0,0 +1,174 @@
+package com.university.studentapi.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.university.studentapi.dto.EncodedStudentResponse;
+import com.university.studentapi.dto.StudentPageResponse;
+import com.university.studentapi.dto.StudentResponse;
+import com.university.studentapi.model.Student;
+import com.university.studentapi.util.StudentMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StudentResponseCache and the encoded responses it serves
+ */
+@DisplayName("StudentResponseCache Tests")
+class StudentResponseCacheTest {
+
+    private final StudentMapper studentMapper = new StudentMapper();
+    private final AtomicInteger mapped = new AtomicInteger();
+    private final Function<Student, StudentResponse> mapper = student -> {
+        mapped.incrementAndGet();
+        return studentMapper.toResponse(student);
+    };
+
+    // Same settings as spring.jackson in application.yml
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+
+    private StudentResponseCache responseCache;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new StudentResponseCache(objectMapper, true, DataSize.ofMegabytes(1));
+        student = student("STU001", "John \"Johnny\" Doe", LocalDateTime.of(2024, 1, 1, 9, 30));
+    }
+
+    @Test
+    @DisplayName("Should serve the cached response while the student is unchanged")
+    void testToResponse_Hit() {
+        // When
+        StudentResponse first = responseCache.toResponse(student, mapper);
+        StudentResponse second = responseCache.toResponse(student.toBuilder().build(), mapper);
+
+        // Then
+        assertInstanceOf(EncodedStudentResponse.class, first);
+        assertSame(first, second);
+        assertEquals(1, mapped.get());
+    }
+
+    @Test
+    @DisplayName("Should map the student again once its version changes or it is invalidated")
+    void testToResponse_NewVersionAndInvalidate() {
+        // Given
+        StudentResponse first = responseCache.toResponse(student, mapper);
+        Student updated = student.toBuilder()
+                .name("Jane Doe")
+                .lastModifiedDate(student.getLastModifiedDate().plusNanos(1))
+                .build();
+
+        // When
+        StudentResponse afterUpdate = responseCache.toResponse(updated, mapper);
+        responseCache.invalidate("STU001");
+        StudentResponse afterInvalidate = responseCache.toResponse(updated, mapper);
+
+        // Then
+        assertEquals("John \"Johnny\" Doe", first.getName());
+        assertEquals("Jane Doe", afterUpdate.getName());
+        assertNotSame(afterUpdate, afterInvalidate);
+        assertEquals(afterUpdate, afterInvalidate);
+        assertEquals(3, mapped.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache students without a version, nor anything when disabled")
+    void testToResponse_Uncached() {
+        // Given
+        Student unversioned = student("STU002", "Jane Doe", null);
+        StudentResponseCache disabled = StudentResponseCache.disabled();
+
+        // When
+        StudentResponse unversionedResponse = responseCache.toResponse(unversioned, mapper);
+        responseCache.toResponse(unversioned, mapper);
+        StudentResponse disabledResponse = disabled.toResponse(student, mapper);
+        disabled.toResponse(student, mapper);
+
+        // Then
+        assertFalse(unversionedResponse instanceof EncodedStudentResponse);
+        assertFalse(disabledResponse instanceof EncodedStudentResponse);
+        assertEquals(4, mapped.get());
+    }
+
+    @Test
+    @DisplayName("Should write pages of cached responses exactly as mapped ones, compact or indented")
+    void testEncodedPage_SameJson() throws Exception {
+        // Given
+        List<Student> students = List.of(student,
+                student("STU002", "Jane Doe", LocalDateTime.of(2024, 2, 1, 10, 0)));
+        StudentPageResponse cached = page(students.stream()
+                .map(s -> responseCache.toResponse(s, mapper)).toList());
+        StudentPageResponse plain = page(students.stream().map(studentMapper::toResponse).toList());
+        ObjectMapper indenting = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+
+        // When & Then
+        assertEquals(objectMapper.writeValueAsString(plain), objectMapper.writeValueAsString(cached));
+        assertArrayEquals(objectMapper.writeValueAsBytes(plain), objectMapper.writeValueAsBytes(cached));
+        assertEquals(objectMapper.writeValueAsString(plain.getContent()),
+                objectMapper.writeValueAsString(cached.getContent()));
+        assertEquals(indenting.writeValueAsString(plain), indenting.writeValueAsString(cached));
+    }
+
+    @Test
+    @DisplayName("Should serialize cached responses field by field in binary encodings")
+    void testEncodedPage_Cbor() throws Exception {
+        // Given
+        StudentResponse cached = responseCache.toResponse(student, mapper);
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json()
+                .factory(new CBORFactory())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+
+        // When
+        byte[] encoded = cbor.writeValueAsBytes(page(List.of(cached)));
+
+        // Then
+        assertArrayEquals(cbor.writeValueAsBytes(page(List.of(studentMapper.toResponse(student)))), encoded);
+        assertEquals(cached, cbor.readValue(encoded, StudentPageResponse.class).getContent().get(0));
+    }
+
+    private static StudentPageResponse page(List<StudentResponse> content) {
+        return StudentPageResponse.builder()
+                .content(content)
+                .page(StudentPageResponse.PageInfo.builder()
+                        .number(0)
+                        .size(20)
+                        .totalElements(content.size())
+                        .totalPages(1)
+                        .build())
+                .build();
+    }
+
+    private static Student student(String studentNumber, String name, LocalDateTime lastModifiedDate) {
+        return Student.builder()
+                .studentNumber(studentNumber)
+                .name(name)
+                .address(Student.Address.builder()
+                        .street("123 Main St")
+                        .city("Mumbai")
+                        .state("Maharashtra")
+                        .country("India")
+                        .build())
+                .cgpa(8.5)
+                .backlogs(0)
+                .createdDate(LocalDateTime.of(2023, 12, 1, 8, 0))
+                .lastModifiedDate(lastModifiedDate)
+                .build();
+    }
+}
@@ -2,23 +2,39 @@ package com.university.studentapi.service;
 
 import com.university.studentapi.dto.*;
 import com.university.studentapi.exception.DuplicateStudentException;
+import com.university.studentapi.exception.InvalidCursorException;
+import com.university.studentapi.exception.PreconditionFailedException;
 import com.university.studentapi.exception.StudentNotFoundException;
 import com.university.studentapi.model.Student;
+import com.university.studentapi.repository.FacetedSearchResult;
+import com.university.studentapi.repository.QueryPlan;
+import com.university.studentapi.repository.QueryResult;
+import com.university.studentapi.repository.StudentFacet;
+import com.university.studentapi.repository.StudentQuery;
 import com.university.studentapi.repository.StudentRepository;
+import com.university.studentapi.repository.StudentSortField;
+import com.university.studentapi.repository.StudentStatisticsAggregator;
+import com.university.studentapi.util.ETags;
+import com.university.studentapi.util.PageCursor;
 import com.university.studentapi.util.StudentMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,6 +50,14 @@ class StudentServiceTest {
     @Mock
     private StudentMapper studentMapper;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private StudentMetrics studentMetrics = new StudentMetrics(meterRegistry);
+
+    @Spy
+    private StudentResponseCache responseCache = StudentResponseCache.disabled();
+
     @InjectMocks
     private StudentService studentService;
 
@@ -91,10 +115,9 @@ class StudentServiceTest {
     @DisplayName("Should create student successfully")
     void testCreateStudent_Success() {
         // Given
-        when(studentRepository.existsByStudentNumber(createRequest.getStudentNumber())).thenReturn(false);
         when(studentMapper.toEntity(createRequest)).thenReturn(testStudent);
-        when(studentRepository.save(any(Student.class))).thenReturn(testStudent);
-        when(studentMapper.toResponse(testStudent)).thenReturn(studentResponse);
+        when(studentRepository.saveIf(any(Student.class), any())).thenReturn(true);
+        when(studentMapper.toResponse(any(Student.class))).thenReturn(studentResponse);
 
         // When
         StudentResponse result = studentService.createStudent(createRequest);
@@ -103,14 +126,17 @@ class StudentServiceTest {
         assertNotNull(result);
         assertEquals("STU001", result.getStudentNumber());
         assertEquals("John Doe", result.getName());
-        verify(studentRepository).save(any(Student.class));
+        verify(studentRepository).saveIf(argThat(student -> "STU001".equals(student.getStudentNumber())),
+                argThat(expected -> expected.test(null) && !expected.test(testStudent)));
+        verify(studentRepository, never()).save(any(Student.class));
     }
 
     @Test
     @DisplayName("Should throw DuplicateStudentException when student already exists")
     void testCreateStudent_DuplicateStudent() {
         // Given
-        when(studentRepository.existsByStudentNumber(createRequest.getStudentNumber())).thenReturn(true);
+        when(studentMapper.toEntity(createRequest)).thenReturn(testStudent);
+        when(studentRepository.saveIf(any(Student.class), any())).thenReturn(false);
 
         // When & Then
         assertThrows(DuplicateStudentException.class, () -> {
@@ -118,6 +144,7 @@ class StudentServiceTest {
         });
 
         verify(studentRepository, never()).save(any(Student.class));
+        verify(responseCache, never()).invalidate(anyString());
     }
 
     @Test
@@ -146,18 +173,48 @@ class StudentServiceTest {
         assertThrows(StudentNotFoundException.class, () -> {
             studentService.getStudentByNumber("STU999");
         });
+        assertEquals(1, meterRegistry.get(StudentMetrics.OPERATION)
+                .tags("operation", "get", "exception", "StudentNotFoundException").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should get found students in request order and list the missing ones")
+    void testGetStudentsByNumbers() {
+        // Given
+        Student other = testStudent.toBuilder().studentNumber("STU002").build();
+        when(studentRepository.findByStudentNumber("STU002")).thenReturn(Optional.of(other));
+        when(studentRepository.findByStudentNumber("STU001")).thenReturn(Optional.of(testStudent));
+        when(studentRepository.findByStudentNumber("STU999")).thenReturn(Optional.empty());
+        when(studentMapper.toResponse(any(Student.class))).thenAnswer(invocation -> StudentResponse.builder()
+                .studentNumber(invocation.<Student>getArgument(0).getStudentNumber())
+                .build());
+
+        // When
+        StudentBatchGetResponse result = studentService.getStudentsByNumbers(
+                List.of("STU002", "STU999", "STU001", "STU002"));
+
+        // Then
+        assertEquals(List.of("STU002", "STU001"), result.getStudents().stream()
+                .map(StudentResponse::getStudentNumber)
+                .toList());
+        assertEquals(List.of("STU999"), result.getMissing());
+        verify(studentRepository, times(1)).findByStudentNumber("STU002");
+        assertEquals(3, meterRegistry.get(StudentMetrics.ROWS_EXAMINED)
+                .tag("operation", "batch-get").summary().totalAmount());
+        assertEquals(2, meterRegistry.get(StudentMetrics.ROWS_RETURNED)
+                .tag("operation", "batch-get").summary().totalAmount());
     }
 
     @Test
     @DisplayName("Should get all students with pagination")
     void testGetAllStudents() {
         // Given
-        List<Student> students = Arrays.asList(testStudent);
-        when(studentRepository.findAll()).thenReturn(students);
+        QueryResult found = result(null, testStudent);
+        when(studentRepository.query(any(StudentQuery.class))).thenReturn(found);
         when(studentMapper.toResponse(any(Student.class))).thenReturn(studentResponse);
 
         // When
-        StudentPageResponse result = studentService.getAllStudents(0, 20, null, null, null, "studentNumber", "asc");
+        StudentPageResponse result = studentService.getAllStudents(0, 20, null, null, null, "studentNumber", "asc", null);
 
         // Then
         assertNotNull(result);
@@ -168,19 +225,188 @@ class StudentServiceTest {
     }
 
     @Test
-    @DisplayName("Should filter students by name")
+    @DisplayName("Should record rows examined and returned, sort time and mapping time of a list query")
+    void testGetAllStudents_RecordsQueryMetrics() {
+        // Given
+        QueryPlan plan = mock(QueryPlan.class);
+        when(plan.explain()).thenReturn("full scan");
+        QueryResult found = new QueryResult(plan, List.of(testStudent), 5, 2_000);
+        when(studentRepository.query(any(StudentQuery.class))).thenReturn(found);
+        when(studentMapper.toResponse(any(Student.class))).thenReturn(studentResponse);
+
+        // When
+        studentService.getAllStudents(0, 20, null, null, null, "createdDate", "asc", null);
+
+        // Then
+        assertEquals(5, meterRegistry.get(StudentMetrics.ROWS_EXAMINED).tag("operation", "list").summary().totalAmount());
+        assertEquals(1, meterRegistry.get(StudentMetrics.ROWS_RETURNED).tag("operation", "list").summary().totalAmount());
+        assertEquals(2_000, meterRegistry.get(StudentMetrics.SORT).tag("operation", "list").timer()
+                .totalTime(TimeUnit.NANOSECONDS));
+        assertEquals(1, meterRegistry.get(StudentMetrics.MAPPING).tag("operation", "list").timer().count());
+        assertEquals(1, meterRegistry.get(StudentMetrics.OPERATION)
+                .tags("operation", "list", "exception", "none").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should pass the filters and sort field to the query planner")
     void testGetAllStudents_FilterByName() {
         // Given
-        List<Student> students = Arrays.asList(testStudent);
-        when(studentRepository.findAll()).thenReturn(students);
+        QueryResult found = result(null, testStudent);
+        when(studentRepository.query(any(StudentQuery.class))).thenReturn(found);
         when(studentMapper.toResponse(any(Student.class))).thenReturn(studentResponse);
 
         // When
-        StudentPageResponse result = studentService.getAllStudents(0, 20, "John", null, null, "studentNumber", "asc");
+        StudentPageResponse result = studentService.getAllStudents(0, 20, "John", 8.0, "Mumbai", "name", "asc", null);
 
         // Then
-        assertNotNull(result);
         assertEquals(1, result.getContent().size());
+        verify(studentRepository).query(StudentQuery.builder()
+                .name("John")
+                .minCgpa(8.0)
+                .city("Mumbai")
+                .orderBy(StudentSortField.NAME)
+                .build());
+        verify(studentRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should reverse the repository's ascending order for descending sorts")
+    void testGetAllStudents_SortByCgpaDescending() {
+        // Given
+        Student student2 = Student.builder()
+                .studentNumber("STU002")
+                .name("Jane Smith")
+                .address(testStudent.getAddress())
+                .cgpa(9.5)
+                .backlogs(1)
+                .build();
+        QueryResult found = result(StudentSortField.CGPA, testStudent, student2);
+        when(studentRepository.query(any(StudentQuery.class))).thenReturn(found);
+        when(studentMapper.toResponse(any(Student.class)))
+                .thenAnswer(invocation -> StudentResponse.builder()
+                        .studentNumber(invocation.getArgument(0, Student.class).getStudentNumber())
+                        .build());
+
+        // When
+        Explained<StudentPageResponse> result =
+                studentService.getAllStudentsExplained(0, 20, null, null, null, "cgpa", "desc", null);
+
+        // Then
+        assertEquals("STU002", result.getContent().getContent().get(0).getStudentNumber());
+        assertEquals("STU001", result.getContent().getContent().get(1).getStudentNumber());
+        assertEquals("ordered scan CGPA", result.getPlan());
+        assertEquals(2, result.getRowsExamined());
+    }
+
+    @Test
+    @DisplayName("Should ask the repository for the top k by the requested field and record the query")
+    void testGetTopStudents() {
+        // Given
+        QueryPlan plan = mock(QueryPlan.class);
+        when(plan.explain()).thenReturn("top 5 CGPA (bounded heap) of index city = 'Mumbai' (~40 rows)");
+        when(studentRepository.findTop(any(StudentQuery.class), eq(StudentSortField.CGPA), eq(5)))
+                .thenReturn(new QueryResult(plan, List.of(testStudent), 40, 3_000));
+        when(studentMapper.toResponse(testStudent)).thenReturn(studentResponse);
+
+        // When
+        Explained<List<StudentResponse>> result = studentService.getTopStudentsExplained("cgpa", 5, "Mumbai");
+
+        // Then
+        assertEquals(List.of(studentResponse), result.getContent());
+        assertEquals(40, result.getRowsExamined());
+        verify(studentRepository).findTop(StudentQuery.builder().city("Mumbai").build(), StudentSortField.CGPA, 5);
+        assertEquals(40, meterRegistry.get(StudentMetrics.ROWS_EXAMINED).tag("operation", "top").summary().totalAmount());
+        assertEquals(1, meterRegistry.get(StudentMetrics.OPERATION)
+                .tags("operation", "top", "exception", "none").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should pass facet selections through and order facet counts for display")
+    void testFacetedSearch() {
+        // Given
+        Map<StudentFacet, Map<String, Long>> counts = new EnumMap<>(StudentFacet.class);
+        counts.put(StudentFacet.CITY, Map.of("Mumbai", 3L, "Pune", 7L, "Delhi", 0L));
+        counts.put(StudentFacet.STATE, Map.of("Maharashtra", 10L));
+        counts.put(StudentFacet.COUNTRY, Map.of("India", 10L));
+        counts.put(StudentFacet.BACKLOGS, Map.of("0", 4L, "3+", 6L));
+        counts.put(StudentFacet.CGPA, Map.of("8-9", 10L));
+        when(studentRepository.facetedSearch(eq("john"), any(), eq(20), eq(10)))
+                .thenReturn(new FacetedSearchResult(25, List.of(testStudent), counts));
+        when(studentMapper.toResponse(testStudent)).thenReturn(studentResponse);
+
+        // When
+        StudentFacetedSearchResponse result = studentService.facetedSearch("john",
+                List.of("Mumbai", "Pune"), null, null, List.of("3+"), null, 2, 10);
+
+        // Then
+        assertEquals(List.of(studentResponse), result.getContent());
+        assertEquals(25, result.getPage().getTotalElements());
+        assertEquals(3, result.getPage().getTotalPages());
+        assertEquals(List.of("city", "state", "country", "backlogs", "cgpa"), List.copyOf(result.getFacets().keySet()));
+        assertEquals(List.of(new StudentFacetedSearchResponse.FacetCount("Pune", 7),
+                new StudentFacetedSearchResponse.FacetCount("Mumbai", 3)), result.getFacets().get("city"));
+        assertEquals(List.of("0", "1", "2", "3+"),
+                result.getFacets().get("backlogs").stream().map(StudentFacetedSearchResponse.FacetCount::getValue).toList());
+        assertEquals(List.of(4L, 0L, 0L, 6L),
+                result.getFacets().get("backlogs").stream().map(StudentFacetedSearchResponse.FacetCount::getCount).toList());
+
+        Map<StudentFacet, Set<String>> selections = new EnumMap<>(StudentFacet.class);
+        selections.put(StudentFacet.CITY, Set.of("Mumbai", "Pune"));
+        selections.put(StudentFacet.STATE, null);
+        selections.put(StudentFacet.COUNTRY, null);
+        selections.put(StudentFacet.BACKLOGS, Set.of("3+"));
+        selections.put(StudentFacet.CGPA, null);
+        verify(studentRepository).facetedSearch("john", selections, 20, 10);
+        assertEquals(1, meterRegistry.get(StudentMetrics.OPERATION)
+                .tags("operation", "facets", "exception", "none").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should resume from a cursor issued by the previous page")
+    void testGetAllStudents_CursorPagination() {
+        // Given
+        Student student2 = Student.builder()
+                .studentNumber("STU002")
+                .name("Jane Smith")
+                .address(testStudent.getAddress())
+                .cgpa(9.5)
+                .backlogs(1)
+                .build();
+        QueryPlan resumed = mock(QueryPlan.class);
+        QueryResult found = result(StudentSortField.STUDENT_NUMBER, testStudent, student2);
+        when(studentRepository.query(any(StudentQuery.class))).thenReturn(found);
+        when(studentRepository.planOrderedAfter(any(StudentQuery.class), eq(StudentSortField.STUDENT_NUMBER),
+                eq(false), eq("STU001"), eq("STU001"))).thenReturn(resumed);
+        when(studentRepository.execute(eq(resumed), any())).thenAnswer(invocation -> {
+            invocation.<Predicate<Student>>getArgument(1).test(student2);
+            return 1L;
+        });
+        when(studentMapper.toResponse(any(Student.class))).thenReturn(studentResponse);
+
+        // When
+        StudentPageResponse first = studentService.getAllStudents(0, 1, null, null, null, "studentNumber", "asc", null);
+        StudentPageResponse second = studentService.getAllStudents(0, 1, null, null, null, "studentNumber", "asc",
+                first.getNextCursor());
+
+        // Then
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getContent().size());
+        assertNull(second.getNextCursor());
+        assertNull(second.getPage());
+        verify(studentRepository, times(1)).query(any(StudentQuery.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for a different sort order")
+    void testGetAllStudents_CursorSortMismatch() {
+        // Given
+        String cursor = PageCursor.after(testStudent, StudentSortField.CGPA, true).encode();
+
+        // When & Then
+        assertThrows(InvalidCursorException.class, () ->
+                studentService.getAllStudents(0, 20, null, null, null, "name", "asc", cursor));
+        assertThrows(InvalidCursorException.class, () ->
+                studentService.getAllStudents(0, 20, null, null, null, "cgpa", "desc", "not-a-cursor"));
     }
 
     @Test
@@ -193,43 +419,111 @@ class StudentServiceTest {
                 .build();
 
         when(studentRepository.findByStudentNumber("STU001")).thenReturn(Optional.of(testStudent));
-        when(studentRepository.save(any(Student.class))).thenReturn(testStudent);
-        when(studentMapper.toResponse(testStudent)).thenReturn(studentResponse);
+        when(studentRepository.saveIf(any(Student.class), any())).thenReturn(true);
+        when(studentMapper.toResponse(any(Student.class))).thenReturn(studentResponse);
+        doCallRealMethod().when(studentMapper).updateEntity(any(), any());
 
         // When
         StudentResponse result = studentService.updateStudent("STU001", updateRequest);
 
         // Then
         assertNotNull(result);
-        verify(studentMapper).updateEntity(updateRequest, testStudent);
-        verify(studentRepository).save(testStudent);
+        verify(studentRepository).saveIf(argThat(student -> "Jane Doe".equals(student.getName())), any());
+        verify(studentRepository, never()).save(any());
+        verify(responseCache).invalidate("STU001");
+        // The stored snapshot itself is never modified
+        assertEquals("John Doe", testStudent.getName());
+    }
+
+    @Test
+    @DisplayName("Should reapply an update to the latest snapshot after losing a race")
+    void testUpdateStudent_RetriesAfterConcurrentUpdate() {
+        // Given
+        Student concurrent = testStudent.toBuilder().backlogs(3).lastModifiedDate(LocalDateTime.now()).build();
+        StudentUpdateRequest updateRequest = StudentUpdateRequest.builder().cgpa(9.0).build();
+        when(studentRepository.findByStudentNumber("STU001"))
+                .thenReturn(Optional.of(testStudent))
+                .thenReturn(Optional.of(concurrent));
+        when(studentRepository.saveIf(any(Student.class), any())).thenReturn(false, true);
+        when(studentMapper.toResponse(any(Student.class))).thenReturn(studentResponse);
+        doCallRealMethod().when(studentMapper).updateEntity(any(), any());
+
+        // When
+        studentService.partialUpdateStudent("STU001", updateRequest);
+
+        // Then
+        verify(studentRepository, times(2)).saveIf(any(Student.class), any());
+        verify(studentRepository).saveIf(argThat(student ->
+                student.getBacklogs() == 3 && student.getCgpa() == 9.0
+                        && student.getLastModifiedDate().isAfter(concurrent.getLastModifiedDate())), any());
+    }
+
+    @Test
+    @DisplayName("Should save a new snapshot conditionally when If-Match matches the current ETag")
+    void testUpdateStudent_IfMatch() {
+        // Given
+        LocalDateTime version = LocalDateTime.of(2024, 1, 1, 10, 0);
+        testStudent = testStudent.toBuilder().lastModifiedDate(version).build();
+        StudentUpdateRequest updateRequest = StudentUpdateRequest.builder().cgpa(9.0).build();
+        when(studentRepository.findByStudentNumber("STU001")).thenReturn(Optional.of(testStudent));
+        when(studentRepository.saveIf(any(Student.class), any())).thenAnswer(invocation ->
+                invocation.<Predicate<Student>>getArgument(1).test(testStudent));
+        when(studentMapper.toResponse(any(Student.class))).thenReturn(studentResponse);
+        doCallRealMethod().when(studentMapper).updateEntity(any(), any());
+
+        // When
+        studentService.updateStudent("STU001", updateRequest, "\"other\", " + ETags.ofStudent(version));
+
+        // Then
+        verify(studentRepository).saveIf(argThat(student -> student != testStudent && student.getCgpa() == 9.0
+                && student.getLastModifiedDate().isAfter(version)), any());
+        verify(studentRepository, never()).save(any());
+        assertEquals(version, testStudent.getLastModifiedDate());
+    }
+
+    @Test
+    @DisplayName("Should reject an update whose If-Match is stale or weak")
+    void testUpdateStudent_IfMatchStale() {
+        // Given
+        LocalDateTime version = LocalDateTime.of(2024, 1, 1, 10, 0);
+        testStudent = testStudent.toBuilder().lastModifiedDate(version).build();
+        StudentUpdateRequest updateRequest = StudentUpdateRequest.builder().cgpa(9.0).build();
+        when(studentRepository.findByStudentNumber("STU001")).thenReturn(Optional.of(testStudent));
+
+        // When & Then
+        assertThrows(PreconditionFailedException.class, () ->
+                studentService.updateStudent("STU001", updateRequest, ETags.ofStudent(version.minusSeconds(1))));
+        assertThrows(PreconditionFailedException.class, () ->
+                studentService.partialUpdateStudent("STU001", updateRequest, "W/" + ETags.ofStudent(version)));
+        verify(studentRepository, never()).saveIf(any(), any());
     }
 
     @Test
     @DisplayName("Should delete student successfully")
     void testDeleteStudent_Success() {
         // Given
-        when(studentRepository.existsByStudentNumber("STU001")).thenReturn(true);
+        when(studentRepository.deleteByStudentNumber("STU001")).thenReturn(true);
 
         // When
         studentService.deleteStudent("STU001");
 
         // Then
         verify(studentRepository).deleteByStudentNumber("STU001");
+        verify(responseCache).invalidate("STU001");
     }
 
     @Test
     @DisplayName("Should throw exception when deleting non-existent student")
     void testDeleteStudent_NotFound() {
         // Given
-        when(studentRepository.existsByStudentNumber("STU999")).thenReturn(false);
+        when(studentRepository.deleteByStudentNumber("STU999")).thenReturn(false);
 
         // When & Then
         assertThrows(StudentNotFoundException.class, () -> {
             studentService.deleteStudent("STU999");
         });
 
-        verify(studentRepository, never()).deleteByStudentNumber(anyString());
+        verify(responseCache, never()).invalidate(anyString());
     }
 
     @Test
@@ -246,7 +540,8 @@ class StudentServiceTest {
                 .lastModifiedDate(LocalDateTime.now())
                 .build();
 
-        when(studentRepository.findAll()).thenReturn(Arrays.asList(testStudent, student2));
+        when(studentRepository.getStatistics())
+                .thenReturn(StudentStatisticsAggregator.scan(Arrays.asList(testStudent, student2)));
 
         // When
         StudentStatistics stats = studentService.getStatistics();
@@ -258,13 +553,16 @@ class StudentServiceTest {
         assertEquals(1, stats.getStudentsWithNoBacklogs());
         assertEquals(1, stats.getStudentsWithBacklogs());
         assertEquals(1, stats.getTopPerformers());
+        assertEquals(2L, stats.getCityDistribution().get("Mumbai"));
+        verify(studentRepository, never()).findAll();
     }
 
     @Test
     @DisplayName("Should handle empty statistics")
     void testGetStatistics_EmptyRepository() {
         // Given
-        when(studentRepository.findAll()).thenReturn(Collections.emptyList());
+        when(studentRepository.getStatistics())
+                .thenReturn(StudentStatisticsAggregator.scan(Collections.emptyList()));
 
         // When
         StudentStatistics stats = studentService.getStatistics();
@@ -274,4 +572,11 @@ class StudentServiceTest {
         assertEquals(0, stats.getTotalStudents());
         assertEquals(0.0, stats.getAverageCgpa());
     }
+
+    private static QueryResult result(StudentSortField order, Student... students) {
+        QueryPlan plan = mock(QueryPlan.class);
+        lenient().when(plan.getOrder()).thenReturn(order);
+        lenient().when(plan.explain()).thenReturn(order != null ? "ordered scan " + order : "full scan");
+        return new QueryResult(plan, new ArrayList<>(Arrays.asList(students)), students.length, 0);
+    }
 }